@@ -1,5 +1,8 @@
 package com.industrial.digitaltwin.alertanalytics.config;
 
+import com.industrial.digitaltwin.alertanalytics.websocket.SlowConsumerPolicy;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -8,6 +11,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Component
 @ConfigurationProperties(prefix = "app.alert-analytics")
@@ -24,14 +29,42 @@ public class AlertAnalyticsProperties {
     @NestedConfigurationProperty
     private NotificationProperties notification = new NotificationProperties();
 
+    @NestedConfigurationProperty
+    private WebSocketProperties websocket = new WebSocketProperties();
+
+    @NestedConfigurationProperty
+    private StreamingProperties streaming = new StreamingProperties();
+
+    @NestedConfigurationProperty
+    private KafkaConsumerProperties kafkaConsumers = new KafkaConsumerProperties();
+
+    @NestedConfigurationProperty
+    private HistoricalDataProperties historicalData = new HistoricalDataProperties();
+
     @Data
     public static class AlertProcessingProperties {
         @NotNull
         private Duration deduplicationWindow = Duration.ofMinutes(5); // 5 minutes for duplicate filtering
+        @Min(1)
+        private int deduplicationMaxEntries = 100_000; // Hard bound on tracked machine/type keys
         @NotNull
         private Duration correlationWindow = Duration.ofMinutes(10);   // 10 minutes for related alert grouping
+        @Min(1)
+        private int correlationBuckets = 60;   // Ring buckets per machine; window / buckets = expiry granularity
         @NotNull
         private Duration criticalThreshold = Duration.ofMinutes(2);     // Max time before escalation
+        @NotNull
+        private Duration incidentFlushInterval = Duration.ofSeconds(30); // Write open incidents back to alerts
+        @NotNull
+        private Duration incidentIdleTimeout = Duration.ofMinutes(5);    // Close incidents with no new anomalies
+
+        // An incident opened by an alert must outlive that alert's deduplication window, or repeats
+        // arriving after the incident closed would be dropped as duplicates instead of opening a new one
+        @AssertTrue(message = "incident-idle-timeout must not be shorter than deduplication-window")
+        public boolean isIncidentIdleTimeoutCoveringDeduplicationWindow() {
+            return incidentIdleTimeout == null || deduplicationWindow == null
+                    || incidentIdleTimeout.compareTo(deduplicationWindow) >= 0;
+        }
     }
 
     @Data
@@ -42,6 +75,13 @@ public class AlertAnalyticsProperties {
         private Duration reportingInterval = Duration.ofHours(1);    // Generate reports every hour
         @NotNull
         private Duration retentionPeriod = Duration.ofDays(30);      // Keep analytics data for 30 days
+        @Min(2)
+        private int windowSize = 1000;         // Recent readings kept per machine for metrics
+        @NotNull
+        private Duration publishInterval = Duration.ofSeconds(10); // Max time between reports of a machine
+        @NotNull
+        private Duration minPublishInterval = Duration.ofSeconds(1); // Min time between reports, even on change
+        private double publishChangeThreshold = 0.05; // Relative change of a metric that publishes early
     }
 
     @Data
@@ -49,5 +89,92 @@ public class AlertAnalyticsProperties {
         @NotNull
         private Duration criticalDelay = Duration.ofSeconds(30);       // Delay before escalating critical alerts
         private int retryAttempts = 3;         // Number of notification retry attempts
+        @Min(1)
+        private int queueCapacity = 1000;      // Pending deliveries per channel
+        @Min(1)
+        private int workerThreads = 2;         // Delivery threads per channel
+        @NotNull
+        private Duration initialBackoff = Duration.ofSeconds(1); // Doubled after each failed attempt
+        @NotNull
+        private Duration maxBackoff = Duration.ofMinutes(1);
+        @Min(1)
+        private int logBatchSize = 100;        // notification_logs rows per insert batch
+        @NotNull
+        private Duration logFlushInterval = Duration.ofSeconds(1);
+        @NotNull
+        private Duration shutdownTimeout = Duration.ofSeconds(10); // Time to drain queues on shutdown
+        private boolean digestEnabled = true;  // Combine non-critical alerts per channel and recipient
+        @NotNull
+        private Duration digestWindow = Duration.ofMinutes(5);
+        @NotNull
+        private Duration digestCheckInterval = Duration.ofSeconds(1);
+        @Min(1)
+        private int rateLimitPerMinute = 30;   // Sustained messages per channel
+        @Min(1)
+        private int rateLimitBurst = 10;       // Messages a channel may send back to back
+    }
+
+    @Data
+    public static class WebSocketProperties {
+        @Min(1)
+        private int sendQueueCapacity = 256;   // Frames buffered per session
+        @NotNull
+        private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.DROP_OLDEST;
+        @Min(1)
+        private int writerThreads = 2;         // Threads writing to WebSocket sessions
+    }
+
+    @Data
+    public static class StreamingProperties {
+        @Min(1)
+        private int maxUpdatesPerSecond = 4;   // SSE and long-poll delivery ticks per second
+        @Min(1)
+        private int logCapacity = 2000;        // Recent updates retained for streaming clients
+        @NotNull
+        private Duration sseTimeout = Duration.ofMinutes(30);      // Clients reconnect with Last-Event-ID
+        @NotNull
+        private Duration longPollTimeout = Duration.ofSeconds(25);
+        @Min(1)
+        private int senderThreads = 2;
+    }
+
+    @Data
+    public static class KafkaConsumerProperties {
+        @NotNull
+        private ConsumerProfile profile = ConsumerProfile.LOW_LATENCY; // low-latency or bulk
+        @Min(1)
+        private int maxConcurrency = 4;        // Cap for listeners whose concurrency follows the partition count
+        private boolean validatePartitions = true; // Look up partition counts at startup
+        @NotNull
+        private Map<String, ListenerProperties> listeners = new HashMap<>(); // Keyed by @KafkaListener id
+    }
+
+    @Data
+    public static class ListenerProperties {
+        @Min(1)
+        private Integer concurrency;           // Unset = one consumer per partition, up to max-concurrency
+        private ConsumerProfile profile;       // Unset = module profile
+        @Min(1)
+        private Integer maxPollRecords;
+        @Min(1)
+        private Integer fetchMinBytes;
+        @Min(0)
+        private Integer fetchMaxWaitMs;
+    }
+
+    @Data
+    public static class HistoricalDataProperties {
+        @Min(1)
+        private int bufferCapacity = 200_000;  // Rows waiting to be written; consumers block when full
+        @Min(1)
+        private int batchSize = 5_000;         // Rows per COPY
+        @Min(1)
+        private int writerThreads = 2;         // Concurrent COPY statements, each on its own connection
+        @NotNull
+        private Duration flushInterval = Duration.ofMillis(500); // Max time a row waits for a full batch
+        @NotNull
+        private Duration enqueueTimeout = Duration.ofSeconds(5); // Max consumer wait on a full buffer before dropping
+        @Min(1)
+        private int maxFlushAttempts = 3;      // A batch is dropped after this many failed writes
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.industrial.digitaltwin.alertanalytics.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+
+import java.util.Properties;
+
+/**
+ * Fetch and poll sizing shared by the Kafka listeners; individual listeners may override single
+ * settings under {@code app.alert-analytics.kafka-consumers.listeners.<id>}.
+ */
+public enum ConsumerProfile {
+
+    // Small polls, answer fetches as soon as any data is available
+    LOW_LATENCY(100, 1, 10, 1024 * 1024),
+    // Large polls; the broker waits to fill fetches before answering
+    BULK(1000, 64 * 1024, 200, 4 * 1024 * 1024);
+
+    private final int maxPollRecords;
+    private final int fetchMinBytes;
+    private final int fetchMaxWaitMs;
+    private final int maxPartitionFetchBytes;
+
+    ConsumerProfile(int maxPollRecords, int fetchMinBytes, int fetchMaxWaitMs, int maxPartitionFetchBytes) {
+        this.maxPollRecords = maxPollRecords;
+        this.fetchMinBytes = fetchMinBytes;
+        this.fetchMaxWaitMs = fetchMaxWaitMs;
+        this.maxPartitionFetchBytes = maxPartitionFetchBytes;
+    }
+
+    public void applyTo(Properties props) {
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(maxPollRecords));
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, Integer.toString(fetchMinBytes));
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, Integer.toString(fetchMaxWaitMs));
+        props.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, Integer.toString(maxPartitionFetchBytes));
+    }
+}
@@ -1,9 +1,11 @@
 package com.industrial.digitaltwin.alertanalytics.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +14,7 @@ import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
@@ -23,9 +26,18 @@ import java.util.Map;
 @Configuration
 public class KafkaConfig {
 
+    // Device timestamp (epoch millis) that digital-twin carries on derived records
+    public static final String TELEMETRY_TIMESTAMP_HEADER = "telemetry-timestamp";
+
     @Value("${kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Autowired
+    private AlertAnalyticsProperties alertAnalyticsProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // Consumer Configuration
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
@@ -48,7 +60,10 @@ public class KafkaConfig {
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         
-        return new DefaultKafkaConsumerFactory<>(props);
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(props);
+        // Binds client metrics per consumer, including per-partition records-lag gauges
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -56,8 +71,15 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setContainerCustomizer(listenerTuningCustomizer());
         return factory;
     }
+
+    @Bean
+    public ListenerTuningCustomizer listenerTuningCustomizer() {
+        return new ListenerTuningCustomizer(alertAnalyticsProperties.getKafkaConsumers(),
+                new TopicPartitionCounter(bootstrapServers));
+    }
     
     // Producer Configuration
     @Bean
@@ -1,40 +1,61 @@
 package com.industrial.digitaltwin.alertanalytics.config;
 
+import java.time.Duration;
 import java.util.Properties;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
+import com.industrial.digitaltwin.alertanalytics.service.SmtpConnectionPool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class MailConfig {
 
     @Bean
     @ConditionalOnProperty(name = "notification.channels.email.enabled", havingValue = "true", matchIfMissing = true)
-    public JavaMailSender javaMailSender(
+    public JavaMailSenderImpl javaMailSender(
             @Value("${notification.channels.email.smtp-host:smtp.gmail.com}") String host,
             @Value("${notification.channels.email.smtp-port:587}") int port,
             @Value("${notification.channels.email.username:}") String username,
-            @Value("${notification.channels.email.password:}") String password) {
+            @Value("${notification.channels.email.password:}") String password,
+            @Value("${notification.channels.email.starttls-enabled:true}") boolean starttls,
+            @Value("${notification.channels.email.debug:false}") boolean debug) {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        
+
         mailSender.setHost(host);
         mailSender.setPort(port);
         mailSender.setUsername(username);
         mailSender.setPassword(password);
-        
+
         Properties props = mailSender.getJavaMailProperties();
         props.put("mail.transport.protocol", "smtp");
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.starttls.required", "true");
+        props.put("mail.smtp.auth", String.valueOf(!username.isBlank()));
+        props.put("mail.smtp.starttls.enable", String.valueOf(starttls));
+        props.put("mail.smtp.starttls.required", String.valueOf(starttls));
         props.put("mail.smtp.ssl.protocols", "TLSv1.2");
-        props.put("mail.smtp.ssl.trust", "smtp.gmail.com");
-        props.put("mail.debug", "true");  // Enable debug to help troubleshoot issues
-        
+        props.put("mail.smtp.ssl.trust", host);
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "10000");
+        props.put("mail.debug", String.valueOf(debug));  // Logs the SMTP dialogue to help troubleshoot issues
+
         return mailSender;
     }
-}
\ No newline at end of file
+
+    @Bean
+    @ConditionalOnProperty(name = "notification.channels.email.enabled", havingValue = "true", matchIfMissing = true)
+    public SmtpConnectionPool smtpConnectionPool(
+            JavaMailSenderImpl javaMailSender,
+            @Value("${notification.channels.email.pool-size:2}") int poolSize,
+            @Value("${notification.channels.email.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${notification.channels.email.idle-timeout:60s}") Duration idleTimeout,
+            MeterRegistry meterRegistry) {
+        return new SmtpConnectionPool(javaMailSender.getSession(), javaMailSender.getHost(), javaMailSender.getPort(),
+                javaMailSender.getUsername(), javaMailSender.getPassword(), poolSize, maxMessagesPerConnection,
+                idleTimeout, meterRegistry);
+    }
+}
@@ -12,12 +12,18 @@ import com.industrial.digitaltwin.alertanalytics.service.ReportGenerationService
 import com.industrial.digitaltwin.alertanalytics.service.ReplayEngine;
 import com.industrial.digitaltwin.alertanalytics.service.HistoricalStateService;
 import com.industrial.digitaltwin.alertanalytics.model.MachineTelemetry;
+import com.industrial.digitaltwin.alertanalytics.stream.StreamFilter;
+import com.industrial.digitaltwin.alertanalytics.stream.UpdateStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api")
@@ -32,6 +38,26 @@ public class AlertAnalyticsController {
     @Autowired
     private ReportGenerationService reportGenerationService;
 
+    @Autowired
+    private UpdateStreamService updateStreamService;
+
+    // Streaming Endpoints (fallback for clients that cannot open WebSockets)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUpdates(
+            @RequestParam(required = false) Set<String> machineIds,
+            @RequestParam(required = false) Set<String> updateTypes,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return updateStreamService.openStream(StreamFilter.of(machineIds, updateTypes), lastEventId);
+    }
+
+    @GetMapping("/stream/poll")
+    public DeferredResult<ResponseEntity<String>> pollUpdates(
+            @RequestParam(required = false) Set<String> machineIds,
+            @RequestParam(required = false) Set<String> updateTypes,
+            @RequestParam(defaultValue = "0") long since) {
+        return updateStreamService.poll(StreamFilter.of(machineIds, updateTypes), since);
+    }
+
     // Alert Management Endpoints
     @GetMapping("/alerts")
     public ResponseEntity<List<AlertEvent>> getAllAlerts(
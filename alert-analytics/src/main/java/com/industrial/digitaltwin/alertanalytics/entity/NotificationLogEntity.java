@@ -42,7 +42,7 @@ public class NotificationLogEntity {
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
-    private NotificationStatus status; // SENT, FAILED, DELIVERED
+    private NotificationStatus status; // QUEUED, SENT, FAILED, DELIVERED
 
     @Column(name = "sent_time", nullable = false)
     private Instant sentTime;
@@ -0,0 +1,26 @@
+package com.industrial.digitaltwin.alertanalytics.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChannelStatistics {
+    
+    @JsonProperty("type")
+    private String type; // e.g., "temperature", "vibration", "load"
+    
+    @JsonProperty("min")
+    private double min;
+    
+    @JsonProperty("max")
+    private double max;
+    
+    @JsonProperty("standardDeviation")
+    private double standardDeviation; // Sample standard deviation over the window
+}
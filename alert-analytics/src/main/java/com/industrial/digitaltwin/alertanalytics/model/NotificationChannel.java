@@ -4,4 +4,9 @@ public interface NotificationChannel {
     void sendNotification(AlertEvent alert);
     boolean isAvailable();
     NotificationType getType();
+
+    // Logged with each delivery
+    default String getRecipient() {
+        return "maintenance-team";
+    }
 }
\ No newline at end of file
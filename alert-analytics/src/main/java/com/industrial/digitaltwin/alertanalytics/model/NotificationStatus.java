@@ -4,5 +4,6 @@ public enum NotificationStatus {
     SENT,
     FAILED,
     DELIVERED,
-    PENDING
+    PENDING,
+    QUEUED
 }
\ No newline at end of file
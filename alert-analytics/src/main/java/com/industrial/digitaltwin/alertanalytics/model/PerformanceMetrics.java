@@ -45,4 +45,7 @@ public class PerformanceMetrics {
     
     @JsonProperty("trends")
     private List<Trend> trends; // Historical trend data
+    
+    @JsonProperty("statistics")
+    private List<ChannelStatistics> statistics; // Spread of each channel over the window
 }
\ No newline at end of file
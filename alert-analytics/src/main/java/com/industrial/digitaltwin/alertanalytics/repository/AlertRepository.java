@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,6 +29,8 @@ public interface AlertRepository extends JpaRepository<AlertEntity, Long> {
     @Query("SELECT a FROM AlertEntity a WHERE a.alertId = :alertId")
     java.util.Optional<AlertEntity> findByAlertId(String alertId);
     
+    List<AlertEntity> findByAlertIdIn(Collection<String> alertIds);
+    
     @Query("SELECT a FROM AlertEntity a WHERE a.machineId = :machineId AND a.timestamp > :since ORDER BY a.timestamp DESC")
     List<AlertEntity> findByMachineIdAndTimestampAfter(String machineId, Instant since);
     
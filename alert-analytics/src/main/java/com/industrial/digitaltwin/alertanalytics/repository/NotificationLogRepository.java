@@ -1,6 +1,7 @@
 package com.industrial.digitaltwin.alertanalytics.repository;
 
 import com.industrial.digitaltwin.alertanalytics.entity.NotificationLogEntity;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -16,6 +17,8 @@ public interface NotificationLogRepository extends JpaRepository<NotificationLog
     List<NotificationLogEntity> findByNotificationType(String notificationType);
     
     List<NotificationLogEntity> findByStatus(String status);
+
+    List<NotificationLogEntity> findByStatusAndCreatedAtBefore(NotificationStatus status, Instant before);
     
     @Query("SELECT n FROM NotificationLogEntity n WHERE n.alertId = :alertId AND n.sentTime > :since ORDER BY n.sentTime DESC")
     List<NotificationLogEntity> findByAlertIdAndSentTimeAfter(String alertId, Instant since);
@@ -0,0 +1,135 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.entity.AlertEntity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.AlertType;
+import com.industrial.digitaltwin.alertanalytics.repository.AlertRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Groups alerts of the same machine that arrive within the correlation window. Each machine has a
+ * ring of time buckets covering the window, with per-type counts and running totals, so adding an
+ * alert and expiring old ones is O(1) amortized. The database is only read the first time a machine
+ * is seen, to pick up alerts from before a restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AlertCorrelationEngine {
+
+    private static final int TYPE_COUNT = AlertType.values().length;
+
+    private final AlertRepository alertRepository;
+    private final AlertAnalyticsProperties properties;
+
+    private final Map<String, MachineWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the alert to its machine's window. Returns the group it belongs to when other alerts of
+     * the machine are in the window, or null when it stands alone.
+     */
+    public CorrelationGroup correlate(AlertEvent alertEvent) {
+        if (alertEvent.getMachineId() == null || alertEvent.getType() == null) {
+            return null;
+        }
+        long nowMillis = System.currentTimeMillis();
+        MachineWindow window = windows.get(alertEvent.getMachineId());
+        if (window == null) {
+            window = windows.computeIfAbsent(alertEvent.getMachineId(), machineId -> coldStart(machineId, nowMillis));
+        }
+        synchronized (window) {
+            return window.add(alertEvent.getMachineId(), alertEvent.getType(), alertEvent.getAlertId(), nowMillis);
+        }
+    }
+
+    public int getTrackedMachineCount() {
+        return windows.size();
+    }
+
+    private MachineWindow coldStart(String machineId, long nowMillis) {
+        AlertAnalyticsProperties.AlertProcessingProperties props = properties.getAlertProcessing();
+        MachineWindow window = new MachineWindow(props.getCorrelationWindow().toMillis(), props.getCorrelationBuckets());
+        Instant windowStart = Instant.ofEpochMilli(nowMillis).minus(props.getCorrelationWindow());
+        List<AlertEntity> recentAlerts = alertRepository.findByMachineIdAndTimestampAfter(machineId, windowStart);
+        recentAlerts.stream()
+                .filter(alert -> alert.getType() != null && alert.getTimestamp() != null)
+                .sorted(Comparator.comparing(AlertEntity::getTimestamp))
+                .forEach(alert -> window.add(machineId, alert.getType(), alert.getAlertId(),
+                        Math.min(alert.getTimestamp().toEpochMilli(), nowMillis)));
+        log.debug("Seeded correlation window for machine {} with {} recent alerts", machineId, recentAlerts.size());
+        return window;
+    }
+
+    /**
+     * Bucket ring for one machine. Callers synchronize on the instance.
+     */
+    static final class MachineWindow {
+
+        private final long bucketMillis;
+        private final int[][] counts;          // [slot][type ordinal]
+        private final int[] totals = new int[TYPE_COUNT];
+        private final String[] correlationIds = new String[TYPE_COUNT];
+        private final long[] firstSeen = new long[TYPE_COUNT];
+        private final long[] lastSeen = new long[TYPE_COUNT];
+        private int activeTypes;
+        private long headBucket = Long.MIN_VALUE;
+
+        MachineWindow(long windowMillis, int bucketCount) {
+            this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+            this.counts = new int[bucketCount][TYPE_COUNT];
+        }
+
+        CorrelationGroup add(String machineId, AlertType type, String alertId, long nowMillis) {
+            advance(nowMillis / bucketMillis);
+            int t = type.ordinal();
+            counts[(int) (headBucket % counts.length)][t]++;
+            if (totals[t]++ == 0) {
+                correlationIds[t] = alertId;
+                firstSeen[t] = nowMillis;
+                lastSeen[t] = nowMillis;
+                activeTypes++;
+            }
+            lastSeen[t] = Math.max(lastSeen[t], nowMillis);
+            if (totals[t] == 1 && activeTypes == 1) {
+                return null;
+            }
+            return new CorrelationGroup(correlationIds[t], machineId, type, totals[t], activeTypes,
+                    Instant.ofEpochMilli(firstSeen[t]), Instant.ofEpochMilli(lastSeen[t]));
+        }
+
+        // Expires every bucket between the old head and the new one; at most one full turn of the ring
+        private void advance(long bucket) {
+            if (headBucket == Long.MIN_VALUE) {
+                headBucket = bucket;
+                return;
+            }
+            if (bucket <= headBucket) {
+                return; // Late or same-bucket alerts count towards the current bucket
+            }
+            long steps = Math.min(bucket - headBucket, counts.length);
+            for (long i = 1; i <= steps; i++) {
+                int[] expired = counts[(int) ((bucket - steps + i) % counts.length)];
+                for (int t = 0; t < TYPE_COUNT; t++) {
+                    if (expired[t] != 0) {
+                        totals[t] -= expired[t];
+                        expired[t] = 0;
+                        if (totals[t] == 0) {
+                            correlationIds[t] = null;
+                            activeTypes--;
+                        }
+                    }
+                }
+            }
+            headBucket = bucket;
+        }
+    }
+}
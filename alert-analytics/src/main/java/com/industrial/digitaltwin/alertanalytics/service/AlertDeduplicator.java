@@ -0,0 +1,240 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Suppresses repeats of the same machine and alert type within the deduplication window. Keys are
+ * an interned machine index combined with the {@code AlertType} ordinal into a {@code long}. Because
+ * every entry lives for the same window, insertion order is expiry order, so a FIFO ring serves as
+ * the expiry queue: recording and expiring are both O(1), and the ring capacity is a hard bound on
+ * the number of tracked keys. A machine index is reclaimed once none of its keys are tracked, so
+ * interned machines are bounded by the same capacity.
+ */
+@Component
+@Slf4j
+public class AlertDeduplicator {
+
+    private final long windowMillis;
+    private final int capacity;
+
+    // Interned machines; an index is freed when its last tracked key goes. Guarded by this
+    private final Map<String, Integer> machineIndexes = new HashMap<>();
+    private final String[] machineIds;
+    private final int[] trackedKeys;  // Keys in lastSeen per machine index
+    private final int[] freeIndexes;
+    private int freeCount;
+    private int nextIndex;
+
+    // Expiry queue: parallel rings of keys and record times indexed by sequence % capacity, oldest
+    // at sequence first. lastSeen maps each key to the sequence of its latest queue entry.
+    private final long[] queueKeys;
+    private final long[] queueTimes;
+    private long first;
+    private int size;
+
+    private final LongLongTable lastSeen;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public AlertDeduplicator(AlertAnalyticsProperties properties, MeterRegistry meterRegistry) {
+        AlertAnalyticsProperties.AlertProcessingProperties props = properties.getAlertProcessing();
+        this.windowMillis = props.getDeduplicationWindow().toMillis();
+        this.capacity = props.getDeduplicationMaxEntries();
+        this.machineIds = new String[capacity];
+        this.trackedKeys = new int[capacity];
+        this.freeIndexes = new int[capacity];
+        this.queueKeys = new long[capacity];
+        this.queueTimes = new long[capacity];
+        this.lastSeen = new LongLongTable(capacity);
+
+        this.hits = Counter.builder("alertanalytics.dedup.hits")
+                .description("Alerts suppressed as duplicates")
+                .register(meterRegistry);
+        this.misses = Counter.builder("alertanalytics.dedup.misses")
+                .description("Alerts that passed deduplication")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("alertanalytics.dedup.evictions")
+                .description("Deduplication keys evicted before their window ended because the cache was full")
+                .register(meterRegistry);
+        Gauge.builder("alertanalytics.dedup.size", this, AlertDeduplicator::size)
+                .description("Deduplication keys currently tracked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns true when the same machine and alert type were recorded within the window.
+     */
+    public synchronized boolean isDuplicate(AlertEvent alertEvent) {
+        long now = System.currentTimeMillis();
+        expire(now);
+        Integer index = machineIndexes.get(String.valueOf(alertEvent.getMachineId()));
+        long sequence = index != null ? lastSeen.get(keyOf(index, alertEvent)) : LongLongTable.MISSING;
+        boolean duplicate = sequence != LongLongTable.MISSING && now - queueTimes[slot(sequence)] < windowMillis;
+        (duplicate ? hits : misses).increment();
+        return duplicate;
+    }
+
+    /**
+     * Starts a new window for the alert's machine and type.
+     */
+    public synchronized void record(AlertEvent alertEvent) {
+        long now = System.currentTimeMillis();
+        expire(now);
+        if (size == capacity) {
+            evictHead();
+            evictions.increment();
+        }
+        String machineId = String.valueOf(alertEvent.getMachineId());
+        int index = indexOf(machineId);
+        long key = keyOf(index, alertEvent);
+        long sequence = first + size;
+        queueKeys[slot(sequence)] = key;
+        queueTimes[slot(sequence)] = now;
+        size++;
+        if (lastSeen.put(key, sequence)) {
+            trackedKeys[index]++;
+        }
+    }
+
+    public synchronized int size() {
+        return lastSeen.size();
+    }
+
+    synchronized int machineCount() {
+        return machineIndexes.size();
+    }
+
+    private void expire(long now) {
+        while (size > 0 && now - queueTimes[slot(first)] >= windowMillis) {
+            evictHead();
+        }
+    }
+
+    // Drops the oldest queue entry, and its key unless the key was recorded again since
+    private void evictHead() {
+        long key = queueKeys[slot(first)];
+        if (lastSeen.get(key) == first) {
+            lastSeen.remove(key);
+            int index = (int) (key >>> 32);
+            if (--trackedKeys[index] == 0) {
+                machineIndexes.remove(machineIds[index]);
+                machineIds[index] = null;
+                freeIndexes[freeCount++] = index;
+            }
+        }
+        first++;
+        size--;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    // At most capacity - 1 keys are tracked when an index is needed, so indexes stay below capacity
+    private int indexOf(String machineId) {
+        Integer index = machineIndexes.get(machineId);
+        if (index == null) {
+            index = freeCount > 0 ? freeIndexes[--freeCount] : nextIndex++;
+            machineIndexes.put(machineId, index);
+            machineIds[index] = machineId;
+        }
+        return index;
+    }
+
+    private static long keyOf(int index, AlertEvent alertEvent) {
+        int type = alertEvent.getType() != null ? alertEvent.getType().ordinal() : -1;
+        return ((long) index << 32) | (type & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Open-addressing long-to-long map with linear probing and backward-shift deletion, sized for
+     * at most {@code maxEntries} keys at a load factor of one half.
+     */
+    static final class LongLongTable {
+
+        static final long MISSING = Long.MIN_VALUE;
+
+        private final long[] keys;
+        private final long[] values;
+        private final boolean[] used;
+        private final int mask;
+        private int size;
+
+        LongLongTable(int maxEntries) {
+            int slots = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+            keys = new long[slots];
+            values = new long[slots];
+            used = new boolean[slots];
+            mask = slots - 1;
+        }
+
+        long get(long key) {
+            for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return MISSING;
+        }
+
+        /**
+         * Returns true when the key was not present before.
+         */
+        boolean put(long key, long value) {
+            int i = slot(key);
+            while (used[i] && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            boolean added = !used[i];
+            if (added) {
+                used[i] = true;
+                keys[i] = key;
+                size++;
+            }
+            values[i] = value;
+            return added;
+        }
+
+        void remove(long key) {
+            int i = slot(key);
+            while (used[i] && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (!used[i]) {
+                return;
+            }
+            // Shift later members of the probe run back so lookups never stop at a hole
+            int hole = i;
+            for (int j = (hole + 1) & mask; used[j]; j = (j + 1) & mask) {
+                int home = slot(keys[j]);
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            used[hole] = false;
+            size--;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -5,7 +5,6 @@ import com.industrial.digitaltwin.alertanalytics.entity.AlertEntity;
 import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
 import com.industrial.digitaltwin.alertanalytics.model.AlertSeverity;
 import com.industrial.digitaltwin.alertanalytics.model.AlertStatus;
-import com.industrial.digitaltwin.alertanalytics.model.AlertType;
 import com.industrial.digitaltwin.alertanalytics.repository.AlertRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,11 +12,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,24 +28,23 @@ public class AlertProcessingService {
     private final NotificationService notificationService;
     private final AlertAnalyticsProperties properties;
     private final MetricsService metricsService;
-
-    // Cache for deduplication - maps machineId + alertType to timestamp
-    private final Map<String, Instant> alertDeduplicationCache = new ConcurrentHashMap<>();
-    
-    // Cache for correlation - groups related alerts by machine
-    private final Map<String, List<String>> correlationCache = new ConcurrentHashMap<>();
+    private final AlertCorrelationEngine correlationEngine;
+    private final AlertDeduplicator deduplicator;
 
     public AlertEvent processAlert(AlertEvent alertEvent) {
         long startTime = System.currentTimeMillis();
         
         try {
             // Step 1: Check for duplicates
-            if (isDuplicateAlert(alertEvent)) {
+            if (deduplicator.isDuplicate(alertEvent)) {
                 log.debug("Duplicate alert detected and filtered: {}", alertEvent.getAlertId());
                 return null; // Don't process duplicate alerts
             }
 
-            // Step 2: Correlate with existing alerts
+            // Step 2: Correlate with existing alerts; the id doubles as the correlation id of a new group
+            if (alertEvent.getAlertId() == null) {
+                alertEvent.setAlertId(generateAlertId());
+            }
             correlateAlert(alertEvent);
 
             // Step 3: Create alert entity
@@ -55,8 +53,8 @@ public class AlertProcessingService {
             // Step 4: Save to database
             AlertEntity savedAlert = alertRepository.save(alertEntity);
             
-            // Step 5: Update deduplication cache
-            updateDeduplicationCache(alertEvent);
+            // Step 5: Start the deduplication window
+            deduplicator.record(alertEvent);
             
             // Step 6: Send notifications
             notificationService.sendNotification(alertEvent);
@@ -75,80 +73,21 @@ public class AlertProcessingService {
         }
     }
 
-    private boolean isDuplicateAlert(AlertEvent alertEvent) {
-        String cacheKey = generateCacheKey(alertEvent);
-        Instant lastAlertTime = alertDeduplicationCache.get(cacheKey);
-        
-        if (lastAlertTime != null) {
-            // Check if the time since last alert is within the deduplication window
-            Instant now = Instant.now();
-            long timeDiffMillis = java.time.Duration.between(lastAlertTime, now).toMillis();
-            long deduplicationWindowMillis = properties.getAlertProcessing().getDeduplicationWindow().toMillis();
-            
-            if (timeDiffMillis < deduplicationWindowMillis) {
-                return true; // This is a duplicate alert
-            }
-        }
-        
-        return false;
-    }
-
     private void correlateAlert(AlertEvent alertEvent) {
-        String machineId = alertEvent.getMachineId();
-        Instant now = Instant.now();
-        Instant correlationWindowStart = now.minus(properties.getAlertProcessing().getCorrelationWindow());
-        
-        // Get recent alerts for the same machine
-        List<AlertEntity> recentAlerts = alertRepository.findByMachineIdAndTimestampAfter(
-            machineId, correlationWindowStart);
-        
-        if (!recentAlerts.isEmpty()) {
-            // Group alerts by type to identify patterns
-            Map<AlertType, List<AlertEntity>> alertsByType = recentAlerts.stream()
-                .collect(Collectors.groupingBy(AlertEntity::getType));
-            
-            // Log correlation information
-            for (Map.Entry<AlertType, List<AlertEntity>> entry : alertsByType.entrySet()) {
-                if (entry.getValue().size() > 1) {
-                    log.info("Correlated {} alerts of type {} for machine {}",
-                        entry.getValue().size(), entry.getKey(), machineId);
-                }
-            }
+        CorrelationGroup group = correlationEngine.correlate(alertEvent);
+        if (group == null) {
+            return;
         }
-        
-        // Update correlation cache
-        correlationCache.computeIfAbsent(machineId, k -> new java.util.ArrayList<>())
-            .add(alertEvent.getAlertId());
-    }
-
-    private void updateDeduplicationCache(AlertEvent alertEvent) {
-        String cacheKey = generateCacheKey(alertEvent);
-        alertDeduplicationCache.put(cacheKey, Instant.now());
-        
-        // Clean up old entries periodically to prevent memory leaks
-        cleanUpOldCacheEntries();
-    }
-
-    private String generateCacheKey(AlertEvent alertEvent) {
-        // Create a unique key based on machineId and alert type for deduplication
-        return alertEvent.getMachineId() + "_" + alertEvent.getType();
-    }
+        metricsService.incrementAlertsCorrelated();
+        log.info("Correlated alert {} with {} alerts of type {} for machine {} ({} related types)",
+            alertEvent.getAlertId(), group.alertCount(), group.type(), group.machineId(), group.relatedTypes());
 
-    private void cleanUpOldCacheEntries() {
-        Instant now = Instant.now();
-        long deduplicationWindowMillis = properties.getAlertProcessing().getDeduplicationWindow().toMillis();
-        
-        alertDeduplicationCache.entrySet().removeIf(entry -> {
-            long timeDiffMillis = java.time.Duration.between(entry.getValue(), now).toMillis();
-            return timeDiffMillis > deduplicationWindowMillis * 2; // Keep for twice the window duration
-        });
-        
-        // Clean up correlation cache as well
-        correlationCache.entrySet().removeIf(entry -> {
-            // For now, just keep the cache for correlation window duration
-            // In a real implementation, we might have more sophisticated cleanup logic
-            return false; // Temporarily disable cleanup for correlation cache
-        });
+        // Persisted with the alert so the group can be queried later
+        Map<String, Object> details = alertEvent.getDetails() != null
+            ? new HashMap<>(alertEvent.getDetails()) : new HashMap<>();
+        details.put("correlationId", group.correlationId());
+        details.put("correlatedAlertCount", group.alertCount());
+        alertEvent.setDetails(details);
     }
 
     private AlertEntity convertToAlertEntity(AlertEvent alertEvent) {
@@ -169,7 +108,7 @@ public class AlertProcessingService {
     }
 
     private String generateAlertId() {
-        return "ALERT_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return "ALERT_" + UUID.randomUUID().toString().toUpperCase();
     }
 
     // New methods required by the controller
@@ -0,0 +1,120 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.model.PerformanceMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes a machine's metrics to {@code analytics-reports} and WebSocket clients only when they
+ * are worth it: once {@code publish-interval} has passed since its last report, or earlier when a
+ * metric moved by more than {@code publish-change-threshold} relative to the last published value
+ * or the anomaly count changed, but never more often than {@code min-publish-interval}. Comparing
+ * against the last published report lets slow drift add up to a publish. The latest suppressed
+ * update of a machine that goes quiet is published once its interval has passed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsReportPublisher {
+
+    private static final class MachineState {
+        private PerformanceMetrics published;
+        private long publishedAt;
+        private PerformanceMetrics pending; // Latest suppressed update, if newer than the published one
+    }
+
+    private final AlertAnalyticsProperties properties;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final WebSocketBroadcastService webSocketBroadcastService;
+    private final MetricsService metricsService;
+
+    private final Map<String, MachineState> machines = new ConcurrentHashMap<>();
+
+    /**
+     * Publishes the metrics now, or holds them as the machine's pending update.
+     */
+    public void submit(PerformanceMetrics metrics, Long telemetryTimestamp) {
+        long now = System.currentTimeMillis();
+        MachineState state = machines.computeIfAbsent(metrics.getMachineId(), machineId -> new MachineState());
+        synchronized (state) {
+            if (state.published != null && !isDue(state, metrics, now)) {
+                state.pending = metrics;
+                metricsService.incrementAnalyticsReportsSuppressed();
+                return;
+            }
+            markPublished(state, metrics, now);
+        }
+        publish(metrics, telemetryTimestamp);
+    }
+
+    /**
+     * Publishes pending updates of machines whose publish interval has passed without a report.
+     */
+    @Scheduled(fixedDelayString = "#{@alertAnalyticsProperties.analytics.minPublishInterval.toMillis()}")
+    public void publishPending() {
+        long now = System.currentTimeMillis();
+        long interval = properties.getAnalytics().getPublishInterval().toMillis();
+        List<PerformanceMetrics> due = new ArrayList<>();
+        machines.values().forEach(state -> {
+            synchronized (state) {
+                if (state.pending != null && now - state.publishedAt >= interval) {
+                    due.add(state.pending);
+                    markPublished(state, state.pending, now);
+                }
+            }
+        });
+        due.forEach(metrics -> publish(metrics, null));
+    }
+
+    private void markPublished(MachineState state, PerformanceMetrics metrics, long now) {
+        state.published = metrics;
+        state.publishedAt = now;
+        state.pending = null;
+        metricsService.incrementAnalyticsReportsPublished();
+    }
+
+    private boolean isDue(MachineState state, PerformanceMetrics metrics, long now) {
+        AlertAnalyticsProperties.AnalyticsProperties props = properties.getAnalytics();
+        long elapsed = now - state.publishedAt;
+        if (elapsed < props.getMinPublishInterval().toMillis()) {
+            return false;
+        }
+        if (elapsed >= props.getPublishInterval().toMillis()) {
+            return true;
+        }
+        PerformanceMetrics last = state.published;
+        double threshold = props.getPublishChangeThreshold();
+        return metrics.getAnomalyCount() != last.getAnomalyCount()
+                || moved(last.getAverageLoad(), metrics.getAverageLoad(), threshold)
+                || moved(last.getAverageTemperature(), metrics.getAverageTemperature(), threshold)
+                || moved(last.getAverageVibration(), metrics.getAverageVibration(), threshold)
+                || moved(last.getEfficiencyRating(), metrics.getEfficiencyRating(), threshold);
+    }
+
+    // Relative change, measured against at least 1.0 so values near zero do not publish on noise
+    private static boolean moved(double published, double current, double threshold) {
+        return Math.abs(current - published) > threshold * Math.max(Math.abs(published), 1.0);
+    }
+
+    private void publish(PerformanceMetrics metrics, Long telemetryTimestamp) {
+        kafkaTemplate.send("analytics-reports", metrics.getMachineId(), metrics);
+        log.info("Analytics report published for machine: {}", metrics.getMachineId());
+
+        // Broadcast analytics update via WebSocket
+        try {
+            webSocketBroadcastService.broadcastAnalyticsUpdate(metrics);
+            metricsService.recordPipelineLatency(PipelineStage.ANALYTICS_BROADCAST, telemetryTimestamp);
+        } catch (Exception e) {
+            log.error("Error broadcasting analytics via WebSocket", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.industrial.digitaltwin.alertanalytics.service;
 
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
 import com.industrial.digitaltwin.alertanalytics.exception.AnalyticsCalculationException;
 import com.industrial.digitaltwin.alertanalytics.exception.DataPersistenceException;
 import com.industrial.digitaltwin.alertanalytics.model.PerformanceMetrics;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Service
@@ -36,9 +38,21 @@ public class AnalyticsService {
     private AnalyticsStrategy trendAnalysisStrategy;
 
     private final MetricsService metricsService;
-    private final Map<String, List<SensorData>> historicalDataCache = new ConcurrentHashMap<>();
+    private final AlertAnalyticsProperties properties;
+
+    // Bounded per machine: window-size readings in primitive columns
+    private final Map<String, SensorRing> historicalDataCache = new ConcurrentHashMap<>();
+    // Per machine running aggregates of the active strategy, absent if it only supports batch
+    private final Map<String, Optional<IncrementalAnalytics>> incrementalAnalytics = new ConcurrentHashMap<>();
 
     public PerformanceMetrics calculatePerformanceMetrics(String machineId, List<SensorData> historicalData) {
+        if (historicalData == null) {
+            throw new AnalyticsCalculationException("Historical data cannot be null");
+        }
+        return calculatePerformanceMetrics(machineId, SensorWindow.of(historicalData));
+    }
+
+    public PerformanceMetrics calculatePerformanceMetrics(String machineId, SensorWindow window) {
         long startTime = System.currentTimeMillis();
         
         try {
@@ -47,7 +61,7 @@ public class AnalyticsService {
                 throw new AnalyticsCalculationException("Machine ID cannot be null or empty");
             }
             
-            if (historicalData == null) {
+            if (window == null) {
                 throw new AnalyticsCalculationException("Historical data cannot be null");
             }
 
@@ -61,7 +75,7 @@ public class AnalyticsService {
             log.debug("Using analytics strategy: {} for machine: {}",
                     selectedStrategy.getClass().getSimpleName(), machineId);
 
-            PerformanceMetrics metrics = selectedStrategy.calculateMetrics(machineId, historicalData);
+            PerformanceMetrics metrics = selectedStrategy.calculateMetrics(machineId, window);
             
             // Record metrics
             long calculationTime = System.currentTimeMillis() - startTime;
@@ -105,6 +119,36 @@ public class AnalyticsService {
         }
     }
 
+    /**
+     * Current metrics for the machine. Strategies with an incremental variant answer from their
+     * running aggregates in O(1); others are calculated over a snapshot of the recent readings.
+     */
+    public PerformanceMetrics getCurrentPerformanceMetrics(String machineId) {
+        if (machineId == null || machineId.isEmpty()) {
+            throw new AnalyticsCalculationException("Machine ID cannot be null or empty");
+        }
+        Optional<IncrementalAnalytics> incremental = incrementalAnalyticsFor(machineId);
+        if (incremental.isEmpty()) {
+            return calculatePerformanceMetrics(machineId, getSensorWindow(machineId));
+        }
+        long startTime = System.currentTimeMillis();
+        PerformanceMetrics metrics;
+        synchronized (incremental.get()) {
+            metrics = incremental.get().currentMetrics();
+        }
+        metricsService.incrementAnalyticsCalculations();
+        metricsService.recordAnalyticsCalculationTime(System.currentTimeMillis() - startTime);
+        return metrics;
+    }
+
+    private Optional<IncrementalAnalytics> incrementalAnalyticsFor(String machineId) {
+        return incrementalAnalytics.computeIfAbsent(machineId, id -> {
+            AnalyticsStrategy strategy = getActiveStrategy();
+            return Optional.ofNullable(strategy != null
+                    ? strategy.createIncremental(id, properties.getAnalytics().getWindowSize()) : null);
+        });
+    }
+
     public void updateHistoricalData(String machineId, SensorData sensorData) {
         if (machineId == null || machineId.isEmpty()) {
             throw new DataPersistenceException("Machine ID cannot be null or empty");
@@ -115,12 +159,16 @@ public class AnalyticsService {
         }
 
         try {
-            historicalDataCache.computeIfAbsent(machineId, k -> new java.util.ArrayList<>()).add(sensorData);
-            // Keep only recent data to prevent memory issues
-            List<SensorData> data = historicalDataCache.get(machineId);
-            if (data.size() > 1000) { // Keep last 1000 data points
-                historicalDataCache.put(machineId, data.subList(data.size() - 500, data.size()));
-            }
+            long timestamp = sensorData.getTimestamp() != null
+                    ? sensorData.getTimestamp().toEpochMilli() : System.currentTimeMillis();
+            historicalDataCache
+                    .computeIfAbsent(machineId, k -> new SensorRing(properties.getAnalytics().getWindowSize()))
+                    .append(sensorData, timestamp);
+            incrementalAnalyticsFor(machineId).ifPresent(incremental -> {
+                synchronized (incremental) {
+                    incremental.update(sensorData);
+                }
+            });
             
             // Record metrics
             metricsService.incrementStateUpdates();
@@ -131,12 +179,20 @@ public class AnalyticsService {
     }
 
     public List<SensorData> getHistoricalData(String machineId) {
+        return getSensorWindow(machineId).toSensorData();
+    }
+
+    /**
+     * Snapshot of the machine's recent readings, oldest first.
+     */
+    public SensorWindow getSensorWindow(String machineId) {
         if (machineId == null || machineId.isEmpty()) {
             throw new DataPersistenceException("Machine ID cannot be null or empty");
         }
         
         try {
-            return historicalDataCache.getOrDefault(machineId, List.of());
+            SensorRing ring = historicalDataCache.get(machineId);
+            return ring != null ? ring.snapshot() : SensorWindow.empty();
         } catch (Exception e) {
             log.error("Failed to retrieve historical data for machine: {}", machineId, e);
             throw new DataPersistenceException("Failed to retrieve historical data", e);
@@ -149,21 +205,21 @@ public class AnalyticsService {
         }
 
         try {
-            List<SensorData> historicalData = getHistoricalData(machineId);
-            PerformanceMetrics metrics = calculatePerformanceMetrics(machineId, historicalData);
+            SensorWindow window = getSensorWindow(machineId);
+            PerformanceMetrics metrics = calculatePerformanceMetrics(machineId, window);
 
             // Generate a comprehensive analytics report
             Map<String, Object> report = new java.util.HashMap<>();
             report.put("machineId", machineId);
             report.put("reportGeneratedAt", Instant.now());
             report.put("performanceMetrics", metrics);
-            report.put("dataPointsCount", historicalData.size());
+            report.put("dataPointsCount", window.size());
             
             // Add summary statistics
-            if (!historicalData.isEmpty()) {
-                double avgLoad = historicalData.stream().mapToDouble(SensorData::getLoad).average().orElse(0.0);
-                double avgTemp = historicalData.stream().mapToDouble(SensorData::getTemperature).average().orElse(0.0);
-                double avgVibration = historicalData.stream().mapToDouble(SensorData::getVibration).average().orElse(0.0);
+            if (!window.isEmpty()) {
+                double avgLoad = window.column(SensorChannel.LOAD).stream().average().orElse(0.0);
+                double avgTemp = window.column(SensorChannel.TEMPERATURE).stream().average().orElse(0.0);
+                double avgVibration = window.column(SensorChannel.VIBRATION).stream().average().orElse(0.0);
                 
                 report.put("averageLoad", avgLoad);
                 report.put("averageTemperature", avgTemp);
@@ -173,6 +229,9 @@ public class AnalyticsService {
                 if (metrics.getTrends() != null && !metrics.getTrends().isEmpty()) {
                     report.put("trends", metrics.getTrends());
                 }
+                if (metrics.getStatistics() != null && !metrics.getStatistics().isEmpty()) {
+                    report.put("statistics", metrics.getStatistics());
+                }
             }
             
             return report;
@@ -7,4 +7,19 @@ import java.util.List;
 
 public interface AnalyticsStrategy {
     PerformanceMetrics calculateMetrics(String machineId, List<SensorData> historicalData);
-}
\ No newline at end of file
+
+    /**
+     * Same calculation over a column-wise window of recent readings.
+     */
+    default PerformanceMetrics calculateMetrics(String machineId, SensorWindow window) {
+        return calculateMetrics(machineId, window.toSensorData());
+    }
+
+    /**
+     * Incremental variant over the last {@code windowSize} readings, or null when the strategy only
+     * supports batch calculation.
+     */
+    default IncrementalAnalytics createIncremental(String machineId, int windowSize) {
+        return null;
+    }
+}
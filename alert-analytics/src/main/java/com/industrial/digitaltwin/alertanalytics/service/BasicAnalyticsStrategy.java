@@ -1,5 +1,6 @@
 package com.industrial.digitaltwin.alertanalytics.service;
 
+import com.industrial.digitaltwin.alertanalytics.model.ChannelStatistics;
 import com.industrial.digitaltwin.alertanalytics.model.PerformanceMetrics;
 import com.industrial.digitaltwin.alertanalytics.model.SensorData;
 import com.industrial.digitaltwin.alertanalytics.model.Trend;
@@ -10,8 +11,6 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.ToDoubleFunction;
-import java.util.stream.IntStream;
 
 @Component("basic")
 @Slf4j
@@ -19,41 +18,59 @@ public class BasicAnalyticsStrategy implements AnalyticsStrategy {
 
     @Override
     public PerformanceMetrics calculateMetrics(String machineId, List<SensorData> historicalData) {
-        if (historicalData == null || historicalData.isEmpty()) {
+        return calculateMetrics(machineId, historicalData != null ? SensorWindow.of(historicalData) : SensorWindow.empty());
+    }
+
+    @Override
+    public PerformanceMetrics calculateMetrics(String machineId, SensorWindow window) {
+        if (window.isEmpty()) {
             log.warn("No historical data available for machine: {}", machineId);
             return createDefaultMetrics(machineId);
         }
 
+        SensorWindow.Column load = window.column(SensorChannel.LOAD);
+        SensorWindow.Column temperature = window.column(SensorChannel.TEMPERATURE);
+        SensorWindow.Column vibration = window.column(SensorChannel.VIBRATION);
+
         // Calculate various performance indicators
-        double averageLoad = calculateAverage(historicalData, SensorData::getLoad);
-        double averageTemperature = calculateAverage(historicalData, SensorData::getTemperature);
-        double averageVibration = calculateAverage(historicalData, SensorData::getVibration);
+        double averageLoad = calculateAverage(load);
+        double averageTemperature = calculateAverage(temperature);
+        double averageVibration = calculateAverage(vibration);
+
+        // Count anomalies in the period (placeholder - would need actual anomaly data)
+        int anomalyCount = calculateAnomalyCount(temperature, vibration, load);
+
+        // Calculate trends
+        List<Trend> trends = new ArrayList<>();
+        if (window.size() >= 2) { // Need at least 2 points to calculate a trend
+            trends.add(calculateTrend(temperature.first(), temperature.last(), window.size(), "temperature"));
+            trends.add(calculateTrend(vibration.first(), vibration.last(), window.size(), "vibration"));
+            trends.add(calculateTrend(load.first(), load.last(), window.size(), "load"));
+        }
+
+        List<ChannelStatistics> statistics = List.of(
+                calculateStatistics(temperature, averageTemperature, "temperature"),
+                calculateStatistics(vibration, averageVibration, "vibration"),
+                calculateStatistics(load, averageLoad, "load"));
+
+        return buildMetrics(machineId, averageLoad, averageTemperature, averageVibration, anomalyCount, trends,
+                statistics);
+    }
 
-        // Calculate standard deviations for variability analysis
-        double loadStdDev = calculateStandardDeviation(historicalData, SensorData::getLoad, averageLoad);
-        double tempStdDev = calculateStandardDeviation(historicalData, SensorData::getTemperature, averageTemperature);
-        double vibrationStdDev = calculateStandardDeviation(historicalData, SensorData::getVibration, averageVibration);
+    @Override
+    public IncrementalAnalytics createIncremental(String machineId, int windowSize) {
+        return new Incremental(machineId, windowSize);
+    }
 
+    private static PerformanceMetrics buildMetrics(String machineId, double averageLoad, double averageTemperature,
+                                                   double averageVibration, int anomalyCount, List<Trend> trends,
+                                                   List<ChannelStatistics> statistics) {
         // Calculate uptime based on operational status (for now, assume all data points represent operational time)
         double uptimePercentage = 100.0; // Placeholder - would need actual status data
 
-        // Count anomalies in the period (placeholder - would need actual anomaly data)
-        int anomalyCount = calculateAnomalyCount(historicalData);
-
         // Calculate efficiency rating
         double efficiencyRating = calculateEfficiencyRating(averageLoad, uptimePercentage, anomalyCount);
 
-        // Calculate trends
-        List<Trend> trends = calculateTrends(historicalData);
-
-        // Calculate min/max values
-        double minLoad = historicalData.stream().mapToDouble(SensorData::getLoad).min().orElse(0.0);
-        double maxLoad = historicalData.stream().mapToDouble(SensorData::getLoad).max().orElse(0.0);
-        double minTemp = historicalData.stream().mapToDouble(SensorData::getTemperature).min().orElse(0.0);
-        double maxTemp = historicalData.stream().mapToDouble(SensorData::getTemperature).max().orElse(0.0);
-        double minVibration = historicalData.stream().mapToDouble(SensorData::getVibration).min().orElse(0.0);
-        double maxVibration = historicalData.stream().mapToDouble(SensorData::getVibration).max().orElse(0.0);
-
         return PerformanceMetrics.builder()
                 .machineId(machineId)
                 .calculationTime(Instant.now())
@@ -65,41 +82,61 @@ public class BasicAnalyticsStrategy implements AnalyticsStrategy {
                 .efficiencyRating(efficiencyRating)
                 .averageDowntime(Duration.ZERO) // Placeholder
                 .trends(trends)
+                .statistics(statistics)
                 .build();
     }
 
-    private double calculateAverage(List<SensorData> data, ToDoubleFunction<SensorData> extractor) {
-        return data.stream()
-                .mapToDouble(extractor)
-                .average()
-                .orElse(0.0);
+    private double calculateAverage(SensorWindow.Column column) {
+        double sum = 0.0;
+        for (int i = 0; i < column.size(); i++) {
+            sum += column.get(i);
+        }
+        return column.size() > 0 ? sum / column.size() : 0.0;
     }
 
-    private double calculateStandardDeviation(List<SensorData> data, ToDoubleFunction<SensorData> extractor, double mean) {
-        if (data.size() < 2) return 0.0;
-        
-        double sumSquaredDiffs = data.stream()
-            .mapToDouble(extractor)
-            .map(value -> Math.pow(value - mean, 2))
-            .sum();
-            
-        return Math.sqrt(sumSquaredDiffs / (data.size() - 1));
+    // Min, max and sample standard deviation, the same figures RollingStatistics keeps incrementally
+    private ChannelStatistics calculateStatistics(SensorWindow.Column column, double average, String type) {
+        double min = column.get(0);
+        double max = column.get(0);
+        double squares = 0.0;
+        for (int i = 0; i < column.size(); i++) {
+            double value = column.get(i);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            squares += (value - average) * (value - average);
+        }
+        double variance = column.size() > 1 ? squares / (column.size() - 1) : 0.0;
+        return statistics(type, min, max, Math.sqrt(variance));
     }
 
-    private int calculateAnomalyCount(List<SensorData> historicalData) {
-        // Simple anomaly detection based on thresholds
+    private static ChannelStatistics statistics(String type, double min, double max, double standardDeviation) {
+        return ChannelStatistics.builder()
+                .type(type)
+                .min(min)
+                .max(max)
+                .standardDeviation(standardDeviation)
+                .build();
+    }
+
+    private int calculateAnomalyCount(SensorWindow.Column temperature, SensorWindow.Column vibration,
+                                      SensorWindow.Column load) {
         int count = 0;
-        for (SensorData data : historicalData) {
-            if (data.getTemperature() > 90.0 || // High temperature threshold
-                data.getVibration() > 3.0 ||   // High vibration threshold
-                data.getLoad() > 95.0) {       // High load threshold
+        for (int i = 0; i < temperature.size(); i++) {
+            if (isAnomalous(temperature.get(i), vibration.get(i), load.get(i))) {
                 count++;
             }
         }
         return count;
     }
 
-    private double calculateEfficiencyRating(double averageLoad, double uptimePercentage, int anomalyCount) {
+    // Simple anomaly detection based on thresholds
+    private static boolean isAnomalous(double temperature, double vibration, double load) {
+        return temperature > 90.0 || // High temperature threshold
+               vibration > 3.0 ||   // High vibration threshold
+               load > 95.0;         // High load threshold
+    }
+
+    private static double calculateEfficiencyRating(double averageLoad, double uptimePercentage, int anomalyCount) {
         // Simple efficiency calculation - can be enhanced based on business requirements
         double loadFactor = Math.min(averageLoad / 100.0, 1.0); // Normalize load to 0-1
         double uptimeFactor = uptimePercentage / 100.0; // Normalize uptime to 0-1
@@ -109,50 +146,17 @@ public class BasicAnalyticsStrategy implements AnalyticsStrategy {
         return Math.max((loadFactor * 0.4 + uptimeFactor * 0.4) * 10 - (anomalyPenalty * 100), 0);
     }
 
-    private List<Trend> calculateTrends(List<SensorData> historicalData) {
-        List<Trend> trends = new ArrayList<>();
-        
-        if (historicalData.size() < 2) {
-            return trends; // Need at least 2 points to calculate a trend
-        }
-
-        // Calculate temperature trend
-        double firstTemp = historicalData.get(0).getTemperature();
-        double lastTemp = historicalData.get(historicalData.size() - 1).getTemperature();
-        String tempTrendDirection = lastTemp > firstTemp ? "increasing" : (lastTemp < firstTemp ? "decreasing" : "stable");
-        trends.add(Trend.builder()
+    private static Trend calculateTrend(double first, double last, int size, String type) {
+        String direction = last > first ? "increasing" : (last < first ? "decreasing" : "stable");
+        return Trend.builder()
                 .timestamp(Instant.now())
-                .value((lastTemp - firstTemp) / historicalData.size()) // Rate of change
-                .type("temperature")
-                .direction(tempTrendDirection)
-                .build());
-
-        // Calculate vibration trend
-        double firstVib = historicalData.get(0).getVibration();
-        double lastVib = historicalData.get(historicalData.size() - 1).getVibration();
-        String vibTrendDirection = lastVib > firstVib ? "increasing" : (lastVib < firstVib ? "decreasing" : "stable");
-        trends.add(Trend.builder()
-                .timestamp(Instant.now())
-                .value((lastVib - firstVib) / historicalData.size()) // Rate of change
-                .type("vibration")
-                .direction(vibTrendDirection)
-                .build());
-
-        // Calculate load trend
-        double firstLoad = historicalData.get(0).getLoad();
-        double lastLoad = historicalData.get(historicalData.size() - 1).getLoad();
-        String loadTrendDirection = lastLoad > firstLoad ? "increasing" : (lastLoad < firstLoad ? "decreasing" : "stable");
-        trends.add(Trend.builder()
-                .timestamp(Instant.now())
-                .value((lastLoad - firstLoad) / historicalData.size()) // Rate of change
-                .type("load")
-                .direction(loadTrendDirection)
-                .build());
-
-        return trends;
+                .value((last - first) / size) // Rate of change
+                .type(type)
+                .direction(direction)
+                .build();
     }
 
-    private PerformanceMetrics createDefaultMetrics(String machineId) {
+    private static PerformanceMetrics createDefaultMetrics(String machineId) {
         return PerformanceMetrics.builder()
                 .machineId(machineId)
                 .calculationTime(Instant.now())
@@ -164,6 +168,69 @@ public class BasicAnalyticsStrategy implements AnalyticsStrategy {
                 .efficiencyRating(0.0)
                 .averageDowntime(Duration.ZERO)
                 .trends(List.of())
+                .statistics(List.of())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * The same metrics maintained per reading: rolling statistics per channel and a running count
+     * of readings over the anomaly thresholds in the window, so each update and each result is O(1).
+     */
+    private static final class Incremental implements IncrementalAnalytics {
+
+        private final String machineId;
+        private final RollingStatistics load;
+        private final RollingStatistics temperature;
+        private final RollingStatistics vibration;
+        private final boolean[] anomalous;  // Ring aligned with the statistics' windows
+        private long sequence;
+        private int anomalyCount;
+
+        Incremental(String machineId, int windowSize) {
+            this.machineId = machineId;
+            this.load = new RollingStatistics(windowSize);
+            this.temperature = new RollingStatistics(windowSize);
+            this.vibration = new RollingStatistics(windowSize);
+            this.anomalous = new boolean[windowSize];
+        }
+
+        @Override
+        public void update(SensorData reading) {
+            int slot = (int) (sequence++ % anomalous.length);
+            if (anomalous[slot]) {
+                anomalyCount--; // The reading leaving the window was anomalous
+            }
+            anomalous[slot] = isAnomalous(reading.getTemperature(), reading.getVibration(), reading.getLoad());
+            if (anomalous[slot]) {
+                anomalyCount++;
+            }
+            load.add(reading.getLoad());
+            temperature.add(reading.getTemperature());
+            vibration.add(reading.getVibration());
+        }
+
+        @Override
+        public PerformanceMetrics currentMetrics() {
+            int size = load.size();
+            if (size == 0) {
+                return createDefaultMetrics(machineId);
+            }
+            List<Trend> trends = new ArrayList<>();
+            if (size >= 2) {
+                trends.add(calculateTrend(temperature.first(), temperature.last(), size, "temperature"));
+                trends.add(calculateTrend(vibration.first(), vibration.last(), size, "vibration"));
+                trends.add(calculateTrend(load.first(), load.last(), size, "load"));
+            }
+            List<ChannelStatistics> statistics = List.of(
+                    statistics("temperature", temperature),
+                    statistics("vibration", vibration),
+                    statistics("load", load));
+            return buildMetrics(machineId, load.mean(), temperature.mean(), vibration.mean(), anomalyCount, trends,
+                    statistics);
+        }
+
+        private static ChannelStatistics statistics(String type, RollingStatistics channel) {
+            return BasicAnalyticsStrategy.statistics(type, channel.min(), channel.max(), channel.standardDeviation());
+        }
+    }
+}
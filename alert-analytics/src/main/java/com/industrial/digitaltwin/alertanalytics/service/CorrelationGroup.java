@@ -0,0 +1,16 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.model.AlertType;
+
+import java.time.Instant;
+
+/**
+ * Alerts of one type on one machine that fell inside the correlation window. The correlation id is
+ * the id of the first alert in the group and stays stable until the group ages out of the window.
+ *
+ * @param alertCount   alerts of this type in the window, including the current one
+ * @param relatedTypes distinct alert types seen on the machine in the window
+ */
+public record CorrelationGroup(String correlationId, String machineId, AlertType type,
+                               int alertCount, int relatedTypes, Instant firstSeen, Instant lastSeen) {
+}
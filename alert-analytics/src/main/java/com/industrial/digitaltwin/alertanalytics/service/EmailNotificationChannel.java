@@ -1,6 +1,9 @@
 package com.industrial.digitaltwin.alertanalytics.service;
 
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,9 +23,56 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class EmailNotificationChannel implements NotificationChannel {
 
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    // Compiled once; only the placeholders are filled per alert
+    private static final EmailTemplate ALERT_TEMPLATE = EmailTemplate.compile("""
+            <html><head><style>\
+            body { font-family: Arial, sans-serif; margin: 20px; background-color: #f5f5f5; }\
+            .container { max-width: 800px; margin: 0 auto; background-color: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1); }\
+            h2 { color: #d32f2f; border-bottom: 2px solid #d32f2f; padding-bottom: 10px; }\
+            .alert-table { width: 100%; border-collapse: collapse; margin: 20px 0; }\
+            .alert-table td { padding: 12px; border: 1px solid #ddd; }\
+            .alert-table tr:nth-child(even) { background-color: #f9f9f9; }\
+            .label { font-weight: bold; color: #333; width: 30%; }\
+            .value { color: #555; }\
+            .severity-critical { color: #d32f2f; font-weight: bold; }\
+            .severity-warning { color: #f57c00; font-weight: bold; }\
+            .severity-info { color: #1976d2; font-weight: bold; }\
+            .details-list { margin: 10px 0; padding-left: 20px; }\
+            .details-list li { margin: 5px 0; }\
+            .footer { margin-top: 30px; padding-top: 15px; border-top: 1px solid #eee; color: #777; font-size: 0.9em; }\
+            </style></head><body>\
+            <div class='container'>\
+            <h2>Machine Alert Notification</h2>\
+            <table class='alert-table'>\
+            <tr><td class='label'>Alert ID:</td><td class='value'>{{alertId}}</td></tr>\
+            <tr><td class='label'>Machine ID:</td><td class='value'>{{machineId}}</td></tr>\
+            <tr><td class='label'>Severity:</td><td class='value severity-{{severityClass}}'>{{severity}}</td></tr>\
+            <tr><td class='label'>Alert Type:</td><td class='value'>{{type}}</td></tr>\
+            <tr><td class='label'>Status:</td><td class='value'>{{status}}</td></tr>\
+            <tr><td class='label'>Timestamp:</td><td class='value'>{{timestamp}}</td></tr>\
+            {{descriptionRow}}{{detailsRow}}\
+            </table>\
+            <div class='footer'>\
+            <p><em>This is an automated alert notification from the Industrial Equipment Digital Twin system.</em></p>\
+            <p><strong>Action Required:</strong> Please investigate this alert and take appropriate action if necessary.</p>\
+            </div>\
+            </div></body></html>""");
+
+    private static final EmailTemplate DESCRIPTION_ROW = EmailTemplate.compile(
+            "<tr><td class='label'>Description:</td><td class='value'>{{description}}</td></tr>");
+
+    private static final EmailTemplate DETAILS_ROW = EmailTemplate.compile(
+            "<tr><td class='label'>Details:</td><td class='value'>{{details}}</td></tr>");
+
     @Autowired(required = false)
     private JavaMailSender mailSender;
 
+    @Autowired(required = false)
+    private SmtpConnectionPool connectionPool;
+
     @Value("${notification.channels.email.enabled:true}")
     private boolean enabled;
 
@@ -34,23 +84,27 @@ public class EmailNotificationChannel implements NotificationChannel {
 
     @Override
     public void sendNotification(AlertEvent alert) {
-        if (!enabled || mailSender == null) {
+        if (!isAvailable()) {
             log.warn("Email notifications are disabled or mail sender is not configured");
             return;
         }
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+            MimeMessage message = connectionPool != null
+                    ? new MimeMessage(connectionPool.getSession()) : mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
 
             helper.setFrom(fromEmail);
             helper.setTo(toEmail);
             helper.setSubject(buildSubject(alert));
+            helper.setText(buildHtmlContent(alert), true);
 
-            String htmlContent = buildHtmlContent(alert);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
+            // Pooled connections stay open between alerts instead of reconnecting per message
+            if (connectionPool != null) {
+                connectionPool.send(message);
+            } else {
+                mailSender.send(message);
+            }
             log.info("Email notification sent for alert: {}", alert.getAlertId());
         } catch (MessagingException e) {
             log.error("Failed to send email notification for alert: {}", alert.getAlertId(), e);
@@ -60,7 +114,7 @@ public class EmailNotificationChannel implements NotificationChannel {
 
     @Override
     public boolean isAvailable() {
-        return enabled && mailSender != null;
+        return enabled && (connectionPool != null || mailSender != null);
     }
 
     @Override
@@ -68,71 +122,33 @@ public class EmailNotificationChannel implements NotificationChannel {
         return NotificationType.EMAIL;
     }
 
+    @Override
+    public String getRecipient() {
+        return toEmail;
+    }
+
     private String buildSubject(AlertEvent alert) {
-        return String.format("[%s] Alert: %s - Machine %s",
-                alert.getSeverity(), alert.getType(), alert.getMachineId());
+        return "[" + alert.getSeverity() + "] Alert: " + alert.getType() + " - Machine " + alert.getMachineId();
     }
 
     private String buildHtmlContent(AlertEvent alert) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 20px; background-color: #f5f5f5; }");
-        html.append(
-                ".container { max-width: 800px; margin: 0 auto; background-color: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1); }");
-        html.append("h2 { color: #d32f2f; border-bottom: 2px solid #d32f2f; padding-bottom: 10px; }");
-        html.append(".alert-table { width: 100%; border-collapse: collapse; margin: 20px 0; }");
-        html.append(".alert-table td { padding: 12px; border: 1px solid #ddd; }");
-        html.append(".alert-table tr:nth-child(even) { background-color: #f9f9f9; }");
-        html.append(".label { font-weight: bold; color: #333; width: 30%; }");
-        html.append(".value { color: #555; }");
-        html.append(".severity-critical { color: #d32f2f; font-weight: bold; }");
-        html.append(".severity-warning { color: #f57c00; font-weight: bold; }");
-        html.append(".severity-info { color: #1976d2; font-weight: bold; }");
-        html.append(".details-list { margin: 10px 0; padding-left: 20px; }");
-        html.append(".details-list li { margin: 5px 0; }");
-        html.append(
-                ".footer { margin-top: 30px; padding-top: 15px; border-top: 1px solid #eee; color: #777; font-size: 0.9em; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h2>Machine Alert Notification</h2>");
-        html.append("<table class='alert-table'>");
-
-        html.append("<tr><td class='label'>Alert ID:</td><td class='value'>").append(alert.getAlertId())
-                .append("</td></tr>");
-        html.append("<tr><td class='label'>Machine ID:</td><td class='value'>").append(alert.getMachineId())
-                .append("</td></tr>");
-        html.append("<tr><td class='label'>Severity:</td><td class='value severity-")
-                .append(alert.getSeverity().toString().toLowerCase()).append("'>")
-                .append(alert.getSeverity()).append("</td></tr>");
-        html.append("<tr><td class='label'>Alert Type:</td><td class='value'>").append(alert.getType())
-                .append("</td></tr>");
-        html.append("<tr><td class='label'>Status:</td><td class='value'>").append(alert.getStatus())
-                .append("</td></tr>");
-        html.append("<tr><td class='label'>Timestamp:</td><td class='value'>")
-                .append(formatter.format(alert.getTimestamp().atOffset(java.time.ZoneOffset.UTC))).append("</td></tr>");
+        Map<String, String> values = new HashMap<>();
+        values.put("alertId", escapeHtml(alert.getAlertId()));
+        values.put("machineId", escapeHtml(alert.getMachineId()));
+        values.put("severityClass", alert.getSeverity() != null ? alert.getSeverity().name().toLowerCase() : "info");
+        values.put("severity", String.valueOf(alert.getSeverity()));
+        values.put("type", String.valueOf(alert.getType()));
+        values.put("status", String.valueOf(alert.getStatus()));
+        values.put("timestamp", alert.getTimestamp() != null ? TIMESTAMP_FORMAT.format(alert.getTimestamp()) : "N/A");
 
         if (alert.getDescription() != null && !alert.getDescription().isEmpty()) {
-            html.append("<tr><td class='label'>Description:</td><td class='value'>").append(alert.getDescription())
-                    .append("</td></tr>");
+            values.put("descriptionRow",
+                    DESCRIPTION_ROW.render(Map.of("description", escapeHtml(alert.getDescription()))));
         }
-
         if (alert.getDetails() != null && !alert.getDetails().isEmpty()) {
-            html.append("<tr><td class='label'>Details:</td><td class='value'>")
-                    .append(formatDetails(alert.getDetails())).append("</td></tr>");
+            values.put("detailsRow", DETAILS_ROW.render(Map.of("details", formatDetails(alert.getDetails()))));
         }
-
-        html.append("</table>");
-        html.append("<div class='footer'>");
-        html.append(
-                "<p><em>This is an automated alert notification from the Industrial Equipment Digital Twin system.</em></p>");
-        html.append(
-                "<p><strong>Action Required:</strong> Please investigate this alert and take appropriate action if necessary.</p>");
-        html.append("</div>");
-        html.append("</div></body></html>");
-
-        return html.toString();
+        return ALERT_TEMPLATE.render(values);
     }
 
     private String formatDetails(java.util.Map<String, Object> details) {
@@ -0,0 +1,68 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An HTML template split once into literal segments and {@code {{name}}} placeholders. Rendering
+ * only appends the literals and the placeholder values, so the static markup is never rebuilt.
+ * Values are inserted as-is; callers escape them.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals; // One more than names: literal, name, literal, ..., literal
+    private final String[] names;
+    private final int literalLength;
+
+    private EmailTemplate(String[] literals, String[] names) {
+        this.literals = literals;
+        this.names = names;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static EmailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            literals.add(source.substring(position, open));
+            names.add(source.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new EmailTemplate(literals.toArray(String[]::new), names.toArray(String[]::new));
+    }
+
+    /**
+     * Fills the placeholders from {@code values}; missing values render as empty.
+     */
+    public String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(literalLength + 64 * names.length);
+        render(values, out);
+        return out.toString();
+    }
+
+    public void render(Map<String, String> values, StringBuilder out) {
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(names[i]);
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append(literals[names.length]);
+    }
+}
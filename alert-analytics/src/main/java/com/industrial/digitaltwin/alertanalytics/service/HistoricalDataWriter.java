@@ -0,0 +1,248 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.model.MachineTelemetry;
+import com.industrial.digitaltwin.alertanalytics.model.SensorData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind sink for {@code historical_data}. Telemetry rows are buffered in memory and written
+ * by {@code writer-threads} flusher threads with PostgreSQL {@code COPY FROM STDIN}, one statement
+ * per batch of up to {@code batch-size} rows or whatever arrived within {@code flush-interval}, each
+ * flusher on its own connection so index maintenance runs in parallel. When the buffer is
+ * full, consumers wait up to {@code enqueue-timeout} for room, which slows Kafka consumption down
+ * to what the database can absorb; rows that still find no room are dropped and counted.
+ */
+@Component
+@Slf4j
+public class HistoricalDataWriter {
+
+    static final String COPY_SQL = "COPY historical_data "
+            + "(machine_id, timestamp, temperature, vibration, load, pressure, rpm, status, created_at) FROM STDIN";
+
+    private record Row(String machineId, Instant timestamp, Double temperature, Double vibration, Double load,
+                       Double pressure, Double rpm, String status) {
+    }
+
+    private final DataSource dataSource;
+    private final AlertAnalyticsProperties.HistoricalDataProperties properties;
+    private final BlockingQueue<Row> buffer;
+    private final List<Thread> flushers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private final Timer enqueueWaitTimer;
+
+    public HistoricalDataWriter(DataSource dataSource, AlertAnalyticsProperties alertAnalyticsProperties,
+                                MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.properties = alertAnalyticsProperties.getHistoricalData();
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+        for (int i = 1; i <= properties.getWriterThreads(); i++) {
+            Thread flusher = new Thread(this::run, "historical-data-writer-" + i);
+            flusher.setDaemon(true);
+            flushers.add(flusher);
+        }
+
+        this.writtenCounter = Counter.builder("alertanalytics.historical.rows.written")
+                .description("Telemetry rows written to historical_data")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("alertanalytics.historical.rows.dropped")
+                .description("Telemetry rows dropped because the write buffer stayed full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("alertanalytics.historical.rows.failed")
+                .description("Telemetry rows lost because their batch could not be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("alertanalytics.historical.flush")
+                .description("Time to write one batch to historical_data")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.enqueueWaitTimer = Timer.builder("alertanalytics.historical.enqueue.wait")
+                .description("Time consumers spent waiting for room in the write buffer")
+                .register(meterRegistry);
+        Gauge.builder("alertanalytics.historical.buffered", buffer, BlockingQueue::size)
+                .description("Telemetry rows waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flushers.forEach(Thread::start);
+    }
+
+    /**
+     * Buffers the telemetry for writing. Returns at once unless the buffer is full.
+     */
+    public void enqueue(MachineTelemetry telemetry) {
+        SensorData sensorData = telemetry.getSensorData();
+        Row row = new Row(telemetry.getMachineId(),
+                telemetry.getTimestamp() != null ? telemetry.getTimestamp() : Instant.now(),
+                sensorData != null ? sensorData.getTemperature() : null,
+                sensorData != null ? sensorData.getVibration() : null,
+                sensorData != null ? sensorData.getLoad() : null,
+                sensorData != null ? sensorData.getPressure() : null,
+                sensorData != null ? sensorData.getRpm() : null,
+                telemetry.getStatus() != null ? telemetry.getStatus().name() : null);
+        if (buffer.offer(row)) {
+            return;
+        }
+        // Backpressure: hold the consumer thread until a flusher makes room
+        long start = System.nanoTime();
+        try {
+            if (!buffer.offer(row, properties.getEnqueueTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                droppedCounter.increment();
+                log.warn("Historical data buffer full, dropping row for machine: {}", telemetry.getMachineId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCounter.increment();
+        } finally {
+            enqueueWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void run() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<Row> batch = new ArrayList<>(batchSize);
+        StringBuilder copyData = new StringBuilder(batchSize * 128);
+        // Not interrupted on shutdown, so a COPY in progress always completes
+        while (running || !buffer.isEmpty()) {
+            try {
+                Row first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Row next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch, copyData);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Historical data writer interrupted with {} rows buffered", buffer.size() + batch.size());
+                return;
+            } catch (RuntimeException e) {
+                failedCounter.increment(batch.size());
+                log.error("Unexpected error writing {} historical data rows", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Row> batch, StringBuilder copyData) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                copy(batch, copyData);
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                writtenCounter.increment(batch.size());
+                log.debug("Wrote {} historical data rows", batch.size());
+                return;
+            } catch (SQLException | IOException e) {
+                if (attempt >= properties.getMaxFlushAttempts()) {
+                    failedCounter.increment(batch.size());
+                    log.error("Dropping {} historical data rows after {} failed writes", batch.size(), attempt, e);
+                    return;
+                }
+                log.warn("Writing {} historical data rows failed (attempt {}): {}", batch.size(), attempt,
+                        e.getMessage());
+                // Rows keep buffering meanwhile; a long outage turns into consumer backpressure
+                TimeUnit.NANOSECONDS.sleep(properties.getFlushInterval().toNanos() * attempt);
+            }
+        }
+    }
+
+    private void copy(List<Row> batch, StringBuilder copyData) throws SQLException, IOException {
+        copyData.setLength(0);
+        String createdAt = Instant.now().toString();
+        for (Row row : batch) {
+            appendText(copyData, row.machineId()).append('\t');
+            copyData.append(row.timestamp()).append('\t');
+            appendNumber(copyData, row.temperature()).append('\t');
+            appendNumber(copyData, row.vibration()).append('\t');
+            appendNumber(copyData, row.load()).append('\t');
+            appendNumber(copyData, row.pressure()).append('\t');
+            appendNumber(copyData, row.rpm()).append('\t');
+            appendText(copyData, row.status()).append('\t');
+            copyData.append(createdAt).append('\n');
+        }
+        byte[] data = copyData.toString().getBytes(StandardCharsets.UTF_8);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new ByteArrayInputStream(data));
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+
+    // COPY text format: \N for null; backslash, tab and line breaks escaped
+    private static StringBuilder appendText(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("\\N");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+        return out;
+    }
+
+    private static StringBuilder appendNumber(StringBuilder out, Double value) {
+        return value != null ? out.append(value.doubleValue()) : out.append("\\N");
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        long deadline = System.currentTimeMillis()
+                + properties.getFlushInterval().toMillis() * (properties.getMaxFlushAttempts() + 1) + 30_000;
+        for (Thread flusher : flushers) {
+            flusher.join(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("Dropping {} unwritten historical data rows on shutdown", buffer.size());
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.entity.AlertEntity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.AlertSeverity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertType;
+import com.industrial.digitaltwin.alertanalytics.repository.AlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Folds repeated anomalies into one open incident per machine and alert type. The first anomaly of
+ * an incident is persisted and notified as a regular alert; later ones only update counters, the
+ * peak value, the peak severity and the last-seen time in memory. Incidents are written back to
+ * their {@code alerts} row every {@code incident-flush-interval} and closed once no anomaly has
+ * arrived for {@code incident-idle-timeout}. Idleness is measured by arrival time, since event
+ * timestamps come from device clocks and may lag behind.
+ */
+@Component
+@Slf4j
+public class IncidentAggregator {
+
+    public enum FoldResult {
+        NO_OPEN_INCIDENT, // Caller should process the alert and open an incident
+        FOLDED,           // Absorbed; nothing to publish
+        ESCALATED         // Absorbed, but the incident severity went up and should be re-announced
+    }
+
+    private record IncidentKey(String machineId, AlertType type) {
+    }
+
+    private final AlertRepository alertRepository;
+    private final AlertAnalyticsProperties properties;
+
+    private final Map<IncidentKey, Incident> openIncidents = new ConcurrentHashMap<>();
+
+    private final Counter openedCounter;
+    private final Counter foldedCounter;
+
+    public IncidentAggregator(AlertRepository alertRepository, AlertAnalyticsProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.alertRepository = alertRepository;
+        this.properties = properties;
+        this.openedCounter = Counter.builder("alertanalytics.incidents.opened")
+                .description("Incidents opened; each one is persisted and notified once")
+                .register(meterRegistry);
+        this.foldedCounter = Counter.builder("alertanalytics.incidents.folded")
+                .description("Anomalies folded into an already open incident")
+                .register(meterRegistry);
+        Gauge.builder("alertanalytics.incidents.open", openIncidents, Map::size)
+                .description("Incidents currently open in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Folds the alert into the open incident for its machine and type, if there is one.
+     */
+    public FoldResult fold(AlertEvent alertEvent) {
+        Incident incident = openIncidents.get(new IncidentKey(alertEvent.getMachineId(), alertEvent.getType()));
+        if (incident == null) {
+            return FoldResult.NO_OPEN_INCIDENT;
+        }
+        synchronized (incident) {
+            if (incident.closed) {
+                return FoldResult.NO_OPEN_INCIDENT;
+            }
+            foldedCounter.increment();
+            return incident.add(alertEvent) ? FoldResult.ESCALATED : FoldResult.FOLDED;
+        }
+    }
+
+    /**
+     * Opens an incident anchored on an alert that has just been persisted.
+     */
+    public void open(AlertEvent persistedAlert) {
+        openIncidents.put(new IncidentKey(persistedAlert.getMachineId(), persistedAlert.getType()),
+                new Incident(persistedAlert));
+        openedCounter.increment();
+    }
+
+    /**
+     * The incident as an alert, reflecting everything folded into it so far.
+     */
+    public Optional<AlertEvent> currentAlert(String machineId, AlertType type) {
+        Incident incident = openIncidents.get(new IncidentKey(machineId, type));
+        if (incident == null) {
+            return Optional.empty();
+        }
+        synchronized (incident) {
+            return Optional.of(incident.toAlertEvent());
+        }
+    }
+
+    /**
+     * Writes changed incidents to their alert rows and closes idle ones.
+     */
+    @Scheduled(fixedDelayString = "#{@alertAnalyticsProperties.alertProcessing.incidentFlushInterval.toMillis()}")
+    @Transactional
+    public void flush() {
+        long idleBefore = System.currentTimeMillis() - properties.getAlertProcessing().getIncidentIdleTimeout().toMillis();
+        Map<String, AlertEvent> changed = new HashMap<>();
+        List<IncidentKey> idle = new ArrayList<>();
+        openIncidents.forEach((key, incident) -> {
+            synchronized (incident) {
+                if (incident.dirty) {
+                    changed.put(incident.alertId, incident.toAlertEvent());
+                    incident.dirty = false;
+                }
+                if (incident.lastArrival < idleBefore) {
+                    incident.closed = true;
+                    idle.add(key);
+                }
+            }
+        });
+        idle.forEach(openIncidents::remove);
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        // One read and one batch of updates per flush, however many anomalies were folded
+        Map<String, AlertEntity> entities = alertRepository.findByAlertIdIn(changed.keySet()).stream()
+                .collect(Collectors.toMap(AlertEntity::getAlertId, Function.identity()));
+        Instant now = Instant.now();
+        for (AlertEntity entity : entities.values()) {
+            AlertEvent incident = changed.get(entity.getAlertId());
+            entity.setSeverity(incident.getSeverity());
+            entity.setDetails(incident.getDetails());
+            entity.setUpdatedAt(now);
+        }
+        alertRepository.saveAll(entities.values());
+        log.debug("Flushed {} incidents, closed {}", entities.size(), idle.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static final class Incident {
+
+        private final AlertEvent anchor;
+        private final String alertId;
+        private final Instant firstSeen;
+        private Instant lastSeen;     // Latest event timestamp, reported in the details
+        private long lastArrival;     // Wall clock millis of the latest anomaly, for idle timeout
+        private AlertSeverity peakSeverity;
+        private double peakValue;
+        private long occurrences = 1;
+        private boolean dirty;
+        private boolean closed;
+
+        Incident(AlertEvent anchor) {
+            this.anchor = anchor;
+            this.alertId = anchor.getAlertId();
+            this.firstSeen = anchor.getTimestamp() != null ? anchor.getTimestamp() : Instant.now();
+            this.lastSeen = firstSeen;
+            this.lastArrival = System.currentTimeMillis();
+            this.peakSeverity = anchor.getSeverity();
+            this.peakValue = valueOf(anchor);
+        }
+
+        // Returns true when the alert raised the incident severity
+        boolean add(AlertEvent alertEvent) {
+            occurrences++;
+            lastArrival = System.currentTimeMillis();
+            Instant seen = alertEvent.getTimestamp() != null ? alertEvent.getTimestamp() : Instant.now();
+            if (seen.isAfter(lastSeen)) {
+                lastSeen = seen;
+            }
+            double value = valueOf(alertEvent);
+            if (Double.isNaN(peakValue) || Math.abs(value) > Math.abs(peakValue)) {
+                peakValue = value;
+            }
+            dirty = true;
+            AlertSeverity severity = alertEvent.getSeverity();
+            if (severity != null && (peakSeverity == null || severity.getPriority() < peakSeverity.getPriority())) {
+                peakSeverity = severity;
+                return true;
+            }
+            return false;
+        }
+
+        AlertEvent toAlertEvent() {
+            Map<String, Object> details = anchor.getDetails() != null
+                    ? new HashMap<>(anchor.getDetails()) : new HashMap<>();
+            details.put("occurrenceCount", occurrences);
+            details.put("firstSeen", firstSeen.toString());
+            details.put("lastSeen", lastSeen.toString());
+            if (!Double.isNaN(peakValue)) {
+                details.put("peakValue", peakValue);
+            }
+            return AlertEvent.builder()
+                    .alertId(alertId)
+                    .machineId(anchor.getMachineId())
+                    .severity(peakSeverity)
+                    .type(anchor.getType())
+                    .timestamp(firstSeen)
+                    .description(anchor.getDescription())
+                    .details(details)
+                    .status(anchor.getStatus())
+                    .assignedTo(anchor.getAssignedTo())
+                    .build();
+        }
+
+        private static double valueOf(AlertEvent alertEvent) {
+            Object value = alertEvent.getDetails() != null ? alertEvent.getDetails().get("value") : null;
+            return value instanceof Number number ? number.doubleValue() : Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.model.PerformanceMetrics;
+import com.industrial.digitaltwin.alertanalytics.model.SensorData;
+
+/**
+ * Per-machine analytics state that folds in one reading at a time, so the current metrics are
+ * available without rescanning the window. Implementations are not thread-safe; callers
+ * synchronize on the instance.
+ */
+public interface IncrementalAnalytics {
+
+    void update(SensorData reading);
+
+    PerformanceMetrics currentMetrics();
+}
@@ -1,16 +1,22 @@
 package com.industrial.digitaltwin.alertanalytics.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import com.industrial.digitaltwin.alertanalytics.config.KafkaConfig;
+
 import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
 import com.industrial.digitaltwin.alertanalytics.model.MachineTelemetry;
 import com.industrial.digitaltwin.alertanalytics.model.SensorData;
-import com.industrial.digitaltwin.alertanalytics.repository.HistoricalDataRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,38 +30,64 @@ public class KafkaConsumerService {
     private final AnalyticsService analyticsService;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final WebSocketBroadcastService webSocketBroadcastService;
-    private final HistoricalDataRepository historicalDataRepository;
-
-    @KafkaListener(topics = "anomaly-events", groupId = "alert-analytics-group")
-    public void consumeAnomalyEvents(Map<String, Object> rawAnomalyEvent) {
+    private final HistoricalDataWriter historicalDataWriter;
+    private final MetricsService metricsService;
+    private final IncidentAggregator incidentAggregator;
+    private final NotificationService notificationService;
+    private final AnalyticsReportPublisher analyticsReportPublisher;
+
+    @KafkaListener(id = "anomaly-events", topics = "anomaly-events", groupId = "alert-analytics-group")
+    public void consumeAnomalyEvents(Map<String, Object> rawAnomalyEvent,
+            @Header(name = KafkaConfig.TELEMETRY_TIMESTAMP_HEADER, required = false) byte[] telemetryTimestampHeader) {
         log.info("Received anomaly event: {}", rawAnomalyEvent);
+        Long telemetryTimestamp = parseTelemetryTimestamp(telemetryTimestampHeader);
 
         try {
-            // Convert the raw anomaly event map to our internal AlertEvent model
-            AlertEvent alertEvent = convertToAlertEvent(rawAnomalyEvent);
-
-            // Process the alert
-            alertProcessingService.processAlert(alertEvent);
-
-            // Publish alert to downstream consumers
-            kafkaTemplate.send("alerts", alertEvent.getMachineId(), alertEvent);
-            log.info("Alert published to 'alerts' topic: {}", alertEvent.getAlertId());
-
-            // Broadcast alert update via WebSocket
-            try {
-                webSocketBroadcastService.broadcastAlertUpdate(alertEvent);
-            } catch (Exception e) {
-                log.error("Error broadcasting alert via WebSocket", e);
+            // One alert per anomaly in the event; repeats fold into the open incident
+            for (AlertEvent alertEvent : convertToAlertEvents(rawAnomalyEvent)) {
+                switch (incidentAggregator.fold(alertEvent)) {
+                    case FOLDED -> {
+                        // Counted in memory and flushed to the incident's alert row later
+                    }
+                    case ESCALATED -> incidentAggregator.currentAlert(alertEvent.getMachineId(), alertEvent.getType())
+                            .ifPresent(incident -> {
+                                notificationService.sendNotification(incident);
+                                publishAlert(incident, telemetryTimestamp);
+                            });
+                    case NO_OPEN_INCIDENT -> {
+                        AlertEvent processed = alertProcessingService.processAlert(alertEvent);
+                        if (processed != null) {
+                            incidentAggregator.open(processed);
+                            metricsService.recordPipelineLatency(PipelineStage.ALERT_PERSISTED, telemetryTimestamp);
+                            publishAlert(processed, telemetryTimestamp);
+                        }
+                    }
+                }
             }
-
         } catch (Exception e) {
             log.error("Error processing anomaly event: {}", rawAnomalyEvent, e);
         }
     }
 
-    @KafkaListener(topics = "machine-state-updates", groupId = "alert-analytics-group")
-    public void consumeMachineStateUpdates(Map<String, Object> rawStateUpdate) {
+    private void publishAlert(AlertEvent alertEvent, Long telemetryTimestamp) {
+        // Publish alert to downstream consumers
+        kafkaTemplate.send("alerts", alertEvent.getMachineId(), alertEvent);
+        log.info("Alert published to 'alerts' topic: {}", alertEvent.getAlertId());
+
+        // Broadcast alert update via WebSocket
+        try {
+            webSocketBroadcastService.broadcastAlertUpdate(alertEvent);
+            metricsService.recordPipelineLatency(PipelineStage.ALERT_BROADCAST, telemetryTimestamp);
+        } catch (Exception e) {
+            log.error("Error broadcasting alert via WebSocket", e);
+        }
+    }
+
+    @KafkaListener(id = "state-updates", topics = "machine-state-updates", groupId = "alert-analytics-group")
+    public void consumeMachineStateUpdates(Map<String, Object> rawStateUpdate,
+            @Header(name = KafkaConfig.TELEMETRY_TIMESTAMP_HEADER, required = false) byte[] telemetryTimestampHeader) {
         log.info("Received machine state update: {}", rawStateUpdate);
+        Long telemetryTimestamp = parseTelemetryTimestamp(telemetryTimestampHeader);
 
         try {
             // Convert the raw state update map to our internal MachineTelemetry model
@@ -68,27 +100,30 @@ public class KafkaConsumerService {
             analyticsService.updateHistoricalData(stateUpdate.getMachineId(), stateUpdate.getSensorData());
 
             // Calculate performance metrics
-            var performanceMetrics = analyticsService.calculatePerformanceMetrics(
-                    stateUpdate.getMachineId(),
-                    analyticsService.getHistoricalData(stateUpdate.getMachineId()));
-
-            // Publish analytics report
-            kafkaTemplate.send("analytics-reports", stateUpdate.getMachineId(), performanceMetrics);
-            log.info("Analytics report published for machine: {}", stateUpdate.getMachineId());
-
-            // Broadcast analytics update via WebSocket
-            try {
-                webSocketBroadcastService.broadcastAnalyticsUpdate(performanceMetrics);
-            } catch (Exception e) {
-                log.error("Error broadcasting analytics via WebSocket", e);
-            }
+            var performanceMetrics = analyticsService.getCurrentPerformanceMetrics(stateUpdate.getMachineId());
+            metricsService.recordPipelineLatency(PipelineStage.ANALYTICS_UPDATED, telemetryTimestamp);
 
+            // Publish the analytics report and broadcast it, unless the metrics barely changed
+            analyticsReportPublisher.submit(performanceMetrics, telemetryTimestamp);
         } catch (Exception e) {
             log.error("Error processing machine state update: {}", rawStateUpdate, e);
         }
     }
 
-    private AlertEvent convertToAlertEvent(Map<String, Object> rawAnomalyEvent) {
+    // Device timestamp (epoch millis) stamped by digital-twin; absent on records from older producers
+    private Long parseTelemetryTimestamp(byte[] header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(header, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header", KafkaConfig.TELEMETRY_TIMESTAMP_HEADER);
+            return null;
+        }
+    }
+
+    private List<AlertEvent> convertToAlertEvents(Map<String, Object> rawAnomalyEvent) {
         String machineId = (String) rawAnomalyEvent.get("machineId");
         Object timestampObj = rawAnomalyEvent.get("timestamp");
         Object anomaliesObj = rawAnomalyEvent.get("anomalies");
@@ -97,30 +132,42 @@ public class KafkaConsumerService {
         // decimals)
         Instant timestamp = parseTimestamp(timestampObj);
 
-        // Extract the first anomaly for alert creation (in a real scenario, we might
-        // create multiple alerts)
         // Check if anomalies is a List or Map and handle accordingly
-        Object firstAnomaly = null;
-        if (anomaliesObj instanceof java.util.List) {
-            java.util.List<?> anomaliesList = (java.util.List<?>) anomaliesObj;
-            if (!anomaliesList.isEmpty()) {
-                firstAnomaly = anomaliesList.get(0);
-            }
+        List<Object> anomalies = new ArrayList<>();
+        if (anomaliesObj instanceof List<?> anomaliesList) {
+            anomalies.addAll(anomaliesList);
         } else if (anomaliesObj instanceof Map) {
             // If it's a single anomaly as a map, use it directly
-            firstAnomaly = anomaliesObj;
+            anomalies.add(anomaliesObj);
+        }
+        if (anomalies.isEmpty()) {
+            anomalies.add(null); // Still raise a generic alert for an event without details
+        }
+
+        List<AlertEvent> alertEvents = new ArrayList<>(anomalies.size());
+        for (Object anomaly : anomalies) {
+            // Alarm clears close nothing here; the incident closes once it goes idle
+            if (anomaly instanceof Map<?, ?> anomalyMap && "CLEARED".equals(anomalyMap.get("alarmState"))) {
+                log.info("Alarm cleared for machine {}: {}", machineId, anomalyMap.get("description"));
+                continue;
+            }
+            alertEvents.add(convertToAlertEvent(machineId, timestamp, anomaly, rawAnomalyEvent));
         }
+        return alertEvents;
+    }
 
-        // Determine severity and type from the first anomaly if available
+    private AlertEvent convertToAlertEvent(String machineId, Instant timestamp, Object anomaly,
+            Map<String, Object> rawAnomalyEvent) {
+        // Determine severity and type from the anomaly if available
         com.industrial.digitaltwin.alertanalytics.model.AlertSeverity severity = com.industrial.digitaltwin.alertanalytics.model.AlertSeverity.WARNING;
         com.industrial.digitaltwin.alertanalytics.model.AlertType type = com.industrial.digitaltwin.alertanalytics.model.AlertType.EXCESSIVE_VIBRATION;
         String description = "Anomaly detected in machine " + machineId;
 
-        if (firstAnomaly instanceof Map) {
-            Map<String, Object> firstAnomalyMap = (Map<String, Object>) firstAnomaly;
-            String anomalyTypeStr = (String) firstAnomalyMap.get("type");
-            String anomalySeverityStr = (String) firstAnomalyMap.get("severity");
-            String anomalyDescription = (String) firstAnomalyMap.get("description");
+        if (anomaly instanceof Map) {
+            Map<String, Object> anomalyMap = (Map<String, Object>) anomaly;
+            String anomalyTypeStr = (String) anomalyMap.get("type");
+            String anomalySeverityStr = (String) anomalyMap.get("severity");
+            String anomalyDescription = (String) anomalyMap.get("description");
 
             if (anomalyTypeStr != null) {
                 try {
@@ -180,14 +227,20 @@ public class KafkaConsumerService {
             }
         }
 
+        // The anomaly's own fields (value, threshold, ...) plus the detector that raised it
+        Map<String, Object> details = new HashMap<>();
+        if (anomaly instanceof Map<?, ?> fields) {
+            fields.forEach((key, value) -> details.put(String.valueOf(key), value));
+        }
+        details.put("algorithmUsed", rawAnomalyEvent.get("algorithmUsed"));
+
         return AlertEvent.builder()
-                .alertId("ALERT_" + System.currentTimeMillis()) // Generate alert ID
-                .machineId(machineId)
+                .machineId(machineId) // Id assigned when the alert is persisted
                 .severity(severity)
                 .type(type)
                 .timestamp(timestamp)
                 .description(description)
-                .details(rawAnomalyEvent) // Include raw details
+                .details(details)
                 .status(com.industrial.digitaltwin.alertanalytics.model.AlertStatus.NEW)
                 .build();
     }
@@ -245,26 +298,8 @@ public class KafkaConsumerService {
     }
 
     private void storeHistoricalData(MachineTelemetry machineTelemetry) {
-        try {
-            // Create a HistoricalDataEntity from the MachineTelemetry
-            var historicalData = com.industrial.digitaltwin.alertanalytics.entity.HistoricalDataEntity.builder()
-                    .machineId(machineTelemetry.getMachineId())
-                    .timestamp(machineTelemetry.getTimestamp())
-                    .temperature(machineTelemetry.getSensorData().getTemperature())
-                    .vibration(machineTelemetry.getSensorData().getVibration())
-                    .load(machineTelemetry.getSensorData().getLoad())
-                    .pressure(machineTelemetry.getSensorData().getPressure())
-                    .rpm(machineTelemetry.getSensorData().getRpm())
-                    .status(machineTelemetry.getStatus() != null ? machineTelemetry.getStatus().name() : null)
-                    .build();
-
-            // Save to the historical data repository
-            historicalDataRepository.save(historicalData);
-            log.debug("Stored historical data for machine: {} at time: {}",
-                    machineTelemetry.getMachineId(), machineTelemetry.getTimestamp());
-        } catch (Exception e) {
-            log.error("Error storing historical data for machine: {}", machineTelemetry.getMachineId(), e);
-        }
+        // Written behind in batches; blocks only while the write buffer is full
+        historicalDataWriter.enqueue(machineTelemetry);
     }
 
     private com.industrial.digitaltwin.alertanalytics.model.MachineStatus convertStatus(String statusStr) {
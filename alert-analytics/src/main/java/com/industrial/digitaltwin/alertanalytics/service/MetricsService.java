@@ -7,6 +7,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
@@ -21,12 +25,18 @@ public class MetricsService {
     private final Counter notificationSentCounter;
     private final Counter reportGeneratedCounter;
     private final Counter stateUpdatesCounter;
+    private final Counter alertsCorrelatedCounter;
+    private final Counter analyticsReportsPublishedCounter;
+    private final Counter analyticsReportsSuppressedCounter;
 
     // Timers for measuring performance
     private final Timer alertProcessingTimer;
     private final Timer analyticsCalculationTimer;
     private final Timer notificationDeliveryTimer;
 
+    // End-to-end latency from the device timestamp, one timer per stage
+    private final Map<PipelineStage, Timer> pipelineLatency = new EnumMap<>(PipelineStage.class);
+
     // Gauges for current state
     private final AtomicInteger activeAlertsGauge;
     private final AtomicInteger pendingNotificationsGauge;
@@ -55,6 +65,18 @@ public class MetricsService {
                 .description("Total number of state updates processed")
                 .register(meterRegistry);
 
+        this.alertsCorrelatedCounter = Counter.builder("alertanalytics.alerts.correlated")
+                .description("Alerts that joined a correlation group of the same machine")
+                .register(meterRegistry);
+
+        this.analyticsReportsPublishedCounter = Counter.builder("alertanalytics.analytics.reports.published")
+                .description("Analytics reports published to Kafka and WebSocket clients")
+                .register(meterRegistry);
+
+        this.analyticsReportsSuppressedCounter = Counter.builder("alertanalytics.analytics.reports.suppressed")
+                .description("Analytics updates not published because the metrics had not changed enough")
+                .register(meterRegistry);
+
         // Initialize timers
         this.alertProcessingTimer = Timer.builder("alertanalytics.alerts.processing.time")
                 .description("Time taken to process alerts")
@@ -68,6 +90,16 @@ public class MetricsService {
                 .description("Time taken to deliver notifications")
                 .register(meterRegistry);
 
+        for (PipelineStage stage : PipelineStage.values()) {
+            pipelineLatency.put(stage, Timer.builder("alertanalytics.pipeline.latency")
+                    .description("Time from the device telemetry timestamp until the stage completed")
+                    .tag("stage", stage.getTag())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(meterRegistry));
+        }
+
         // Initialize gauges
         this.activeAlertsGauge = new AtomicInteger(0);
         this.pendingNotificationsGauge = new AtomicInteger(0);
@@ -102,6 +134,21 @@ public class MetricsService {
         log.debug("Incremented state updates counter");
     }
 
+    public void incrementAlertsCorrelated() {
+        alertsCorrelatedCounter.increment();
+        log.debug("Incremented alerts correlated counter");
+    }
+
+    public void incrementAnalyticsReportsPublished() {
+        analyticsReportsPublishedCounter.increment();
+        log.debug("Incremented analytics reports published counter");
+    }
+
+    public void incrementAnalyticsReportsSuppressed() {
+        analyticsReportsSuppressedCounter.increment();
+        log.debug("Incremented analytics reports suppressed counter");
+    }
+
     public void incrementAnalyticsCalculations() {
         // Using the anomaly detected counter as a proxy for analytics calculations
         anomalyDetectedCounter.increment();
@@ -124,6 +171,20 @@ public class MetricsService {
         log.debug("Recorded notification delivery time: {} ms", millis);
     }
 
+    /**
+     * Records the time since the device stamped the reading; null when the record carried no
+     * timestamp. Readings with clocks ahead of ours are skipped.
+     */
+    public void recordPipelineLatency(PipelineStage stage, Long telemetryTimestampMillis) {
+        if (telemetryTimestampMillis == null) {
+            return;
+        }
+        long latencyMillis = System.currentTimeMillis() - telemetryTimestampMillis;
+        if (latencyMillis >= 0) {
+            pipelineLatency.get(stage).record(latencyMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
     // Gauge update methods
     public void setActiveAlerts(int count) {
         activeAlertsGauge.set(count);
@@ -0,0 +1,219 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.AlertSeverity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertStatus;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationChannel;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Turns alert storms into a few combined messages. Alerts are accumulated per channel and
+ * recipient over {@code digest-window} and sent as one digest. CRITICAL alerts use a shorter window
+ * of {@code critical-delay}: the first one goes out immediately, and any that follow within the
+ * delay are combined into one message at its end. A token bucket per channel caps the send rate;
+ * alerts that find no token wait in the channel's digest instead of being sent.
+ */
+@Component
+@Slf4j
+public class NotificationDigester {
+
+    private record DigestKey(NotificationType type, String recipient, boolean critical) {
+    }
+
+    private final AlertAnalyticsProperties.NotificationProperties properties;
+    private final NotificationDispatcher notificationDispatcher;
+
+    private final Map<DigestKey, Digest> digests = new ConcurrentHashMap<>();
+    private final Map<NotificationType, TokenBucket> rateLimiters = new ConcurrentHashMap<>();
+
+    private final Counter digestedCounter;
+    private final Counter rateLimitedCounter;
+
+    public NotificationDigester(AlertAnalyticsProperties alertAnalyticsProperties,
+                                NotificationDispatcher notificationDispatcher, MeterRegistry meterRegistry) {
+        this.properties = alertAnalyticsProperties.getNotification();
+        this.notificationDispatcher = notificationDispatcher;
+        this.digestedCounter = Counter.builder("alertanalytics.notifications.digested")
+                .description("Alerts folded into a digest instead of being sent on their own")
+                .register(meterRegistry);
+        this.rateLimitedCounter = Counter.builder("alertanalytics.notifications.rate_limited")
+                .description("Alerts deferred to a digest because the channel rate limit was reached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends the alert now or holds it for a digest, depending on severity, open digests and the
+     * channel's rate limit.
+     */
+    public void submit(AlertEvent alert, NotificationChannel channel) {
+        boolean critical = alert.getSeverity() == AlertSeverity.CRITICAL;
+        DigestKey key = new DigestKey(channel.getType(), channel.getRecipient(), critical);
+        long now = System.currentTimeMillis();
+
+        if (!critical && properties.isDigestEnabled()) {
+            hold(key, channel, alert, now + properties.getDigestWindow().toMillis());
+            digestedCounter.increment();
+            return;
+        }
+        // Critical alerts, or any alert with digests off: send unless a digest is already collecting
+        long window = (critical ? properties.getCriticalDelay() : properties.getDigestWindow()).toMillis();
+        Digest open = digests.get(key);
+        if (open != null && open.add(alert)) {
+            digestedCounter.increment();
+            return;
+        }
+        if (!rateLimiterFor(channel.getType()).tryAcquire(now)) {
+            rateLimitedCounter.increment();
+            hold(key, channel, alert, now + window);
+            return;
+        }
+        notificationDispatcher.dispatch(alert, channel);
+        if (critical) {
+            // Leading edge sent; criticals within the delay are combined at its end
+            digests.putIfAbsent(key, new Digest(channel, now + window));
+        }
+    }
+
+    /**
+     * Sends digests whose window has ended. A digest that finds no token stays open for another tick.
+     */
+    @Scheduled(fixedDelayString = "#{@alertAnalyticsProperties.notification.digestCheckInterval.toMillis()}")
+    public void flushDue() {
+        long now = System.currentTimeMillis();
+        digests.forEach((key, digest) -> {
+            if (digest.deadline > now) {
+                return;
+            }
+            List<AlertEvent> alerts;
+            synchronized (digest) {
+                if (digest.alerts.isEmpty()) {
+                    digest.closed = true;
+                    digests.remove(key, digest);
+                    return;
+                }
+                if (!rateLimiterFor(key.type()).tryAcquire(now)) {
+                    return;
+                }
+                alerts = new ArrayList<>(digest.alerts);
+                digest.closed = true;
+                digests.remove(key, digest);
+            }
+            notificationDispatcher.dispatch(alerts.size() == 1 ? alerts.get(0) : combine(alerts), digest.channel);
+            log.debug("Sent digest of {} alerts via {} to {}", alerts.size(), key.type(), key.recipient());
+        });
+    }
+
+    private void hold(DigestKey key, NotificationChannel channel, AlertEvent alert, long deadline) {
+        while (true) {
+            Digest digest = digests.computeIfAbsent(key, k -> new Digest(channel, deadline));
+            if (digest.add(alert)) {
+                return;
+            }
+            digests.remove(key, digest); // Closed by a concurrent flush; start a new one
+        }
+    }
+
+    private TokenBucket rateLimiterFor(NotificationType type) {
+        return rateLimiters.computeIfAbsent(type,
+                t -> new TokenBucket(properties.getRateLimitBurst(), properties.getRateLimitPerMinute() / 60_000.0));
+    }
+
+    // One message summarising every alert in the digest, worst severity first
+    static AlertEvent combine(List<AlertEvent> alerts) {
+        List<AlertEvent> sorted = alerts.stream()
+                .sorted(Comparator.comparing(alert -> alert.getSeverity() != null
+                        ? alert.getSeverity().getPriority() : Integer.MAX_VALUE))
+                .toList();
+        AlertEvent worst = sorted.get(0);
+        long machineCount = sorted.stream().map(AlertEvent::getMachineId).distinct().count();
+
+        StringBuilder description = new StringBuilder()
+                .append(sorted.size()).append(" alerts on ").append(machineCount).append(" machine(s):");
+        for (AlertEvent alert : sorted) {
+            description.append("\n- ").append(alert.getSeverity()).append(' ').append(alert.getType())
+                    .append(" on ").append(alert.getMachineId()).append(" at ").append(alert.getTimestamp());
+        }
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("digest", true);
+        details.put("alertIds", sorted.stream().map(AlertEvent::getAlertId).collect(Collectors.toList()));
+        details.put("alertCount", sorted.size());
+
+        return AlertEvent.builder()
+                .alertId("DIGEST_" + UUID.randomUUID().toString().toUpperCase())
+                .machineId(machineCount == 1 ? worst.getMachineId() : machineCount + " machines")
+                .severity(worst.getSeverity())
+                .type(worst.getType())
+                .timestamp(Instant.now())
+                .description(description.toString())
+                .details(details)
+                .status(AlertStatus.NEW)
+                .build();
+    }
+
+    private static final class Digest {
+
+        private final NotificationChannel channel;
+        private final long deadline;
+        private final List<AlertEvent> alerts = new ArrayList<>();
+        private boolean closed;
+
+        Digest(NotificationChannel channel, long deadline) {
+            this.channel = channel;
+            this.deadline = deadline;
+        }
+
+        synchronized boolean add(AlertEvent alert) {
+            if (closed) {
+                return false;
+            }
+            alerts.add(alert);
+            return true;
+        }
+    }
+
+    /**
+     * Classic token bucket: {@code capacity} tokens, refilled continuously at {@code tokensPerMilli}.
+     */
+    static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerMilli;
+        private double tokens;
+        private long lastRefill = Long.MIN_VALUE;
+
+        TokenBucket(int capacity, double tokensPerMilli) {
+            this.capacity = capacity;
+            this.tokensPerMilli = tokensPerMilli;
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire(long nowMillis) {
+            if (lastRefill != Long.MIN_VALUE && nowMillis > lastRefill) {
+                tokens = Math.min(capacity, tokens + (nowMillis - lastRefill) * tokensPerMilli);
+            }
+            lastRefill = Math.max(lastRefill, nowMillis);
+            if (tokens >= 1) {
+                tokens--;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.entity.NotificationLogEntity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationChannel;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationStatus;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationType;
+import com.industrial.digitaltwin.alertanalytics.repository.NotificationLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers notifications off the Kafka consumer thread. Each channel has its own bounded queue and
+ * worker pool, so a slow SMTP server does not hold up SMS and vice versa. Failed deliveries are
+ * retried with exponential backoff up to {@code notification.retry-attempts} times, without
+ * occupying a worker while they wait.
+ *
+ * <p>Every delivery is first written to {@code notification_logs} as a QUEUED row holding the
+ * alert, and that row is updated with the outcome; outcomes are written in batches. Rows still
+ * QUEUED when the application stops, including retries and queued deliveries cancelled by the
+ * shutdown, are delivered again on the next start, so delivery is at least once. Replay assumes a
+ * single alert-analytics instance per database.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final int SUBJECT_LENGTH = 25;   // notification_logs.subject
+    private static final int CONTENT_LENGTH = 1000; // notification_logs.content
+
+    private final AlertAnalyticsProperties.NotificationProperties properties;
+    private final NotificationLogRepository notificationLogRepository;
+    private final MetricsService metricsService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<NotificationChannel> channels;
+    private final Instant startedAt = Instant.now();
+
+    private final Map<NotificationType, ThreadPoolExecutor> workers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService retryScheduler;
+    private final ConcurrentLinkedQueue<NotificationLogEntity> pendingLogs = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Delivery> waitingForRetry = new ConcurrentHashMap<>();
+    private final AtomicLong retrySequence = new AtomicLong();
+
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+
+    // row is the delivery's QUEUED notification_logs row, or null if it could not be written
+    private record Delivery(AlertEvent alert, NotificationChannel channel, int attempt, NotificationLogEntity row) {
+    }
+
+    // Kept as the executor's task so deliveries still queued at shutdown can be identified
+    private final class DeliveryTask implements Runnable {
+        private final Delivery delivery;
+
+        DeliveryTask(Delivery delivery) {
+            this.delivery = delivery;
+        }
+
+        @Override
+        public void run() {
+            deliver(delivery);
+        }
+    }
+
+    public NotificationDispatcher(AlertAnalyticsProperties alertAnalyticsProperties,
+                                  NotificationLogRepository notificationLogRepository,
+                                  MetricsService metricsService, ObjectMapper objectMapper,
+                                  ObjectProvider<NotificationChannel> channels, MeterRegistry meterRegistry) {
+        this.properties = alertAnalyticsProperties.getNotification();
+        this.notificationLogRepository = notificationLogRepository;
+        this.metricsService = metricsService;
+        this.objectMapper = objectMapper;
+        this.channels = channels;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.failedCounter = Counter.builder("alertanalytics.notifications.failed")
+                .description("Notifications that failed after all retry attempts")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("alertanalytics.notifications.dropped")
+                .description("Notifications rejected because the channel queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the delivery as QUEUED, queues it on the channel and returns without waiting for it.
+     */
+    public void dispatch(AlertEvent alert, NotificationChannel channel) {
+        enqueue(new Delivery(alert, channel, 1, saveQueued(alert, channel)));
+    }
+
+    /**
+     * Delivers again what an earlier run recorded as QUEUED but never finished.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayQueued() {
+        List<NotificationLogEntity> rows;
+        try {
+            rows = notificationLogRepository.findByStatusAndCreatedAtBefore(NotificationStatus.QUEUED, startedAt);
+        } catch (Exception e) {
+            log.error("Could not read queued notifications to replay", e);
+            return;
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<NotificationType, NotificationChannel> byType = new LinkedHashMap<>();
+        channels.orderedStream().forEach(channel -> byType.putIfAbsent(channel.getType(), channel));
+        log.info("Replaying {} notifications left queued by the previous run", rows.size());
+        for (NotificationLogEntity row : rows) {
+            AlertEvent alert = queuedAlert(row);
+            NotificationChannel channel = byType.get(row.getNotificationType());
+            if (alert == null || channel == null) {
+                log.warn("Cannot replay {} notification {} for alert {}", row.getNotificationType(), row.getId(),
+                        row.getAlertId());
+                recordOutcome(new Delivery(alert, channel, 1, row), NotificationStatus.FAILED, "not replayable");
+                continue;
+            }
+            enqueue(new Delivery(alert, channel, 1, row));
+        }
+    }
+
+    public int getQueuedCount() {
+        int queued = waitingForRetry.size();
+        for (ThreadPoolExecutor executor : workers.values()) {
+            queued += executor.getQueue().size() + executor.getActiveCount();
+        }
+        return queued;
+    }
+
+    private void enqueue(Delivery delivery) {
+        try {
+            workersFor(delivery.channel().getType()).execute(new DeliveryTask(delivery));
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+            log.warn("{} notification queue is full, dropping alert {}", delivery.channel().getType(),
+                    delivery.alert().getAlertId());
+            recordOutcome(delivery, NotificationStatus.FAILED, "queue full");
+        }
+        metricsService.setPendingNotifications(getQueuedCount());
+    }
+
+    private void deliver(Delivery delivery) {
+        long start = System.currentTimeMillis();
+        try {
+            delivery.channel().sendNotification(delivery.alert());
+            metricsService.recordNotificationDeliveryTime(System.currentTimeMillis() - start);
+            metricsService.incrementNotificationsSent();
+            recordOutcome(delivery, NotificationStatus.SENT, null);
+        } catch (Exception e) {
+            if (delivery.attempt() <= properties.getRetryAttempts()) {
+                Duration backoff = backoff(delivery.attempt());
+                log.warn("{} notification for alert {} failed (attempt {}), retrying in {}",
+                        delivery.channel().getType(), delivery.alert().getAlertId(), delivery.attempt(), backoff);
+                long retryId = retrySequence.incrementAndGet();
+                Delivery retry = new Delivery(delivery.alert(), delivery.channel(), delivery.attempt() + 1, delivery.row());
+                waitingForRetry.put(retryId, retry);
+                retryScheduler.schedule(() -> {
+                    if (waitingForRetry.remove(retryId) != null) {
+                        enqueue(retry);
+                    }
+                }, backoff.toMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                failedCounter.increment();
+                log.error("{} notification for alert {} failed after {} attempts",
+                        delivery.channel().getType(), delivery.alert().getAlertId(), delivery.attempt(), e);
+                recordOutcome(delivery, NotificationStatus.FAILED, e.getMessage());
+            }
+        } finally {
+            metricsService.setPendingNotifications(getQueuedCount());
+        }
+    }
+
+    // initial-backoff doubled per failed attempt, capped at max-backoff
+    private Duration backoff(int attempt) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempt - 1, 20));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private ThreadPoolExecutor workersFor(NotificationType type) {
+        return workers.computeIfAbsent(type, key -> {
+            AtomicInteger threadCount = new AtomicInteger();
+            String prefix = "notify-" + key.name().toLowerCase().replace('_', '-') + "-";
+            return new ThreadPoolExecutor(properties.getWorkerThreads(), properties.getWorkerThreads(),
+                    0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+                        Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        });
+    }
+
+    private NotificationLogEntity saveQueued(AlertEvent alert, NotificationChannel channel) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("alert", alert);
+        try {
+            return notificationLogRepository.save(logEntry(alert, channel.getType(), channel.getRecipient(),
+                    NotificationStatus.QUEUED, details));
+        } catch (Exception e) {
+            log.error("Could not record queued {} notification for alert {}; it will not survive a restart",
+                    channel.getType(), alert.getAlertId(), e);
+            return null;
+        }
+    }
+
+    private AlertEvent queuedAlert(NotificationLogEntity row) {
+        try {
+            return objectMapper.convertValue(objectMapper.readTree(row.getResponseDetails()).get("alert"), AlertEvent.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void recordOutcome(Delivery delivery, NotificationStatus status, String error) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("attempts", delivery.attempt());
+        if (error != null) {
+            response.put("error", error);
+        }
+        NotificationLogEntity row = delivery.row();
+        if (row != null) {
+            // Only the delivering thread touches the row until it is written
+            row.setStatus(status);
+            row.setSentTime(Instant.now());
+            row.setResponseDetails(toJson(response));
+            pendingLogs.add(row);
+        } else {
+            pendingLogs.add(logEntry(delivery.alert(), delivery.channel().getType(), delivery.channel().getRecipient(),
+                    status, response));
+        }
+        if (pendingLogs.size() >= properties.getLogBatchSize()) {
+            flushLogs();
+        }
+    }
+
+    private NotificationLogEntity logEntry(AlertEvent alert, NotificationType type, String recipient,
+                                           NotificationStatus status, Map<String, Object> response) {
+        Instant now = Instant.now();
+        return NotificationLogEntity.builder()
+                .alertId(alert.getAlertId())
+                .notificationType(type)
+                .recipient(recipient != null && !recipient.isBlank() ? recipient : "unknown")
+                .subject(truncate(alert.getSeverity() + " " + alert.getType(), SUBJECT_LENGTH))
+                .content(truncate(alert.getDescription(), CONTENT_LENGTH))
+                .status(status)
+                .sentTime(now)
+                .responseDetails(toJson(response))
+                .createdAt(now)
+                .build();
+    }
+
+    /**
+     * Writes collected delivery outcomes in batches.
+     */
+    @Scheduled(fixedDelayString = "#{@alertAnalyticsProperties.notification.logFlushInterval.toMillis()}")
+    public void flushLogs() {
+        List<NotificationLogEntity> batch = new ArrayList<>(properties.getLogBatchSize());
+        NotificationLogEntity entry;
+        while ((entry = pendingLogs.poll()) != null) {
+            batch.add(entry);
+            if (batch.size() == properties.getLogBatchSize()) {
+                saveLogs(batch);
+                batch = new ArrayList<>(properties.getLogBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveLogs(batch);
+        }
+    }
+
+    private void saveLogs(List<NotificationLogEntity> batch) {
+        try {
+            notificationLogRepository.saveAll(batch);
+        } catch (Exception e) {
+            log.error("Failed to write {} notification log entries", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        retryScheduler.shutdownNow();
+        List<Delivery> cancelled = new ArrayList<>(waitingForRetry.values());
+        waitingForRetry.clear();
+        if (!cancelled.isEmpty()) {
+            log.warn("Cancelling {} notification retries on shutdown", cancelled.size());
+        }
+        for (ThreadPoolExecutor executor : workers.values()) {
+            executor.shutdown();
+        }
+        // Queued notifications are delivered before the application stops
+        for (ThreadPoolExecutor executor : workers.values()) {
+            if (!executor.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                List<Runnable> dropped = executor.shutdownNow();
+                log.warn("Cancelling {} queued notifications on shutdown", dropped.size());
+                for (Runnable task : dropped) {
+                    if (task instanceof DeliveryTask deliveryTask) {
+                        cancelled.add(deliveryTask.delivery);
+                    }
+                }
+            }
+        }
+        for (Delivery delivery : cancelled) {
+            cancel(delivery);
+        }
+        flushLogs();
+    }
+
+    // A delivery with a QUEUED row stays QUEUED and is replayed on the next start
+    private void cancel(Delivery delivery) {
+        if (delivery.row() != null) {
+            log.info("{} notification for alert {} cancelled by shutdown, will be replayed on restart",
+                    delivery.channel().getType(), delivery.alert().getAlertId());
+            return;
+        }
+        failedCounter.increment();
+        log.warn("{} notification for alert {} cancelled by shutdown after {} attempts",
+                delivery.channel().getType(), delivery.alert().getAlertId(), delivery.attempt() - 1);
+        recordOutcome(delivery, NotificationStatus.FAILED, "cancelled by shutdown");
+    }
+
+    private String toJson(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(String value, int length) {
+        return value != null && value.length() > length ? value.substring(0, length) : value;
+    }
+}
@@ -34,6 +34,8 @@ public class NotificationService {
     @org.springframework.beans.factory.annotation.Qualifier("microsoft-teams")
     private NotificationChannel microsoftTeamsChannel;
 
+    private final NotificationDigester notificationDigester;
+
     private final Map<String, NotificationChannel> channelMap = new ConcurrentHashMap<>();
 
     // Initialize the channel map after all beans are created
@@ -49,12 +51,9 @@ public class NotificationService {
         for (NotificationType channelType : channels) {
             NotificationChannel channel = getChannelByType(channelType);
             if (channel != null && channel.isAvailable()) {
-                try {
-                    channel.sendNotification(alert);
-                    log.debug("Notification sent via {} for alert: {}", channelType, alert.getAlertId());
-                } catch (Exception e) {
-                    log.error("Failed to send notification via {} for alert: {}", channelType, alert.getAlertId(), e);
-                }
+                // Sent now or held for a digest; delivered, retried and logged by the channel's workers
+                notificationDigester.submit(alert, channel);
+                log.debug("Notification submitted via {} for alert: {}", channelType, alert.getAlertId());
             } else {
                 log.warn("Notification channel {} is not available for alert: {}", channelType, alert.getAlertId());
             }
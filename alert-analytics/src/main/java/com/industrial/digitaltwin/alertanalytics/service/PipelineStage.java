@@ -0,0 +1,22 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+/**
+ * Points in the alert and analytics pipeline at which end-to-end latency since the device timestamp
+ * is recorded.
+ */
+public enum PipelineStage {
+    ALERT_PERSISTED("alert_persisted"),
+    ALERT_BROADCAST("alert_broadcast"),
+    ANALYTICS_UPDATED("analytics_updated"),
+    ANALYTICS_BROADCAST("analytics_broadcast");
+
+    private final String tag;
+
+    PipelineStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -20,4 +20,10 @@ public class PredictiveAnalyticsStrategy implements AnalyticsStrategy {
         // For now, delegate to basic strategy as a placeholder
         return new BasicAnalyticsStrategy().calculateMetrics(machineId, historicalData);
     }
+
+    @Override
+    public IncrementalAnalytics createIncremental(String machineId, int windowSize) {
+        // Placeholder as well: basic metrics, maintained incrementally
+        return new BasicAnalyticsStrategy().createIncremental(machineId, windowSize);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+/**
+ * Mean, variance, min and max over the last {@code capacity} values of one series, updated in O(1)
+ * amortized per value. Mean and variance use Welford's update with removal of the value leaving
+ * the window, and are recomputed exactly once per full turn of the window so rounding errors cannot
+ * accumulate. Min and max come from monotonic deques of window positions. Not thread-safe.
+ */
+public final class RollingStatistics {
+
+    private final int capacity;
+    private final double[] values;  // Ring indexed by sequence % capacity
+    private long sequence;          // Values added so far
+    private int size;
+
+    private double mean;
+    private double m2;              // Sum of squared deviations from the mean
+    private int evictionsSinceRecompute;
+
+    private final MonotonicDeque minimums;
+    private final MonotonicDeque maximums;
+
+    public RollingStatistics(int capacity) {
+        this.capacity = capacity;
+        this.values = new double[capacity];
+        this.minimums = new MonotonicDeque(values, false);
+        this.maximums = new MonotonicDeque(values, true);
+    }
+
+    public void add(double value) {
+        if (size == capacity) {
+            evict(values[(int) (sequence % capacity)]);
+        }
+        long position = sequence++;
+        values[(int) (position % capacity)] = value;
+        size++;
+        double delta = value - mean;
+        mean += delta / size;
+        m2 += delta * (value - mean);
+        minimums.push(position, value);
+        maximums.push(position, value);
+    }
+
+    private void evict(double oldest) {
+        long expired = sequence - capacity;
+        minimums.expire(expired);
+        maximums.expire(expired);
+        size--;
+        if (size == 0) {
+            mean = 0.0;
+            m2 = 0.0;
+            return;
+        }
+        double delta = oldest - mean;
+        mean -= delta / size;
+        m2 = Math.max(0.0, m2 - delta * (oldest - mean));
+        if (++evictionsSinceRecompute >= capacity) {
+            recompute();
+        }
+    }
+
+    // Exact two-pass mean and m2 over the values still in the window, excluding the evicted slot
+    private void recompute() {
+        evictionsSinceRecompute = 0;
+        long first = sequence - size;
+        double sum = 0.0;
+        for (long position = first; position < sequence; position++) {
+            sum += values[(int) (position % capacity)];
+        }
+        mean = sum / size;
+        double squares = 0.0;
+        for (long position = first; position < sequence; position++) {
+            double deviation = values[(int) (position % capacity)] - mean;
+            squares += deviation * deviation;
+        }
+        m2 = squares;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double mean() {
+        return size > 0 ? mean : 0.0;
+    }
+
+    /**
+     * Sample variance; 0 with fewer than two values.
+     */
+    public double variance() {
+        return size > 1 ? m2 / (size - 1) : 0.0;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    public double min() {
+        return size > 0 ? minimums.peek() : 0.0;
+    }
+
+    public double max() {
+        return size > 0 ? maximums.peek() : 0.0;
+    }
+
+    public double first() {
+        return size > 0 ? values[(int) ((sequence - size) % capacity)] : 0.0;
+    }
+
+    public double last() {
+        return size > 0 ? values[(int) ((sequence - 1) % capacity)] : 0.0;
+    }
+
+    /**
+     * Window positions whose values are increasing (minimums) or decreasing (maximums) from head to
+     * tail, so the head is always the window's extreme. Each position is pushed and popped once.
+     */
+    private static final class MonotonicDeque {
+
+        private final double[] values; // The statistics' value ring
+        private final long[] positions;
+        private final boolean keepLargest;
+        private int head;
+        private int size;
+
+        MonotonicDeque(double[] values, boolean keepLargest) {
+            this.values = values;
+            this.positions = new long[values.length];
+            this.keepLargest = keepLargest;
+        }
+
+        // Called after the value is stored; tail values that can never be the extreme again are dropped
+        void push(long position, double value) {
+            while (size > 0) {
+                double tailValue = valueAt(positions[(head + size - 1) % positions.length]);
+                if (keepLargest ? tailValue > value : tailValue < value) {
+                    break;
+                }
+                size--;
+            }
+            positions[(head + size) % positions.length] = position;
+            size++;
+        }
+
+        // Positions only leave in order, so the expired one can only be at the head
+        void expire(long position) {
+            if (size > 0 && positions[head] <= position) {
+                head = (head + 1) % positions.length;
+                size--;
+            }
+        }
+
+        double peek() {
+            return valueAt(positions[head]);
+        }
+
+        private double valueAt(long position) {
+            return values[(int) (position % values.length)];
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.model.SensorData;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Sensor readings kept per machine for analytics, in column order.
+ */
+public enum SensorChannel {
+    TEMPERATURE(SensorData::getTemperature),
+    VIBRATION(SensorData::getVibration),
+    LOAD(SensorData::getLoad),
+    PRESSURE(SensorData::getPressure),
+    RPM(SensorData::getRpm);
+
+    private final ToDoubleFunction<SensorData> extractor;
+
+    SensorChannel(ToDoubleFunction<SensorData> extractor) {
+        this.extractor = extractor;
+    }
+
+    public double valueOf(SensorData sensorData) {
+        return extractor.applyAsDouble(sensorData);
+    }
+}
@@ -0,0 +1,90 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.model.SensorData;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-capacity ring of one machine's most recent readings, stored column-wise in primitive
+ * arrays, so memory is {@code capacity * 56} bytes however long the machine reports. Appends claim
+ * a sequence number with one atomic increment and never take a lock. Every slot carries a stamp
+ * with the sequence it holds (negative while being written); snapshots check the stamp before and
+ * after copying a slot, and leave out slots that were in flight or overwritten meanwhile.
+ */
+public final class SensorRing {
+
+    private static final SensorChannel[] CHANNELS = SensorChannel.values();
+
+    private final int capacity;
+    private final long[] timestamps;
+    private final double[][] values;      // [channel ordinal][slot]
+    private final AtomicLongArray stamps; // Per slot: seq + 1 when readable, -(seq + 1) while written, 0 when empty
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public SensorRing(int capacity) {
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.values = new double[CHANNELS.length][capacity];
+        this.stamps = new AtomicLongArray(capacity);
+    }
+
+    public void append(SensorData sensorData, long timestampMillis) {
+        long sequence = nextSequence.getAndIncrement();
+        int slot = (int) (sequence % capacity);
+        // The slot's previous occupant is sequence - capacity; wait for it only if that writer was lapped
+        long previous = sequence < capacity ? 0 : sequence - capacity + 1;
+        while (!stamps.compareAndSet(slot, previous, -(sequence + 1))) {
+            Thread.onSpinWait();
+        }
+        VarHandle.storeStoreFence();
+        timestamps[slot] = timestampMillis;
+        for (SensorChannel channel : CHANNELS) {
+            values[channel.ordinal()][slot] = channel.valueOf(sensorData);
+        }
+        stamps.setRelease(slot, sequence + 1);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return (int) Math.min(nextSequence.get(), capacity);
+    }
+
+    public SensorWindow snapshot() {
+        long end = nextSequence.get();
+        long start = Math.max(0, end - capacity);
+        int length = (int) (end - start);
+        long[] copiedTimestamps = new long[length];
+        double[][] copiedValues = new double[CHANNELS.length][length];
+        int count = 0;
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence % capacity);
+            if (stamps.getAcquire(slot) != sequence + 1) {
+                continue; // Still being written, or already overwritten
+            }
+            copiedTimestamps[count] = timestamps[slot];
+            for (int c = 0; c < CHANNELS.length; c++) {
+                copiedValues[c][count] = values[c][slot];
+            }
+            VarHandle.loadLoadFence();
+            if (stamps.getAcquire(slot) == sequence + 1) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return SensorWindow.empty();
+        }
+        if (count < length) {
+            copiedTimestamps = Arrays.copyOf(copiedTimestamps, count);
+            for (int c = 0; c < CHANNELS.length; c++) {
+                copiedValues[c] = Arrays.copyOf(copiedValues[c], count);
+            }
+        }
+        return new SensorWindow(copiedTimestamps, copiedValues);
+    }
+}
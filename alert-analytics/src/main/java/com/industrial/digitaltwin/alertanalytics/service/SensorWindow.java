@@ -0,0 +1,119 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.model.SensorData;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.DoubleStream;
+
+/**
+ * Immutable column-wise snapshot of a machine's recent readings, oldest first. Each channel is
+ * exposed as a read-only {@link Column}; nothing is shared with the ring it was taken from.
+ */
+public final class SensorWindow {
+
+    private static final SensorChannel[] CHANNELS = SensorChannel.values();
+    private static final SensorWindow EMPTY = new SensorWindow(new long[0], new double[CHANNELS.length][0]);
+
+    private final long[] timestamps;   // Epoch millis
+    private final Column[] columns;
+
+    SensorWindow(long[] timestamps, double[][] values) {
+        this.timestamps = timestamps;
+        this.columns = new Column[CHANNELS.length];
+        for (SensorChannel channel : CHANNELS) {
+            columns[channel.ordinal()] = new Column(values[channel.ordinal()]);
+        }
+    }
+
+    public static SensorWindow empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Window over a list of readings; readings without a timestamp get the current time.
+     */
+    public static SensorWindow of(List<SensorData> readings) {
+        if (readings.isEmpty()) {
+            return EMPTY;
+        }
+        long now = System.currentTimeMillis();
+        long[] timestamps = new long[readings.size()];
+        double[][] values = new double[CHANNELS.length][readings.size()];
+        for (int i = 0; i < readings.size(); i++) {
+            SensorData reading = readings.get(i);
+            timestamps[i] = reading.getTimestamp() != null ? reading.getTimestamp().toEpochMilli() : now;
+            for (SensorChannel channel : CHANNELS) {
+                values[channel.ordinal()][i] = channel.valueOf(reading);
+            }
+        }
+        return new SensorWindow(timestamps, values);
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public boolean isEmpty() {
+        return timestamps.length == 0;
+    }
+
+    public long timestampMillis(int index) {
+        return timestamps[index];
+    }
+
+    public Column column(SensorChannel channel) {
+        return columns[channel.ordinal()];
+    }
+
+    /**
+     * Row-wise copy, for code that still works on {@link SensorData} lists.
+     */
+    public List<SensorData> toSensorData() {
+        List<SensorData> readings = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            readings.add(SensorData.builder()
+                    .temperature(column(SensorChannel.TEMPERATURE).get(i))
+                    .vibration(column(SensorChannel.VIBRATION).get(i))
+                    .load(column(SensorChannel.LOAD).get(i))
+                    .pressure(column(SensorChannel.PRESSURE).get(i))
+                    .rpm(column(SensorChannel.RPM).get(i))
+                    .timestamp(Instant.ofEpochMilli(timestamps[i]))
+                    .build());
+        }
+        return readings;
+    }
+
+    /**
+     * One sensor channel of the window, oldest reading first.
+     */
+    public static final class Column {
+
+        private final double[] values;
+
+        private Column(double[] values) {
+            this.values = values;
+        }
+
+        public int size() {
+            return values.length;
+        }
+
+        public double get(int index) {
+            return values[index];
+        }
+
+        public double first() {
+            return values[0];
+        }
+
+        public double last() {
+            return values[values.length - 1];
+        }
+
+        public DoubleStream stream() {
+            return DoubleStream.of(values);
+        }
+    }
+}
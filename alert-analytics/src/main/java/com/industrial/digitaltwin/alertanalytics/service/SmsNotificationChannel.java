@@ -88,6 +88,11 @@ public class SmsNotificationChannel implements NotificationChannel {
         return NotificationType.SMS;
     }
 
+    @Override
+    public String getRecipient() {
+        return toPhoneNumber;
+    }
+
     private String buildSmsMessage(AlertEvent alert) {
         return String.format("[ALERT] %s - Machine %s (%s): %s. Time: %s",
             alert.getSeverity(),
@@ -0,0 +1,186 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Keeps SMTP connections open between messages, so each notification costs one message exchange
+ * instead of a TCP connect, STARTTLS handshake and login. Connections are handed out to one sender
+ * at a time; up to {@code pool-size} of them stay open while idle. A connection is retired after
+ * {@code max-messages-per-connection} messages, or when it has been idle longer than
+ * {@code idle-timeout}, which should be shorter than the server's own idle cut-off.
+ */
+@Slf4j
+public class SmtpConnectionPool implements AutoCloseable {
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMillis;
+
+    private final BlockingDeque<Connection> idle;
+    private volatile boolean closed;
+
+    private final Counter openedCounter;
+    private final Counter sentCounter;
+
+    public SmtpConnectionPool(Session session, String host, int port, String username, String password,
+                              int poolSize, int maxMessagesPerConnection, Duration idleTimeout,
+                              MeterRegistry meterRegistry) {
+        this.session = session;
+        this.host = host;
+        this.port = port;
+        this.username = username != null && !username.isBlank() ? username : null;
+        this.password = password;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.idle = new LinkedBlockingDeque<>(poolSize);
+
+        this.openedCounter = Counter.builder("alertanalytics.smtp.connections.opened")
+                .description("SMTP connections opened; compare with messages sent for the reuse rate")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("alertanalytics.smtp.messages.sent")
+                .description("Messages sent over pooled SMTP connections")
+                .register(meterRegistry);
+        Gauge.builder("alertanalytics.smtp.connections.idle", idle, BlockingDeque::size)
+                .description("Open SMTP connections waiting for the next message")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Session to create messages from, so they pick up the pool's mail properties.
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        Connection connection = borrow();
+        boolean reusable = false;
+        try {
+            try {
+                connection.send(message);
+            } catch (MessagingException e) {
+                if (isRecipientRejection(e)) {
+                    reusable = true; // The connection itself is fine
+                    throw e;
+                }
+                connection.close();
+                if (!connection.reused) {
+                    throw e;
+                }
+                // The server may have dropped an idle connection; retry once on a new one
+                log.debug("Pooled SMTP connection failed, reconnecting: {}", e.getMessage());
+                connection = open();
+                connection.send(message);
+            }
+            sentCounter.increment();
+            reusable = true;
+        } finally {
+            // Anything else, including unchecked exceptions, leaves the connection in an unknown state
+            if (reusable) {
+                release(connection);
+            } else {
+                connection.close();
+            }
+        }
+    }
+
+    // Angus Mail reports a connection the server dropped as SMTPSendFailedException with return code -1,
+    // so only a failure that names rejected recipients means the server actually answered
+    private static boolean isRecipientRejection(MessagingException e) {
+        if (!(e instanceof SendFailedException failed)
+                || failed instanceof SMTPSendFailedException smtp && smtp.getReturnCode() < 0) {
+            return false;
+        }
+        return isNotEmpty(failed.getInvalidAddresses()) || isNotEmpty(failed.getValidUnsentAddresses());
+    }
+
+    private static boolean isNotEmpty(Address[] addresses) {
+        return addresses != null && addresses.length > 0;
+    }
+
+    private Connection borrow() throws MessagingException {
+        long now = System.currentTimeMillis();
+        Connection connection;
+        // Most recently used first, so surplus connections age out at the tail
+        while ((connection = idle.pollFirst()) != null) {
+            // No NOOP probe: a connection the server dropped fails on send and is replaced there
+            if (now - connection.lastUsed < idleTimeoutMillis) {
+                connection.reused = true;
+                return connection;
+            }
+            connection.close();
+        }
+        return open();
+    }
+
+    private void release(Connection connection) {
+        if (closed || connection.sent >= maxMessagesPerConnection || !idle.offerFirst(connection)) {
+            connection.close();
+        }
+    }
+
+    private Connection open() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        transport.connect(host, port, username, password);
+        openedCounter.increment();
+        return new Connection(transport);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.close();
+        }
+    }
+
+    private static final class Connection {
+
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.currentTimeMillis();
+        private boolean reused;
+
+        Connection(Transport transport) {
+            this.transport = transport;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            sent++;
+            lastUsed = System.currentTimeMillis();
+        }
+
+        void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+}
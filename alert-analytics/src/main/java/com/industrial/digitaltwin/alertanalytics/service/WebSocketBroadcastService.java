@@ -5,6 +5,7 @@ import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
 import com.industrial.digitaltwin.alertanalytics.model.MachineTelemetry;
 import com.industrial.digitaltwin.alertanalytics.model.MaintenanceReport;
 import com.industrial.digitaltwin.alertanalytics.model.PerformanceMetrics;
+import com.industrial.digitaltwin.alertanalytics.stream.UpdateStreamService;
 import com.industrial.digitaltwin.alertanalytics.websocket.AlertAnalyticsWebSocketHandler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +18,9 @@ public class WebSocketBroadcastService {
     @Autowired
     private AlertAnalyticsWebSocketHandler webSocketHandler;
 
+    @Autowired
+    private UpdateStreamService updateStreamService;
+
     public void broadcastAlertUpdate(Object alert) {
         try {
             String machineId = "UNKNOWN";
@@ -37,6 +41,7 @@ public class WebSocketBroadcastService {
                     .build();
 
             webSocketHandler.broadcastMessage(update);
+            updateStreamService.publish(null, update);
             log.debug("Broadcasted alert update via WebSocket");
         } catch (Exception e) {
             log.error("Error broadcasting alert update via WebSocket", e);
@@ -68,7 +73,9 @@ public class WebSocketBroadcastService {
                     .machineId(machineId)
                     .build();
             
-            webSocketHandler.broadcastMessage(update);
+            String key = update.getUpdateType() + ":" + machineId;
+            webSocketHandler.broadcastMessage(update, key);
+            updateStreamService.publish(key, update);
             log.debug("Broadcasted analytics update via WebSocket");
         } catch (Exception e) {
             log.error("Error broadcasting analytics update via WebSocket", e);
@@ -97,7 +104,9 @@ public class WebSocketBroadcastService {
                     .machineId(machineId)
                     .build();
             
-            webSocketHandler.broadcastMessage(update);
+            String key = update.getUpdateType() + ":" + machineId;
+            webSocketHandler.broadcastMessage(update, key);
+            updateStreamService.publish(key, update);
             log.debug("Broadcasted historical state via WebSocket");
         } catch (Exception e) {
             log.error("Error broadcasting historical state via WebSocket", e);
@@ -148,7 +157,9 @@ public class WebSocketBroadcastService {
                     .machineId(machineId)
                     .build();
             
-            webSocketHandler.broadcastMessage(update);
+            String key = update.getUpdateType() + ":" + machineId;
+            webSocketHandler.broadcastMessage(update, key);
+            updateStreamService.publish(key, update);
             log.debug("Broadcasted report update via WebSocket");
         } catch (Exception e) {
             log.error("Error broadcasting report update via WebSocket", e);
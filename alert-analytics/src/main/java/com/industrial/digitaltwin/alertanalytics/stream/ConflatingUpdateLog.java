@@ -0,0 +1,79 @@
+package com.industrial.digitaltwin.alertanalytics.stream;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Bounded, sequence-numbered log of pre-serialized updates shared by all streaming clients. Only
+ * the latest entry per key is retained, so a reader that falls behind skips straight to the current
+ * value of each key. Readers keep nothing but a cursor (the last sequence they have seen), which
+ * makes each open connection O(1) in memory.
+ */
+public class ConflatingUpdateLog<T> {
+
+    public record Entry<T>(long sequence, String key, T update, String json) {
+    }
+
+    private final int capacity;
+    private final ConcurrentSkipListMap<Long, Entry<T>> bySequence = new ConcurrentSkipListMap<>();
+    private final Map<String, Entry<T>> byKey = new HashMap<>();
+    private int size;
+    private volatile long lastSequence;
+    private volatile long evictedThrough;
+
+    public ConflatingUpdateLog(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Appends an update, replacing any earlier entry with the same key. A null key is never conflated.
+     */
+    public synchronized Entry<T> append(String key, T update, String json) {
+        Entry<T> entry = new Entry<>(lastSequence + 1, key, update, json);
+        if (key != null) {
+            Entry<T> previous = byKey.put(key, entry);
+            if (previous != null) {
+                bySequence.remove(previous.sequence());
+                size--;
+            }
+        }
+        bySequence.put(entry.sequence(), entry);
+        size++;
+        lastSequence = entry.sequence();
+
+        while (size > capacity) {
+            Entry<T> oldest = bySequence.pollFirstEntry().getValue();
+            if (oldest.key() != null) {
+                byKey.remove(oldest.key(), oldest);
+            }
+            evictedThrough = oldest.sequence();
+            size--;
+        }
+        return entry;
+    }
+
+    /**
+     * Entries after the cursor in sequence order. The view is live and weakly consistent; entries
+     * appended during iteration may or may not be included.
+     */
+    public Collection<Entry<T>> since(long cursor) {
+        return bySequence.tailMap(cursor, false).values();
+    }
+
+    /**
+     * True when entries after the cursor were evicted, so the reader should resynchronize.
+     */
+    public boolean isTruncated(long cursor) {
+        return cursor < evictedThrough;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
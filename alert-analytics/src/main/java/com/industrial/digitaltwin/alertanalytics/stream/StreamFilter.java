@@ -0,0 +1,22 @@
+package com.industrial.digitaltwin.alertanalytics.stream;
+
+import com.industrial.digitaltwin.alertanalytics.model.AlertAnalyticsUpdate;
+
+import java.util.Set;
+
+/**
+ * Machine and update-type filter for one streaming client; empty sets match everything.
+ */
+public record StreamFilter(Set<String> machineIds, Set<String> updateTypes) {
+
+    public static StreamFilter of(Set<String> machineIds, Set<String> updateTypes) {
+        return new StreamFilter(
+                machineIds != null ? Set.copyOf(machineIds) : Set.of(),
+                updateTypes != null ? Set.copyOf(updateTypes) : Set.of());
+    }
+
+    public boolean accepts(AlertAnalyticsUpdate update) {
+        return (machineIds.isEmpty() || machineIds.contains(update.getMachineId()))
+                && (updateTypes.isEmpty() || updateTypes.contains(update.getUpdateType()));
+    }
+}
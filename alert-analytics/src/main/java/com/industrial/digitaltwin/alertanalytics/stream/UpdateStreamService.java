@@ -0,0 +1,234 @@
+package com.industrial.digitaltwin.alertanalytics.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.model.AlertAnalyticsUpdate;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events and long-poll delivery of alert and analytics updates for clients that cannot
+ * use WebSockets. Updates are serialized once into a shared {@link ConflatingUpdateLog} with the
+ * same conflation keys as the WebSocket broadcaster (alerts are never conflated); every connection
+ * holds only its {@link StreamFilter} and a cursor.
+ */
+@Service
+@Slf4j
+public class UpdateStreamService {
+
+    private final AlertAnalyticsProperties.StreamingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ConflatingUpdateLog<AlertAnalyticsUpdate> updateLog;
+    private final Set<SseStream> streams = ConcurrentHashMap.newKeySet();
+    private final Set<PollWaiter> waiters = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService senders;
+
+    public UpdateStreamService(AlertAnalyticsProperties alertAnalyticsProperties, ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.properties = alertAnalyticsProperties.getStreaming();
+        this.objectMapper = objectMapper;
+        this.updateLog = new ConflatingUpdateLog<>(properties.getLogCapacity());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "stream-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stream-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMicros = TimeUnit.SECONDS.toMicros(1) / properties.getMaxUpdatesPerSecond();
+        ticker.scheduleAtFixedRate(this::tick, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+
+        Gauge.builder("alertanalytics.stream.sse.connections", streams, Set::size)
+                .description("Open Server-Sent Events streams")
+                .register(meterRegistry);
+        Gauge.builder("alertanalytics.stream.poll.waiting", waiters, Set::size)
+                .description("Long-poll requests waiting for updates")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        streams.forEach(stream -> stream.emitter.complete());
+    }
+
+    /**
+     * Adds an update to the stream. Updates with the same non-null key replace each other.
+     */
+    public void publish(String key, AlertAnalyticsUpdate update) {
+        try {
+            updateLog.append(key, update, objectMapper.writeValueAsString(update));
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing {} update for streaming", update.getUpdateType(), e);
+        }
+    }
+
+    /**
+     * Opens an SSE stream. Without a Last-Event-ID the client first receives the retained recent
+     * updates; a reconnecting client resumes after the last event it saw,
+     * or gets a reset event if that event id is from before a server restart.
+     */
+    public SseEmitter openStream(StreamFilter filter, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getSseTimeout().toMillis());
+        SseStream stream = new SseStream(emitter, filter, lastEventId != null ? lastEventId : 0L);
+        emitter.onCompletion(() -> streams.remove(stream));
+        emitter.onTimeout(() -> streams.remove(stream));
+        emitter.onError(e -> streams.remove(stream));
+        streams.add(stream);
+        schedule(stream);
+        return emitter;
+    }
+
+    /**
+     * Answers immediately when there are matching updates after {@code since}; otherwise waits for
+     * one until the long-poll timeout and then answers with an empty list and the current cursor.
+     */
+    public DeferredResult<ResponseEntity<String>> poll(StreamFilter filter, long since) {
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<>(properties.getLongPollTimeout().toMillis());
+        PollWaiter waiter = new PollWaiter(result, filter, since);
+
+        Batch batch = collect(filter, since);
+        if (batch.count() > 0 || batch.reset()) {
+            result.setResult(pollResponse(batch));
+            return result;
+        }
+        waiter.since = batch.cursor();
+        result.onTimeout(() -> result.setResult(pollResponse(collect(filter, waiter.since))));
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+
+    private void tick() {
+        long lastSequence = updateLog.getLastSequence();
+        for (SseStream stream : streams) {
+            if (stream.cursor != lastSequence) {
+                schedule(stream);
+            }
+        }
+        for (PollWaiter waiter : waiters) {
+            if (waiter.since != lastSequence) {
+                Batch batch = collect(waiter.filter, waiter.since);
+                if (batch.count() > 0 || batch.reset()) {
+                    waiter.result.setResult(pollResponse(batch));
+                } else {
+                    waiter.since = batch.cursor();
+                }
+            }
+        }
+    }
+
+    // At most one send per stream is in flight; a stream that is still writing skips this tick
+    private void schedule(SseStream stream) {
+        if (stream.sending.compareAndSet(false, true)) {
+            senders.execute(() -> {
+                try {
+                    stream.flush();
+                } finally {
+                    stream.sending.set(false);
+                }
+            });
+        }
+    }
+
+    private Batch collect(StreamFilter filter, long cursor) {
+        // A cursor ahead of the log was issued before a restart; its sequence numbers mean nothing now
+        boolean restarted = cursor > updateLog.getLastSequence();
+        if (restarted) {
+            cursor = 0;
+        }
+        boolean reset = restarted || updateLog.isTruncated(cursor);
+        StringBuilder json = new StringBuilder().append('[');
+        int count = 0;
+        long last = cursor;
+        for (ConflatingUpdateLog.Entry<AlertAnalyticsUpdate> entry : updateLog.since(cursor)) {
+            if (filter.accepts(entry.update())) {
+                if (count++ > 0) {
+                    json.append(',');
+                }
+                json.append(entry.json());
+            }
+            last = entry.sequence();
+        }
+        return new Batch(json.append(']').toString(), count, last, reset);
+    }
+
+    private ResponseEntity<String> pollResponse(Batch batch) {
+        String body = "{\"cursor\":" + batch.cursor() + ",\"reset\":" + batch.reset()
+                + ",\"updates\":" + batch.json() + "}";
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private record Batch(String json, int count, long cursor, boolean reset) {
+    }
+
+    private final class SseStream {
+        final SseEmitter emitter;
+        final StreamFilter filter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long cursor;
+
+        SseStream(SseEmitter emitter, StreamFilter filter, long cursor) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.cursor = cursor;
+        }
+
+        void flush() {
+            Batch batch = collect(filter, cursor);
+            try {
+                if (batch.reset()) {
+                    emitter.send(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+                }
+                if (batch.count() > 0) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(batch.cursor()))
+                            .name("updates")
+                            .data(batch.json(), MediaType.APPLICATION_JSON));
+                }
+                cursor = batch.cursor();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Closing SSE stream after send failure: {}", e.getMessage());
+                streams.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static final class PollWaiter {
+        final DeferredResult<ResponseEntity<String>> result;
+        final StreamFilter filter;
+        volatile long since;
+
+        PollWaiter(DeferredResult<ResponseEntity<String>> result, StreamFilter filter, long since) {
+            this.result = result;
+            this.filter = filter;
+            this.since = since;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.industrial.digitaltwin.alertanalytics.websocket;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,40 +8,58 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 
 import java.io.IOException;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
 public class AlertAnalyticsWebSocketHandler implements WebSocketHandler {
 
-    private final Set<WebSocketSession> sessions = new CopyOnWriteArraySet<>();
+    private final Map<String, SessionSendQueue> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private WebSocketBroadcastEngine broadcastEngine;
 
     @Autowired
     private ObjectMapper objectMapper;
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessions.add(session);
+        sessions.put(session.getId(), broadcastEngine.open(session));
         log.info("WebSocket connection established: {}", session.getId());
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        sessions.remove(session);
+        broadcastEngine.close(sessions.remove(session.getId()));
         log.info("WebSocket connection closed: {} with status: {}", session.getId(), status);
     }
 
+    /**
+     * Binary clients that see an unknown machine code can request the full dictionary with
+     * {"action":"dictionary"}.
+     */
     @Override
     public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
-        // Handle incoming messages from clients if needed
         log.debug("Received message from session {}: {}", session.getId(), message.getPayload());
+        SessionSendQueue queue = sessions.get(session.getId());
+        if (queue == null || !(message instanceof TextMessage textMessage)) {
+            return;
+        }
+        try {
+            String action = objectMapper.readTree(textMessage.getPayload()).path("action").asText();
+            if ("dictionary".equalsIgnoreCase(action)) {
+                broadcastEngine.sendDictionary(queue);
+            }
+        } catch (JsonProcessingException e) {
+            log.debug("Ignoring non-JSON message from session {}", session.getId());
+        }
     }
 
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
         log.error("Transport error in session: {}", session.getId(), exception);
-        sessions.remove(session);
+        broadcastEngine.close(sessions.remove(session.getId()));
     }
 
     @Override
@@ -49,14 +68,18 @@ public class AlertAnalyticsWebSocketHandler implements WebSocketHandler {
     }
 
     public void broadcastMessage(Object message) {
-        for (WebSocketSession session : sessions) {
-            try {
-                if (session.isOpen()) {
-                    session.sendMessage(new org.springframework.web.socket.TextMessage(objectMapper.writeValueAsString(message)));
-                }
-            } catch (IOException e) {
-                log.error("Error broadcasting message to session: {}", session.getId(), e);
-            }
+        broadcastMessage(message, null);
+    }
+
+    /**
+     * Queues the message for every session without blocking on socket writes. Frames with the same
+     * non-null key may be conflated for sessions that fall behind.
+     */
+    public void broadcastMessage(Object message, String key) {
+        try {
+            broadcastEngine.broadcast(message, key, sessions.values());
+        } catch (IOException e) {
+            log.error("Error serializing broadcast message", e);
         }
     }
 
@@ -0,0 +1,162 @@
+package com.industrial.digitaltwin.alertanalytics.websocket;
+
+import com.industrial.digitaltwin.alertanalytics.model.AlertAnalyticsUpdate;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.AlertSeverity;
+import com.industrial.digitaltwin.alertanalytics.model.PerformanceMetrics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of the high-volume alert and analytics updates. All values are
+ * big-endian; strings are u16 length + UTF-8 bytes, timestamps are epoch millis (-1 = none), enum
+ * fields are ordinals (255 = none) and machine ids are {@link StringDictionary} codes.
+ *
+ * <pre>
+ * DICTIONARY u8 type=1, u16 count, count x { i32 code, string value }
+ * ALERT      u8 type=2, i64 update timestamp, i32 machineId code, u8 severity, u8 alert type,
+ *            u8 status, i64 alert timestamp, i64 resolution time, string alertId, string description
+ * ANALYTICS  u8 type=3, i64 update timestamp, i32 machineId code, u8 severity, i64 calculation time,
+ *            f32 average load, temperature, vibration, f32 uptime %, f32 efficiency,
+ *            i32 anomaly count, i64 average downtime millis
+ * </pre>
+ *
+ * Alert details, assignee, metric trends and channel statistics are not part of the binary frames;
+ * other update types (reports, historical states) are always sent as JSON. Strings longer than
+ * 65535 bytes are truncated, and dictionaries are split into frames of at most {@link #MAX_COUNT}
+ * entries. Frames are returned as byte arrays that are never modified afterwards, so one encoding
+ * can back a message for every session.
+ */
+public class BinaryUpdateCodec {
+
+    public static final byte DICTIONARY = 1;
+    public static final byte ALERT = 2;
+    public static final byte ANALYTICS = 3;
+
+    public static final int MAX_COUNT = 0xFFFF;
+
+    private static final int NONE = -1;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private final StringDictionary dictionary = new StringDictionary();
+
+    public StringDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Encodes alert and analytics updates. Returns null for any other message, which is then sent
+     * as JSON.
+     */
+    public byte[] encode(Object message) {
+        if (!(message instanceof AlertAnalyticsUpdate update)) {
+            return null;
+        }
+        if (update.getPayload() instanceof AlertEvent alert) {
+            return encodeAlert(update, alert);
+        }
+        if (update.getPayload() instanceof PerformanceMetrics metrics) {
+            return encodeAnalytics(update, metrics);
+        }
+        return null;
+    }
+
+    /**
+     * DICTIONARY frames for the codes from {@code fromCode} onwards, in code order.
+     */
+    public List<byte[]> encodeDictionary(int fromCode) {
+        List<String> entries = dictionary.entriesFrom(fromCode);
+        List<byte[]> frames = new ArrayList<>(entries.size() / MAX_COUNT + 1);
+        for (int first = 0; first < entries.size() || frames.isEmpty(); first += MAX_COUNT) {
+            List<String> chunk = entries.subList(first, Math.min(entries.size(), first + MAX_COUNT));
+            byte[][] bytes = new byte[chunk.size()][];
+            int length = 3;
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = utf8(chunk.get(i));
+                length += 6 + bytes[i].length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            buffer.put(DICTIONARY);
+            buffer.putShort((short) bytes.length);
+            for (int i = 0; i < bytes.length; i++) {
+                buffer.putInt(fromCode + first + i);
+                putString(buffer, bytes[i]);
+            }
+            frames.add(buffer.array());
+        }
+        return frames;
+    }
+
+    private byte[] encodeAlert(AlertAnalyticsUpdate update, AlertEvent alert) {
+        byte[] alertId = utf8(alert.getAlertId());
+        byte[] description = utf8(alert.getDescription());
+        ByteBuffer buffer = ByteBuffer.allocate(36 + alertId.length + description.length);
+        buffer.put(ALERT);
+        buffer.putLong(millis(update.getTimestamp()));
+        buffer.putInt(machineCode(alert.getMachineId()));
+        buffer.put(ordinal(alert.getSeverity()));
+        buffer.put(ordinal(alert.getType()));
+        buffer.put(ordinal(alert.getStatus()));
+        buffer.putLong(millis(alert.getTimestamp()));
+        buffer.putLong(millis(alert.getResolutionTime()));
+        putString(buffer, alertId);
+        putString(buffer, description);
+        return buffer.array();
+    }
+
+    private byte[] encodeAnalytics(AlertAnalyticsUpdate update, PerformanceMetrics metrics) {
+        Duration downtime = metrics.getAverageDowntime();
+        ByteBuffer buffer = ByteBuffer.allocate(54);
+        buffer.put(ANALYTICS);
+        buffer.putLong(millis(update.getTimestamp()));
+        buffer.putInt(machineCode(metrics.getMachineId()));
+        buffer.put(severity(update.getSeverity()));
+        buffer.putLong(millis(metrics.getCalculationTime()));
+        buffer.putFloat((float) metrics.getAverageLoad());
+        buffer.putFloat((float) metrics.getAverageTemperature());
+        buffer.putFloat((float) metrics.getAverageVibration());
+        buffer.putFloat((float) metrics.getUptimePercentage());
+        buffer.putFloat((float) metrics.getEfficiencyRating());
+        buffer.putInt(metrics.getAnomalyCount());
+        buffer.putLong(downtime != null ? downtime.toMillis() : NONE);
+        return buffer.array();
+    }
+
+    private int machineCode(String machineId) {
+        return machineId != null ? dictionary.codeFor(machineId) : NONE;
+    }
+
+    // Update severities are free-form strings; the known ones map to AlertSeverity ordinals
+    private static byte severity(String severity) {
+        for (AlertSeverity value : AlertSeverity.values()) {
+            if (value.name().equals(severity)) {
+                return (byte) value.ordinal();
+            }
+        }
+        return (byte) NONE;
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value != null ? (byte) value.ordinal() : (byte) NONE;
+    }
+
+    private static long millis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : NONE;
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        return bytes.length > MAX_STRING_BYTES ? Arrays.copyOf(bytes, MAX_STRING_BYTES) : bytes;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+}
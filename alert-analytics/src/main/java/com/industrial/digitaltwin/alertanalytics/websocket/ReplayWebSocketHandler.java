@@ -1,33 +1,32 @@
 package com.industrial.digitaltwin.alertanalytics.websocket;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 
 import java.io.IOException;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
 public class ReplayWebSocketHandler implements WebSocketHandler {
 
-    private final Set<WebSocketSession> sessions = new CopyOnWriteArraySet<>();
+    private final Map<String, SessionSendQueue> sessions = new ConcurrentHashMap<>();
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private WebSocketBroadcastEngine broadcastEngine;
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessions.add(session);
+        sessions.put(session.getId(), broadcastEngine.open(session));
         log.info("Replay WebSocket connection established: {}", session.getId());
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        sessions.remove(session);
+        broadcastEngine.close(sessions.remove(session.getId()));
         log.info("Replay WebSocket connection closed: {} with status: {}", session.getId(), status);
     }
 
@@ -40,7 +39,7 @@ public class ReplayWebSocketHandler implements WebSocketHandler {
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
         log.error("Transport error in replay session: {}", session.getId(), exception);
-        sessions.remove(session);
+        broadcastEngine.close(sessions.remove(session.getId()));
     }
 
     @Override
@@ -49,14 +48,18 @@ public class ReplayWebSocketHandler implements WebSocketHandler {
     }
 
     public void broadcastMessage(Object message) {
-        for (WebSocketSession session : sessions) {
-            try {
-                if (session.isOpen()) {
-                    session.sendMessage(new org.springframework.web.socket.TextMessage(objectMapper.writeValueAsString(message)));
-                }
-            } catch (IOException e) {
-                log.error("Error broadcasting message to replay session: {}", session.getId(), e);
-            }
+        broadcastMessage(message, null);
+    }
+
+    /**
+     * Queues the message for every replay session without blocking on socket writes. Frames with the same
+     * non-null key may be conflated for sessions that fall behind.
+     */
+    public void broadcastMessage(Object message, String key) {
+        try {
+            broadcastEngine.broadcast(message, key, sessions.values());
+        } catch (IOException e) {
+            log.error("Error serializing replay broadcast message", e);
         }
     }
 
@@ -0,0 +1,197 @@
+package com.industrial.digitaltwin.alertanalytics.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Bounded outbound queue for one WebSocket session. Producers only enqueue; frames are written by
+ * the engine's writer pool, at most one drain per session at a time, so a slow client only ever
+ * blocks a writer thread and never the caller.
+ */
+@Slf4j
+public class SessionSendQueue {
+
+    // Frames written per drain before yielding the writer thread to other sessions
+    private static final int DRAIN_BATCH = 64;
+
+    private final WebSocketSession session;
+    private final WireFormat format;
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+    private final Executor writers;
+    private final WebSocketBroadcastEngine engine;
+
+    private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+    private final Map<String, Frame> framesByKey = new HashMap<>();
+    private boolean draining;
+    private volatile boolean closed;
+
+    SessionSendQueue(WebSocketSession session, int capacity, SlowConsumerPolicy policy,
+                     Executor writers, WebSocketBroadcastEngine engine) {
+        this.session = session;
+        this.format = WireFormat.of(session);
+        this.capacity = capacity;
+        this.policy = policy;
+        this.writers = writers;
+        this.engine = engine;
+    }
+
+    public WebSocketSession getSession() {
+        return session;
+    }
+
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Queues a frame. With the CONFLATE policy a queued frame with the same key is replaced in place.
+     * Returns false if the session is closed or was disconnected as a slow consumer.
+     */
+    public boolean offer(String key, WebSocketMessage<?> message) {
+        return enqueue(key, message, false);
+    }
+
+    /**
+     * Queues a frame that later frames depend on, such as a dictionary delta. It is never dropped
+     * or conflated, and frames offered afterwards are always sent after it; a full queue drops an
+     * ordinary frame instead, or grows past its capacity if it only holds pinned frames.
+     */
+    public boolean offerPinned(WebSocketMessage<?> message) {
+        return enqueue(null, message, true);
+    }
+
+    private boolean enqueue(String key, WebSocketMessage<?> message, boolean pinned) {
+        boolean schedule = false;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (policy == SlowConsumerPolicy.CONFLATE && key != null) {
+                Frame queued = framesByKey.get(key);
+                if (queued != null) {
+                    queued.message = message;
+                    engine.recordDropped(1);
+                    return true;
+                }
+            }
+            if (frames.size() >= capacity) {
+                if (policy == SlowConsumerPolicy.DISCONNECT) {
+                    closed = true;
+                    engine.recordDropped(frames.size() + 1);
+                    frames.clear();
+                    framesByKey.clear();
+                    writers.execute(this::disconnectSlowConsumer);
+                    return false;
+                }
+                dropOldest();
+            }
+            if (pinned) {
+                // Conflating into a frame queued before this one would send it ahead of what it needs
+                framesByKey.clear();
+            }
+            Frame frame = new Frame(key, message, pinned);
+            frames.addLast(frame);
+            if (policy == SlowConsumerPolicy.CONFLATE && key != null) {
+                framesByKey.put(key, frame);
+            }
+            if (!draining) {
+                draining = true;
+                schedule = true;
+            }
+        }
+        if (schedule) {
+            writers.execute(this::drain);
+        }
+        return true;
+    }
+
+    private void dropOldest() {
+        Iterator<Frame> iterator = frames.iterator();
+        while (iterator.hasNext()) {
+            Frame frame = iterator.next();
+            if (!frame.pinned) {
+                iterator.remove();
+                if (frame.key != null) {
+                    framesByKey.remove(frame.key, frame);
+                }
+                engine.recordDropped(1);
+                return;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return frames.size();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            frames.clear();
+            framesByKey.clear();
+        }
+    }
+
+    private void drain() {
+        for (int written = 0; written < DRAIN_BATCH; written++) {
+            Frame frame;
+            synchronized (this) {
+                frame = frames.pollFirst();
+                if (frame == null) {
+                    draining = false;
+                    return;
+                }
+                if (frame.key != null) {
+                    framesByKey.remove(frame.key, frame);
+                }
+            }
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(frame.message);
+                    engine.recordSent();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.error("Error sending message to session: {}", session.getId(), e);
+                close();
+            }
+        }
+        // More frames are waiting; requeue so other sessions get a turn on this writer
+        writers.execute(this::drain);
+    }
+
+    private void disconnectSlowConsumer() {
+        log.warn("Disconnecting slow WebSocket consumer: {}", session.getId());
+        engine.recordDisconnect();
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Error closing slow session: {}", session.getId(), e);
+        }
+    }
+
+    private static final class Frame {
+        final String key;
+        final boolean pinned;
+        WebSocketMessage<?> message;
+
+        Frame(String key, WebSocketMessage<?> message, boolean pinned) {
+            this.key = key;
+            this.message = message;
+            this.pinned = pinned;
+        }
+    }
+}
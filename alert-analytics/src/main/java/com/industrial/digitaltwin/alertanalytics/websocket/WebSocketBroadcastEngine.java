@@ -0,0 +1,183 @@
+package com.industrial.digitaltwin.alertanalytics.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serialize-once, fan-out-many delivery shared by the alert and replay WebSocket handlers. A
+ * message becomes one immutable {@link TextMessage} that is queued on every target session's
+ * {@link SessionSendQueue}; a small writer pool performs the socket writes. Sessions that
+ * negotiated {@link WireFormat#BINARY} share one encoded byte array per message instead, each
+ * wrapped in its own {@link BinaryMessage} because sending a binary frame consumes its buffer.
+ */
+@Component
+@Slf4j
+public class WebSocketBroadcastEngine {
+
+    private final ObjectMapper objectMapper;
+    private final AlertAnalyticsProperties.WebSocketProperties properties;
+    private final Set<SessionSendQueue> queues = ConcurrentHashMap.newKeySet();
+    private final BinaryUpdateCodec binaryCodec = new BinaryUpdateCodec();
+    private final ExecutorService writers;
+
+    // Orders code assignment, dictionary deltas and session registration for binary clients
+    private final Object dictionaryLock = new Object();
+    private int distributedCodes; // Codes already queued to every binary session; guarded by dictionaryLock
+
+    private final Counter sentFrames;
+    private final Counter droppedFrames;
+    private final Counter slowConsumerDisconnects;
+
+    public WebSocketBroadcastEngine(ObjectMapper objectMapper, AlertAnalyticsProperties alertAnalyticsProperties,
+                                    MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = alertAnalyticsProperties.getWebsocket();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(properties.getWriterThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "ws-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sentFrames = Counter.builder("alertanalytics.websocket.frames.sent")
+                .description("WebSocket frames written to sessions")
+                .register(meterRegistry);
+        this.droppedFrames = Counter.builder("alertanalytics.websocket.frames.dropped")
+                .description("WebSocket frames dropped or conflated for slow sessions")
+                .register(meterRegistry);
+        this.slowConsumerDisconnects = Counter.builder("alertanalytics.websocket.slow_consumer.disconnects")
+                .description("Sessions closed because their send queue was full")
+                .register(meterRegistry);
+        Gauge.builder("alertanalytics.websocket.queue.depth", queues, q -> q.stream().mapToInt(SessionSendQueue::size).sum())
+                .description("Frames waiting in all session send queues")
+                .register(meterRegistry);
+        Gauge.builder("alertanalytics.websocket.sessions", queues, Set::size)
+                .description("Open WebSocket sessions")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    public SessionSendQueue open(WebSocketSession session) {
+        SessionSendQueue queue = new SessionSendQueue(session, properties.getSendQueueCapacity(),
+                properties.getSlowConsumerPolicy(), writers, this);
+        synchronized (dictionaryLock) {
+            queues.add(queue);
+            if (queue.getFormat() == WireFormat.BINARY) {
+                sendDictionary(queue);
+            }
+        }
+        return queue;
+    }
+
+    public void close(SessionSendQueue queue) {
+        if (queue != null) {
+            queue.close();
+            queues.remove(queue);
+        }
+    }
+
+    public TextMessage serialize(Object message) throws JsonProcessingException {
+        return new TextMessage(objectMapper.writeValueAsBytes(message));
+    }
+
+    /**
+     * Queues the full machine dictionary so a binary client can resolve every code.
+     */
+    public void sendDictionary(SessionSendQueue queue) {
+        synchronized (dictionaryLock) {
+            for (byte[] frame : binaryCodec.encodeDictionary(0)) {
+                queue.offerPinned(new BinaryMessage(frame));
+            }
+        }
+    }
+
+    /**
+     * Serializes the message once per wire format in use and queues it on every target. The key
+     * selects frames that may be conflated for slow sessions and may be null. Messages without a
+     * binary encoding go to binary sessions as JSON text.
+     */
+    public void broadcast(Object message, String key, Iterable<SessionSendQueue> targets) throws JsonProcessingException {
+        WebSocketMessage<?> text = null;
+        byte[] binary = null;
+        boolean binaryEncoded = false;
+        for (SessionSendQueue queue : targets) {
+            WebSocketMessage<?> frame = null;
+            if (queue.getFormat() == WireFormat.BINARY) {
+                if (!binaryEncoded) {
+                    binary = encodeBinary(message);
+                    binaryEncoded = true;
+                }
+                if (binary != null) {
+                    frame = new BinaryMessage(binary);
+                }
+            }
+            if (frame == null) {
+                if (text == null) {
+                    text = serialize(message);
+                }
+                frame = text;
+            }
+            queue.offer(key, frame);
+        }
+    }
+
+    /**
+     * Encodes the message and, before any thread can queue a frame using them, queues the codes it
+     * introduced to every binary session. Codes are distributed even if encoding fails halfway.
+     */
+    private byte[] encodeBinary(Object message) {
+        synchronized (dictionaryLock) {
+            try {
+                return binaryCodec.encode(message);
+            } finally {
+                int codes = binaryCodec.getDictionary().size();
+                if (codes > distributedCodes) {
+                    List<byte[]> delta = binaryCodec.encodeDictionary(distributedCodes);
+                    distributedCodes = codes;
+                    for (SessionSendQueue queue : queues) {
+                        if (queue.getFormat() == WireFormat.BINARY) {
+                            for (byte[] frame : delta) {
+                                queue.offerPinned(new BinaryMessage(frame));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    void recordSent() {
+        sentFrames.increment();
+    }
+
+    void recordDropped(int frames) {
+        droppedFrames.increment(frames);
+    }
+
+    void recordDisconnect() {
+        slowConsumerDisconnects.increment();
+    }
+}
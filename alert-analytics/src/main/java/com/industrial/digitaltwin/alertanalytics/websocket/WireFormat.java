@@ -0,0 +1,24 @@
+package com.industrial.digitaltwin.alertanalytics.websocket;
+
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+
+/**
+ * Encoding negotiated by a session at handshake time. Clients opt in to the compact binary format
+ * with a {@code format=binary} query parameter; everything else gets JSON text frames.
+ */
+public enum WireFormat {
+    JSON,
+    BINARY;
+
+    public static WireFormat of(WebSocketSession session) {
+        URI uri = session.getUri();
+        if (uri == null) {
+            return JSON;
+        }
+        String format = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("format");
+        return "binary".equalsIgnoreCase(format) ? BINARY : JSON;
+    }
+}
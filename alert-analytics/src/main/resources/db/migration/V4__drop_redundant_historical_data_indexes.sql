@@ -0,0 +1,4 @@
+-- Drop historical_data indexes that are prefixes of the composite (machine_id, timestamp DESC, <sensor>)
+-- indexes from V3; those serve the same lookups, and every extra index slows down telemetry ingestion
+DROP INDEX IF EXISTS idx_historical_data_machine_id;
+DROP INDEX IF EXISTS idx_historical_data_machine_time;
@@ -0,0 +1,71 @@
+package com.industrial.digitaltwin.alertanalytics.benchmark;
+
+import com.industrial.digitaltwin.alertanalytics.service.LocalSmtpServer;
+import com.industrial.digitaltwin.alertanalytics.service.SmtpConnectionPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per second through {@link SmtpConnectionPool} against an in-process SMTP server on
+ * loopback. With {@code maxMessagesPerConnection = 1} every message opens and closes its own
+ * connection, as sending without the pool does; against a real server the gap is wider, since
+ * loopback has no TLS handshake, login or network round trips. Run the main method from the test
+ * classpath; it is not executed by surefire.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmtpConnectionPoolBenchmark {
+
+    @Param({"1", "100"})
+    private int maxMessagesPerConnection;
+
+    private LocalSmtpServer server;
+    private SmtpConnectionPool pool;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new LocalSmtpServer();
+        pool = new SmtpConnectionPool(Session.getInstance(new Properties()), server.getHost(), server.getPort(),
+                null, null, 4, maxMessagesPerConnection, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        pool.close();
+        server.close();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void send() throws MessagingException {
+        MimeMessage message = new MimeMessage(pool.getSession());
+        message.setFrom(new InternetAddress("alerts@example.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("ops@example.com"));
+        message.setSubject("WARNING OVERHEATING");
+        message.setText("Temperature above threshold on MACHINE_001");
+        pool.send(message);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(SmtpConnectionPoolBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,154 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.entity.AlertEntity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.AlertType;
+import com.industrial.digitaltwin.alertanalytics.repository.AlertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AlertCorrelationEngineTest {
+
+    // Ten buckets of 100 ms
+    private static final long WINDOW_MILLIS = 1_000;
+    private static final int BUCKETS = 10;
+
+    private AlertRepository alertRepository;
+    private AlertCorrelationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        alertRepository = mock(AlertRepository.class);
+        engine = new AlertCorrelationEngine(alertRepository, new AlertAnalyticsProperties());
+    }
+
+    @Test
+    void shouldLeaveFirstAlertUncorrelated() {
+        // Given
+        AlertCorrelationEngine.MachineWindow window = new AlertCorrelationEngine.MachineWindow(WINDOW_MILLIS, BUCKETS);
+
+        // When / Then
+        assertNull(window.add("M1", AlertType.OVERHEATING, "A1", 10_000));
+    }
+
+    @Test
+    void shouldGroupRepeatsUnderFirstAlertId() {
+        // Given
+        AlertCorrelationEngine.MachineWindow window = new AlertCorrelationEngine.MachineWindow(WINDOW_MILLIS, BUCKETS);
+        window.add("M1", AlertType.OVERHEATING, "A1", 10_000);
+
+        // When
+        window.add("M1", AlertType.OVERHEATING, "A2", 10_250);
+        CorrelationGroup group = window.add("M1", AlertType.OVERHEATING, "A3", 10_500);
+
+        // Then
+        assertEquals("A1", group.correlationId());
+        assertEquals(3, group.alertCount());
+        assertEquals(1, group.relatedTypes());
+        assertEquals(Instant.ofEpochMilli(10_000), group.firstSeen());
+        assertEquals(Instant.ofEpochMilli(10_500), group.lastSeen());
+    }
+
+    @Test
+    void shouldCountOtherTypesAsRelated() {
+        // Given
+        AlertCorrelationEngine.MachineWindow window = new AlertCorrelationEngine.MachineWindow(WINDOW_MILLIS, BUCKETS);
+        window.add("M1", AlertType.OVERHEATING, "A1", 10_000);
+
+        // When
+        CorrelationGroup group = window.add("M1", AlertType.EXCESSIVE_VIBRATION, "A2", 10_100);
+
+        // Then
+        assertEquals("A2", group.correlationId());
+        assertEquals(AlertType.EXCESSIVE_VIBRATION, group.type());
+        assertEquals(1, group.alertCount());
+        assertEquals(2, group.relatedTypes());
+    }
+
+    @Test
+    void shouldExpireAlertsOnceTheirBucketLeavesTheWindow() {
+        // Given
+        AlertCorrelationEngine.MachineWindow window = new AlertCorrelationEngine.MachineWindow(WINDOW_MILLIS, BUCKETS);
+        window.add("M1", AlertType.OVERHEATING, "A1", 10_000);
+        window.add("M1", AlertType.OVERHEATING, "A2", 10_500);
+
+        // When, A1's bucket is reused one full turn later while A2's is still in the window
+        CorrelationGroup group = window.add("M1", AlertType.OVERHEATING, "A3", 11_000);
+
+        // Then
+        assertEquals(2, group.alertCount());
+        assertEquals("A1", group.correlationId()); // Stable until every alert of the group has aged out
+
+        // When everything has aged out
+        assertNull(window.add("M1", AlertType.OVERHEATING, "A4", 20_000));
+        CorrelationGroup restarted = window.add("M1", AlertType.OVERHEATING, "A5", 20_050);
+
+        // Then
+        assertEquals("A4", restarted.correlationId());
+        assertEquals(2, restarted.alertCount());
+    }
+
+    @Test
+    void shouldCountLateAlertsTowardsCurrentBucket() {
+        // Given
+        AlertCorrelationEngine.MachineWindow window = new AlertCorrelationEngine.MachineWindow(WINDOW_MILLIS, BUCKETS);
+        window.add("M1", AlertType.OVERHEATING, "A1", 10_900);
+
+        // When
+        CorrelationGroup group = window.add("M1", AlertType.OVERHEATING, "A2", 10_000);
+
+        // Then
+        assertEquals(2, group.alertCount());
+        assertEquals(Instant.ofEpochMilli(10_900), group.lastSeen());
+    }
+
+    @Test
+    void shouldSeedWindowFromRepositoryOnlyOnce() {
+        // Given
+        AlertEntity recent = AlertEntity.builder()
+                .alertId("STORED-1")
+                .machineId("M1")
+                .type(AlertType.OVERHEATING)
+                .timestamp(Instant.now().minusSeconds(30))
+                .build();
+        when(alertRepository.findByMachineIdAndTimestampAfter(eq("M1"), any())).thenReturn(List.of(recent));
+
+        // When
+        CorrelationGroup first = engine.correlate(event("A1", AlertType.OVERHEATING));
+        CorrelationGroup second = engine.correlate(event("A2", AlertType.OVERHEATING));
+
+        // Then
+        assertEquals("STORED-1", first.correlationId());
+        assertEquals(2, first.alertCount());
+        assertEquals(3, second.alertCount());
+        assertEquals(1, engine.getTrackedMachineCount());
+        verify(alertRepository, times(1)).findByMachineIdAndTimestampAfter(eq("M1"), any());
+    }
+
+    @Test
+    void shouldIgnoreAlertsWithoutMachineOrType() {
+        // When / Then
+        assertNull(engine.correlate(AlertEvent.builder().alertId("A1").type(AlertType.OVERHEATING).build()));
+        assertNull(engine.correlate(AlertEvent.builder().alertId("A1").machineId("M1").build()));
+        assertEquals(0, engine.getTrackedMachineCount());
+        verifyNoInteractions(alertRepository);
+    }
+
+    private static AlertEvent event(String alertId, AlertType type) {
+        return AlertEvent.builder()
+                .alertId(alertId)
+                .machineId("M1")
+                .type(type)
+                .timestamp(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.AlertType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertDeduplicatorTest {
+
+    private static AlertDeduplicator deduplicator(int maxEntries) {
+        AlertAnalyticsProperties properties = new AlertAnalyticsProperties();
+        properties.getAlertProcessing().setDeduplicationWindow(Duration.ofHours(1));
+        properties.getAlertProcessing().setDeduplicationMaxEntries(maxEntries);
+        return new AlertDeduplicator(properties, new SimpleMeterRegistry());
+    }
+
+    private static AlertEvent alert(String machineId, AlertType type) {
+        return AlertEvent.builder().machineId(machineId).type(type).build();
+    }
+
+    @Test
+    void shouldSuppressSameMachineAndTypeWithinWindow() {
+        // Given
+        AlertDeduplicator deduplicator = deduplicator(10);
+
+        // When
+        deduplicator.record(alert("M1", AlertType.OVERHEATING));
+
+        // Then
+        assertTrue(deduplicator.isDuplicate(alert("M1", AlertType.OVERHEATING)));
+        assertFalse(deduplicator.isDuplicate(alert("M1", AlertType.VIBRATION_HIGH)));
+        assertFalse(deduplicator.isDuplicate(alert("M2", AlertType.OVERHEATING)));
+    }
+
+    @Test
+    void shouldKeepKeyWhileItsNewerRecordIsQueued() {
+        // Given - the same key recorded twice back to back, usually within one millisecond
+        AlertDeduplicator deduplicator = deduplicator(2);
+        deduplicator.record(alert("M1", AlertType.OVERHEATING));
+        deduplicator.record(alert("M1", AlertType.OVERHEATING));
+
+        // When - a full queue evicts the older record
+        deduplicator.record(alert("M2", AlertType.OVERHEATING));
+
+        // Then
+        assertTrue(deduplicator.isDuplicate(alert("M1", AlertType.OVERHEATING)));
+        assertTrue(deduplicator.isDuplicate(alert("M2", AlertType.OVERHEATING)));
+        assertEquals(2, deduplicator.size());
+    }
+
+    @Test
+    void shouldReclaimMachineIndexesOfEvictedKeys() {
+        // Given
+        AlertDeduplicator deduplicator = deduplicator(3);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            deduplicator.record(alert("M" + i, AlertType.OVERHEATING));
+        }
+
+        // Then
+        assertEquals(3, deduplicator.size());
+        assertEquals(3, deduplicator.machineCount());
+        assertTrue(deduplicator.isDuplicate(alert("M999", AlertType.OVERHEATING)));
+        assertTrue(deduplicator.isDuplicate(alert("M997", AlertType.OVERHEATING)));
+        assertFalse(deduplicator.isDuplicate(alert("M996", AlertType.OVERHEATING)));
+    }
+
+    @Test
+    void shouldFindRemainingKeysAfterBackwardShiftDeletes() {
+        // Given - 16 slots and keys that collide into long probe runs
+        AlertDeduplicator.LongLongTable table = new AlertDeduplicator.LongLongTable(8);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(12);
+            if (expected.size() < 8 && random.nextBoolean()) {
+                assertEquals(!expected.containsKey(key), table.put(key, i));
+                expected.put(key, (long) i);
+            } else {
+                table.remove(key);
+                expected.remove(key);
+            }
+
+            // Then
+            assertEquals(expected.size(), table.size());
+            for (long k = 0; k < 12; k++) {
+                assertEquals(expected.getOrDefault(k, AlertDeduplicator.LongLongTable.MISSING), table.get(k));
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.model.PerformanceMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AnalyticsReportPublisherTest {
+
+    private AlertAnalyticsProperties properties;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private WebSocketBroadcastService webSocketBroadcastService;
+    private MetricsService metricsService;
+    private AnalyticsReportPublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new AlertAnalyticsProperties();
+        properties.getAnalytics().setMinPublishInterval(Duration.ZERO);
+        properties.getAnalytics().setPublishInterval(Duration.ofHours(1));
+        properties.getAnalytics().setPublishChangeThreshold(0.05);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        webSocketBroadcastService = mock(WebSocketBroadcastService.class);
+        metricsService = mock(MetricsService.class);
+        publisher = new AnalyticsReportPublisher(properties, kafkaTemplate, webSocketBroadcastService, metricsService);
+    }
+
+    private static PerformanceMetrics metrics(double averageTemperature, int anomalyCount) {
+        return PerformanceMetrics.builder()
+                .machineId("M1")
+                .averageLoad(50)
+                .averageTemperature(averageTemperature)
+                .averageVibration(1.0)
+                .efficiencyRating(8)
+                .anomalyCount(anomalyCount)
+                .build();
+    }
+
+    @Test
+    void shouldPublishFirstReportOfMachine() {
+        // Given
+        PerformanceMetrics first = metrics(70, 0);
+
+        // When
+        publisher.submit(first, 1L);
+
+        // Then
+        verify(kafkaTemplate).send("analytics-reports", "M1", first);
+        verify(webSocketBroadcastService).broadcastAnalyticsUpdate(first);
+        verify(metricsService).recordPipelineLatency(PipelineStage.ANALYTICS_BROADCAST, 1L);
+        verify(metricsService).incrementAnalyticsReportsPublished();
+    }
+
+    @Test
+    void shouldSuppressChangesBelowThreshold() {
+        // Given
+        publisher.submit(metrics(70, 0), null);
+
+        // When
+        publisher.submit(metrics(71, 0), null);
+
+        // Then
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verify(metricsService).incrementAnalyticsReportsSuppressed();
+    }
+
+    @Test
+    void shouldPublishEarlyWhenMetricMovesPastThreshold() {
+        // Given
+        publisher.submit(metrics(70, 0), null);
+        PerformanceMetrics moved = metrics(74, 0);
+
+        // When
+        publisher.submit(moved, null);
+
+        // Then
+        verify(kafkaTemplate).send("analytics-reports", "M1", moved);
+        verify(metricsService, never()).incrementAnalyticsReportsSuppressed();
+    }
+
+    @Test
+    void shouldPublishWhenAnomalyCountChanges() {
+        // Given
+        publisher.submit(metrics(70, 0), null);
+        PerformanceMetrics anomalous = metrics(70, 1);
+
+        // When
+        publisher.submit(anomalous, null);
+
+        // Then
+        verify(kafkaTemplate).send("analytics-reports", "M1", anomalous);
+    }
+
+    @Test
+    void shouldAddUpDriftAgainstLastPublishedReport() {
+        // Given
+        publisher.submit(metrics(70, 0), null);
+
+        // When, each step is below 5% of the previous one but the third is past 5% of 70
+        publisher.submit(metrics(71.5, 0), null);
+        publisher.submit(metrics(73, 0), null);
+        PerformanceMetrics drifted = metrics(74.5, 0);
+        publisher.submit(drifted, null);
+
+        // Then
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any());
+        verify(kafkaTemplate).send("analytics-reports", "M1", drifted);
+    }
+
+    @Test
+    void shouldNotPublishNoiseAroundZero() {
+        // Given
+        PerformanceMetrics idle = metrics(70, 0);
+        idle.setAverageVibration(0.001);
+        publisher.submit(idle, null);
+
+        // When
+        PerformanceMetrics noisy = metrics(70, 0);
+        noisy.setAverageVibration(0.02);
+        publisher.submit(noisy, null);
+
+        // Then
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void shouldHoldChangesWithinMinPublishInterval() {
+        // Given
+        properties.getAnalytics().setMinPublishInterval(Duration.ofHours(1));
+        publisher.submit(metrics(70, 0), null);
+
+        // When
+        publisher.submit(metrics(95, 3), null);
+
+        // Then
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verify(metricsService).incrementAnalyticsReportsSuppressed();
+    }
+
+    @Test
+    void shouldPublishLatestPendingUpdateOnceIntervalHasPassed() {
+        // Given
+        properties.getAnalytics().setMinPublishInterval(Duration.ofHours(1));
+        publisher.submit(metrics(70, 0), 1L);
+        publisher.submit(metrics(71, 0), 2L);
+        PerformanceMetrics latest = metrics(72, 0);
+        publisher.submit(latest, 3L);
+        properties.getAnalytics().setPublishInterval(Duration.ZERO);
+
+        // When
+        publisher.publishPending();
+        publisher.publishPending();
+
+        // Then
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any());
+        verify(kafkaTemplate).send("analytics-reports", "M1", latest);
+        verify(metricsService).recordPipelineLatency(PipelineStage.ANALYTICS_BROADCAST, null); // Telemetry time is not kept
+    }
+
+    @Test
+    void shouldNotPublishPendingBeforeIntervalHasPassed() {
+        // Given
+        properties.getAnalytics().setMinPublishInterval(Duration.ofHours(1));
+        publisher.submit(metrics(70, 0), null);
+        publisher.submit(metrics(71, 0), null);
+
+        // When
+        publisher.publishPending();
+
+        // Then
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void shouldStillSendToKafkaWhenBroadcastFails() {
+        // Given
+        doThrow(new IllegalStateException("no sessions")).when(webSocketBroadcastService).broadcastAnalyticsUpdate(any());
+        PerformanceMetrics first = metrics(70, 0);
+
+        // When
+        publisher.submit(first, null);
+
+        // Then
+        verify(kafkaTemplate).send(eq("analytics-reports"), eq("M1"), eq(first));
+        verify(metricsService, never()).recordPipelineLatency(any(), any());
+    }
+}
@@ -0,0 +1,74 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.model.ChannelStatistics;
+import com.industrial.digitaltwin.alertanalytics.model.PerformanceMetrics;
+import com.industrial.digitaltwin.alertanalytics.model.SensorData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasicAnalyticsStrategyTest {
+
+    private final BasicAnalyticsStrategy strategy = new BasicAnalyticsStrategy();
+
+    private static SensorData reading(double temperature, double vibration, double load) {
+        return SensorData.builder().temperature(temperature).vibration(vibration).load(load).build();
+    }
+
+    @Test
+    void shouldPublishChannelStatistics() {
+        // When
+        PerformanceMetrics metrics = strategy.calculateMetrics("M1", List.of(
+                reading(70, 1.0, 40), reading(80, 2.0, 60), reading(75, 1.5, 50)));
+
+        // Then
+        ChannelStatistics temperature = metrics.getStatistics().get(0);
+        assertEquals("temperature", temperature.getType());
+        assertEquals(70.0, temperature.getMin());
+        assertEquals(80.0, temperature.getMax());
+        assertEquals(5.0, temperature.getStandardDeviation(), 1e-9);
+        ChannelStatistics load = metrics.getStatistics().get(2);
+        assertEquals("load", load.getType());
+        assertEquals(10.0, load.getStandardDeviation(), 1e-9);
+    }
+
+    @Test
+    void shouldMatchBatchMetricsIncrementally() {
+        // Given
+        int windowSize = 5;
+        IncrementalAnalytics incremental = strategy.createIncremental("M1", windowSize);
+        List<SensorData> readings = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            readings.add(reading(70 + (i * 7) % 11, 1.0 + (i % 3) * 0.5, 40 + (i * 13) % 17));
+        }
+
+        // When
+        readings.forEach(incremental::update);
+        PerformanceMetrics rolling = incremental.currentMetrics();
+        PerformanceMetrics batch = strategy.calculateMetrics("M1", readings.subList(readings.size() - windowSize, readings.size()));
+
+        // Then
+        assertEquals(batch.getAverageLoad(), rolling.getAverageLoad(), 1e-9);
+        assertEquals(batch.getAnomalyCount(), rolling.getAnomalyCount());
+        for (int channel = 0; channel < 3; channel++) {
+            ChannelStatistics expected = batch.getStatistics().get(channel);
+            ChannelStatistics actual = rolling.getStatistics().get(channel);
+            assertEquals(expected.getType(), actual.getType());
+            assertEquals(expected.getMin(), actual.getMin());
+            assertEquals(expected.getMax(), actual.getMax());
+            assertEquals(expected.getStandardDeviation(), actual.getStandardDeviation(), 1e-9);
+        }
+    }
+
+    @Test
+    void shouldReturnEmptyStatisticsWithoutReadings() {
+        // When
+        PerformanceMetrics metrics = strategy.calculateMetrics("M1", List.of());
+
+        // Then
+        assertTrue(metrics.getStatistics().isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateTest {
+
+    @Test
+    void shouldFillPlaceholders() {
+        // Given
+        EmailTemplate template = EmailTemplate.compile("<h1>{{title}}</h1><p>{{ machineId }} at {{time}}</p>");
+
+        // When
+        String html = template.render(Map.of("title", "Overheating", "machineId", "M1", "time", "12:00"));
+
+        // Then
+        assertEquals("<h1>Overheating</h1><p>M1 at 12:00</p>", html);
+    }
+
+    @Test
+    void shouldRenderMissingValuesAsEmpty() {
+        // Given
+        EmailTemplate template = EmailTemplate.compile("[{{a}}|{{b}}]");
+
+        // When
+        String html = template.render(Map.of("a", "x"));
+
+        // Then
+        assertEquals("[x|]", html);
+    }
+
+    @Test
+    void shouldRepeatPlaceholdersAndKeepEdges() {
+        // Given
+        EmailTemplate template = EmailTemplate.compile("{{id}}-{{id}}");
+
+        // When
+        String html = template.render(Map.of("id", "7"));
+
+        // Then
+        assertEquals("7-7", html);
+    }
+
+    @Test
+    void shouldLeaveTemplateWithoutPlaceholdersUnchanged() {
+        // When
+        String html = EmailTemplate.compile("<p>static</p>").render(Map.of("unused", "x"));
+
+        // Then
+        assertEquals("<p>static</p>", html);
+    }
+
+    @Test
+    void shouldInsertValuesVerbatim() {
+        // Given
+        EmailTemplate template = EmailTemplate.compile("<td>{{value}}</td>");
+
+        // When, a value that looks like a placeholder is not expanded again
+        String html = template.render(Map.of("value", "{{value}} &lt;b&gt;"));
+
+        // Then
+        assertEquals("<td>{{value}} &lt;b&gt;</td>", html);
+    }
+
+    @Test
+    void shouldAppendToExistingBuilder() {
+        // Given
+        EmailTemplate template = EmailTemplate.compile("<li>{{item}}</li>");
+        StringBuilder out = new StringBuilder("<ul>");
+
+        // When
+        template.render(Map.of("item", "a"), out);
+        template.render(Map.of("item", "b"), out);
+
+        // Then
+        assertEquals("<ul><li>a</li><li>b</li>", out.toString());
+    }
+
+    @Test
+    void shouldRejectUnclosedPlaceholder() {
+        // When / Then
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.compile("<p>{{name</p>"));
+        assertTrue(error.getMessage().contains("offset 3"));
+    }
+}
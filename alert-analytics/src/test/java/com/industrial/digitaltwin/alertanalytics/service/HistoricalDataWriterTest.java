@@ -0,0 +1,192 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.model.MachineStatus;
+import com.industrial.digitaltwin.alertanalytics.model.MachineTelemetry;
+import com.industrial.digitaltwin.alertanalytics.model.SensorData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HistoricalDataWriterTest {
+
+    private final List<String> copied = new CopyOnWriteArrayList<>();
+    private AlertAnalyticsProperties properties;
+    private CopyManager copyManager;
+    private DataSource dataSource;
+    private SimpleMeterRegistry meterRegistry;
+    private HistoricalDataWriter writer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new AlertAnalyticsProperties();
+        properties.getHistoricalData().setWriterThreads(1);
+        properties.getHistoricalData().setFlushInterval(Duration.ofMillis(20));
+        copyManager = mock(CopyManager.class);
+        when(copyManager.copyIn(eq(HistoricalDataWriter.COPY_SQL), any(InputStream.class))).thenAnswer(invocation -> {
+            InputStream data = invocation.getArgument(1);
+            copied.add(new String(data.readAllBytes(), StandardCharsets.UTF_8));
+            return 1L;
+        });
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        Connection connection = mock(Connection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private void startWriter() {
+        writer = new HistoricalDataWriter(dataSource, properties, meterRegistry);
+        writer.start();
+    }
+
+    private static MachineTelemetry telemetry(String machineId, MachineStatus status) {
+        return MachineTelemetry.builder()
+                .machineId(machineId)
+                .timestamp(Instant.parse("2024-01-01T00:00:00Z"))
+                .sensorData(SensorData.builder().temperature(72.5).vibration(1.25).load(80).pressure(10).rpm(250).build())
+                .status(status)
+                .build();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+
+    private void awaitRows(String counter, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (counter(counter) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void shouldWriteRowInCopyTextFormat() throws Exception {
+        // Given
+        startWriter();
+
+        // When
+        writer.enqueue(telemetry("M1", MachineStatus.WARNING));
+        awaitRows("alertanalytics.historical.rows.written", 1);
+
+        // Then
+        assertEquals(1, copied.size());
+        String[] fields = copied.get(0).split("\t", -1);
+        assertEquals(9, fields.length);
+        assertEquals("M1", fields[0]);
+        assertEquals("2024-01-01T00:00:00Z", fields[1]);
+        assertEquals(List.of("72.5", "1.25", "80.0", "10.0", "250.0"), List.of(fields).subList(2, 7));
+        assertEquals("WARNING", fields[7]);
+        assertTrue(fields[8].endsWith("\n"));
+    }
+
+    @Test
+    void shouldEscapeSeparatorsAndBackslashesInText() throws Exception {
+        // Given
+        startWriter();
+
+        // When
+        writer.enqueue(telemetry("M\t1\\x\ny\rz", MachineStatus.NORMAL));
+        awaitRows("alertanalytics.historical.rows.written", 1);
+
+        // Then
+        String line = copied.get(0);
+        assertTrue(line.startsWith("M\\t1\\\\x\\ny\\rz\t"), line);
+        assertEquals(1, line.chars().filter(c -> c == '\n').count());
+        assertEquals(8, line.chars().filter(c -> c == '\t').count());
+    }
+
+    @Test
+    void shouldWriteNullsAsBackslashN() throws Exception {
+        // Given
+        startWriter();
+
+        // When
+        writer.enqueue(MachineTelemetry.builder().machineId("M1").timestamp(Instant.EPOCH).build());
+        awaitRows("alertanalytics.historical.rows.written", 1);
+
+        // Then
+        String[] fields = copied.get(0).split("\t", -1);
+        for (int i = 2; i <= 7; i++) {
+            assertEquals("\\N", fields[i], "field " + i);
+        }
+    }
+
+    @Test
+    void shouldBatchBufferedRowsIntoOneCopy() throws Exception {
+        // Given
+        properties.getHistoricalData().setFlushInterval(Duration.ofMillis(500));
+        startWriter();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            writer.enqueue(telemetry("M" + i, MachineStatus.NORMAL));
+        }
+        awaitRows("alertanalytics.historical.rows.written", 10);
+
+        // Then
+        assertEquals(1, copied.size());
+        assertEquals(10, copied.get(0).split("\n").length);
+    }
+
+    @Test
+    void shouldCountRowsOfBatchThatKeepsFailing() throws Exception {
+        // Given
+        properties.getHistoricalData().setMaxFlushAttempts(2);
+        when(dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+        startWriter();
+
+        // When
+        writer.enqueue(telemetry("M1", MachineStatus.NORMAL));
+        awaitRows("alertanalytics.historical.rows.failed", 1);
+
+        // Then
+        assertEquals(1.0, counter("alertanalytics.historical.rows.failed"));
+        assertEquals(0.0, counter("alertanalytics.historical.rows.written"));
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void shouldDropRowWhenBufferStaysFull() {
+        // Given, not started so nothing drains the buffer
+        properties.getHistoricalData().setBufferCapacity(1);
+        properties.getHistoricalData().setEnqueueTimeout(Duration.ofMillis(10));
+        writer = new HistoricalDataWriter(dataSource, properties, meterRegistry);
+
+        // When
+        writer.enqueue(telemetry("M1", MachineStatus.NORMAL));
+        writer.enqueue(telemetry("M2", MachineStatus.NORMAL));
+
+        // Then
+        assertEquals(1.0, counter("alertanalytics.historical.rows.dropped"));
+        assertEquals(1.0, meterRegistry.get("alertanalytics.historical.buffered").gauge().value());
+    }
+}
@@ -0,0 +1,133 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.entity.AlertEntity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.AlertSeverity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertType;
+import com.industrial.digitaltwin.alertanalytics.repository.AlertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IncidentAggregatorTest {
+
+    private AlertRepository alertRepository;
+    private AlertAnalyticsProperties properties;
+    private IncidentAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        alertRepository = mock(AlertRepository.class);
+        properties = new AlertAnalyticsProperties();
+        aggregator = new IncidentAggregator(alertRepository, properties, new SimpleMeterRegistry());
+    }
+
+    private static AlertEvent alert(AlertSeverity severity, Instant timestamp, double value) {
+        return AlertEvent.builder()
+                .alertId("ALERT-1")
+                .machineId("M1")
+                .type(AlertType.OVERHEATING)
+                .severity(severity)
+                .timestamp(timestamp)
+                .details(Map.of("value", value))
+                .build();
+    }
+
+    @Test
+    void shouldFoldRepeatsIntoOpenIncident() {
+        // Given
+        Instant first = Instant.now();
+        assertEquals(IncidentAggregator.FoldResult.NO_OPEN_INCIDENT,
+                aggregator.fold(alert(AlertSeverity.WARNING, first, 90)));
+        aggregator.open(alert(AlertSeverity.WARNING, first, 90));
+
+        // When
+        IncidentAggregator.FoldResult folded = aggregator.fold(alert(AlertSeverity.WARNING, first.plusSeconds(1), 95));
+        IncidentAggregator.FoldResult escalated = aggregator.fold(alert(AlertSeverity.CRITICAL, first.plusSeconds(2), 92));
+
+        // Then
+        assertEquals(IncidentAggregator.FoldResult.FOLDED, folded);
+        assertEquals(IncidentAggregator.FoldResult.ESCALATED, escalated);
+        AlertEvent incident = aggregator.currentAlert("M1", AlertType.OVERHEATING).orElseThrow();
+        assertEquals(AlertSeverity.CRITICAL, incident.getSeverity());
+        assertEquals(3L, incident.getDetails().get("occurrenceCount"));
+        assertEquals(95.0, incident.getDetails().get("peakValue"));
+        assertEquals(first.plusSeconds(2).toString(), incident.getDetails().get("lastSeen"));
+    }
+
+    @Test
+    void shouldKeepIncidentOpenWhileAnomaliesArriveWithOldTimestamps() {
+        // Given - a device clock an hour behind
+        properties.getAlertProcessing().setIncidentIdleTimeout(Duration.ofMinutes(5));
+        Instant lagging = Instant.now().minus(Duration.ofHours(1));
+        aggregator.open(alert(AlertSeverity.WARNING, lagging, 90));
+        aggregator.fold(alert(AlertSeverity.WARNING, lagging.plusSeconds(1), 90));
+
+        // When
+        aggregator.flush();
+
+        // Then
+        assertEquals(IncidentAggregator.FoldResult.FOLDED, aggregator.fold(alert(AlertSeverity.WARNING, lagging, 90)));
+    }
+
+    @Test
+    void shouldCloseIncidentWhenNothingArrivesForIdleTimeout() throws Exception {
+        // Given
+        properties.getAlertProcessing().setIncidentIdleTimeout(Duration.ofMillis(1));
+        aggregator.open(alert(AlertSeverity.WARNING, Instant.now(), 90));
+        Thread.sleep(10);
+
+        // When
+        aggregator.flush();
+
+        // Then
+        assertTrue(aggregator.currentAlert("M1", AlertType.OVERHEATING).isEmpty());
+        assertEquals(IncidentAggregator.FoldResult.NO_OPEN_INCIDENT,
+                aggregator.fold(alert(AlertSeverity.WARNING, Instant.now(), 90)));
+    }
+
+    @Test
+    void shouldWriteFoldedIncidentBackToItsAlertRow() {
+        // Given
+        aggregator.open(alert(AlertSeverity.WARNING, Instant.now(), 90));
+        aggregator.fold(alert(AlertSeverity.CRITICAL, Instant.now(), 99));
+        AlertEntity entity = AlertEntity.builder().alertId("ALERT-1").severity(AlertSeverity.WARNING).build();
+        when(alertRepository.findByAlertIdIn(any())).thenReturn(List.of(entity));
+
+        // When
+        aggregator.flush();
+        aggregator.flush();
+
+        // Then - the second flush has nothing new to write
+        verify(alertRepository, times(1)).saveAll(any());
+        assertEquals(AlertSeverity.CRITICAL, entity.getSeverity());
+        assertEquals(2L, entity.getDetails().get("occurrenceCount"));
+        assertNotNull(entity.getUpdatedAt());
+    }
+
+    @Test
+    void shouldRejectIdleTimeoutShorterThanDeduplicationWindow() {
+        // Given
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        AlertAnalyticsProperties.AlertProcessingProperties props = properties.getAlertProcessing();
+        props.setDeduplicationWindow(Duration.ofMinutes(10));
+        props.setIncidentIdleTimeout(Duration.ofMinutes(5));
+
+        // When / Then
+        assertEquals(1, validator.validate(props).size());
+        props.setIncidentIdleTimeout(Duration.ofMinutes(10));
+        assertTrue(validator.validate(props).isEmpty());
+    }
+}
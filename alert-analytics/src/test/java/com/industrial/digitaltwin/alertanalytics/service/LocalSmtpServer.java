@@ -0,0 +1,154 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process SMTP stand-in on a loopback port: accepts any sender and recipient, counts connections
+ * and messages, and can drop its open connections to simulate a server-side idle cut-off. It can
+ * also hang up on the next MAIL command, or reject every recipient.
+ */
+public final class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "local-smtp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger messageCount = new AtomicInteger();
+    private final AtomicBoolean dropAtNextMail = new AtomicBoolean();
+    private volatile boolean rejectRecipients;
+
+    public LocalSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(this::accept);
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Connections the client has not closed yet.
+     */
+    public int getOpenConnectionCount() {
+        return connections.size();
+    }
+
+    public int getMessageCount() {
+        return messageCount.get();
+    }
+
+    /**
+     * Closes every open client connection from the server side.
+     */
+    public void dropConnections() throws IOException {
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Closes the connection that sends the next MAIL command instead of answering it, the way a
+     * server that timed out an idle connection is seen by a client that writes before it reads.
+     */
+    public void dropAtNextMail() {
+        dropAtNextMail.set(true);
+    }
+
+    /**
+     * Answers every RCPT command with a permanent failure while set.
+     */
+    public void setRejectRecipients(boolean rejectRecipients) {
+        this.rejectRecipients = rejectRecipients;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        dropConnections();
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                connectionCount.incrementAndGet();
+                executor.execute(() -> converse(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void converse(Socket socket) {
+        try (socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            OutputStream out = socket.getOutputStream();
+            reply(out, "220 localhost ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line;
+                switch (command) {
+                    case "MAIL" -> {
+                        if (dropAtNextMail.compareAndSet(true, false)) {
+                            connections.remove(socket); // Before the close, so the count is settled when the client sees it
+                            return;
+                        }
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> reply(out, rejectRecipients ? "550 No such user" : "250 OK");
+                    case "EHLO", "HELO", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message content is not kept
+                        }
+                        messageCount.incrementAndGet();
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Dropped by dropConnections() or by the client
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+}
@@ -0,0 +1,214 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.AlertSeverity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertType;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationChannel;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationDigesterTest {
+
+    private AlertAnalyticsProperties properties;
+    private NotificationDispatcher dispatcher;
+    private NotificationChannel channel;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDigester digester;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AlertAnalyticsProperties();
+        dispatcher = mock(NotificationDispatcher.class);
+        channel = mock(NotificationChannel.class);
+        when(channel.getType()).thenReturn(NotificationType.EMAIL);
+        when(channel.getRecipient()).thenReturn("maintenance-team");
+        meterRegistry = new SimpleMeterRegistry();
+        digester = new NotificationDigester(properties, dispatcher, meterRegistry);
+    }
+
+    private static AlertEvent alert(String alertId, AlertSeverity severity) {
+        return AlertEvent.builder()
+                .alertId(alertId)
+                .machineId("M1")
+                .type(AlertType.OVERHEATING)
+                .severity(severity)
+                .timestamp(Instant.now())
+                .build();
+    }
+
+    @Test
+    void shouldSpendBurstThenRefuse() {
+        // Given
+        NotificationDigester.TokenBucket bucket = new NotificationDigester.TokenBucket(3, 0.001);
+
+        // When / Then
+        assertTrue(bucket.tryAcquire(1_000));
+        assertTrue(bucket.tryAcquire(1_000));
+        assertTrue(bucket.tryAcquire(1_000));
+        assertFalse(bucket.tryAcquire(1_000));
+    }
+
+    @Test
+    void shouldRefillAtRateUpToCapacity() {
+        // Given, one token per second
+        NotificationDigester.TokenBucket bucket = new NotificationDigester.TokenBucket(2, 0.001);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        // When / Then
+        assertFalse(bucket.tryAcquire(999));
+        assertTrue(bucket.tryAcquire(1_000));
+        assertFalse(bucket.tryAcquire(1_000));
+
+        // A long idle period refills only up to capacity
+        assertTrue(bucket.tryAcquire(60_000));
+        assertTrue(bucket.tryAcquire(60_000));
+        assertFalse(bucket.tryAcquire(60_000));
+    }
+
+    @Test
+    void shouldNotRefillWhenClockGoesBackwards() {
+        // Given
+        NotificationDigester.TokenBucket bucket = new NotificationDigester.TokenBucket(1, 0.001);
+        bucket.tryAcquire(10_000);
+
+        // When / Then
+        assertFalse(bucket.tryAcquire(5_000));
+        assertFalse(bucket.tryAcquire(10_999)); // Elapsed time counts from the latest time seen
+        assertTrue(bucket.tryAcquire(11_000));
+    }
+
+    @Test
+    void shouldHoldNonCriticalAlertsUntilDigestWindowEnds() {
+        // Given
+        digester.submit(alert("A1", AlertSeverity.WARNING), channel);
+        digester.submit(alert("A2", AlertSeverity.INFO), channel);
+
+        // When
+        digester.flushDue();
+
+        // Then
+        verifyNoInteractions(dispatcher);
+        assertEquals(2.0, meterRegistry.counter("alertanalytics.notifications.digested").count());
+    }
+
+    @Test
+    void shouldSendOneCombinedMessagePerDigest() {
+        // Given
+        properties.getNotification().setDigestWindow(Duration.ZERO);
+        digester.submit(alert("A1", AlertSeverity.INFO), channel);
+        digester.submit(alert("A2", AlertSeverity.WARNING), channel);
+
+        // When
+        digester.flushDue();
+        digester.flushDue();
+
+        // Then
+        ArgumentCaptor<AlertEvent> sent = ArgumentCaptor.forClass(AlertEvent.class);
+        verify(dispatcher, times(1)).dispatch(sent.capture(), eq(channel));
+        AlertEvent digest = sent.getValue();
+        assertTrue(digest.getAlertId().startsWith("DIGEST_"));
+        assertEquals(AlertSeverity.WARNING, digest.getSeverity());
+        assertEquals(List.of("A2", "A1"), digest.getDetails().get("alertIds"));
+        assertEquals(2, digest.getDetails().get("alertCount"));
+        assertTrue(digest.getDescription().startsWith("2 alerts on 1 machine(s):"));
+    }
+
+    @Test
+    void shouldSendSingleHeldAlertUnchanged() {
+        // Given
+        properties.getNotification().setDigestWindow(Duration.ZERO);
+        AlertEvent held = alert("A1", AlertSeverity.WARNING);
+        digester.submit(held, channel);
+
+        // When
+        digester.flushDue();
+
+        // Then
+        verify(dispatcher).dispatch(held, channel);
+    }
+
+    @Test
+    void shouldSendFirstCriticalAndCombineFollowersAtEndOfDelay() {
+        // Given
+        properties.getNotification().setCriticalDelay(Duration.ofHours(1));
+        AlertEvent first = alert("C1", AlertSeverity.CRITICAL);
+
+        // When
+        digester.submit(first, channel);
+        digester.submit(alert("C2", AlertSeverity.CRITICAL), channel);
+        digester.submit(alert("C3", AlertSeverity.CRITICAL), channel);
+        digester.flushDue();
+
+        // Then
+        verify(dispatcher, times(1)).dispatch(any(), any());
+        verify(dispatcher).dispatch(first, channel);
+        assertEquals(2.0, meterRegistry.counter("alertanalytics.notifications.digested").count());
+    }
+
+    @Test
+    void shouldSendCriticalFollowersOnceDelayHasPassed() {
+        // Given
+        properties.getNotification().setCriticalDelay(Duration.ZERO);
+        digester.submit(alert("C1", AlertSeverity.CRITICAL), channel);
+        digester.submit(alert("C2", AlertSeverity.CRITICAL), channel);
+        digester.submit(alert("C3", AlertSeverity.CRITICAL), channel);
+
+        // When
+        digester.flushDue();
+
+        // Then
+        ArgumentCaptor<AlertEvent> sent = ArgumentCaptor.forClass(AlertEvent.class);
+        verify(dispatcher, times(2)).dispatch(sent.capture(), eq(channel));
+        assertEquals("C1", sent.getAllValues().get(0).getAlertId());
+        assertEquals(List.of("C2", "C3"), sent.getAllValues().get(1).getDetails().get("alertIds"));
+    }
+
+    @Test
+    void shouldDeferAlertsOverRateLimitToDigest() {
+        // Given
+        properties.getNotification().setDigestEnabled(false);
+        properties.getNotification().setDigestWindow(Duration.ZERO);
+        properties.getNotification().setRateLimitBurst(1);
+        properties.getNotification().setRateLimitPerMinute(1);
+
+        // When
+        digester.submit(alert("A1", AlertSeverity.WARNING), channel);
+        digester.submit(alert("A2", AlertSeverity.WARNING), channel);
+        digester.flushDue(); // No token left, the digest stays open
+
+        // Then
+        verify(dispatcher, times(1)).dispatch(any(), any());
+        assertEquals(1.0, meterRegistry.counter("alertanalytics.notifications.rate_limited").count());
+    }
+
+    @Test
+    void shouldKeepCriticalAndOtherDigestsApart() {
+        // Given
+        properties.getNotification().setDigestWindow(Duration.ZERO);
+        properties.getNotification().setCriticalDelay(Duration.ZERO);
+
+        // When
+        digester.submit(alert("C1", AlertSeverity.CRITICAL), channel);
+        digester.submit(alert("W1", AlertSeverity.WARNING), channel);
+        digester.flushDue();
+
+        // Then
+        ArgumentCaptor<AlertEvent> sent = ArgumentCaptor.forClass(AlertEvent.class);
+        verify(dispatcher, times(2)).dispatch(sent.capture(), eq(channel));
+        assertEquals(List.of("C1", "W1"), sent.getAllValues().stream().map(AlertEvent::getAlertId).sorted().toList());
+    }
+}
@@ -0,0 +1,168 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.alertanalytics.config.AlertAnalyticsProperties;
+import com.industrial.digitaltwin.alertanalytics.entity.NotificationLogEntity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertEvent;
+import com.industrial.digitaltwin.alertanalytics.model.AlertSeverity;
+import com.industrial.digitaltwin.alertanalytics.model.AlertType;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationChannel;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationStatus;
+import com.industrial.digitaltwin.alertanalytics.model.NotificationType;
+import com.industrial.digitaltwin.alertanalytics.repository.NotificationLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private AlertAnalyticsProperties properties;
+    private NotificationLogRepository repository;
+    private NotificationChannel channel;
+    private NotificationDispatcher dispatcher;
+    private final List<NotificationLogEntity> written = new ArrayList<>();
+    private final List<String> queuedDetails = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new AlertAnalyticsProperties();
+        properties.getNotification().setInitialBackoff(Duration.ofHours(1));
+        repository = mock(NotificationLogRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            NotificationLogEntity row = invocation.getArgument(0);
+            row.setId(1L);
+            queuedDetails.add(row.getResponseDetails());
+            return row;
+        });
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            // Copies, since rows are updated in place after they are queued
+            for (NotificationLogEntity row : (Iterable<NotificationLogEntity>) invocation.getArgument(0)) {
+                written.add(NotificationLogEntity.builder()
+                        .id(row.getId())
+                        .recipient(row.getRecipient())
+                        .status(row.getStatus())
+                        .responseDetails(row.getResponseDetails())
+                        .build());
+            }
+            return List.of();
+        });
+        channel = mock(NotificationChannel.class);
+        when(channel.getType()).thenReturn(NotificationType.EMAIL);
+        when(channel.getRecipient()).thenReturn("ops@example.com");
+        ObjectProvider<NotificationChannel> channels = mock(ObjectProvider.class);
+        when(channels.orderedStream()).thenAnswer(invocation -> Stream.of(channel));
+        dispatcher = new NotificationDispatcher(properties, repository, mock(MetricsService.class), objectMapper,
+                channels, new SimpleMeterRegistry());
+    }
+
+    private static AlertEvent alert() {
+        return AlertEvent.builder()
+                .alertId("ALERT-1")
+                .machineId("M1")
+                .type(AlertType.OVERHEATING)
+                .severity(AlertSeverity.CRITICAL)
+                .timestamp(Instant.parse("2024-01-01T00:00:00Z"))
+                .description("Temperature above threshold")
+                .build();
+    }
+
+    @Test
+    void shouldRecordQueuedRowBeforeDeliveringAndUpdateItWithOutcome() throws Exception {
+        // When
+        dispatcher.dispatch(alert(), channel);
+        dispatcher.shutdown();
+
+        // Then
+        assertEquals(1, queuedDetails.size());
+        assertTrue(queuedDetails.get(0).contains("\"alertId\":\"ALERT-1\""));
+        verify(channel).sendNotification(any());
+        assertEquals(1, written.size());
+        assertEquals(1L, written.get(0).getId());
+        assertEquals(NotificationStatus.SENT, written.get(0).getStatus());
+        assertEquals("ops@example.com", written.get(0).getRecipient());
+    }
+
+    @Test
+    void shouldReplayRowsLeftQueuedByPreviousRun() throws Exception {
+        // Given
+        NotificationLogEntity row = NotificationLogEntity.builder()
+                .id(7L)
+                .alertId("ALERT-1")
+                .notificationType(NotificationType.EMAIL)
+                .recipient("ops@example.com")
+                .status(NotificationStatus.QUEUED)
+                .responseDetails(objectMapper.writeValueAsString(Map.of("alert", alert())))
+                .build();
+        when(repository.findByStatusAndCreatedAtBefore(eq(NotificationStatus.QUEUED), any())).thenReturn(List.of(row));
+
+        // When
+        dispatcher.replayQueued();
+        dispatcher.shutdown();
+
+        // Then
+        ArgumentCaptor<AlertEvent> delivered = ArgumentCaptor.forClass(AlertEvent.class);
+        verify(channel).sendNotification(delivered.capture());
+        assertEquals(alert(), delivered.getValue());
+        verify(repository, never()).save(any());
+        assertEquals(7L, written.get(0).getId());
+        assertEquals(NotificationStatus.SENT, written.get(0).getStatus());
+    }
+
+    @Test
+    void shouldLeaveCancelledRetryQueuedForReplay() throws Exception {
+        // Given
+        doThrow(new IllegalStateException("SMTP down")).when(channel).sendNotification(any());
+        dispatcher.dispatch(alert(), channel);
+        verify(channel, timeout(5000)).sendNotification(any());
+
+        // When
+        waitForRetryScheduled();
+        dispatcher.shutdown();
+
+        // Then
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    void shouldRecordFailureForCancelledRetryWithoutQueuedRow() throws Exception {
+        // Given
+        doThrow(new IllegalStateException("database down")).when(repository).save(any());
+        doThrow(new IllegalStateException("SMTP down")).when(channel).sendNotification(any());
+        dispatcher.dispatch(alert(), channel);
+        verify(channel, timeout(5000)).sendNotification(any());
+
+        // When
+        waitForRetryScheduled();
+        dispatcher.shutdown();
+
+        // Then
+        assertEquals(1, written.size());
+        assertNull(written.get(0).getId());
+        assertEquals(NotificationStatus.FAILED, written.get(0).getStatus());
+        assertTrue(written.get(0).getResponseDetails().contains("cancelled by shutdown"));
+    }
+
+    private void waitForRetryScheduled() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (((Map<?, ?>) ReflectionTestUtils.getField(dispatcher, "waitingForRetry")).isEmpty()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingStatisticsTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void shouldReturnZerosWhenEmpty() {
+        // Given
+        RollingStatistics statistics = new RollingStatistics(4);
+
+        // Then
+        assertEquals(0, statistics.size());
+        assertEquals(0.0, statistics.mean());
+        assertEquals(0.0, statistics.variance());
+        assertEquals(0.0, statistics.min());
+        assertEquals(0.0, statistics.max());
+    }
+
+    @Test
+    void shouldTrackExtremesAsTheyLeaveTheWindow() {
+        // Given
+        RollingStatistics statistics = new RollingStatistics(3);
+
+        // When
+        statistics.add(5);
+        statistics.add(1);
+        statistics.add(9);
+
+        // Then
+        assertEquals(1.0, statistics.min());
+        assertEquals(9.0, statistics.max());
+
+        // When the 5 leaves, the window is 1, 9, 2
+        statistics.add(2);
+        assertEquals(1.0, statistics.min());
+        assertEquals(9.0, statistics.max());
+
+        // When the 1 leaves, the window is 9, 2, 3
+        statistics.add(3);
+        assertEquals(2.0, statistics.min());
+        assertEquals(9.0, statistics.max());
+
+        // When the 9 leaves, the window is 2, 3, 3
+        statistics.add(3);
+        assertEquals(2.0, statistics.min());
+        assertEquals(3.0, statistics.max());
+        assertEquals(2.0, statistics.first());
+        assertEquals(3.0, statistics.last());
+    }
+
+    @Test
+    void shouldMatchBruteForceOverSlidingWindow() {
+        // Given
+        int capacity = 16;
+        RollingStatistics statistics = new RollingStatistics(capacity);
+        Random random = new Random(42);
+        double[] series = new double[1_000];
+        for (int i = 0; i < series.length; i++) {
+            // Runs of repeats and plateaus exercise ties in the deques
+            series[i] = random.nextInt(4) == 0 && i > 0 ? series[i - 1] : 50 + random.nextGaussian() * 10;
+        }
+
+        for (int i = 0; i < series.length; i++) {
+            // When
+            statistics.add(series[i]);
+
+            // Then
+            double[] window = Arrays.copyOfRange(series, Math.max(0, i + 1 - capacity), i + 1);
+            assertEquals(window.length, statistics.size());
+            assertEquals(Arrays.stream(window).min().orElseThrow(), statistics.min(), "min at " + i);
+            assertEquals(Arrays.stream(window).max().orElseThrow(), statistics.max(), "max at " + i);
+            assertEquals(mean(window), statistics.mean(), EPSILON, "mean at " + i);
+            assertEquals(sampleVariance(window), statistics.variance(), 1e-6, "variance at " + i);
+        }
+    }
+
+    @Test
+    void shouldKeepVarianceExactAfterLargeValuesLeave() {
+        // Given
+        RollingStatistics statistics = new RollingStatistics(4);
+        statistics.add(1e9);
+        statistics.add(-1e9);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            statistics.add(i % 2 == 0 ? 1.0 : 2.0);
+        }
+
+        // Then
+        assertEquals(1.5, statistics.mean(), EPSILON);
+        assertEquals(sampleVariance(new double[]{1, 2, 1, 2}), statistics.variance(), EPSILON);
+        assertEquals(Math.sqrt(statistics.variance()), statistics.standardDeviation(), EPSILON);
+    }
+
+    @Test
+    void shouldReportZeroVarianceForSingleValue() {
+        // Given
+        RollingStatistics statistics = new RollingStatistics(1);
+
+        // When
+        statistics.add(7);
+        statistics.add(3);
+
+        // Then
+        assertEquals(1, statistics.size());
+        assertEquals(3.0, statistics.min());
+        assertEquals(3.0, statistics.max());
+        assertEquals(3.0, statistics.mean());
+        assertEquals(0.0, statistics.variance());
+    }
+
+    private static double mean(double[] values) {
+        return Arrays.stream(values).sum() / values.length;
+    }
+
+    private static double sampleVariance(double[] values) {
+        if (values.length < 2) {
+            return 0.0;
+        }
+        double mean = mean(values);
+        double squares = 0.0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return squares / (values.length - 1);
+    }
+}
@@ -0,0 +1,160 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import com.industrial.digitaltwin.alertanalytics.model.SensorData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensorRingTest {
+
+    // Every channel and the timestamp carry the same value, so a torn row shows up as a mismatch
+    private static SensorData reading(double value) {
+        return SensorData.builder().temperature(value).vibration(value).load(value).pressure(value).rpm(value).build();
+    }
+
+    @Test
+    void shouldReturnEmptyWindowBeforeFirstAppend() {
+        // Given
+        SensorRing ring = new SensorRing(4);
+
+        // When / Then
+        assertTrue(ring.snapshot().isEmpty());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void shouldSnapshotReadingsOldestFirst() {
+        // Given
+        SensorRing ring = new SensorRing(4);
+
+        // When
+        ring.append(reading(1), 1);
+        ring.append(reading(2), 2);
+        SensorWindow window = ring.snapshot();
+
+        // Then
+        assertEquals(2, window.size());
+        assertEquals(1, window.timestampMillis(0));
+        assertEquals(2, window.timestampMillis(1));
+        assertEquals(2.0, window.column(SensorChannel.RPM).last());
+    }
+
+    @Test
+    void shouldKeepOnlyLatestCapacityReadings() {
+        // Given
+        SensorRing ring = new SensorRing(3);
+
+        // When
+        for (int i = 1; i <= 7; i++) {
+            ring.append(reading(i), i);
+        }
+        SensorWindow window = ring.snapshot();
+
+        // Then
+        assertEquals(3, ring.size());
+        assertEquals(3, window.size());
+        assertEquals(List.of(5.0, 6.0, 7.0), window.column(SensorChannel.LOAD).stream().boxed().toList());
+        assertEquals(5, window.timestampMillis(0));
+    }
+
+    @Test
+    void shouldNotShareArraysWithSnapshots() {
+        // Given
+        SensorRing ring = new SensorRing(2);
+        ring.append(reading(1), 1);
+        SensorWindow window = ring.snapshot();
+
+        // When
+        ring.append(reading(2), 2);
+        ring.append(reading(3), 3);
+
+        // Then
+        assertEquals(1, window.size());
+        assertEquals(1.0, window.column(SensorChannel.TEMPERATURE).get(0));
+    }
+
+    @Test
+    void shouldNeverExposeTornOrReorderedRowsUnderConcurrentAppends() throws Exception {
+        // Given
+        int capacity = 64;
+        int writers = 4;
+        int appendsPerWriter = 50_000;
+        SensorRing ring = new SensorRing(capacity);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            long base = (w + 1) * 1_000_000L;
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < appendsPerWriter; i++) {
+                    ring.append(reading(base + i), base + i);
+                }
+            }));
+        }
+        Thread reader = new Thread(() -> {
+            awaitQuietly(start);
+            while (writing.get() && failure.get() == null) {
+                String problem = check(ring.snapshot(), capacity);
+                if (problem != null) {
+                    failure.compareAndSet(null, problem);
+                }
+            }
+        });
+
+        // When
+        threads.forEach(Thread::start);
+        reader.start();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        writing.set(false);
+        reader.join();
+
+        // Then
+        assertNull(failure.get());
+        SensorWindow last = ring.snapshot();
+        assertEquals(capacity, last.size());
+        assertNull(check(last, capacity));
+    }
+
+    // Null if every row is whole and each writer's readings appear in the order it appended them
+    private static String check(SensorWindow window, int capacity) {
+        if (window.size() > capacity) {
+            return "snapshot of " + window.size() + " rows";
+        }
+        Map<Long, Long> lastByWriter = new HashMap<>();
+        for (int i = 0; i < window.size(); i++) {
+            long timestamp = window.timestampMillis(i);
+            for (SensorChannel channel : SensorChannel.values()) {
+                if (window.column(channel).get(i) != timestamp) {
+                    return "torn row " + i + ": " + channel + "=" + window.column(channel).get(i) + " at " + timestamp;
+                }
+            }
+            Long previous = lastByWriter.put(timestamp / 1_000_000L, timestamp);
+            if (previous != null && previous >= timestamp) {
+                return "row " + timestamp + " after " + previous;
+            }
+        }
+        return null;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.industrial.digitaltwin.alertanalytics.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmtpConnectionPoolTest {
+
+    private LocalSmtpServer server;
+    private SimpleMeterRegistry registry;
+    private SmtpConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new LocalSmtpServer();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (pool != null) {
+            pool.close();
+        }
+        server.close();
+    }
+
+    private SmtpConnectionPool pool(int maxMessagesPerConnection, Duration idleTimeout) {
+        Properties props = new Properties();
+        props.put("mail.smtp.connectiontimeout", "5000");
+        props.put("mail.smtp.timeout", "5000");
+        pool = new SmtpConnectionPool(Session.getInstance(props), server.getHost(), server.getPort(), null, null,
+                2, maxMessagesPerConnection, idleTimeout, registry);
+        return pool;
+    }
+
+    private static MimeMessage message(SmtpConnectionPool pool) throws MessagingException {
+        MimeMessage message = new MimeMessage(pool.getSession());
+        message.setFrom(new InternetAddress("alerts@example.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("ops@example.com"));
+        message.setSubject("Alert");
+        message.setText("Temperature above threshold");
+        return message;
+    }
+
+    private double opened() {
+        return registry.get("alertanalytics.smtp.connections.opened").counter().count();
+    }
+
+    @Test
+    void shouldReuseConnectionAcrossMessages() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(100, Duration.ofMinutes(1));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            pool.send(message(pool));
+        }
+
+        // Then
+        assertEquals(5, server.getMessageCount());
+        assertEquals(1, server.getConnectionCount());
+        assertEquals(1.0, opened());
+        assertEquals(5.0, registry.get("alertanalytics.smtp.messages.sent").counter().count());
+    }
+
+    @Test
+    void shouldRetireConnectionAfterMaxMessages() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(2, Duration.ofMinutes(1));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            pool.send(message(pool));
+        }
+
+        // Then
+        assertEquals(5, server.getMessageCount());
+        assertEquals(3, server.getConnectionCount());
+    }
+
+    @Test
+    void shouldRetireConnectionIdleLongerThanTimeout() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(100, Duration.ofMillis(50));
+        pool.send(message(pool));
+
+        // When
+        Thread.sleep(100);
+        pool.send(message(pool));
+
+        // Then
+        assertEquals(2, server.getMessageCount());
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    void shouldReconnectWhenServerDroppedPooledConnection() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(100, Duration.ofMinutes(1));
+        pool.send(message(pool));
+
+        // When
+        server.dropConnections();
+        pool.send(message(pool));
+        pool.send(message(pool));
+
+        // Then
+        assertEquals(3, server.getMessageCount());
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    void shouldReconnectWhenServerHangsUpOnMailFrom() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(100, Duration.ofMinutes(1));
+        pool.send(message(pool));
+
+        // When - the client sees [EOF] as the reply to MAIL FROM
+        server.dropAtNextMail();
+        pool.send(message(pool));
+        pool.send(message(pool));
+
+        // Then
+        assertEquals(3, server.getMessageCount());
+        assertEquals(2, server.getConnectionCount());
+        assertEquals(1, server.getOpenConnectionCount());
+    }
+
+    @Test
+    void shouldKeepConnectionWhenRecipientsAreRejected() throws Exception {
+        // Given
+        SmtpConnectionPool pool = pool(100, Duration.ofMinutes(1));
+        pool.send(message(pool));
+
+        // When
+        server.setRejectRecipients(true);
+        SendFailedException rejected = assertThrows(SendFailedException.class, () -> pool.send(message(pool)));
+        server.setRejectRecipients(false);
+        pool.send(message(pool));
+
+        // Then
+        assertEquals(1, rejected.getInvalidAddresses().length);
+        assertEquals(2, server.getMessageCount());
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    void shouldCloseBorrowedConnectionWhenSendThrowsUnchecked() throws Exception {
+        // Given - a message that fails while being prepared, before anything reaches the server
+        SmtpConnectionPool pool = pool(100, Duration.ofMinutes(1));
+        pool.send(message(pool));
+        MimeMessage broken = new MimeMessage(pool.getSession()) {
+            @Override
+            public void saveChanges() {
+                throw new IllegalStateException("broken message");
+            }
+        };
+
+        // When
+        assertThrows(IllegalStateException.class, () -> pool.send(broken));
+        pool.send(message(pool));
+
+        // Then - the failed send's connection was closed, not leaked or returned to the pool
+        assertEquals(2, server.getMessageCount());
+        assertEquals(2, server.getConnectionCount());
+        assertEquals(1.0, registry.get("alertanalytics.smtp.connections.idle").gauge().value());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getOpenConnectionCount() > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, server.getOpenConnectionCount());
+    }
+}
@@ -23,6 +23,10 @@ public class SimulationConfig {
 
     private double anomalyProbability = 0.05; // 5% chance of anomaly
 
+    private int vibrationSamplesPerReading = 0; // 0 disables the high-rate vibration channel
+
+    private double vibrationSampleRate = 2000.0; // Hz
+
     private List<String> machineTypes;
 
     @Data
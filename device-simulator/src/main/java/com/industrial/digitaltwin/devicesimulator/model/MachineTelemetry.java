@@ -38,4 +38,10 @@ public class MachineTelemetry {
     
     @JsonProperty("dataQualityScore")
     private double dataQualityScore = 1.0;
+    
+    @JsonProperty("vibrationSamples")
+    private double[] vibrationSamples; // Optional high-rate vibration channel
+    
+    @JsonProperty("vibrationSampleRate")
+    private double vibrationSampleRate; // Hz
 }
\ No newline at end of file
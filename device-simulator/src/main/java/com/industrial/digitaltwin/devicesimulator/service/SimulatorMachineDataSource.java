@@ -111,9 +111,29 @@ public class SimulatorMachineDataSource implements MachineDataSource {
                 ))
                 .dataSourceType("simulator")
                 .dataQualityScore(1.0)
+                .vibrationSamples(generateVibrationSamples(sensorData))
+                .vibrationSampleRate(simulationConfig.getVibrationSampleRate())
                 .build();
     }
 
+    private double[] generateVibrationSamples(SensorData sensorData) {
+        int count = simulationConfig.getVibrationSamplesPerReading();
+        if (count <= 0) {
+            return null;
+        }
+        // Shaft-rate sine scaled so its RMS matches the scalar vibration reading, plus sensor noise
+        double sampleRate = simulationConfig.getVibrationSampleRate();
+        double shaftHz = sensorData.getRpm() / 60.0;
+        double amplitude = sensorData.getVibration() * Math.sqrt(2);
+        double phase = random.nextDouble() * 2 * Math.PI;
+        double[] samples = new double[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = amplitude * Math.sin(2 * Math.PI * shaftHz * i / sampleRate + phase)
+                    + random.nextGaussian() * 0.05;
+        }
+        return samples;
+    }
+
     private MachineStatus determineStatus(SensorData sensorData) {
         // Check for OFFLINE status - if sensor data is unavailable or invalid
         if (sensorData == null) {
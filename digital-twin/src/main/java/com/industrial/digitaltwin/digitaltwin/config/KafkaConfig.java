@@ -1,9 +1,12 @@
 package com.industrial.digitaltwin.digitaltwin.config;
 
+import com.industrial.digitaltwin.digitaltwin.service.KafkaSendListener;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +15,7 @@ import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
@@ -23,9 +27,21 @@ import java.util.Map;
 @Configuration
 public class KafkaConfig {
 
+    // Device timestamp (epoch millis) carried on derived records for end-to-end latency
+    public static final String TELEMETRY_TIMESTAMP_HEADER = "telemetry-timestamp";
+
     @Value("${kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Autowired
+    private StateStoreConfig config;
+
+    @Autowired
+    private KafkaSendListener kafkaSendListener;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // Consumer Configuration
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
@@ -43,7 +59,10 @@ public class KafkaConfig {
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         
-        return new DefaultKafkaConsumerFactory<>(props);
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(props);
+        // Binds client metrics per consumer, including per-partition records-lag gauges
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -51,6 +70,7 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setContainerCustomizer(listenerTuningCustomizer());
         return factory;
     }
     
@@ -59,11 +79,17 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setContainerCustomizer(listenerTuningCustomizer());
         // Set specific configuration for anomaly event processing
         factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
         return factory;
     }
 
+    @Bean
+    public ListenerTuningCustomizer listenerTuningCustomizer() {
+        return new ListenerTuningCustomizer(config.getKafkaConsumers(), new TopicPartitionCounter(bootstrapServers));
+    }
+
     // Producer Configuration
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
@@ -72,11 +98,18 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+
+        // Batching, compression, acks and idempotence come from the selected profile
+        StateStoreConfig.KafkaProducerProperties producer = config.getKafkaProducer();
+        producer.getProfile().applyTo(configProps);
+        configProps.putAll(producer.getOverrides());
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
     public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory());
+        template.setProducerListener(kafkaSendListener);
+        return template;
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.industrial.digitaltwin.digitaltwin.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.kafka.config.ContainerCustomizer;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * Applies per-listener concurrency and fetch sizing when a listener container is created. Listeners
+ * are matched by their {@code @KafkaListener} id. Concurrency is checked against the partition count
+ * of the listener's topics: consumers beyond the partition count would sit idle, so it is capped.
+ */
+@Slf4j
+public class ListenerTuningCustomizer
+        implements ContainerCustomizer<String, Object, ConcurrentMessageListenerContainer<String, Object>> {
+
+    private final StateStoreConfig.KafkaConsumerProperties properties;
+    private final Function<String, Integer> partitionCounts;
+
+    public ListenerTuningCustomizer(StateStoreConfig.KafkaConsumerProperties properties,
+                                    Function<String, Integer> partitionCounts) {
+        this.properties = properties;
+        this.partitionCounts = partitionCounts;
+    }
+
+    @Override
+    public void configure(ConcurrentMessageListenerContainer<String, Object> container) {
+        String listenerId = container.getListenerId();
+        StateStoreConfig.ListenerProperties listener = properties.getListeners()
+                .getOrDefault(listenerId, new StateStoreConfig.ListenerProperties());
+
+        ConsumerProfile profile = listener.getProfile() != null ? listener.getProfile() : properties.getProfile();
+        Properties consumerProps = new Properties();
+        profile.applyTo(consumerProps);
+        putIfSet(consumerProps, ConsumerConfig.MAX_POLL_RECORDS_CONFIG, listener.getMaxPollRecords());
+        putIfSet(consumerProps, ConsumerConfig.FETCH_MIN_BYTES_CONFIG, listener.getFetchMinBytes());
+        putIfSet(consumerProps, ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, listener.getFetchMaxWaitMs());
+        container.getContainerProperties().setKafkaConsumerProperties(consumerProps);
+
+        int concurrency = resolveConcurrency(listenerId, listener.getConcurrency(),
+                container.getContainerProperties().getTopics());
+        container.setConcurrency(concurrency);
+        log.info("Kafka listener {} using {} profile with concurrency {}", listenerId, profile, concurrency);
+    }
+
+    private int resolveConcurrency(String listenerId, Integer requested, String[] topics) {
+        int partitions = properties.isValidatePartitions() ? partitionsFor(topics) : 0;
+        if (requested == null) {
+            // One consumer per partition, within the configured cap
+            return partitions > 0 ? Math.min(partitions, properties.getMaxConcurrency()) : 1;
+        }
+        if (partitions > 0 && requested > partitions) {
+            log.warn("Kafka listener {} requests concurrency {} but its topics have only {} partitions; using {}",
+                    listenerId, requested, partitions, partitions);
+            return partitions;
+        }
+        return Math.max(requested, 1);
+    }
+
+    // Largest partition count among the topics, 0 when unknown
+    private int partitionsFor(String[] topics) {
+        int partitions = 0;
+        if (topics != null) {
+            for (String topic : topics) {
+                Integer count = partitionCounts.apply(topic);
+                if (count != null) {
+                    partitions = Math.max(partitions, count);
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static void putIfSet(Properties props, String key, Integer value) {
+        if (value != null) {
+            props.put(key, value.toString());
+        }
+    }
+}
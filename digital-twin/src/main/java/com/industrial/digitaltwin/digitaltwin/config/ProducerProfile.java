@@ -0,0 +1,57 @@
+package com.industrial.digitaltwin.digitaltwin.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Map;
+
+/**
+ * Named producer tunings for the state and anomaly topics. Individual settings can still be
+ * overridden through {@code app.digital-twin.kafka-producer.overrides}.
+ */
+public enum ProducerProfile {
+
+    // Large, compressed batches; a leader acknowledgement is enough
+    THROUGHPUT("1", false, 25, 256 * 1024, "zstd"),
+    // Send immediately, skip compression
+    LATENCY("1", false, 0, 16 * 1024, "none"),
+    // Idempotent, fully acknowledged writes that still batch and compress
+    DURABILITY("all", true, 10, 64 * 1024, "lz4");
+
+    private final String acks;
+    private final boolean idempotent;
+    private final int lingerMs;
+    private final int batchSize;
+    private final String compressionType;
+
+    ProducerProfile(String acks, boolean idempotent, int lingerMs, int batchSize, String compressionType) {
+        this.acks = acks;
+        this.idempotent = idempotent;
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.compressionType = compressionType;
+    }
+
+    public void applyTo(Map<String, Object> props) {
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotent);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        if (idempotent) {
+            // Idempotence keeps ordering with up to five in-flight requests per connection
+            props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        }
+    }
+
+    public int getLingerMs() {
+        return lingerMs;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public String getCompressionType() {
+        return compressionType;
+    }
+}
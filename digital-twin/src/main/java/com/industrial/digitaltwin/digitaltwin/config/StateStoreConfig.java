@@ -1,10 +1,18 @@
 package com.industrial.digitaltwin.digitaltwin.config;
 
+import com.industrial.digitaltwin.digitaltwin.model.RuleDefinition;
+import com.industrial.digitaltwin.digitaltwin.websocket.SlowConsumerPolicy;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @ConfigurationProperties(prefix = "app.digital-twin")
@@ -16,6 +24,15 @@ public class StateStoreConfig {
     
     private AnomalyDetectionProperties anomalyDetection = new AnomalyDetectionProperties();
     private StateStoreProperties stateStore = new StateStoreProperties();
+    private VibrationSpectrumProperties vibrationSpectrum = new VibrationSpectrumProperties();
+    private DegradationProperties degradation = new DegradationProperties();
+    private RulesProperties rules = new RulesProperties();
+    private AlarmProperties alarms = new AlarmProperties();
+    private WebSocketProperties websocket = new WebSocketProperties();
+    private StreamingProperties streaming = new StreamingProperties();
+    private KafkaProducerProperties kafkaProducer = new KafkaProducerProperties();
+    private KafkaConsumerProperties kafkaConsumers = new KafkaConsumerProperties();
+    private FlightRecorderProperties flightRecorder = new FlightRecorderProperties();
     
     @Data
     public static class AnomalyDetectionProperties {
@@ -23,6 +40,7 @@ public class StateStoreConfig {
         private double vibrationThreshold = 3.0;
         private double loadThreshold = 95.0;
         private double statisticalDeviationMultiplier = 2.5;
+        private String batchKernel = "auto"; // auto, vector or scalar
     }
     
     @Data
@@ -30,4 +48,117 @@ public class StateStoreConfig {
         private int maxEntries = 10000;
         private Duration evictionTimeout = Duration.ofHours(1);
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class VibrationSpectrumProperties {
+        private boolean enabled = true;
+        private int windowSize = 256; // Must be a power of two
+        private double defaultSampleRate = 2000.0; // Hz, used when telemetry does not carry one
+        private List<BandProperties> bands = new ArrayList<>(List.of(
+            new BandProperties("imbalance", 5.0, 60.0, 4.5),
+            new BandProperties("misalignment", 60.0, 200.0, 3.0),
+            new BandProperties("bearing", 200.0, 1000.0, 1.0)));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BandProperties {
+        private String name;
+        private double lowHz;
+        private double highHz;
+        private double threshold; // Band RMS limit
+    }
+
+    @Data
+    public static class DegradationProperties {
+        private boolean enabled = true;
+        private int minSamples = 30; // Readings before a detector may fire
+        private ChangePointProperties temperature = new ChangePointProperties(0.5, 25.0);
+        private ChangePointProperties vibration = new ChangePointProperties(0.05, 2.0);
+        private ChangePointProperties load = new ChangePointProperties(1.0, 40.0);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChangePointProperties {
+        private double delta;  // Tolerated drift per reading
+        private double lambda; // Alarm level for the cumulative deviation
+    }
+
+    @Data
+    public static class RulesProperties {
+        private boolean enabled = true;
+        private String file; // Optional JSON file with rule definitions, re-read on reload
+        private List<RuleDefinition> definitions = new ArrayList<>();
+    }
+
+    @Data
+    public static class AlarmProperties {
+        private boolean enabled = true;
+        private Duration raiseDwell = Duration.ZERO; // Condition must hold this long before raising
+        private Duration clearDwell = Duration.ofSeconds(30); // Value must stay inside the band this long to clear
+        private HysteresisProperties hysteresis = new HysteresisProperties();
+    }
+
+    @Data
+    public static class HysteresisProperties {
+        // Distance back past the raising threshold required to clear, in sensor units
+        private double temperature = 2.0;
+        private double vibration = 0.2;
+        private double load = 3.0;
+        private double pressure = 0.5;
+        private double rpm = 10.0;
+    }
+
+    @Data
+    public static class WebSocketProperties {
+        private int sendQueueCapacity = 256; // Frames buffered per session
+        private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.CONFLATE;
+        private int writerThreads = 4;
+        private int maxUpdatesPerSecond = 0; // Default per-session rate for state updates, 0 = unthrottled
+        private int maxAllowedUpdatesPerSecond = 60; // Upper bound for rates requested by clients
+    }
+
+    @Data
+    public static class StreamingProperties {
+        private int maxUpdatesPerSecond = 4; // SSE and long-poll delivery ticks per second
+        private int logCapacity = 10000; // Latest updates retained for streaming clients
+        private Duration sseTimeout = Duration.ofMinutes(30); // Clients reconnect with Last-Event-ID
+        private Duration longPollTimeout = Duration.ofSeconds(25);
+        private int senderThreads = 2;
+    }
+
+    @Data
+    public static class KafkaProducerProperties {
+        private ProducerProfile profile = ProducerProfile.DURABILITY; // throughput, latency or durability
+        private Map<String, String> overrides = new HashMap<>(); // Raw producer settings applied after the profile
+    }
+
+    @Data
+    public static class KafkaConsumerProperties {
+        private ConsumerProfile profile = ConsumerProfile.LOW_LATENCY; // low-latency or bulk
+        private int maxConcurrency = 4; // Cap for listeners whose concurrency follows the partition count
+        private boolean validatePartitions = true; // Look up partition counts at startup
+        private Map<String, ListenerProperties> listeners = new HashMap<>(); // Keyed by @KafkaListener id
+    }
+
+    @Data
+    public static class ListenerProperties {
+        private Integer concurrency; // Unset = one consumer per partition, up to max-concurrency
+        private ConsumerProfile profile; // Unset = module profile
+        private Integer maxPollRecords;
+        private Integer fetchMinBytes;
+        private Integer fetchMaxWaitMs;
+    }
+
+    @Data
+    public static class FlightRecorderProperties {
+        private String settings = "default"; // JFR settings: default or profile
+        private String dumpDirectory = System.getProperty("java.io.tmpdir"); // Where stopped recordings are written
+        private Duration maxDuration = Duration.ofHours(1); // Recordings stop on their own after this
+        private Duration slowRecordThreshold = Duration.ofMillis(50); // Records slower than this are kept
+        private Duration stageThreshold = Duration.ofMillis(5); // Stages slower than this are kept
+    }
+}
@@ -0,0 +1,63 @@
+package com.industrial.digitaltwin.digitaltwin.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Looks up topic partition counts at startup. Returns null when the count cannot be determined
+ * (missing topic, broker unreachable); after the first timeout no further lookups are attempted.
+ */
+@Slf4j
+public class TopicPartitionCounter implements Function<String, Integer> {
+
+    private static final int TIMEOUT_MS = 5000;
+
+    private final String bootstrapServers;
+    private final Map<String, Integer> partitionCounts = new ConcurrentHashMap<>();
+    private volatile boolean unavailable;
+
+    public TopicPartitionCounter(String bootstrapServers) {
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    @Override
+    public Integer apply(String topic) {
+        Integer cached = partitionCounts.get(topic);
+        if (cached != null || unavailable) {
+            return cached;
+        }
+        try (AdminClient admin = AdminClient.create(Map.of(
+                AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, TIMEOUT_MS,
+                AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, TIMEOUT_MS))) {
+            TopicDescription description = admin.describeTopics(List.of(topic)).allTopicNames()
+                    .get(TIMEOUT_MS, TimeUnit.MILLISECONDS).get(topic);
+            int partitions = description.partitions().size();
+            partitionCounts.put(topic, partitions);
+            return partitions;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+                log.info("Topic {} does not exist yet; skipping partition validation", topic);
+            } else {
+                log.warn("Could not describe topic {}: {}", topic, e.getCause().getMessage());
+            }
+        } catch (TimeoutException e) {
+            unavailable = true;
+            log.warn("Kafka admin timed out; skipping partition validation for listeners");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -1,13 +1,24 @@
 package com.industrial.digitaltwin.digitaltwin.controller;
 
+import com.industrial.digitaltwin.digitaltwin.model.AlarmState;
 import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
+import com.industrial.digitaltwin.digitaltwin.model.RuleDefinition;
+import com.industrial.digitaltwin.digitaltwin.model.SubscriptionRequest;
+import com.industrial.digitaltwin.digitaltwin.service.AlarmStateService;
+import com.industrial.digitaltwin.digitaltwin.service.DetectionRuleEngine;
 import com.industrial.digitaltwin.digitaltwin.service.StateManagementService;
+import com.industrial.digitaltwin.digitaltwin.stream.StateStreamService;
+import com.industrial.digitaltwin.digitaltwin.websocket.Subscription;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,6 +29,15 @@ public class DigitalTwinController {
     @Autowired
     private StateManagementService stateManagementService;
 
+    @Autowired
+    private DetectionRuleEngine detectionRuleEngine;
+
+    @Autowired
+    private AlarmStateService alarmStateService;
+
+    @Autowired
+    private StateStreamService stateStreamService;
+
     @GetMapping("/state/{machineId}")
     public ResponseEntity<DigitalTwinState> getMachineState(@PathVariable String machineId) {
         DigitalTwinState state = stateManagementService.getState(machineId);
@@ -33,6 +53,22 @@ public class DigitalTwinController {
         return ResponseEntity.ok(stateManagementService.getAllStates());
     }
 
+    /**
+     * Server-Sent Events feed of state updates, filtered like a WebSocket subscription
+     * (machineIds, machineTypes, statuses, anomaliesOnly query parameters).
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStates(@ModelAttribute SubscriptionRequest filter,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return stateStreamService.openStream(Subscription.from(filter), lastEventId);
+    }
+
+    @GetMapping("/stream/poll")
+    public DeferredResult<ResponseEntity<String>> pollStates(@ModelAttribute SubscriptionRequest filter,
+                                                             @RequestParam(defaultValue = "0") long since) {
+        return stateStreamService.poll(Subscription.from(filter), since);
+    }
+
     @DeleteMapping("/state/{machineId}")
     public ResponseEntity<Map<String, Object>> clearMachineState(@PathVariable String machineId) {
         DigitalTwinState existingState = stateManagementService.getState(machineId);
@@ -55,4 +91,45 @@ public class DigitalTwinController {
             return ResponseEntity.status(404).body(response);
         }
     }
+
+    @GetMapping("/alarms/{machineId}")
+    public ResponseEntity<Map<String, AlarmState>> getAlarmStates(@PathVariable String machineId) {
+        return ResponseEntity.ok(alarmStateService.getAlarmStates(machineId));
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<List<RuleDefinition>> getRules() {
+        return ResponseEntity.ok(detectionRuleEngine.getRuleDefinitions());
+    }
+
+    @PutMapping("/rules")
+    public ResponseEntity<Map<String, Object>> replaceRules(@RequestBody List<RuleDefinition> rules) {
+        try {
+            DetectionRuleEngine.Activation activation = detectionRuleEngine.replaceRules(rules);
+            return ResponseEntity.ok(ruleSetResponse("Detection rules replaced", activation));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected detection rules: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage(), "timestamp", Instant.now()));
+        }
+    }
+
+    @PostMapping("/rules/reload")
+    public ResponseEntity<Map<String, Object>> reloadRules() {
+        try {
+            DetectionRuleEngine.Activation activation = detectionRuleEngine.reload();
+            return ResponseEntity.ok(ruleSetResponse("Detection rules reloaded", activation));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("Failed to reload detection rules: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage(), "timestamp", Instant.now()));
+        }
+    }
+
+    private Map<String, Object> ruleSetResponse(String message, DetectionRuleEngine.Activation activation) {
+        return Map.of(
+            "message", message,
+            "ruleCount", activation.ruleCount(),
+            "version", activation.version(),
+            "timestamp", Instant.now()
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.industrial.digitaltwin.digitaltwin.jfr;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Starts and stops JDK Flight Recorder recordings at {@code /actuator/flightrecorder}. Recordings use
+ * the configured JFR settings plus the pipeline events, and are written to the dump directory when
+ * they stop, either on request or when their duration elapses. Recording names become part of the
+ * file name, so they are limited to letters, digits, '_' and '-'.
+ */
+@Component
+@Endpoint(id = "flightrecorder")
+@Slf4j
+public class FlightRecorderEndpoint {
+
+    @Autowired
+    private StateStoreConfig config;
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    // Forgets recordings that stopped on their own; JFR has already written and closed them
+    private final FlightRecorderListener finishedRecordings = new FlightRecorderListener() {
+        @Override
+        public void recordingStateChanged(Recording recording) {
+            RecordingState state = recording.getState();
+            if ((state == RecordingState.STOPPED || state == RecordingState.CLOSED)
+                    && recordings.remove(recording.getId(), recording)) {
+                log.info("Flight recording {} finished, written to {}", recording.getId(), recording.getDestination());
+            }
+        }
+    };
+
+    @PostConstruct
+    public void initialize() {
+        FlightRecorder.addListener(finishedRecordings);
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> recordings() {
+        return recordings.values().stream().map(this::describe).toList();
+    }
+
+    /**
+     * Starts a recording. Thresholds override the event defaults for this recording only.
+     */
+    @WriteOperation
+    public Map<String, Object> start(@Nullable String name, @Nullable Duration duration,
+                                     @Nullable Duration slowRecordThreshold, @Nullable Duration stageThreshold)
+            throws IOException, ParseException {
+        String recordingName = name != null ? name : "digital-twin";
+        if (!NAME.matcher(recordingName).matches()) {
+            throw new InvalidEndpointRequestException("Invalid recording name: " + name,
+                    "Recording names may only contain letters, digits, '_' and '-'");
+        }
+        StateStoreConfig.FlightRecorderProperties props = config.getFlightRecorder();
+        Path directory = Path.of(props.getDumpDirectory()).toAbsolutePath().normalize();
+        Path destination = directory.resolve(recordingName + "-" + System.currentTimeMillis() + ".jfr").normalize();
+        if (!destination.startsWith(directory)) {
+            throw new InvalidEndpointRequestException("Invalid recording name: " + name,
+                    "Recording must be written inside the dump directory");
+        }
+
+        Recording recording = new Recording(Configuration.getConfiguration(props.getSettings()));
+        recording.setName(recordingName);
+        recording.enable(TelemetryRecordEvent.class)
+                .withThreshold(slowRecordThreshold != null ? slowRecordThreshold : props.getSlowRecordThreshold());
+        recording.enable(PipelineStageEvent.class)
+                .withThreshold(stageThreshold != null ? stageThreshold : props.getStageThreshold());
+        recording.setDuration(duration != null && duration.compareTo(props.getMaxDuration()) < 0
+                ? duration : props.getMaxDuration());
+        recording.setToDisk(true);
+
+        Files.createDirectories(directory);
+        recording.setDestination(destination);
+
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        log.info("Started flight recording {} ({}) for {}", recording.getId(), recording.getName(), recording.getDuration());
+        return describe(recording);
+    }
+
+    /**
+     * Stops the recording, writes it to its destination and forgets it. Returns null (404) for
+     * unknown ids.
+     */
+    @DeleteOperation
+    public Map<String, Object> stop(@Selector long id) {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        Map<String, Object> description = describe(recording);
+        recording.close();
+        log.info("Stopped flight recording {}, written to {}", id, recording.getDestination());
+        return description;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        FlightRecorder.removeListener(finishedRecordings);
+        for (Long id : List.copyOf(recordings.keySet())) {
+            stop(id);
+        }
+    }
+
+    private Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", recording.getId());
+        description.put("name", recording.getName());
+        description.put("state", recording.getState());
+        description.put("startTime", recording.getStartTime());
+        description.put("duration", recording.getDuration());
+        description.put("destination", String.valueOf(recording.getDestination()));
+        return description;
+    }
+}
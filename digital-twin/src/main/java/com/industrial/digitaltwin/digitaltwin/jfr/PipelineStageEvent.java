@@ -0,0 +1,50 @@
+package com.industrial.digitaltwin.digitaltwin.jfr;
+
+import com.industrial.digitaltwin.digitaltwin.service.ProcessingStage;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One step of processing a telemetry record. Emitted by each service the record passes through;
+ * events on the same thread inside a {@link TelemetryRecordEvent} belong to that record.
+ */
+@Name("com.industrial.digitaltwin.PipelineStage")
+@Label("Pipeline Stage")
+@Category({"Digital Twin", "Telemetry"})
+@Description("Time spent by one telemetry record in a processing stage")
+@StackTrace(false)
+@Threshold("5 ms")
+public class PipelineStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Machine Id")
+    String machineId;
+
+    /**
+     * Creates an event with its start time taken. Cheap when the event is disabled.
+     */
+    public static PipelineStageEvent start() {
+        PipelineStageEvent event = new PipelineStageEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the stage and commits the event if it is enabled and over its threshold.
+     */
+    public void finish(ProcessingStage stage, String machineId) {
+        end();
+        if (shouldCommit()) {
+            this.stage = stage.getTag();
+            this.machineId = machineId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.industrial.digitaltwin.digitaltwin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Whole-record processing in {@code consumeTelemetry}. The threshold keeps only slow records, so the
+ * event can stay enabled in production recordings.
+ */
+@Name("com.industrial.digitaltwin.SlowTelemetryRecord")
+@Label("Slow Telemetry Record")
+@Category({"Digital Twin", "Telemetry"})
+@Description("A telemetry record whose processing exceeded the threshold")
+@StackTrace(false)
+@Threshold("50 ms")
+public class TelemetryRecordEvent extends Event {
+
+    @Label("Machine Id")
+    String machineId;
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Anomaly Detected")
+    boolean anomalyDetected;
+
+    @Label("Failed")
+    boolean failed;
+
+    public static TelemetryRecordEvent start() {
+        TelemetryRecordEvent event = new TelemetryRecordEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String machineId, String strategy, boolean anomalyDetected, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.machineId = machineId;
+            this.strategy = strategy;
+            this.anomalyDetected = anomalyDetected;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.industrial.digitaltwin.digitaltwin.model;
+
+public enum AlarmState {
+    NORMAL,   // No alarm condition
+    RAISED,   // Alarm condition confirmed on this reading - an event is emitted
+    LATCHED,  // Alarm still active - further readings are suppressed
+    CLEARED   // Value returned inside the hysteresis band for the clear dwell time
+}
@@ -19,4 +19,5 @@ public class AnomalyRecord {
     private String description;
     private double value;
     private double threshold;
+    private AlarmState alarmState; // RAISED or CLEARED for sensor alarm transitions, otherwise null
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ import java.util.Map;
 @AllArgsConstructor
 public class DigitalTwinState {
     private String machineId;
+    private String machineType; // Last type reported in telemetry
     private Instant lastUpdated;
     private SensorData currentSensorData;
     private List<SensorData> historicalData; // Last N readings
@@ -13,9 +13,12 @@ import java.time.Instant;
 @AllArgsConstructor
 public class MachineTelemetry {
     private String machineId;
+    private String machineType; // Optional; metrics fall back to "unknown"
     private Instant timestamp;
     private SensorData sensorData;
     private MachineStatus status;
     private String schemaVersion = "1.0";
     private String dataSourceType = "simulator";
+    private double[] vibrationSamples; // Optional high-rate vibration channel
+    private double vibrationSampleRate; // Hz, 0 when not provided
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.industrial.digitaltwin.digitaltwin.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleDefinition {
+    private String name;
+    private String condition; // e.g. "temperature > 80 && zscore(vibration) > 3 && status != MAINTENANCE"
+    private AnomalyType type; // Defaults to PATTERN_ANOMALY
+    private AlertSeverity severity; // Defaults to WARNING
+    private String description;
+}
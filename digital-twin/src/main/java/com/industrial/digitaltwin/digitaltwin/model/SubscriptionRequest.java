@@ -0,0 +1,21 @@
+package com.industrial.digitaltwin.digitaltwin.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionRequest {
+    private String action; // "subscribe" or "unsubscribe"
+    private Set<String> machineIds; // Empty or missing means all machines
+    private Set<String> machineTypes;
+    private Set<MachineStatus> statuses;
+    private boolean anomaliesOnly;
+    private Integer maxUpdatesPerSecond; // Batched, conflated delivery; 0 = every update, null = server default
+}
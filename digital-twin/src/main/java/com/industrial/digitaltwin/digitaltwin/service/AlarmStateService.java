@@ -0,0 +1,414 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.AlarmState;
+import com.industrial.digitaltwin.digitaltwin.model.AlertSeverity;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyType;
+import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-machine alarm state machines (NORMAL -> RAISED -> LATCHED -> CLEARED), one for each sensor
+ * and direction, so a low excursion neither holds up nor hides behind a latched high alarm.
+ * Threshold anomalies only pass through on the transition to RAISED; while an alarm is latched
+ * repeat readings are suppressed, and it only clears once the value has stayed inside the
+ * hysteresis band for the clear dwell time, which is published as an INFO record in state CLEARED.
+ * Anomaly types that are not tied to a sensor pass through unchanged.
+ * <p>
+ * Detectors that report a condition rather than a sensor reading (spectrum bands, detection rules)
+ * go through {@link #applyConditions}: one state machine per source, anomaly type and description,
+ * raised after the raise dwell and cleared once the condition has been absent for the clear dwell.
+ */
+@Service
+@Slf4j
+public class AlarmStateService {
+
+    private static final int TEMPERATURE = 0;
+    private static final int VIBRATION = 1;
+    private static final int LOAD = 2;
+    private static final int PRESSURE = 3;
+    private static final int RPM = 4;
+    private static final int SENSOR_COUNT = 5;
+    private static final String[] SENSOR_NAMES = {"temperature", "vibration", "load", "pressure", "rpm"};
+
+    // Alarm slots are sensor * 2 for the high alarm and sensor * 2 + 1 for the low one
+    private static final int ALARM_COUNT = SENSOR_COUNT * 2;
+    private static final AnomalyType[] ALARM_TYPES = {
+            AnomalyType.TEMPERATURE_HIGH, AnomalyType.TEMPERATURE_LOW,
+            AnomalyType.VIBRATION_HIGH, AnomalyType.VIBRATION_LOW,
+            AnomalyType.LOAD_HIGH, AnomalyType.LOAD_LOW,
+            AnomalyType.PRESSURE_HIGH, AnomalyType.PRESSURE_LOW,
+            AnomalyType.RPM_HIGH, AnomalyType.RPM_LOW};
+
+    private static final AlarmState[] STATES = AlarmState.values();
+    private static final long NOT_SET = Long.MIN_VALUE;
+
+    @Autowired
+    private StateStoreConfig config;
+
+    private final Map<String, MachineAlarms> alarms = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the readings' threshold anomalies through the machine's alarm state machines and returns
+     * the anomalies that should be published.
+     */
+    public List<AnomalyRecord> apply(MachineTelemetry telemetry, List<AnomalyRecord> anomalies) {
+        StateStoreConfig.AlarmProperties props = config.getAlarms();
+        SensorData data = telemetry.getSensorData();
+        if (!props.isEnabled() || data == null) {
+            return anomalies;
+        }
+
+        long now = telemetry.getTimestamp() != null ? telemetry.getTimestamp().toEpochMilli() : Instant.now().toEpochMilli();
+        long raiseDwell = props.getRaiseDwell().toMillis();
+        long clearDwell = props.getClearDwell().toMillis();
+        MachineAlarms machine = alarms.computeIfAbsent(telemetry.getMachineId(), id -> new MachineAlarms());
+
+        List<AnomalyRecord> published = new ArrayList<>(anomalies.size());
+        synchronized (machine) {
+            for (int alarm = 0; alarm < ALARM_COUNT; alarm++) {
+                AnomalyRecord first = null;
+                for (AnomalyRecord anomaly : anomalies) {
+                    if (alarmOf(anomaly) == alarm) {
+                        first = anomaly;
+                        break;
+                    }
+                }
+                int sensor = alarm >> 1;
+                double value = valueOf(data, sensor);
+                byte before = machine.state[alarm];
+                if (machine.update(alarm, first, value, hysteresisFor(props, sensor), now, raiseDwell, clearDwell)) {
+                    log.info("Alarm {} raised for machine {}", ALARM_TYPES[alarm], telemetry.getMachineId());
+                    for (AnomalyRecord anomaly : anomalies) {
+                        if (alarmOf(anomaly) == alarm) {
+                            anomaly.setAlarmState(AlarmState.RAISED);
+                            published.add(anomaly);
+                        }
+                    }
+                } else if (before != machine.state[alarm] && machine.state[alarm] == AlarmState.CLEARED.ordinal()) {
+                    log.info("Alarm {} cleared for machine {}", ALARM_TYPES[alarm], telemetry.getMachineId());
+                    published.add(clearedRecord(telemetry, alarm, value, machine.raisedThreshold[alarm]));
+                }
+            }
+        }
+
+        for (AnomalyRecord anomaly : anomalies) {
+            if (alarmOf(anomaly) < 0) {
+                published.add(anomaly);
+            }
+        }
+        return published;
+    }
+
+    /**
+     * Runs the anomalies reported by one evaluation of a condition detector through the machine's
+     * condition alarms and returns the anomalies that should be published. Conditions of the source
+     * that are not reported count as absent, so call it only when the source was evaluated.
+     */
+    public List<AnomalyRecord> applyConditions(MachineTelemetry telemetry, String source, List<AnomalyRecord> anomalies) {
+        StateStoreConfig.AlarmProperties props = config.getAlarms();
+        if (!props.isEnabled()) {
+            return anomalies;
+        }
+
+        long now = telemetry.getTimestamp() != null ? telemetry.getTimestamp().toEpochMilli() : Instant.now().toEpochMilli();
+        long raiseDwell = props.getRaiseDwell().toMillis();
+        long clearDwell = props.getClearDwell().toMillis();
+        MachineAlarms machine = alarms.computeIfAbsent(telemetry.getMachineId(), id -> new MachineAlarms());
+
+        Map<String, AnomalyRecord> active = new LinkedHashMap<>();
+        for (AnomalyRecord anomaly : anomalies) {
+            active.putIfAbsent(anomaly.getType() + "|" + anomaly.getDescription(), anomaly);
+        }
+        List<AnomalyRecord> published = new ArrayList<>();
+        synchronized (machine) {
+            Map<String, ConditionAlarm> conditions = machine.conditions.computeIfAbsent(source, s -> new HashMap<>());
+            active.forEach((key, anomaly) -> {
+                ConditionAlarm condition = conditions.computeIfAbsent(key, k -> new ConditionAlarm());
+                if (condition.update(anomaly, now, raiseDwell, clearDwell)) {
+                    log.info("Alarm {} raised for machine {}: {}", anomaly.getType(), telemetry.getMachineId(),
+                            anomaly.getDescription());
+                    for (AnomalyRecord record : anomalies) {
+                        if (key.equals(record.getType() + "|" + record.getDescription())) {
+                            record.setAlarmState(AlarmState.RAISED);
+                            published.add(record);
+                        }
+                    }
+                }
+            });
+            for (Iterator<Map.Entry<String, ConditionAlarm>> it = conditions.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, ConditionAlarm> entry = it.next();
+                if (active.containsKey(entry.getKey())) {
+                    continue;
+                }
+                ConditionAlarm condition = entry.getValue();
+                AlarmState before = condition.state;
+                condition.update(null, now, raiseDwell, clearDwell);
+                if (before != AlarmState.CLEARED && condition.state == AlarmState.CLEARED) {
+                    log.info("Alarm {} cleared for machine {}: {}", condition.raised.getType(),
+                            telemetry.getMachineId(), condition.raised.getDescription());
+                    published.add(clearedRecord(telemetry, condition.raised));
+                } else if (condition.state == AlarmState.NORMAL) {
+                    it.remove(); // Nothing left to track until the condition shows up again
+                }
+            }
+        }
+        return published;
+    }
+
+    private static AnomalyRecord clearedRecord(MachineTelemetry telemetry, AnomalyRecord raised) {
+        return AnomalyRecord.builder()
+                .machineId(telemetry.getMachineId())
+                .type(raised.getType())
+                .severity(AlertSeverity.INFO)
+                .timestamp(telemetry.getTimestamp())
+                .description("Cleared: " + raised.getDescription())
+                .threshold(raised.getThreshold())
+                .alarmState(AlarmState.CLEARED)
+                .build();
+    }
+
+    private static AnomalyRecord clearedRecord(MachineTelemetry telemetry, int alarm, double value, double threshold) {
+        String sensor = SENSOR_NAMES[alarm >> 1];
+        return AnomalyRecord.builder()
+                .machineId(telemetry.getMachineId())
+                .type(ALARM_TYPES[alarm])
+                .severity(AlertSeverity.INFO)
+                .timestamp(telemetry.getTimestamp())
+                .description(Character.toUpperCase(sensor.charAt(0)) + sensor.substring(1)
+                        + ((alarm & 1) == 0 ? " high" : " low") + " alarm cleared")
+                .value(value)
+                .threshold(threshold)
+                .alarmState(AlarmState.CLEARED)
+                .build();
+    }
+
+    /**
+     * State per sensor; when both directions have left NORMAL, the more active one (raised or
+     * latched before cleared) is reported.
+     */
+    public Map<String, AlarmState> getAlarmStates(String machineId) {
+        MachineAlarms machine = alarms.get(machineId);
+        Map<String, AlarmState> states = new LinkedHashMap<>();
+        for (int sensor = 0; sensor < SENSOR_COUNT; sensor++) {
+            AlarmState state = AlarmState.NORMAL;
+            if (machine != null) {
+                synchronized (machine) {
+                    AlarmState high = STATES[machine.state[sensor * 2]];
+                    AlarmState low = STATES[machine.state[sensor * 2 + 1]];
+                    state = activity(low) > activity(high) ? low : high;
+                }
+            }
+            states.put(SENSOR_NAMES[sensor], state);
+        }
+        return states;
+    }
+
+    private static int activity(AlarmState state) {
+        switch (state) {
+            case RAISED:
+            case LATCHED:
+                return 2;
+            case CLEARED:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    public void removeMachine(String machineId) {
+        alarms.remove(machineId);
+    }
+
+    private static int sensorOf(AnomalyRecord anomaly) {
+        if (anomaly.getType() == null) {
+            return -1;
+        }
+        switch (anomaly.getType()) {
+            case TEMPERATURE_HIGH:
+            case TEMPERATURE_LOW:
+                return TEMPERATURE;
+            case VIBRATION_HIGH:
+            case VIBRATION_LOW:
+                return VIBRATION;
+            case LOAD_HIGH:
+            case LOAD_LOW:
+                return LOAD;
+            case PRESSURE_HIGH:
+            case PRESSURE_LOW:
+                return PRESSURE;
+            case RPM_HIGH:
+            case RPM_LOW:
+                return RPM;
+            default:
+                return -1;
+        }
+    }
+
+    // Alarm slot of a threshold anomaly, or -1 when it is not tied to a sensor
+    private static int alarmOf(AnomalyRecord anomaly) {
+        int sensor = sensorOf(anomaly);
+        if (sensor < 0) {
+            return -1;
+        }
+        return anomaly.getType().name().endsWith("_HIGH") ? sensor * 2 : sensor * 2 + 1;
+    }
+
+    private static double valueOf(SensorData data, int sensor) {
+        switch (sensor) {
+            case TEMPERATURE:
+                return data.getTemperature();
+            case VIBRATION:
+                return data.getVibration();
+            case LOAD:
+                return data.getLoad();
+            case PRESSURE:
+                return data.getPressure();
+            default:
+                return data.getRpm();
+        }
+    }
+
+    private static double hysteresisFor(StateStoreConfig.AlarmProperties props, int sensor) {
+        StateStoreConfig.HysteresisProperties hysteresis = props.getHysteresis();
+        switch (sensor) {
+            case TEMPERATURE:
+                return hysteresis.getTemperature();
+            case VIBRATION:
+                return hysteresis.getVibration();
+            case LOAD:
+                return hysteresis.getLoad();
+            case PRESSURE:
+                return hysteresis.getPressure();
+            default:
+                return hysteresis.getRpm();
+        }
+    }
+
+    /**
+     * Alarm state for all sensors of one machine, held in primitive arrays indexed by alarm slot.
+     */
+    static class MachineAlarms {
+        final byte[] state = new byte[ALARM_COUNT];
+        final long[] pendingSince = new long[ALARM_COUNT];
+        final long[] clearingSince = new long[ALARM_COUNT];
+        final double[] raisedThreshold = new double[ALARM_COUNT];
+        final Map<String, Map<String, ConditionAlarm>> conditions = new HashMap<>(); // By source, then condition key
+
+        MachineAlarms() {
+            Arrays.fill(pendingSince, NOT_SET);
+            Arrays.fill(clearingSince, NOT_SET);
+        }
+
+        /**
+         * Advances one alarm's state machine with the reading's anomaly in the alarm's direction,
+         * if any; returns true on the transition to RAISED.
+         */
+        boolean update(int alarm, AnomalyRecord anomaly, double value, double hysteresis,
+                       long now, long raiseDwell, long clearDwell) {
+            boolean active = anomaly != null;
+            AlarmState current = STATES[state[alarm]];
+
+            if (current == AlarmState.RAISED || current == AlarmState.LATCHED) {
+                state[alarm] = (byte) AlarmState.LATCHED.ordinal();
+                boolean insideBand = !active && ((alarm & 1) == 0
+                        ? value < raisedThreshold[alarm] - hysteresis
+                        : value > raisedThreshold[alarm] + hysteresis);
+                if (!insideBand) {
+                    clearingSince[alarm] = NOT_SET;
+                    return false;
+                }
+                if (clearingSince[alarm] == NOT_SET) {
+                    clearingSince[alarm] = now;
+                }
+                if (now - clearingSince[alarm] >= clearDwell) {
+                    state[alarm] = (byte) AlarmState.CLEARED.ordinal();
+                    clearingSince[alarm] = NOT_SET;
+                }
+                return false;
+            }
+
+            // NORMAL or CLEARED
+            if (!active) {
+                pendingSince[alarm] = NOT_SET;
+                state[alarm] = (byte) AlarmState.NORMAL.ordinal();
+                return false;
+            }
+            if (pendingSince[alarm] == NOT_SET) {
+                pendingSince[alarm] = now;
+            }
+            if (now - pendingSince[alarm] < raiseDwell) {
+                return false;
+            }
+            state[alarm] = (byte) AlarmState.RAISED.ordinal();
+            pendingSince[alarm] = NOT_SET;
+            raisedThreshold[alarm] = anomaly.getThreshold();
+            return true;
+        }
+    }
+
+    /**
+     * State machine of one condition alarm. The detector's measure is not known while the condition
+     * is absent, so there is no hysteresis band: absence for the clear dwell clears it.
+     */
+    static class ConditionAlarm {
+        AlarmState state = AlarmState.NORMAL;
+        long pendingSince = NOT_SET;
+        long clearingSince = NOT_SET;
+        AnomalyRecord raised;
+
+        /**
+         * Advances the alarm with the condition's anomaly, or null when it is absent; returns true
+         * on the transition to RAISED.
+         */
+        boolean update(AnomalyRecord anomaly, long now, long raiseDwell, long clearDwell) {
+            boolean active = anomaly != null;
+            if (state == AlarmState.RAISED || state == AlarmState.LATCHED) {
+                state = AlarmState.LATCHED;
+                if (active) {
+                    clearingSince = NOT_SET;
+                    return false;
+                }
+                if (clearingSince == NOT_SET) {
+                    clearingSince = now;
+                }
+                if (now - clearingSince >= clearDwell) {
+                    state = AlarmState.CLEARED;
+                    clearingSince = NOT_SET;
+                }
+                return false;
+            }
+
+            // NORMAL or CLEARED
+            if (!active) {
+                pendingSince = NOT_SET;
+                state = AlarmState.NORMAL;
+                return false;
+            }
+            if (pendingSince == NOT_SET) {
+                pendingSince = now;
+            }
+            if (now - pendingSince < raiseDwell) {
+                return false;
+            }
+            state = AlarmState.RAISED;
+            pendingSince = NOT_SET;
+            raised = anomaly;
+            return true;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.industrial.digitaltwin.digitaltwin.service;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.industrial.digitaltwin.digitaltwin.jfr.PipelineStageEvent;
 import com.industrial.digitaltwin.digitaltwin.model.AnomalyEvent;
 import com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord;
 import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
@@ -34,10 +36,26 @@ public class AnomalyDetectionService {
     @Qualifier("statistical")
     private AnomalyDetectionStrategy statisticalStrategy;
 
+    @Autowired(required = false)
+    private AlarmStateService alarmStateService;
+
+    @Autowired(required = false)
+    private VibrationSpectrumAnalyzer vibrationSpectrumAnalyzer;
+
+    @Autowired(required = false)
+    private DegradationDetector degradationDetector;
+
+    @Autowired(required = false)
+    private DetectionRuleEngine detectionRuleEngine;
+
     public AnomalyEvent detectAnomalies(DigitalTwinState currentState, MachineTelemetry newTelemetry) {
+        PipelineStageEvent stageEvent = PipelineStageEvent.start();
         // Use the active strategy based on configuration
         AnomalyDetectionStrategy selectedStrategy = getActiveStrategy();
-        List<AnomalyRecord> anomalies = selectedStrategy.detect(currentState, newTelemetry);
+        List<AnomalyRecord> anomalies = applyAlarmStates(newTelemetry, selectedStrategy.detect(currentState, newTelemetry));
+
+        anomalies = addSupplementaryAnomalies(currentState, newTelemetry, anomalies);
+        stageEvent.finish(ProcessingStage.DETECT_ANOMALIES, currentState.getMachineId());
         
         if (!anomalies.isEmpty()) {
             return AnomalyEvent.builder()
@@ -50,7 +68,77 @@ public class AnomalyDetectionService {
         
         return null;
     }
+
+    /**
+     * Batch variant of {@link #detectAnomalies}. Returns one event per machine that had anomalies;
+     * rows without anomalies are skipped.
+     */
+    public List<AnomalyEvent> detectAnomaliesBatch(List<DigitalTwinState> states, List<MachineTelemetry> telemetry) {
+        AnomalyDetectionStrategy selectedStrategy = getActiveStrategy();
+        List<List<AnomalyRecord>> results = selectedStrategy.detectBatch(states, telemetry);
+
+        List<AnomalyEvent> events = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < results.size(); i++) {
+            List<AnomalyRecord> anomalies = addSupplementaryAnomalies(states.get(i), telemetry.get(i),
+                applyAlarmStates(telemetry.get(i), results.get(i)));
+            if (!anomalies.isEmpty()) {
+                events.add(AnomalyEvent.builder()
+                    .machineId(states.get(i).getMachineId())
+                    .anomalies(anomalies)
+                    .timestamp(now)
+                    .algorithmUsed(selectedStrategy.getStrategyName())
+                    .build());
+            }
+        }
+        return events;
+    }
     
+    /**
+     * Name of the strategy that {@link #detectAnomalies} currently delegates to.
+     */
+    public String getActiveStrategyName() {
+        return getActiveStrategy().getStrategyName();
+    }
+
+    // Only alarm transitions are published, so a machine hovering at a threshold yields one event
+    private List<AnomalyRecord> applyAlarmStates(MachineTelemetry telemetry, List<AnomalyRecord> anomalies) {
+        return alarmStateService != null ? alarmStateService.apply(telemetry, anomalies) : anomalies;
+    }
+
+    // Detectors and rules that see every reading regardless of the active strategy. Band and rule
+    // conditions hold for as long as the cause does, so they get alarm states of their own; a
+    // degradation is reported once per shift, as the detector restarts after each one
+    private List<AnomalyRecord> addSupplementaryAnomalies(DigitalTwinState state, MachineTelemetry telemetry,
+                                                          List<AnomalyRecord> anomalies) {
+        if (vibrationSpectrumAnalyzer != null && telemetry.getVibrationSamples() != null) {
+            anomalies = combine(anomalies, applyConditionStates(telemetry, "vibration-spectrum",
+                vibrationSpectrumAnalyzer.analyze(telemetry)));
+        }
+        if (degradationDetector != null) {
+            anomalies = combine(anomalies, degradationDetector.analyze(telemetry));
+        }
+        if (detectionRuleEngine != null) {
+            anomalies = combine(anomalies, applyConditionStates(telemetry, "detection-rules",
+                detectionRuleEngine.evaluate(state, telemetry)));
+        }
+        return anomalies;
+    }
+
+    private List<AnomalyRecord> applyConditionStates(MachineTelemetry telemetry, String source,
+                                                     List<AnomalyRecord> anomalies) {
+        return alarmStateService != null ? alarmStateService.applyConditions(telemetry, source, anomalies) : anomalies;
+    }
+
+    private List<AnomalyRecord> combine(List<AnomalyRecord> anomalies, List<AnomalyRecord> additional) {
+        if (additional.isEmpty()) {
+            return anomalies;
+        }
+        List<AnomalyRecord> combined = new ArrayList<>(anomalies);
+        combined.addAll(additional);
+        return combined;
+    }
+
     private AnomalyDetectionStrategy getActiveStrategy() {
         switch (detectionMode) {
             case "ml-based":
@@ -4,9 +4,24 @@ import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
 import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
 import com.industrial.digitaltwin.digitaltwin.model.AnomalyEvent;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface AnomalyDetectionStrategy {
     List<com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord> detect(DigitalTwinState currentState, MachineTelemetry newTelemetry);
     String getStrategyName();
-}
\ No newline at end of file
+
+    /**
+     * Detects anomalies for a batch of readings. The result has one entry per input row, in order.
+     * Strategies that can score a whole batch at once should override this; the default falls back
+     * to calling {@link #detect} row by row.
+     */
+    default List<List<com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord>> detectBatch(
+            List<DigitalTwinState> states, List<MachineTelemetry> telemetry) {
+        List<List<com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord>> results = new ArrayList<>(states.size());
+        for (int i = 0; i < states.size(); i++) {
+            results.add(detect(states.get(i), telemetry.get(i)));
+        }
+        return results;
+    }
+}
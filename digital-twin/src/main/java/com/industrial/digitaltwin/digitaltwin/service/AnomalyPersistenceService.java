@@ -24,7 +24,7 @@ public class AnomalyPersistenceService {
     @Autowired
     private AnomalyHistoryRepository anomalyHistoryRepository;
 
-    @KafkaListener(topics = "anomaly-events", groupId = "digital-twin-persistence-group")
+    @KafkaListener(id = "anomaly-persistence", topics = "anomaly-events", groupId = "digital-twin-persistence-group")
     public void persistAnomalyEvent(Map<String, Object> rawAnomalyEvent) {
         log.info("Received raw anomaly event: {}", rawAnomalyEvent);
         
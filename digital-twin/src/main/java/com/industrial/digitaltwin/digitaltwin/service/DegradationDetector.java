@@ -0,0 +1,119 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.AlertSeverity;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyType;
+import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming change-point detection for slow degradation. Runs a Page-Hinkley test for upward
+ * shifts in temperature, vibration and load per machine; each test keeps four numbers, so state
+ * is fixed-size and every reading costs O(1) regardless of history length.
+ */
+@Service
+@Slf4j
+public class DegradationDetector {
+
+    @Autowired
+    private StateStoreConfig config;
+
+    private final Map<String, MachineDetectors> detectors = new ConcurrentHashMap<>();
+
+    public List<AnomalyRecord> analyze(MachineTelemetry telemetry) {
+        StateStoreConfig.DegradationProperties props = config.getDegradation();
+        SensorData data = telemetry.getSensorData();
+        if (!props.isEnabled() || data == null) {
+            return List.of();
+        }
+
+        MachineDetectors machine = detectors.computeIfAbsent(telemetry.getMachineId(), id -> new MachineDetectors());
+        List<AnomalyRecord> anomalies = null;
+        synchronized (machine) {
+            anomalies = check(machine.temperature, data.getTemperature(), props.getTemperature(), props.getMinSamples(),
+                    "Temperature", telemetry, anomalies);
+            anomalies = check(machine.vibration, data.getVibration(), props.getVibration(), props.getMinSamples(),
+                    "Vibration", telemetry, anomalies);
+            anomalies = check(machine.load, data.getLoad(), props.getLoad(), props.getMinSamples(),
+                    "Load", telemetry, anomalies);
+        }
+        return anomalies != null ? anomalies : List.of();
+    }
+
+    public void removeMachine(String machineId) {
+        detectors.remove(machineId);
+    }
+
+    private List<AnomalyRecord> check(PageHinkley test, double value, StateStoreConfig.ChangePointProperties props,
+                                      int minSamples, String valueName, MachineTelemetry telemetry,
+                                      List<AnomalyRecord> anomalies) {
+        double statistic = test.update(value, props.getDelta());
+        if (test.count < minSamples || statistic <= props.getLambda()) {
+            return anomalies;
+        }
+
+        log.info("Degradation detected for machine {}: {} shifted from mean {}",
+                telemetry.getMachineId(), valueName, test.mean);
+        if (anomalies == null) {
+            anomalies = new ArrayList<>();
+        }
+        anomalies.add(AnomalyRecord.builder()
+                .machineId(telemetry.getMachineId())
+                .type(AnomalyType.DEGRADATION)
+                .severity(AlertSeverity.WARNING)
+                .timestamp(telemetry.getTimestamp())
+                .description(valueName + " shows a sustained upward shift (was averaging " + test.mean + ")")
+                .value(statistic)
+                .threshold(props.getLambda())
+                .build());
+        // Start learning the new operating level
+        test.reset();
+        return anomalies;
+    }
+
+    /**
+     * Page-Hinkley test for an increase in mean: m_t = sum(x_i - mean_i - delta), alarm when
+     * m_t - min(m) exceeds lambda.
+     */
+    static class PageHinkley {
+        long count;
+        double mean;
+        double cumulative;
+        double minimum;
+
+        /**
+         * Adds a value and returns the current test statistic.
+         */
+        double update(double value, double delta) {
+            count++;
+            mean += (value - mean) / count;
+            cumulative += value - mean - delta;
+            if (cumulative < minimum) {
+                minimum = cumulative;
+            }
+            return cumulative - minimum;
+        }
+
+        void reset() {
+            count = 0;
+            mean = 0;
+            cumulative = 0;
+            minimum = 0;
+        }
+    }
+
+    static class MachineDetectors {
+        final PageHinkley temperature = new PageHinkley();
+        final PageHinkley vibration = new PageHinkley();
+        final PageHinkley load = new PageHinkley();
+    }
+}
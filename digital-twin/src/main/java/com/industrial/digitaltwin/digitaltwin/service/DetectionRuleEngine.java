@@ -0,0 +1,179 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.AlertSeverity;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyType;
+import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
+import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
+import com.industrial.digitaltwin.digitaltwin.model.RuleDefinition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Evaluates user-defined detection rules. Rules are compiled once into lambda trees and published
+ * as an immutable rule set through an {@link AtomicReference}, so a reload swaps every rule at once
+ * without pausing consumers or touching twin state. A rule set that fails to compile is rejected
+ * as a whole and the previous one stays active.
+ */
+@Service
+@Slf4j
+public class DetectionRuleEngine {
+
+    @Autowired
+    private StateStoreConfig config;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicReference<RuleSet> ruleSet = new AtomicReference<>(new RuleSet(List.of(), new CompiledRule[0], 0));
+
+    private final ThreadLocal<RuleContext> contexts = ThreadLocal.withInitial(RuleContext::new);
+
+    @PostConstruct
+    public void initialize() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Failed to load detection rules, starting with none", e);
+        }
+    }
+
+    /**
+     * Reloads rules from the configured rules file, or from the application configuration when no
+     * file is set. Returns the version and size of the activated rule set.
+     */
+    public Activation reload() {
+        String file = config.getRules().getFile();
+        if (file == null || file.isBlank()) {
+            return replaceRules(config.getRules().getDefinitions());
+        }
+        try {
+            List<RuleDefinition> definitions = objectMapper.readValue(Files.readAllBytes(Path.of(file)),
+                    new TypeReference<List<RuleDefinition>>() { });
+            return replaceRules(definitions);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read rules file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    public Activation replaceRules(List<RuleDefinition> definitions) {
+        if (definitions != null && definitions.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Rule definitions must not contain null entries");
+        }
+        List<RuleDefinition> copy = definitions != null ? List.copyOf(definitions) : List.of();
+        CompiledRule[] compiled = new CompiledRule[copy.size()];
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < compiled.length; i++) {
+            RuleDefinition definition = copy.get(i);
+            if (definition.getName() == null || !names.add(definition.getName())) {
+                throw new IllegalArgumentException("Rule names must be present and unique: " + definition.getName());
+            }
+            try {
+                compiled[i] = new CompiledRule(definition, RuleCompiler.compile(definition.getCondition()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Rule '" + definition.getName() + "': " + e.getMessage(), e);
+            }
+        }
+
+        // Rules and version are swapped together, so concurrent reloads each get their own version
+        RuleSet activated = ruleSet.updateAndGet(previous -> new RuleSet(copy, compiled, previous.version + 1));
+        log.info("Activated detection rule set v{} with {} rules", activated.version, compiled.length);
+        return new Activation(activated.version, compiled.length);
+    }
+
+    public List<RuleDefinition> getRuleDefinitions() {
+        return ruleSet.get().definitions;
+    }
+
+    public long getVersion() {
+        return ruleSet.get().version;
+    }
+
+    public List<AnomalyRecord> evaluate(DigitalTwinState state, MachineTelemetry telemetry) {
+        CompiledRule[] rules = ruleSet.get().rules;
+        if (rules.length == 0 || !config.getRules().isEnabled() || telemetry.getSensorData() == null) {
+            return List.of();
+        }
+
+        RuleContext ctx = contexts.get();
+        ctx.reset(state, telemetry.getSensorData());
+        List<AnomalyRecord> anomalies = null;
+        for (CompiledRule rule : rules) {
+            if (rule.condition.eval(ctx) != 0) {
+                if (anomalies == null) {
+                    anomalies = new ArrayList<>();
+                }
+                anomalies.add(rule.toRecord(ctx, telemetry));
+            }
+        }
+        return anomalies != null ? anomalies : List.of();
+    }
+
+    /**
+     * The rule set a reload activated, taken from the same swap so a concurrent reload cannot
+     * report its version against another reload's rules.
+     */
+    public record Activation(long version, int ruleCount) {
+    }
+
+    private static final class RuleSet {
+        final List<RuleDefinition> definitions;
+        final CompiledRule[] rules;
+        final long version;
+
+        RuleSet(List<RuleDefinition> definitions, CompiledRule[] rules, long version) {
+            this.definitions = definitions;
+            this.rules = rules;
+            this.version = version;
+        }
+    }
+
+    private static final class CompiledRule {
+        final RuleCompiler.Node condition;
+        final AnomalyType type;
+        final AlertSeverity severity;
+        final String description;
+
+        CompiledRule(RuleDefinition definition, RuleCompiler.Node condition) {
+            this.condition = condition;
+            this.type = definition.getType() != null ? definition.getType() : AnomalyType.PATTERN_ANOMALY;
+            this.severity = definition.getSeverity() != null ? definition.getSeverity() : AlertSeverity.WARNING;
+            this.description = definition.getDescription() != null
+                    ? definition.getDescription() : "Rule '" + definition.getName() + "' matched";
+        }
+
+        AnomalyRecord toRecord(RuleContext ctx, MachineTelemetry telemetry) {
+            // For a top-level comparison report its operands; otherwise there is no single value
+            double value = 0;
+            double threshold = 0;
+            if (condition instanceof RuleCompiler.Comparison comparison) {
+                value = comparison.left.eval(ctx);
+                threshold = comparison.right.eval(ctx);
+            }
+            return AnomalyRecord.builder()
+                    .machineId(telemetry.getMachineId())
+                    .type(type)
+                    .severity(severity)
+                    .timestamp(telemetry.getTimestamp())
+                    .description(description)
+                    .value(value)
+                    .threshold(threshold)
+                    .build();
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package com.industrial.digitaltwin.digitaltwin.service;
 
+import com.industrial.digitaltwin.digitaltwin.model.AlarmState;
 import com.industrial.digitaltwin.digitaltwin.model.AnomalyEvent;
 import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
 import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
 import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
 import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import com.industrial.digitaltwin.digitaltwin.config.KafkaConfig;
+import com.industrial.digitaltwin.digitaltwin.jfr.PipelineStageEvent;
+import com.industrial.digitaltwin.digitaltwin.jfr.TelemetryRecordEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 @Service
 @Slf4j
 public class KafkaConsumerService {
 
+    private static final String UNKNOWN_MACHINE_TYPE = "unknown";
+
     @Autowired
     private StateManagementService stateManagementService;
     
@@ -33,13 +42,25 @@ public class KafkaConsumerService {
     @Autowired
     private MetricsService metricsService;
 
-    @KafkaListener(topics = "machine-telemetry", groupId = "digital-twin-group")
+    @KafkaListener(id = "telemetry", topics = "machine-telemetry", groupId = "digital-twin-group")
     public void consumeTelemetry(Map<String, Object> rawTelemetry) {
         log.info("Received raw telemetry: {}", rawTelemetry);
+        long stageStart = System.nanoTime();
+        TelemetryRecordEvent recordEvent = TelemetryRecordEvent.start();
+        PipelineStageEvent stageEvent = PipelineStageEvent.start();
+        String strategy = anomalyDetectionService.getActiveStrategyName();
+        String machineId = null;
+        boolean anomalyDetected = false;
+        boolean failed = false;
         
         try {
             // Convert the raw telemetry map to our internal MachineTelemetry model
             MachineTelemetry telemetry = convertToMachineTelemetry(rawTelemetry);
+            machineId = telemetry.getMachineId();
+            stageEvent.finish(ProcessingStage.DESERIALIZE, machineId);
+            MetricsService.StageTimers stageTimers = metricsService.stageTimers(strategy,
+                    telemetry.getMachineType() != null ? telemetry.getMachineType() : UNKNOWN_MACHINE_TYPE);
+            stageStart = stageTimers.record(ProcessingStage.DESERIALIZE, stageStart);
             
             log.info("Received telemetry for machine: {} at {}",
                     telemetry.getMachineId(), telemetry.getTimestamp());
@@ -47,25 +68,40 @@ public class KafkaConsumerService {
             // Update the digital twin state
             DigitalTwinState updatedState = stateManagementService.updateState(
                 telemetry.getMachineId(), telemetry);
+            stageStart = stageTimers.record(ProcessingStage.UPDATE_STATE, stageStart);
+            metricsService.recordPipelineLatency(PipelineStage.STATE_UPDATE, telemetry.getTimestamp());
             
             // Detect anomalies
             AnomalyEvent anomalyEvent = anomalyDetectionService.detectAnomalies(updatedState, telemetry);
+            stageStart = stageTimers.record(ProcessingStage.DETECT_ANOMALIES, stageStart);
+            metricsService.recordPipelineLatency(PipelineStage.DETECTION, telemetry.getTimestamp());
             
             // Publish state update
-            kafkaTemplate.send("machine-state-updates", updatedState.getMachineId(), updatedState);
+            stageEvent = PipelineStageEvent.start();
+            kafkaTemplate.send(withTelemetryTimestamp("machine-state-updates", updatedState.getMachineId(), updatedState, telemetry));
             metricsService.incrementStateUpdates();
             
             // Publish anomaly event if detected
             if (anomalyEvent != null) {
-                kafkaTemplate.send("anomaly-events", anomalyEvent.getMachineId(), anomalyEvent);
-                log.warn("Anomaly detected for machine {}: {}",
-                        anomalyEvent.getMachineId(), anomalyEvent.getAnomalies());
-                metricsService.incrementDetectedAnomalies();
+                kafkaTemplate.send(withTelemetryTimestamp("anomaly-events", anomalyEvent.getMachineId(), anomalyEvent, telemetry));
+                // An event may only carry alarm clears, which are not anomalies
+                anomalyDetected = anomalyEvent.getAnomalies().stream()
+                        .anyMatch(anomaly -> anomaly.getAlarmState() != AlarmState.CLEARED);
+                if (anomalyDetected) {
+                    log.warn("Anomaly detected for machine {}: {}",
+                            anomalyEvent.getMachineId(), anomalyEvent.getAnomalies());
+                    metricsService.incrementDetectedAnomalies();
+                }
             }
+            stageEvent.finish(ProcessingStage.PUBLISH, machineId);
+            stageStart = stageTimers.record(ProcessingStage.PUBLISH, stageStart);
+            metricsService.recordPipelineLatency(PipelineStage.PUBLISH, telemetry.getTimestamp());
             
             // Send WebSocket update for real-time monitoring
             try {
                 webSocketBroadcastService.broadcastStateUpdate(updatedState);
+                stageTimers.record(ProcessingStage.BROADCAST, stageStart);
+                metricsService.recordPipelineLatency(PipelineStage.WEBSOCKET_BROADCAST, telemetry.getTimestamp());
             } catch (Exception e) {
                 log.error("Error sending WebSocket update", e);
             }
@@ -74,11 +110,25 @@ public class KafkaConsumerService {
             metricsService.incrementProcessedEvents();
             
         } catch (Exception e) {
+            failed = true;
             log.error("Error processing telemetry: {}", rawTelemetry, e);
             // In a production system, we might want to send this to a dead letter queue
+        } finally {
+            recordEvent.finish(machineId, strategy, anomalyDetected, failed);
         }
     }
     
+    // Carries the device timestamp downstream so alert-analytics can measure end-to-end latency
+    private ProducerRecord<String, Object> withTelemetryTimestamp(String topic, String key, Object value,
+                                                                  MachineTelemetry telemetry) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, key, value);
+        if (telemetry.getTimestamp() != null) {
+            record.headers().add(KafkaConfig.TELEMETRY_TIMESTAMP_HEADER,
+                    Long.toString(telemetry.getTimestamp().toEpochMilli()).getBytes(StandardCharsets.US_ASCII));
+        }
+        return record;
+    }
+
     private MachineTelemetry convertToMachineTelemetry(Map<String, Object> rawTelemetry) {
         String machineId = (String) rawTelemetry.get("machineId");
         Object timestampObj = rawTelemetry.get("timestamp");
@@ -112,11 +162,25 @@ public class KafkaConsumerService {
         
         return MachineTelemetry.builder()
             .machineId(machineId)
+            .machineType((String) rawTelemetry.get("machineType"))
             .timestamp(timestamp)
             .sensorData(sensorData)
             .status(status)
+            .vibrationSamples(convertSamples(rawTelemetry.get("vibrationSamples")))
+            .vibrationSampleRate(rawTelemetry.get("vibrationSampleRate") instanceof Number rate ? rate.doubleValue() : 0.0)
             .build();
     }
+
+    private double[] convertSamples(Object rawSamples) {
+        if (!(rawSamples instanceof List<?> list) || list.isEmpty()) {
+            return null;
+        }
+        double[] samples = new double[list.size()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = ((Number) list.get(i)).doubleValue();
+        }
+        return samples;
+    }
     
     private MachineStatus convertStatus(String statusStr) {
         if (statusStr == null) {
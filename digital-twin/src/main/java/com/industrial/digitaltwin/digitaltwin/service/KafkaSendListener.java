@@ -0,0 +1,45 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.support.ProducerListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Completion callback for every record sent through the {@code KafkaTemplate}, so send failures are
+ * logged and counted instead of being lost in unobserved futures.
+ */
+@Component
+@Slf4j
+public class KafkaSendListener implements ProducerListener<String, Object> {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> sentByTopic = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failedByTopic = new ConcurrentHashMap<>();
+
+    @Override
+    public void onSuccess(ProducerRecord<String, Object> record, RecordMetadata metadata) {
+        sentByTopic.computeIfAbsent(record.topic(), topic -> Counter.builder("digital_twin.kafka.producer.sent")
+                .description("Records acknowledged by the broker")
+                .tag("topic", topic)
+                .register(meterRegistry)).increment();
+    }
+
+    @Override
+    public void onError(ProducerRecord<String, Object> record, RecordMetadata metadata, Exception exception) {
+        failedByTopic.computeIfAbsent(record.topic(), topic -> Counter.builder("digital_twin.kafka.producer.errors")
+                .description("Records the producer failed to deliver")
+                .tag("topic", topic)
+                .register(meterRegistry)).increment();
+        log.error("Failed to send record for key {} to topic {}", record.key(), record.topic(), exception);
+    }
+}
@@ -3,12 +3,18 @@ package com.industrial.digitaltwin.digitaltwin.service;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
-import java.util.concurrent.atomic.AtomicLong;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -20,14 +26,15 @@ public class MetricsService {
     @Autowired
     private StateManagementService stateManagementService;
     
-    private final AtomicLong processedEvents = new AtomicLong(0);
-    private final AtomicLong detectedAnomalies = new AtomicLong(0);
-    private final AtomicLong stateUpdates = new AtomicLong(0);
-    
     private Counter eventProcessingCounter;
     private Counter anomalyDetectionCounter;
     private Counter stateUpdateCounter;
 
+    private final Map<PipelineStage, Timer> pipelineLatency = new EnumMap<>(PipelineStage.class);
+
+    // strategy -> machine type -> timers; String lookups keep the hot path free of key allocations
+    private final Map<String, Map<String, StageTimers>> stageTimers = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void initializeMetrics() {
         log.info("Initializing metrics for Digital Twin Service");
@@ -53,34 +60,108 @@ public class MetricsService {
         Gauge.builder("digital_twin.memory.usage", stateManagementService, service -> service.getMemoryUsage())
                 .description("Estimated memory usage")
                 .register(meterRegistry);
+
+        // End-to-end latency from the device timestamp, one timer per stage so they line up as a timeline
+        for (PipelineStage stage : PipelineStage.values()) {
+            pipelineLatency.put(stage, Timer.builder("digital_twin.pipeline.latency")
+                    .description("Time from the device telemetry timestamp until the stage completed")
+                    .tag("stage", stage.getTag())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(meterRegistry));
+        }
         
         log.info("Metrics initialized successfully");
     }
     
     public void incrementProcessedEvents() {
-        processedEvents.incrementAndGet();
         eventProcessingCounter.increment();
     }
     
     public void incrementDetectedAnomalies() {
-        detectedAnomalies.incrementAndGet();
         anomalyDetectionCounter.increment();
     }
     
     public void incrementStateUpdates() {
-        stateUpdates.incrementAndGet();
         stateUpdateCounter.increment();
     }
+
+    /**
+     * Returns the stage timers for a strategy and machine type. Timers are registered on first use
+     * and cached, so callers can resolve them once per record and time stages without allocating.
+     */
+    public StageTimers stageTimers(String strategy, String machineType) {
+        Map<String, StageTimers> byMachineType = stageTimers.get(strategy);
+        if (byMachineType == null) {
+            byMachineType = stageTimers.computeIfAbsent(strategy, key -> new ConcurrentHashMap<>());
+        }
+        StageTimers timers = byMachineType.get(machineType);
+        if (timers == null) {
+            timers = byMachineType.computeIfAbsent(machineType, type -> new StageTimers(meterRegistry, strategy, type));
+        }
+        return timers;
+    }
     
+    /**
+     * Records the time since the device stamped the reading. Readings with clocks ahead of ours are skipped.
+     */
+    public void recordPipelineLatency(PipelineStage stage, Instant eventTime) {
+        if (eventTime == null) {
+            return;
+        }
+        long latencyMillis = System.currentTimeMillis() - eventTime.toEpochMilli();
+        if (latencyMillis >= 0) {
+            pipelineLatency.get(stage).record(latencyMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
     public long getProcessedEventsCount() {
-        return processedEvents.get();
+        return (long) eventProcessingCounter.count();
     }
     
     public long getDetectedAnomaliesCount() {
-        return detectedAnomalies.get();
+        return (long) anomalyDetectionCounter.count();
     }
     
     public long getStateUpdatesCount() {
-        return stateUpdates.get();
+        return (long) stateUpdateCounter.count();
+    }
+
+    /**
+     * Duration timers for each {@link ProcessingStage} of one strategy and machine type, indexed by
+     * ordinal. Callers take {@link System#nanoTime()} readings rather than {@link Timer.Sample}s.
+     */
+    public static final class StageTimers {
+
+        private final Timer[] timers = new Timer[ProcessingStage.values().length];
+
+        StageTimers(MeterRegistry meterRegistry, String strategy, String machineType) {
+            for (ProcessingStage stage : ProcessingStage.values()) {
+                timers[stage.ordinal()] = Timer.builder("digital_twin.processing.stage")
+                        .description("Time spent in each step of telemetry processing")
+                        .tag("stage", stage.getTag())
+                        .tag("strategy", strategy)
+                        .tag("machine_type", machineType)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(10_000))
+                        .maximumExpectedValue(Duration.ofSeconds(5))
+                        .register(meterRegistry);
+            }
+        }
+
+        /**
+         * Records the time since {@code startNanos} and returns the current reading, so consecutive
+         * stages can be chained from one clock read each.
+         */
+        public long record(ProcessingStage stage, long startNanos) {
+            long now = System.nanoTime();
+            timers[stage.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+            return now;
+        }
+
+        public Timer timer(ProcessingStage stage) {
+            return timers[stage.ordinal()];
+        }
     }
 }
\ No newline at end of file
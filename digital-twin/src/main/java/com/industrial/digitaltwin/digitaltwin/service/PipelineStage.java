@@ -0,0 +1,21 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+/**
+ * Points in the telemetry pipeline at which end-to-end latency since the device timestamp is recorded.
+ */
+public enum PipelineStage {
+    STATE_UPDATE("state_update"),
+    DETECTION("detection"),
+    PUBLISH("publish"),
+    WEBSOCKET_BROADCAST("websocket_broadcast");
+
+    private final String tag;
+
+    PipelineStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,23 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+/**
+ * Steps of {@code consumeTelemetry} whose own duration is timed, as opposed to {@link PipelineStage}
+ * which measures latency since the device timestamp.
+ */
+public enum ProcessingStage {
+    DESERIALIZE("deserialize"),
+    UPDATE_STATE("update_state"),
+    DETECT_ANOMALIES("detect_anomalies"),
+    PUBLISH("publish"),
+    BROADCAST("broadcast");
+
+    private final String tag;
+
+    ProcessingStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,69 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+/**
+ * In-place iterative radix-2 FFT for a fixed power-of-two size. Twiddle factors and the
+ * bit-reversal permutation are computed once, so {@link #transform} does not allocate and one
+ * instance can be shared by every machine window of the same size.
+ */
+public class RadixTwoFft {
+
+    private final int size;
+    private final double[] cos;
+    private final double[] sin;
+    private final int[] bitReversed;
+
+    public RadixTwoFft(int size) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("FFT size must be a power of two: " + size);
+        }
+        this.size = size;
+        this.cos = new double[size / 2];
+        this.sin = new double[size / 2];
+        for (int i = 0; i < size / 2; i++) {
+            cos[i] = Math.cos(2 * Math.PI * i / size);
+            sin[i] = -Math.sin(2 * Math.PI * i / size);
+        }
+        int bits = Integer.numberOfTrailingZeros(size);
+        this.bitReversed = new int[size];
+        for (int i = 0; i < size; i++) {
+            bitReversed[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void transform(double[] re, double[] im) {
+        for (int i = 0; i < size; i++) {
+            int j = bitReversed[i];
+            if (j > i) {
+                double t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+
+        for (int len = 2; len <= size; len <<= 1) {
+            int half = len >>> 1;
+            int step = size / len;
+            for (int start = 0; start < size; start += len) {
+                for (int k = 0; k < half; k++) {
+                    double wr = cos[k * step];
+                    double wi = sin[k * step];
+                    int a = start + k;
+                    int b = a + half;
+                    double xr = re[b] * wr - im[b] * wi;
+                    double xi = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - xr;
+                    im[b] = im[a] - xi;
+                    re[a] += xr;
+                    im[a] += xi;
+                }
+            }
+        }
+    }
+}
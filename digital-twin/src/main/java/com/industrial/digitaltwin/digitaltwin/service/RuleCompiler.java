@@ -0,0 +1,323 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+
+import java.util.Locale;
+
+/**
+ * Compiles detection rule expressions into a tree of lambdas evaluated against a
+ * {@link RuleContext}. Every node yields a double; comparisons and logical operators yield 1 or 0.
+ *
+ * <pre>
+ * expr       := and ('||' and)*
+ * and        := not ('&amp;&amp;' not)*
+ * not        := '!' not | comparison
+ * comparison := sum (('&gt;' | '&gt;=' | '&lt;' | '&lt;=' | '==' | '!=') sum)?
+ * sum        := product (('+' | '-') product)*
+ * product    := unary (('*' | '/') unary)*
+ * unary      := '-' unary | primary
+ * primary    := number | field | function '(' field ')' | 'status' | STATUS_NAME | '(' expr ')'
+ * field      := temperature | vibration | load | pressure | rpm
+ * function   := mean | stddev | min | max | zscore | delta
+ * </pre>
+ *
+ * Constant sub-expressions are folded at compile time.
+ */
+public final class RuleCompiler {
+
+    @FunctionalInterface
+    public interface Node {
+        double eval(RuleContext ctx);
+    }
+
+    static final class Constant implements Node {
+        final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double eval(RuleContext ctx) {
+            return value;
+        }
+    }
+
+    /**
+     * Comparison node; keeps both operands so a matching rule can report value and threshold.
+     */
+    static final class Comparison implements Node {
+        final Node left;
+        final Node right;
+        private final Node test;
+
+        Comparison(Node left, Node right, String operator) {
+            this.left = left;
+            this.right = right;
+            this.test = switch (operator) {
+                case ">" -> c -> left.eval(c) > right.eval(c) ? 1 : 0;
+                case ">=" -> c -> left.eval(c) >= right.eval(c) ? 1 : 0;
+                case "<" -> c -> left.eval(c) < right.eval(c) ? 1 : 0;
+                case "<=" -> c -> left.eval(c) <= right.eval(c) ? 1 : 0;
+                case "==" -> c -> left.eval(c) == right.eval(c) ? 1 : 0;
+                default -> c -> left.eval(c) != right.eval(c) ? 1 : 0;
+            };
+        }
+
+        @Override
+        public double eval(RuleContext ctx) {
+            return test.eval(ctx);
+        }
+    }
+
+    private RuleCompiler() {
+    }
+
+    public static Node compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Rule condition is empty");
+        }
+        Parser parser = new Parser(expression);
+        Node node = parser.parseOr();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw parser.error("Unexpected input");
+        }
+        return node;
+    }
+
+    private static final class Parser {
+        private final String src;
+        private int pos;
+
+        Parser(String src) {
+            this.src = src;
+        }
+
+        Node parseOr() {
+            Node left = parseAnd();
+            while (match("||")) {
+                Node l = left;
+                Node r = parseAnd();
+                left = fold(l, r, c -> (l.eval(c) != 0 || r.eval(c) != 0) ? 1 : 0);
+            }
+            return left;
+        }
+
+        Node parseAnd() {
+            Node left = parseNot();
+            while (match("&&")) {
+                Node l = left;
+                Node r = parseNot();
+                left = fold(l, r, c -> (l.eval(c) != 0 && r.eval(c) != 0) ? 1 : 0);
+            }
+            return left;
+        }
+
+        Node parseNot() {
+            skipWhitespace();
+            if (peek('!') && !src.startsWith("!=", pos)) {
+                pos++;
+                Node inner = parseNot();
+                return fold(inner, inner, c -> inner.eval(c) == 0 ? 1 : 0);
+            }
+            return parseComparison();
+        }
+
+        Node parseComparison() {
+            Node left = parseSum();
+            for (String op : new String[] {">=", "<=", "==", "!=", ">", "<"}) {
+                if (match(op)) {
+                    Node right = parseSum();
+                    Comparison comparison = new Comparison(left, right, op);
+                    return fold(left, right, comparison);
+                }
+            }
+            return left;
+        }
+
+        Node parseSum() {
+            Node left = parseProduct();
+            while (true) {
+                Node l = left;
+                if (match("+")) {
+                    Node r = parseProduct();
+                    left = fold(l, r, c -> l.eval(c) + r.eval(c));
+                } else if (match("-")) {
+                    Node r = parseProduct();
+                    left = fold(l, r, c -> l.eval(c) - r.eval(c));
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        Node parseProduct() {
+            Node left = parseUnary();
+            while (true) {
+                Node l = left;
+                if (match("*")) {
+                    Node r = parseUnary();
+                    left = fold(l, r, c -> l.eval(c) * r.eval(c));
+                } else if (match("/")) {
+                    Node r = parseUnary();
+                    left = fold(l, r, c -> l.eval(c) / r.eval(c));
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        Node parseUnary() {
+            if (match("-")) {
+                Node inner = parseUnary();
+                return fold(inner, inner, c -> -inner.eval(c));
+            }
+            return parsePrimary();
+        }
+
+        Node parsePrimary() {
+            skipWhitespace();
+            if (atEnd()) {
+                throw error("Unexpected end of expression");
+            }
+            if (match("(")) {
+                Node inner = parseOr();
+                expect(")");
+                return inner;
+            }
+            char ch = src.charAt(pos);
+            if (Character.isDigit(ch) || ch == '.') {
+                return parseNumber();
+            }
+            if (Character.isLetter(ch)) {
+                int start = pos;
+                String name = parseIdentifier();
+                if (match("(")) {
+                    int field = field(parseIdentifier(), start);
+                    expect(")");
+                    return function(name, field, start);
+                }
+                return identifier(name, start);
+            }
+            throw error("Unexpected character '" + ch + "'");
+        }
+
+        private Node parseNumber() {
+            int start = pos;
+            while (!atEnd() && (Character.isDigit(src.charAt(pos)) || src.charAt(pos) == '.')) {
+                pos++;
+            }
+            try {
+                return new Constant(Double.parseDouble(src.substring(start, pos)));
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("Invalid number");
+            }
+        }
+
+        private String parseIdentifier() {
+            skipWhitespace();
+            int start = pos;
+            while (!atEnd() && (Character.isLetterOrDigit(src.charAt(pos)) || src.charAt(pos) == '_')) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("Expected identifier");
+            }
+            return src.substring(start, pos);
+        }
+
+        private Node identifier(String name, int start) {
+            if ("status".equals(name)) {
+                return RuleContext::status;
+            }
+            for (MachineStatus status : MachineStatus.values()) {
+                if (status.name().equals(name)) {
+                    return new Constant(status.ordinal());
+                }
+            }
+            int field = field(name, start);
+            return c -> c.value(field);
+        }
+
+        private Node function(String name, int field, int start) {
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "mean":
+                    return c -> c.mean(field);
+                case "stddev":
+                    return c -> c.stdDev(field);
+                case "min":
+                    return c -> c.min(field);
+                case "max":
+                    return c -> c.max(field);
+                case "zscore":
+                    return c -> c.zscore(field);
+                case "delta":
+                    return c -> c.delta(field);
+                default:
+                    pos = start;
+                    throw error("Unknown function '" + name + "'");
+            }
+        }
+
+        private int field(String name, int start) {
+            switch (name) {
+                case "temperature":
+                    return RuleContext.TEMPERATURE;
+                case "vibration":
+                    return RuleContext.VIBRATION;
+                case "load":
+                    return RuleContext.LOAD;
+                case "pressure":
+                    return RuleContext.PRESSURE;
+                case "rpm":
+                    return RuleContext.RPM;
+                default:
+                    pos = start;
+                    throw error("Unknown field '" + name + "'");
+            }
+        }
+
+        // Replaces a node whose operands are all constants with its value
+        private Node fold(Node left, Node right, Node node) {
+            if (left instanceof Constant && right instanceof Constant) {
+                return new Constant(node.eval(null));
+            }
+            return node;
+        }
+
+        private boolean match(String token) {
+            skipWhitespace();
+            if (src.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!match(token)) {
+                throw error("Expected '" + token + "'");
+            }
+        }
+
+        private boolean peek(char ch) {
+            return !atEnd() && src.charAt(pos) == ch;
+        }
+
+        void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(src.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        boolean atEnd() {
+            return pos >= src.length();
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " in '" + src + "'");
+        }
+    }
+}
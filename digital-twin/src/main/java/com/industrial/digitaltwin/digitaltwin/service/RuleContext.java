@@ -0,0 +1,135 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+
+import java.util.List;
+
+/**
+ * Per-reading inputs for compiled rules. Rolling statistics over the twin's history are computed
+ * lazily, once per field per reading, so rules that share a statistic do not repeat the pass.
+ * Instances are reused across readings and are not thread-safe.
+ */
+public class RuleContext {
+
+    static final int TEMPERATURE = 0;
+    static final int VIBRATION = 1;
+    static final int LOAD = 2;
+    static final int PRESSURE = 3;
+    static final int RPM = 4;
+    static final int FIELD_COUNT = 5;
+
+    private final double[] values = new double[FIELD_COUNT];
+    private final double[] previous = new double[FIELD_COUNT];
+    private final double[] mean = new double[FIELD_COUNT];
+    private final double[] stdDev = new double[FIELD_COUNT];
+    private final double[] min = new double[FIELD_COUNT];
+    private final double[] max = new double[FIELD_COUNT];
+
+    private List<SensorData> history;
+    private int statsComputed; // Bitmask of fields whose statistics are up to date
+    private int status;
+
+    public void reset(DigitalTwinState state, SensorData current) {
+        values[TEMPERATURE] = current.getTemperature();
+        values[VIBRATION] = current.getVibration();
+        values[LOAD] = current.getLoad();
+        values[PRESSURE] = current.getPressure();
+        values[RPM] = current.getRpm();
+        MachineStatus machineStatus = state.getStatus() != null ? state.getStatus() : MachineStatus.NORMAL;
+        status = machineStatus.ordinal();
+        history = state.getHistoricalData();
+        statsComputed = 0;
+    }
+
+    double value(int field) {
+        return values[field];
+    }
+
+    double status() {
+        return status;
+    }
+
+    double mean(int field) {
+        ensureStatistics(field);
+        return mean[field];
+    }
+
+    double stdDev(int field) {
+        ensureStatistics(field);
+        return stdDev[field];
+    }
+
+    double min(int field) {
+        ensureStatistics(field);
+        return min[field];
+    }
+
+    double max(int field) {
+        ensureStatistics(field);
+        return max[field];
+    }
+
+    double zscore(int field) {
+        ensureStatistics(field);
+        return stdDev[field] == 0 ? 0 : (values[field] - mean[field]) / stdDev[field];
+    }
+
+    // Change since the previous reading; the history already ends with the current one
+    double delta(int field) {
+        ensureStatistics(field);
+        return values[field] - previous[field];
+    }
+
+    private void ensureStatistics(int field) {
+        int bit = 1 << field;
+        if ((statsComputed & bit) != 0) {
+            return;
+        }
+        statsComputed |= bit;
+
+        int n = history != null ? history.size() : 0;
+        if (n == 0) {
+            mean[field] = min[field] = max[field] = previous[field] = values[field];
+            stdDev[field] = 0;
+            return;
+        }
+
+        double sum = 0;
+        double lo = Double.POSITIVE_INFINITY;
+        double hi = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double v = fieldOf(history.get(i), field);
+            sum += v;
+            lo = Math.min(lo, v);
+            hi = Math.max(hi, v);
+        }
+        double m = sum / n;
+        double squares = 0;
+        for (int i = 0; i < n; i++) {
+            double d = fieldOf(history.get(i), field) - m;
+            squares += d * d;
+        }
+        mean[field] = m;
+        stdDev[field] = Math.sqrt(squares / n);
+        min[field] = lo;
+        max[field] = hi;
+        previous[field] = n >= 2 ? fieldOf(history.get(n - 2), field) : values[field];
+    }
+
+    private static double fieldOf(SensorData data, int field) {
+        switch (field) {
+            case TEMPERATURE:
+                return data.getTemperature();
+            case VIBRATION:
+                return data.getVibration();
+            case LOAD:
+                return data.getLoad();
+            case PRESSURE:
+                return data.getPressure();
+            default:
+                return data.getRpm();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import static com.industrial.digitaltwin.digitaltwin.service.TelemetryBatch.*;
+
+/**
+ * Plain loop implementation, used when the Vector API is not available and for the tail of a
+ * batch that does not fill a whole vector.
+ */
+public class ScalarThresholdBatchKernel implements ThresholdBatchKernel {
+
+    @Override
+    public void evaluate(TelemetryBatch batch,
+                         double temperatureThreshold,
+                         double vibrationThreshold,
+                         double loadThreshold,
+                         double pressureThreshold,
+                         double rpmThreshold,
+                         double deviationMultiplier) {
+        evaluateRange(batch, 0, batch.size(), temperatureThreshold, vibrationThreshold, loadThreshold,
+                pressureThreshold, rpmThreshold, deviationMultiplier);
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    static void evaluateRange(TelemetryBatch b, int from, int to,
+                              double temperatureThreshold,
+                              double vibrationThreshold,
+                              double loadThreshold,
+                              double pressureThreshold,
+                              double rpmThreshold,
+                              double deviationMultiplier) {
+        for (int i = from; i < to; i++) {
+            double m = b.multiplier[i];
+            double lower = 0 * m;
+
+            // Upper limit is checked first for temperature, vibration and load
+            highThenLow(b, i, b.temperature[i], temperatureThreshold * m, lower, TEMPERATURE_HIGH, TEMPERATURE_LOW);
+            highThenLow(b, i, b.vibration[i], vibrationThreshold * m, lower, VIBRATION_HIGH, VIBRATION_LOW);
+            highThenLow(b, i, b.load[i], loadThreshold * m, lower, LOAD_HIGH, LOAD_LOW);
+
+            // Lower limit is checked first for pressure and rpm
+            lowThenHigh(b, i, b.pressure[i], pressureThreshold * m, lower, PRESSURE_HIGH, PRESSURE_LOW);
+            lowThenHigh(b, i, b.rpm[i], rpmThreshold * m, lower, RPM_HIGH, RPM_LOW);
+
+            double k = deviationMultiplier * m;
+            statistical(b, i, b.temperature[i], b.temperatureMean[i], b.temperatureStdDev[i], k,
+                    STAT_TEMPERATURE_HIGH, STAT_TEMPERATURE_LOW);
+            statistical(b, i, b.vibration[i], b.vibrationMean[i], b.vibrationStdDev[i], k,
+                    STAT_VIBRATION_HIGH, STAT_VIBRATION_LOW);
+            statistical(b, i, b.load[i], b.loadMean[i], b.loadStdDev[i], k,
+                    STAT_LOAD_HIGH, STAT_LOAD_LOW);
+        }
+    }
+
+    private static void highThenLow(TelemetryBatch b, int row, double value, double upper, double lower,
+                                    int highCheck, int lowCheck) {
+        if (value > upper) {
+            set(b, highCheck, row);
+        } else if (value < lower) {
+            set(b, lowCheck, row);
+        }
+    }
+
+    private static void lowThenHigh(TelemetryBatch b, int row, double value, double upper, double lower,
+                                    int highCheck, int lowCheck) {
+        if (value < lower) {
+            set(b, lowCheck, row);
+        } else if (value > upper) {
+            set(b, highCheck, row);
+        }
+    }
+
+    private static void statistical(TelemetryBatch b, int row, double value, double mean, double stdDev,
+                                    double k, int highCheck, int lowCheck) {
+        if (value > mean + (k * stdDev)) {
+            set(b, highCheck, row);
+        } else if (value < mean - (k * stdDev)) {
+            set(b, lowCheck, row);
+        }
+    }
+
+    private static void set(TelemetryBatch b, int check, int row) {
+        b.hits[check][row >>> 6] |= 1L << row;
+    }
+}
@@ -1,6 +1,7 @@
 package com.industrial.digitaltwin.digitaltwin.service;
 
 import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.jfr.PipelineStageEvent;
 import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
 import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
 import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
@@ -22,6 +23,15 @@ public class StateManagementService {
     @Autowired
     private StateStoreConfig stateStoreConfig;
 
+    @Autowired(required = false)
+    private AlarmStateService alarmStateService;
+
+    @Autowired(required = false)
+    private VibrationSpectrumAnalyzer vibrationSpectrumAnalyzer;
+
+    @Autowired(required = false)
+    private DegradationDetector degradationDetector;
+
     private final Map<String, DigitalTwinState> stateStore = new ConcurrentHashMap<>();
     
     // Using a circular buffer implementation for historical data to optimize memory usage
@@ -38,6 +48,7 @@ public class StateManagementService {
     }
 
     public DigitalTwinState updateState(String machineId, MachineTelemetry telemetry) {
+        PipelineStageEvent stageEvent = PipelineStageEvent.start();
         DigitalTwinState currentState = stateStore.computeIfAbsent(machineId, id ->
             createInitialState(id));
         
@@ -45,10 +56,13 @@ public class StateManagementService {
         currentState.setLastUpdated(Instant.now());
         currentState.setCurrentSensorData(telemetry.getSensorData());
         currentState.setMachineId(machineId);
-        // Update status if present in telemetry
+        // Update status and machine type if present in telemetry
         if (telemetry.getStatus() != null) {
             currentState.setStatus(telemetry.getStatus());
         }
+        if (telemetry.getMachineType() != null) {
+            currentState.setMachineType(telemetry.getMachineType());
+        }
         
         // Apply status-based business logic
         applyStatusBasedLogic(currentState, telemetry);
@@ -74,6 +88,7 @@ public class StateManagementService {
         // Apply eviction policy
         applyEvictionPolicy();
         
+        stageEvent.finish(ProcessingStage.UPDATE_STATE, machineId);
         return currentState;
     }
 
@@ -138,8 +153,10 @@ public class StateManagementService {
             int excessCount = stateStore.size() - stateStoreConfig.getStateStore().getMaxEntries();
             Iterator<Map.Entry<String, DigitalTwinState>> iterator = stateStore.entrySet().iterator();
             for (int i = 0; i < excessCount && iterator.hasNext(); i++) {
-                iterator.next();
+                String machineId = iterator.next().getKey();
                 iterator.remove();
+                historicalDataBuffers.remove(machineId);
+                releaseMachine(machineId);
             }
         }
     }
@@ -151,6 +168,20 @@ public class StateManagementService {
     public void clearState(String machineId) {
         stateStore.remove(machineId);
         historicalDataBuffers.remove(machineId);
+        releaseMachine(machineId);
+    }
+
+    // Per-machine detector state must not outlive the twin it belongs to
+    private void releaseMachine(String machineId) {
+        if (alarmStateService != null) {
+            alarmStateService.removeMachine(machineId);
+        }
+        if (vibrationSpectrumAnalyzer != null) {
+            vibrationSpectrumAnalyzer.removeMachine(machineId);
+        }
+        if (degradationDetector != null) {
+            degradationDetector.removeMachine(machineId);
+        }
     }
     
     public int getCurrentStateCount() {
@@ -0,0 +1,130 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import java.util.Arrays;
+
+/**
+ * Columnar (structure-of-arrays) layout of a telemetry batch so that threshold checks can be
+ * evaluated over contiguous {@code double[]} columns. Instances are reusable: {@link #reset(int)}
+ * only grows the arrays when a larger batch arrives.
+ */
+public class TelemetryBatch {
+
+    // Check identifiers - one hit bitset per check
+    public static final int TEMPERATURE_HIGH = 0;
+    public static final int TEMPERATURE_LOW = 1;
+    public static final int VIBRATION_HIGH = 2;
+    public static final int VIBRATION_LOW = 3;
+    public static final int LOAD_HIGH = 4;
+    public static final int LOAD_LOW = 5;
+    public static final int PRESSURE_LOW = 6;
+    public static final int PRESSURE_HIGH = 7;
+    public static final int RPM_LOW = 8;
+    public static final int RPM_HIGH = 9;
+    public static final int STAT_TEMPERATURE_HIGH = 10;
+    public static final int STAT_TEMPERATURE_LOW = 11;
+    public static final int STAT_VIBRATION_HIGH = 12;
+    public static final int STAT_VIBRATION_LOW = 13;
+    public static final int STAT_LOAD_HIGH = 14;
+    public static final int STAT_LOAD_LOW = 15;
+    public static final int CHECK_COUNT = 16;
+
+    private int size;
+
+    double[] temperature = new double[0];
+    double[] vibration = new double[0];
+    double[] load = new double[0];
+    double[] pressure = new double[0];
+    double[] rpm = new double[0];
+
+    // Status-aware threshold multiplier per row
+    double[] multiplier = new double[0];
+
+    // Rolling statistics per row; NaN when there is not enough history (NaN never compares true)
+    double[] temperatureMean = new double[0];
+    double[] temperatureStdDev = new double[0];
+    double[] vibrationMean = new double[0];
+    double[] vibrationStdDev = new double[0];
+    double[] loadMean = new double[0];
+    double[] loadStdDev = new double[0];
+
+    // hits[check] is a bitset over rows
+    long[][] hits = new long[CHECK_COUNT][0];
+
+    public TelemetryBatch(int initialCapacity) {
+        reset(initialCapacity);
+    }
+
+    public void reset(int newSize) {
+        if (newSize > temperature.length) {
+            temperature = new double[newSize];
+            vibration = new double[newSize];
+            load = new double[newSize];
+            pressure = new double[newSize];
+            rpm = new double[newSize];
+            multiplier = new double[newSize];
+            temperatureMean = new double[newSize];
+            temperatureStdDev = new double[newSize];
+            vibrationMean = new double[newSize];
+            vibrationStdDev = new double[newSize];
+            loadMean = new double[newSize];
+            loadStdDev = new double[newSize];
+            hits = new long[CHECK_COUNT][wordsFor(newSize)];
+        } else {
+            for (long[] bits : hits) {
+                Arrays.fill(bits, 0L);
+            }
+        }
+        size = newSize;
+    }
+
+    public void setRow(int row, double temperature, double vibration, double load, double pressure,
+                       double rpm, double multiplier) {
+        this.temperature[row] = temperature;
+        this.vibration[row] = vibration;
+        this.load[row] = load;
+        this.pressure[row] = pressure;
+        this.rpm[row] = rpm;
+        this.multiplier[row] = multiplier;
+    }
+
+    public void setStatistics(int row, double temperatureMean, double temperatureStdDev,
+                              double vibrationMean, double vibrationStdDev,
+                              double loadMean, double loadStdDev) {
+        this.temperatureMean[row] = temperatureMean;
+        this.temperatureStdDev[row] = temperatureStdDev;
+        this.vibrationMean[row] = vibrationMean;
+        this.vibrationStdDev[row] = vibrationStdDev;
+        this.loadMean[row] = loadMean;
+        this.loadStdDev[row] = loadStdDev;
+    }
+
+    public void clearStatistics(int row) {
+        setStatistics(row, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isHit(int check, int row) {
+        return (hits[check][row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Returns the bitset of rows with at least one hit, written into {@code target}.
+     */
+    public long[] anyHit(long[] target) {
+        int words = wordsFor(size);
+        Arrays.fill(target, 0, words, 0L);
+        for (long[] bits : hits) {
+            for (int w = 0; w < words; w++) {
+                target[w] |= bits[w];
+            }
+        }
+        return target;
+    }
+
+    static int wordsFor(int rows) {
+        return (rows + 63) >>> 6;
+    }
+}
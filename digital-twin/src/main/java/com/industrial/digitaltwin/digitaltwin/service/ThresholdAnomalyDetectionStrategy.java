@@ -1,6 +1,7 @@
 package com.industrial.digitaltwin.digitaltwin.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,9 +22,27 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ThresholdAnomalyDetectionStrategy implements AnomalyDetectionStrategy {
 
+    // Fixed upper bounds for pressure and RPM
+    private static final double PRESSURE_UPPER_LIMIT = 15;
+    private static final double RPM_UPPER_LIMIT = 300;
+
+    // Offsets into the array filled by calculateHistoryStatistics
+    private static final int TEMPERATURE_MEAN = 0;
+    private static final int TEMPERATURE_STD_DEV = 1;
+    private static final int VIBRATION_MEAN = 2;
+    private static final int VIBRATION_STD_DEV = 3;
+    private static final int LOAD_MEAN = 4;
+    private static final int LOAD_STD_DEV = 5;
+    private static final int HISTORY_STATISTICS_LENGTH = 6;
+
     @Autowired
     private StateStoreConfig config;
 
+    private volatile ThresholdBatchKernel batchKernel;
+
+    // Batches are reused per consumer thread to avoid reallocating the columns
+    private final ThreadLocal<TelemetryBatch> batches = ThreadLocal.withInitial(() -> new TelemetryBatch(64));
+
     @Override
     public List<AnomalyRecord> detect(DigitalTwinState currentState, MachineTelemetry newTelemetry) {
         List<AnomalyRecord> anomalies = new ArrayList<>();
@@ -49,6 +68,153 @@ public class ThresholdAnomalyDetectionStrategy implements AnomalyDetectionStrate
         return "threshold-based";
     }
 
+    /**
+     * Scores the whole batch in one pass over columnar arrays and only builds anomaly records for
+     * rows that hit a check. Produces the same records, in the same order, as {@link #detect}.
+     */
+    @Override
+    public List<List<AnomalyRecord>> detectBatch(List<DigitalTwinState> states, List<MachineTelemetry> telemetry) {
+        int size = states.size();
+        TelemetryBatch batch = batches.get();
+        batch.reset(size);
+
+        double[] statistics = new double[HISTORY_STATISTICS_LENGTH];
+        for (int i = 0; i < size; i++) {
+            DigitalTwinState state = states.get(i);
+            SensorData data = telemetry.get(i).getSensorData();
+            batch.setRow(i, data.getTemperature(), data.getVibration(), data.getLoad(), data.getPressure(),
+                data.getRpm(), getThresholdMultiplierForStatus(state.getStatus()));
+
+            List<SensorData> history = state.getHistoricalData();
+            if (history != null && history.size() > 5) {
+                calculateHistoryStatistics(history, statistics);
+                batch.setStatistics(i,
+                    statistics[TEMPERATURE_MEAN], statistics[TEMPERATURE_STD_DEV],
+                    statistics[VIBRATION_MEAN], statistics[VIBRATION_STD_DEV],
+                    statistics[LOAD_MEAN], statistics[LOAD_STD_DEV]);
+            } else {
+                batch.clearStatistics(i);
+            }
+        }
+
+        StateStoreConfig.AnomalyDetectionProperties props = config.getAnomalyDetection();
+        getBatchKernel().evaluate(batch,
+            props.getTemperatureThreshold(),
+            props.getVibrationThreshold(),
+            props.getLoadThreshold(),
+            PRESSURE_UPPER_LIMIT,
+            RPM_UPPER_LIMIT,
+            props.getStatisticalDeviationMultiplier());
+
+        List<List<AnomalyRecord>> results = new ArrayList<>(Collections.nCopies(size, List.<AnomalyRecord>of()));
+        long[] anyHit = batch.anyHit(new long[TelemetryBatch.wordsFor(size)]);
+        for (int w = 0; w < anyHit.length; w++) {
+            long word = anyHit[w];
+            while (word != 0) {
+                int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                results.set(row, buildRecords(batch, row, states.get(row), telemetry.get(row)));
+                word &= word - 1;
+            }
+        }
+        return results;
+    }
+
+    ThresholdBatchKernel getBatchKernel() {
+        ThresholdBatchKernel kernel = batchKernel;
+        if (kernel == null) {
+            kernel = ThresholdBatchKernel.forMode(config.getAnomalyDetection().getBatchKernel());
+            log.info("Using {} kernel for batch threshold scoring", kernel.getName());
+            batchKernel = kernel;
+        }
+        return kernel;
+    }
+
+    void setBatchKernel(ThresholdBatchKernel batchKernel) {
+        this.batchKernel = batchKernel;
+    }
+
+    private List<AnomalyRecord> buildRecords(TelemetryBatch batch, int row, DigitalTwinState state, MachineTelemetry telemetry) {
+        List<AnomalyRecord> anomalies = new ArrayList<>();
+        StateStoreConfig.AnomalyDetectionProperties props = config.getAnomalyDetection();
+        double m = batch.multiplier[row];
+        double lower = 0 * m;
+        double k = props.getStatisticalDeviationMultiplier() * m;
+
+        for (int check = 0; check < TelemetryBatch.CHECK_COUNT; check++) {
+            if (!batch.isHit(check, row)) {
+                continue;
+            }
+            switch (check) {
+                case TelemetryBatch.TEMPERATURE_HIGH -> anomalies.add(thresholdRecord(telemetry, AnomalyType.TEMPERATURE_HIGH,
+                    AlertSeverity.CRITICAL, "Temperature exceeds threshold", batch.temperature[row], props.getTemperatureThreshold() * m));
+                case TelemetryBatch.TEMPERATURE_LOW -> anomalies.add(thresholdRecord(telemetry, AnomalyType.TEMPERATURE_LOW,
+                    AlertSeverity.WARNING, "Temperature below normal range", batch.temperature[row], lower));
+                case TelemetryBatch.VIBRATION_HIGH -> anomalies.add(thresholdRecord(telemetry, AnomalyType.VIBRATION_HIGH,
+                    AlertSeverity.CRITICAL, "Vibration exceeds threshold", batch.vibration[row], props.getVibrationThreshold() * m));
+                case TelemetryBatch.VIBRATION_LOW -> anomalies.add(thresholdRecord(telemetry, AnomalyType.VIBRATION_LOW,
+                    AlertSeverity.WARNING, "Vibration below normal range", batch.vibration[row], lower));
+                case TelemetryBatch.LOAD_HIGH -> anomalies.add(thresholdRecord(telemetry, AnomalyType.LOAD_HIGH,
+                    AlertSeverity.CRITICAL, "Load exceeds threshold", batch.load[row], props.getLoadThreshold() * m));
+                case TelemetryBatch.LOAD_LOW -> anomalies.add(thresholdRecord(telemetry, AnomalyType.LOAD_LOW,
+                    AlertSeverity.WARNING, "Load below normal range", batch.load[row], lower));
+                case TelemetryBatch.PRESSURE_LOW -> anomalies.add(thresholdRecord(telemetry, AnomalyType.PRESSURE_LOW,
+                    AlertSeverity.WARNING, "Pressure below normal range", batch.pressure[row], lower));
+                case TelemetryBatch.PRESSURE_HIGH -> anomalies.add(thresholdRecord(telemetry, AnomalyType.PRESSURE_HIGH,
+                    AlertSeverity.CRITICAL, "Pressure exceeds normal range", batch.pressure[row], PRESSURE_UPPER_LIMIT * m));
+                case TelemetryBatch.RPM_LOW -> anomalies.add(thresholdRecord(telemetry, AnomalyType.RPM_LOW,
+                    AlertSeverity.WARNING, "RPM below normal range", batch.rpm[row], lower));
+                case TelemetryBatch.RPM_HIGH -> anomalies.add(thresholdRecord(telemetry, AnomalyType.RPM_HIGH,
+                    AlertSeverity.CRITICAL, "RPM exceeds normal range", batch.rpm[row], RPM_UPPER_LIMIT * m));
+                case TelemetryBatch.STAT_TEMPERATURE_HIGH -> anomalies.add(statisticalRecord(state, telemetry, AnomalyType.TEMPERATURE_HIGH,
+                    "Temperature is statistically high (above " + k + " standard deviations)", batch.temperature[row],
+                    batch.temperatureMean[row] + (k * batch.temperatureStdDev[row])));
+                case TelemetryBatch.STAT_TEMPERATURE_LOW -> anomalies.add(statisticalRecord(state, telemetry, AnomalyType.TEMPERATURE_LOW,
+                    "Temperature is statistically low (below " + k + " standard deviations)", batch.temperature[row],
+                    batch.temperatureMean[row] - (k * batch.temperatureStdDev[row])));
+                case TelemetryBatch.STAT_VIBRATION_HIGH -> anomalies.add(statisticalRecord(state, telemetry, AnomalyType.VIBRATION_HIGH,
+                    "Vibration is statistically high (above " + k + " standard deviations)", batch.vibration[row],
+                    batch.vibrationMean[row] + (k * batch.vibrationStdDev[row])));
+                case TelemetryBatch.STAT_VIBRATION_LOW -> anomalies.add(statisticalRecord(state, telemetry, AnomalyType.VIBRATION_LOW,
+                    "Vibration is statistically low (below " + k + " standard deviations)", batch.vibration[row],
+                    batch.vibrationMean[row] - (k * batch.vibrationStdDev[row])));
+                case TelemetryBatch.STAT_LOAD_HIGH -> anomalies.add(statisticalRecord(state, telemetry, AnomalyType.LOAD_HIGH,
+                    "Load is statistically high (above " + k + " standard deviations)", batch.load[row],
+                    batch.loadMean[row] + (k * batch.loadStdDev[row])));
+                case TelemetryBatch.STAT_LOAD_LOW -> anomalies.add(statisticalRecord(state, telemetry, AnomalyType.LOAD_LOW,
+                    "Load is statistically low (below " + k + " standard deviations)", batch.load[row],
+                    batch.loadMean[row] - (k * batch.loadStdDev[row])));
+                default -> { }
+            }
+        }
+        return anomalies;
+    }
+
+    private AnomalyRecord thresholdRecord(MachineTelemetry telemetry, AnomalyType type, AlertSeverity severity,
+                                          String description, double value, double threshold) {
+        return AnomalyRecord.builder()
+            .machineId(telemetry.getMachineId())
+            .type(type)
+            .severity(severity)
+            .timestamp(telemetry.getTimestamp())
+            .description(description)
+            .value(value)
+            .threshold(threshold)
+            .build();
+    }
+
+    private AnomalyRecord statisticalRecord(DigitalTwinState state, MachineTelemetry telemetry, AnomalyType type,
+                                            String description, double value, double threshold) {
+        return AnomalyRecord.builder()
+            .machineId(state.getMachineId())
+            .type(type)
+            .severity(AlertSeverity.WARNING)
+            .timestamp(telemetry.getTimestamp())
+            .description(description)
+            .value(value)
+            .threshold(threshold)
+            .build();
+    }
+
     private double getThresholdMultiplierForStatus(MachineStatus status) {
         // Adjust sensitivity based on machine status
         switch (status) {
@@ -169,7 +335,7 @@ public class ThresholdAnomalyDetectionStrategy implements AnomalyDetectionStrate
         List<AnomalyRecord> anomalies = new ArrayList<>();
         double pressure = telemetry.getSensorData().getPressure();
         double lowerThreshold = 0 * thresholdMultiplier; // Apply multiplier to lower bound
-        double upperThreshold = 15 * thresholdMultiplier; // Apply multiplier to upper bound
+        double upperThreshold = PRESSURE_UPPER_LIMIT * thresholdMultiplier; // Apply multiplier to upper bound
         
         if (pressure < lowerThreshold) { // Assuming negative pressure is anomalous
             anomalies.add(AnomalyRecord.builder()
@@ -200,7 +366,7 @@ public class ThresholdAnomalyDetectionStrategy implements AnomalyDetectionStrate
         List<AnomalyRecord> anomalies = new ArrayList<>();
         double rpm = telemetry.getSensorData().getRpm();
         double lowerThreshold = 0 * thresholdMultiplier; // Apply multiplier to lower bound
-        double upperThreshold = 300 * thresholdMultiplier; // Apply multiplier to upper bound
+        double upperThreshold = RPM_UPPER_LIMIT * thresholdMultiplier; // Apply multiplier to upper bound
         
         if (rpm < lowerThreshold) { // Assuming negative RPM is anomalous
             anomalies.add(AnomalyRecord.builder()
@@ -235,14 +401,15 @@ public class ThresholdAnomalyDetectionStrategy implements AnomalyDetectionStrate
         
         if (currentState.getHistoricalData() != null && currentState.getHistoricalData().size() > 5) {
             SensorData currentData = telemetry.getSensorData();
+            double[] statistics = calculateHistoryStatistics(currentState.getHistoricalData(),
+                new double[HISTORY_STATISTICS_LENGTH]);
             
             // Calculate statistical anomalies for temperature
             checkStatisticalAnomalyForValue(
                 currentState,
                 currentData.getTemperature(),
-                currentState.getHistoricalData().stream()
-                    .mapToDouble(SensorData::getTemperature)
-                    .toArray(),
+                statistics[TEMPERATURE_MEAN],
+                statistics[TEMPERATURE_STD_DEV],
                 AnomalyType.TEMPERATURE_HIGH,
                 AnomalyType.TEMPERATURE_LOW,
                 "Temperature",
@@ -254,9 +421,8 @@ public class ThresholdAnomalyDetectionStrategy implements AnomalyDetectionStrate
             checkStatisticalAnomalyForValue(
                 currentState,
                 currentData.getVibration(),
-                currentState.getHistoricalData().stream()
-                    .mapToDouble(SensorData::getVibration)
-                    .toArray(),
+                statistics[VIBRATION_MEAN],
+                statistics[VIBRATION_STD_DEV],
                 AnomalyType.VIBRATION_HIGH,
                 AnomalyType.VIBRATION_LOW,
                 "Vibration",
@@ -268,9 +434,8 @@ public class ThresholdAnomalyDetectionStrategy implements AnomalyDetectionStrate
             checkStatisticalAnomalyForValue(
                 currentState,
                 currentData.getLoad(),
-                currentState.getHistoricalData().stream()
-                    .mapToDouble(SensorData::getLoad)
-                    .toArray(),
+                statistics[LOAD_MEAN],
+                statistics[LOAD_STD_DEV],
                 AnomalyType.LOAD_HIGH,
                 AnomalyType.LOAD_LOW,
                 "Load",
@@ -285,15 +450,14 @@ public class ThresholdAnomalyDetectionStrategy implements AnomalyDetectionStrate
     private void checkStatisticalAnomalyForValue(
             DigitalTwinState currentState,
             double currentValue,
-            double[] historicalValues,
+            double mean,
+            double stdDev,
             AnomalyType highAnomalyType,
             AnomalyType lowAnomalyType,
             String valueName,
             List<AnomalyRecord> anomalies,
             java.time.Instant timestamp) {
         
-        double mean = calculateMean(historicalValues);
-        double stdDev = calculateStandardDeviation(historicalValues, mean);
         double baseMultiplier = config.getAnomalyDetection().getStatisticalDeviationMultiplier();
         double statusMultiplier = getThresholdMultiplierForStatus(currentState.getStatus());
         double adjustedMultiplier = baseMultiplier * statusMultiplier; // Apply status-based sensitivity adjustment
@@ -324,14 +488,40 @@ public class ThresholdAnomalyDetectionStrategy implements AnomalyDetectionStrate
         }
     }
 
-    private double calculateMean(double[] values) {
-        return java.util.Arrays.stream(values).average().orElse(0.0);
-    }
+    /**
+     * Population mean and standard deviation of temperature, vibration and load over the history,
+     * written into {@code target} at the {@code *_MEAN} / {@code *_STD_DEV} offsets. One pass over
+     * the readings (Welford's update) and no intermediate arrays, so the batch path can call it per
+     * row; {@link #detect} uses it too so both paths produce identical thresholds.
+     */
+    private static double[] calculateHistoryStatistics(List<SensorData> history, double[] target) {
+        double temperatureMean = 0, temperatureM2 = 0;
+        double vibrationMean = 0, vibrationM2 = 0;
+        double loadMean = 0, loadM2 = 0;
+        int n = 0;
+        for (SensorData reading : history) {
+            n++;
+            double temperature = reading.getTemperature();
+            double delta = temperature - temperatureMean;
+            temperatureMean += delta / n;
+            temperatureM2 += delta * (temperature - temperatureMean);
 
-    private double calculateStandardDeviation(double[] values, double mean) {
-        double sum = java.util.Arrays.stream(values)
-            .map(value -> Math.pow(value - mean, 2))
-            .sum();
-        return Math.sqrt(sum / values.length);
+            double vibration = reading.getVibration();
+            delta = vibration - vibrationMean;
+            vibrationMean += delta / n;
+            vibrationM2 += delta * (vibration - vibrationMean);
+
+            double load = reading.getLoad();
+            delta = load - loadMean;
+            loadMean += delta / n;
+            loadM2 += delta * (load - loadMean);
+        }
+        target[TEMPERATURE_MEAN] = temperatureMean;
+        target[TEMPERATURE_STD_DEV] = Math.sqrt(temperatureM2 / n);
+        target[VIBRATION_MEAN] = vibrationMean;
+        target[VIBRATION_STD_DEV] = Math.sqrt(vibrationM2 / n);
+        target[LOAD_MEAN] = loadMean;
+        target[LOAD_STD_DEV] = Math.sqrt(loadM2 / n);
+        return target;
     }
 }
\ No newline at end of file
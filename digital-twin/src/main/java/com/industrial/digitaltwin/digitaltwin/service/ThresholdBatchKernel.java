@@ -0,0 +1,35 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+/**
+ * Evaluates every threshold and z-score comparison of a {@link TelemetryBatch} and records the
+ * results in the batch's per-check hit bitsets.
+ */
+public interface ThresholdBatchKernel {
+
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    void evaluate(TelemetryBatch batch,
+                  double temperatureThreshold,
+                  double vibrationThreshold,
+                  double loadThreshold,
+                  double pressureThreshold,
+                  double rpmThreshold,
+                  double deviationMultiplier);
+
+    String getName();
+
+    static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Picks the kernel for the given mode ("auto", "vector" or "scalar"). The vector kernel is only
+     * used when the JVM was started with {@code --add-modules jdk.incubator.vector}.
+     */
+    static ThresholdBatchKernel forMode(String mode) {
+        if (!"scalar".equalsIgnoreCase(mode) && isVectorApiAvailable()) {
+            return new VectorThresholdBatchKernel();
+        }
+        return new ScalarThresholdBatchKernel();
+    }
+}
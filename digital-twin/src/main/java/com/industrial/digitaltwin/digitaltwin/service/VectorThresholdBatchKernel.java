@@ -0,0 +1,89 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static com.industrial.digitaltwin.digitaltwin.service.TelemetryBatch.*;
+
+/**
+ * SIMD implementation on top of {@code jdk.incubator.vector}. Each comparison produces a lane mask
+ * that is OR-ed straight into the hit bitset; the preferred species has at most 8 double lanes, so a
+ * vector never straddles a 64-bit word. Rows past the last full vector go through the scalar loop.
+ */
+public class VectorThresholdBatchKernel implements ThresholdBatchKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void evaluate(TelemetryBatch b,
+                         double temperatureThreshold,
+                         double vibrationThreshold,
+                         double loadThreshold,
+                         double pressureThreshold,
+                         double rpmThreshold,
+                         double deviationMultiplier) {
+        int size = b.size();
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector m = DoubleVector.fromArray(SPECIES, b.multiplier, i);
+            DoubleVector lower = m.mul(0.0);
+
+            highThenLow(b, i, b.temperature, m.mul(temperatureThreshold), lower, TEMPERATURE_HIGH, TEMPERATURE_LOW);
+            highThenLow(b, i, b.vibration, m.mul(vibrationThreshold), lower, VIBRATION_HIGH, VIBRATION_LOW);
+            highThenLow(b, i, b.load, m.mul(loadThreshold), lower, LOAD_HIGH, LOAD_LOW);
+            lowThenHigh(b, i, b.pressure, m.mul(pressureThreshold), lower, PRESSURE_HIGH, PRESSURE_LOW);
+            lowThenHigh(b, i, b.rpm, m.mul(rpmThreshold), lower, RPM_HIGH, RPM_LOW);
+
+            DoubleVector k = m.mul(deviationMultiplier);
+            statistical(b, i, b.temperature, b.temperatureMean, b.temperatureStdDev, k,
+                    STAT_TEMPERATURE_HIGH, STAT_TEMPERATURE_LOW);
+            statistical(b, i, b.vibration, b.vibrationMean, b.vibrationStdDev, k,
+                    STAT_VIBRATION_HIGH, STAT_VIBRATION_LOW);
+            statistical(b, i, b.load, b.loadMean, b.loadStdDev, k,
+                    STAT_LOAD_HIGH, STAT_LOAD_LOW);
+        }
+        ScalarThresholdBatchKernel.evaluateRange(b, i, size, temperatureThreshold, vibrationThreshold,
+                loadThreshold, pressureThreshold, rpmThreshold, deviationMultiplier);
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + SPECIES.length() + "x64";
+    }
+
+    private static void highThenLow(TelemetryBatch b, int i, double[] column, DoubleVector upper,
+                                    DoubleVector lower, int highCheck, int lowCheck) {
+        DoubleVector x = DoubleVector.fromArray(SPECIES, column, i);
+        VectorMask<Double> high = x.compare(VectorOperators.GT, upper);
+        VectorMask<Double> low = x.compare(VectorOperators.LT, lower).andNot(high);
+        set(b, highCheck, i, high);
+        set(b, lowCheck, i, low);
+    }
+
+    private static void lowThenHigh(TelemetryBatch b, int i, double[] column, DoubleVector upper,
+                                    DoubleVector lower, int highCheck, int lowCheck) {
+        DoubleVector x = DoubleVector.fromArray(SPECIES, column, i);
+        VectorMask<Double> low = x.compare(VectorOperators.LT, lower);
+        VectorMask<Double> high = x.compare(VectorOperators.GT, upper).andNot(low);
+        set(b, lowCheck, i, low);
+        set(b, highCheck, i, high);
+    }
+
+    private static void statistical(TelemetryBatch b, int i, double[] column, double[] means, double[] stdDevs,
+                                    DoubleVector k, int highCheck, int lowCheck) {
+        DoubleVector x = DoubleVector.fromArray(SPECIES, column, i);
+        DoubleVector mean = DoubleVector.fromArray(SPECIES, means, i);
+        DoubleVector spread = k.mul(DoubleVector.fromArray(SPECIES, stdDevs, i));
+        VectorMask<Double> high = x.compare(VectorOperators.GT, mean.add(spread));
+        VectorMask<Double> low = x.compare(VectorOperators.LT, mean.sub(spread)).andNot(high);
+        set(b, highCheck, i, high);
+        set(b, lowCheck, i, low);
+    }
+
+    private static void set(TelemetryBatch b, int check, int i, VectorMask<Double> mask) {
+        b.hits[check][i >>> 6] |= mask.toLong() << (i & 63);
+    }
+}
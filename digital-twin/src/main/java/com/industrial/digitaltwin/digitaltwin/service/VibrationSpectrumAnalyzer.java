@@ -0,0 +1,186 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.AlertSeverity;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyType;
+import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Band-energy analysis of the optional high-rate vibration channel. Each machine keeps a ring
+ * buffer of the last {@code windowSize} samples; every half window a Hann-windowed FFT is run in
+ * preallocated per-thread buffers and the RMS of each configured frequency band is compared to its
+ * limit.
+ */
+@Service
+@Slf4j
+public class VibrationSpectrumAnalyzer {
+
+    @Autowired
+    private StateStoreConfig config;
+
+    private final Map<String, SpectrumWindow> windows = new ConcurrentHashMap<>();
+
+    private RadixTwoFft fft;
+    private double[] hann;
+    private double hannPower;
+
+    // FFT input/output is only needed while a spectrum is computed, so it is per thread, not per machine
+    private final ThreadLocal<double[][]> scratch = ThreadLocal.withInitial(() -> new double[2][fft.getSize()]);
+
+    @PostConstruct
+    public void initialize() {
+        int windowSize = config.getVibrationSpectrum().getWindowSize();
+        fft = new RadixTwoFft(windowSize);
+        hann = new double[windowSize];
+        hannPower = 0;
+        for (int i = 0; i < windowSize; i++) {
+            hann[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / windowSize);
+            hannPower += hann[i] * hann[i];
+        }
+        log.info("Initialized vibration spectrum analyzer with window size {} and {} bands",
+                windowSize, config.getVibrationSpectrum().getBands().size());
+    }
+
+    /**
+     * Feeds the telemetry's vibration samples into the machine's window. Returns the bands of the
+     * latest spectrum that exceed their limit, so a band stays reported between spectra; empty
+     * before the first spectrum or when nothing exceeds its limit.
+     */
+    public List<AnomalyRecord> analyze(MachineTelemetry telemetry) {
+        StateStoreConfig.VibrationSpectrumProperties props = config.getVibrationSpectrum();
+        double[] samples = telemetry.getVibrationSamples();
+        if (!props.isEnabled() || samples == null || samples.length == 0) {
+            return List.of();
+        }
+
+        double sampleRate = telemetry.getVibrationSampleRate() > 0
+                ? telemetry.getVibrationSampleRate() : props.getDefaultSampleRate();
+        SpectrumWindow window = windows.computeIfAbsent(telemetry.getMachineId(),
+                id -> new SpectrumWindow(fft.getSize(), props.getBands().size()));
+
+        synchronized (window) {
+            for (double sample : samples) {
+                if (window.add(sample)) {
+                    computeBandLevels(window, sampleRate, props.getBands());
+                }
+            }
+            return window.spectra > 0 ? collectAlarms(window, telemetry, props.getBands()) : List.of();
+        }
+    }
+
+    /**
+     * Latest band RMS levels for a machine, in configured band order, or null if no spectrum has
+     * been computed yet.
+     */
+    public double[] getBandLevels(String machineId) {
+        SpectrumWindow window = windows.get(machineId);
+        if (window == null) {
+            return null;
+        }
+        synchronized (window) {
+            return window.spectra > 0 ? window.bandLevels.clone() : null;
+        }
+    }
+
+    public void removeMachine(String machineId) {
+        windows.remove(machineId);
+    }
+
+    private void computeBandLevels(SpectrumWindow window, double sampleRate,
+                                   List<StateStoreConfig.BandProperties> bands) {
+        int n = fft.getSize();
+        // Unroll the ring buffer oldest-first into the FFT input, applying the Hann window
+        double[][] buffers = scratch.get();
+        double[] re = buffers[0];
+        double[] im = buffers[1];
+        for (int i = 0; i < n; i++) {
+            re[i] = window.ring[(window.head + i) & (n - 1)] * hann[i];
+        }
+        Arrays.fill(im, 0.0);
+        fft.transform(re, im);
+
+        double binWidth = sampleRate / n;
+        // Scales one-sided power so that a sine of amplitude A reads as A / sqrt(2)
+        double scale = 2.0 / (n * hannPower);
+        for (int b = 0; b < bands.size(); b++) {
+            StateStoreConfig.BandProperties band = bands.get(b);
+            int from = Math.max(1, (int) Math.ceil(band.getLowHz() / binWidth));
+            int to = Math.min(n / 2, (int) Math.ceil(band.getHighHz() / binWidth));
+            double power = 0;
+            for (int k = from; k < to; k++) {
+                power += re[k] * re[k] + im[k] * im[k];
+            }
+            window.bandLevels[b] = Math.sqrt(power * scale);
+        }
+        window.spectra++;
+    }
+
+    private List<AnomalyRecord> collectAlarms(SpectrumWindow window, MachineTelemetry telemetry,
+                                              List<StateStoreConfig.BandProperties> bands) {
+        List<AnomalyRecord> anomalies = null;
+        for (int b = 0; b < bands.size(); b++) {
+            StateStoreConfig.BandProperties band = bands.get(b);
+            if (window.bandLevels[b] > band.getThreshold()) {
+                if (anomalies == null) {
+                    anomalies = new ArrayList<>();
+                }
+                anomalies.add(AnomalyRecord.builder()
+                        .machineId(telemetry.getMachineId())
+                        .type(AnomalyType.VIBRATION_HIGH)
+                        .severity(AlertSeverity.WARNING)
+                        .timestamp(telemetry.getTimestamp())
+                        .description("Vibration energy in " + band.getName() + " band ("
+                                + band.getLowHz() + "-" + band.getHighHz() + " Hz) exceeds threshold")
+                        .value(window.bandLevels[b])
+                        .threshold(band.getThreshold())
+                        .build());
+            }
+        }
+        return anomalies != null ? anomalies : List.of();
+    }
+
+    /**
+     * Per-machine state: sample ring and band results, both sized once.
+     */
+    static class SpectrumWindow {
+        final double[] ring;
+        final double[] bandLevels;
+        int head;
+        int filled;
+        int sinceLastSpectrum;
+        long spectra;
+
+        SpectrumWindow(int size, int bandCount) {
+            ring = new double[size];
+            bandLevels = new double[bandCount];
+        }
+
+        /**
+         * Adds a sample and returns true when a new spectrum is due (full window, half-window hop).
+         */
+        boolean add(double sample) {
+            ring[head] = sample;
+            head = (head + 1) & (ring.length - 1);
+            if (filled < ring.length) {
+                filled++;
+            }
+            sinceLastSpectrum++;
+            if (filled == ring.length && sinceLastSpectrum >= ring.length / 2) {
+                sinceLastSpectrum = 0;
+                return true;
+            }
+            return false;
+        }
+    }
+}
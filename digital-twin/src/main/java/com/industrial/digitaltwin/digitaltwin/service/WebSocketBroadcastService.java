@@ -1,7 +1,9 @@
 package com.industrial.digitaltwin.digitaltwin.service;
 
+import com.industrial.digitaltwin.digitaltwin.jfr.PipelineStageEvent;
 import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
 import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.stream.StateStreamService;
 import com.industrial.digitaltwin.digitaltwin.websocket.DigitalTwinWebSocketHandler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +16,11 @@ public class WebSocketBroadcastService {
     @Autowired
     private DigitalTwinWebSocketHandler webSocketHandler;
 
+    @Autowired
+    private StateStreamService stateStreamService;
+
     public void broadcastStateUpdate(DigitalTwinState state) {
+        PipelineStageEvent stageEvent = PipelineStageEvent.start();
         try {
             MachineStateUpdate update = MachineStateUpdate.builder()
                 .machineId(state.getMachineId())
@@ -22,13 +28,16 @@ public class WebSocketBroadcastService {
                 .currentData(state.getCurrentSensorData())
                 .status(state.getStatus())
                 .isAnomalyDetected(state.getRecentAnomalies() != null && !state.getRecentAnomalies().isEmpty())
-                .machineType("industrial-machine") // This would be determined based on machine configuration
+                .machineType(state.getMachineType())
                 .build();
             
-            webSocketHandler.broadcastMessage(update);
+            webSocketHandler.broadcastStateUpdate(update);
+            stateStreamService.publish(update);
             log.debug("Broadcasted WebSocket update for machine: {}", state.getMachineId());
         } catch (Exception e) {
             log.error("Error broadcasting WebSocket update for machine: {}", state.getMachineId(), e);
+        } finally {
+            stageEvent.finish(ProcessingStage.BROADCAST, state.getMachineId());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,246 @@
+package com.industrial.digitaltwin.digitaltwin.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.websocket.Subscription;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events and long-poll delivery of state updates for clients that cannot use
+ * WebSockets. Updates are serialized once into a shared {@link ConflatingUpdateLog}; every
+ * connection holds only its {@link Subscription} and a cursor, and a periodic tick sends each
+ * connection the latest matching update of every machine that changed since its cursor.
+ */
+@Service
+@Slf4j
+public class StateStreamService {
+
+    @Autowired
+    private StateStoreConfig config;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Set<SseStream> streams = ConcurrentHashMap.newKeySet();
+    private final Set<PollWaiter> waiters = ConcurrentHashMap.newKeySet();
+
+    private ConflatingUpdateLog<MachineStateUpdate> updateLog;
+    private ScheduledExecutorService ticker;
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void initialize() {
+        StateStoreConfig.StreamingProperties props = config.getStreaming();
+        if (props.getMaxUpdatesPerSecond() < 1) {
+            throw new IllegalStateException("app.digital-twin.streaming.max-updates-per-second must be at least 1, got "
+                    + props.getMaxUpdatesPerSecond());
+        }
+        updateLog = new ConflatingUpdateLog<>(props.getLogCapacity());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(props.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "stream-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stream-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMicros = TimeUnit.SECONDS.toMicros(1) / props.getMaxUpdatesPerSecond();
+        ticker.scheduleAtFixedRate(this::tick, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+
+        Gauge.builder("digital_twin.stream.sse.connections", streams, Set::size)
+                .description("Open Server-Sent Events streams")
+                .register(meterRegistry);
+        Gauge.builder("digital_twin.stream.poll.waiting", waiters, Set::size)
+                .description("Long-poll requests waiting for updates")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        streams.forEach(stream -> stream.emitter.complete());
+    }
+
+    public void publish(MachineStateUpdate update) {
+        try {
+            updateLog.append(update.getMachineId(), update, objectMapper.writeValueAsString(update));
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing state update for machine: {}", update.getMachineId(), e);
+        }
+    }
+
+    /**
+     * Opens an SSE stream. Without a Last-Event-ID the client first receives the latest state of
+     * every machine it subscribes to; a reconnecting client resumes after the last event it saw,
+     * or gets a reset event if that event id is from before a server restart.
+     */
+    public SseEmitter openStream(Subscription subscription, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(config.getStreaming().getSseTimeout().toMillis());
+        SseStream stream = new SseStream(emitter, subscription, lastEventId != null ? lastEventId : 0L);
+        emitter.onCompletion(() -> streams.remove(stream));
+        emitter.onTimeout(() -> streams.remove(stream));
+        emitter.onError(e -> streams.remove(stream));
+        streams.add(stream);
+        schedule(stream);
+        return emitter;
+    }
+
+    /**
+     * Answers immediately when there are matching updates after {@code since}; otherwise waits for
+     * one until the long-poll timeout and then answers with an empty list and the current cursor.
+     */
+    public DeferredResult<ResponseEntity<String>> poll(Subscription subscription, long since) {
+        long timeoutMillis = config.getStreaming().getLongPollTimeout().toMillis();
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<>(timeoutMillis);
+        PollWaiter waiter = new PollWaiter(result, subscription, since);
+
+        Batch batch = collect(subscription, since);
+        if (batch.count() > 0 || batch.reset()) {
+            result.setResult(pollResponse(batch));
+            return result;
+        }
+        waiter.since = batch.cursor();
+        result.onTimeout(() -> result.setResult(pollResponse(collect(subscription, waiter.since))));
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+
+    private void tick() {
+        long lastSequence = updateLog.getLastSequence();
+        for (SseStream stream : streams) {
+            if (stream.cursor != lastSequence) {
+                schedule(stream);
+            }
+        }
+        for (PollWaiter waiter : waiters) {
+            if (waiter.since != lastSequence) {
+                Batch batch = collect(waiter.subscription, waiter.since);
+                if (batch.count() > 0 || batch.reset()) {
+                    waiter.result.setResult(pollResponse(batch));
+                } else {
+                    waiter.since = batch.cursor();
+                }
+            }
+        }
+    }
+
+    // At most one send per stream is in flight; a stream that is still writing skips this tick
+    private void schedule(SseStream stream) {
+        if (stream.sending.compareAndSet(false, true)) {
+            senders.execute(() -> {
+                try {
+                    stream.flush();
+                } finally {
+                    stream.sending.set(false);
+                }
+            });
+        }
+    }
+
+    private Batch collect(Subscription subscription, long cursor) {
+        // A cursor ahead of the log was issued before a restart; its sequence numbers mean nothing now
+        boolean restarted = cursor > updateLog.getLastSequence();
+        if (restarted) {
+            cursor = 0;
+        }
+        boolean reset = restarted || updateLog.isTruncated(cursor);
+        StringBuilder json = new StringBuilder().append('[');
+        int count = 0;
+        long last = cursor;
+        for (ConflatingUpdateLog.Entry<MachineStateUpdate> entry : updateLog.since(cursor)) {
+            if (subscription.accepts(entry.update())) {
+                if (count++ > 0) {
+                    json.append(',');
+                }
+                json.append(entry.json());
+            }
+            last = entry.sequence();
+        }
+        return new Batch(json.append(']').toString(), count, last, reset);
+    }
+
+    private ResponseEntity<String> pollResponse(Batch batch) {
+        String body = "{\"cursor\":" + batch.cursor() + ",\"reset\":" + batch.reset()
+                + ",\"updates\":" + batch.json() + "}";
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private record Batch(String json, int count, long cursor, boolean reset) {
+    }
+
+    private final class SseStream {
+        final SseEmitter emitter;
+        final Subscription subscription;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long cursor;
+
+        SseStream(SseEmitter emitter, Subscription subscription, long cursor) {
+            this.emitter = emitter;
+            this.subscription = subscription;
+            this.cursor = cursor;
+        }
+
+        void flush() {
+            Batch batch = collect(subscription, cursor);
+            try {
+                if (batch.reset()) {
+                    emitter.send(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+                }
+                if (batch.count() > 0) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(batch.cursor()))
+                            .name("state")
+                            .data(batch.json(), MediaType.APPLICATION_JSON));
+                }
+                cursor = batch.cursor();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Closing SSE stream after send failure: {}", e.getMessage());
+                streams.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static final class PollWaiter {
+        final DeferredResult<ResponseEntity<String>> result;
+        final Subscription subscription;
+        volatile long since;
+
+        PollWaiter(DeferredResult<ResponseEntity<String>> result, Subscription subscription, long since) {
+            this.result = result;
+            this.subscription = subscription;
+            this.since = since;
+        }
+    }
+}
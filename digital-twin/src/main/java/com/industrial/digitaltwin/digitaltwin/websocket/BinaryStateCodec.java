@@ -0,0 +1,134 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact binary encoding of state updates for high-volume dashboards. All values are big-endian.
+ *
+ * <pre>
+ * DICTIONARY    u8 type=1, u16 count, count x { i32 code, u16 length, UTF-8 bytes }
+ * STATE_UPDATES u8 type=2, u16 count, count x 38-byte record:
+ *               i32 machineId code, i32 machineType code (-1 = none), i64 timestamp epoch millis
+ *               (-1 = none), u8 status ordinal (255 = none), u8 flags (bit 0 anomaly, bit 1 has
+ *               sensor data), f32 temperature, vibration, load, pressure, rpm
+ * </pre>
+ *
+ * Machine ids and types are sent as codes from a shared {@link StringDictionary}; the engine sends
+ * DICTIONARY frames with any new codes before the first frame that uses them. Counts are u16, so
+ * dictionaries are split into frames of at most {@link #MAX_COUNT} entries, and callers must not
+ * pass more than {@link #MAX_COUNT} updates at once. Frames are returned as byte arrays that are
+ * never modified afterwards, so one encoding can back a message for every session.
+ */
+public class BinaryStateCodec {
+
+    public static final byte DICTIONARY = 1;
+    public static final byte STATE_UPDATES = 2;
+
+    public static final int MAX_COUNT = 0xFFFF;
+
+    static final int RECORD_BYTES = 38;
+
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private static final int NONE = -1;
+    private static final byte FLAG_ANOMALY = 1;
+    private static final byte FLAG_SENSOR_DATA = 2;
+
+    private final StringDictionary dictionary = new StringDictionary();
+
+    public StringDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Encodes a {@link MachineStateUpdate} or a collection of them. Returns null for any other
+     * message, which is then sent as JSON.
+     */
+    public byte[] encode(Object message) {
+        if (message instanceof MachineStateUpdate update) {
+            return encodeUpdates(List.of(update));
+        }
+        if (message instanceof Collection<?> collection && !collection.isEmpty()
+                && collection.stream().allMatch(MachineStateUpdate.class::isInstance)) {
+            @SuppressWarnings("unchecked")
+            Collection<MachineStateUpdate> updates = (Collection<MachineStateUpdate>) collection;
+            return encodeUpdates(updates);
+        }
+        return null;
+    }
+
+    /**
+     * DICTIONARY frames for the codes from {@code fromCode} onwards, in code order.
+     */
+    public List<byte[]> encodeDictionary(int fromCode) {
+        List<String> entries = dictionary.entriesFrom(fromCode);
+        List<byte[]> frames = new ArrayList<>(entries.size() / MAX_COUNT + 1);
+        for (int first = 0; first < entries.size() || frames.isEmpty(); first += MAX_COUNT) {
+            List<String> chunk = entries.subList(first, Math.min(entries.size(), first + MAX_COUNT));
+            byte[][] bytes = new byte[chunk.size()][];
+            int length = 3;
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = chunk.get(i).getBytes(StandardCharsets.UTF_8);
+                length += 6 + bytes[i].length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            buffer.put(DICTIONARY);
+            buffer.putShort((short) bytes.length);
+            for (int i = 0; i < bytes.length; i++) {
+                buffer.putInt(fromCode + first + i);
+                buffer.putShort((short) bytes[i].length);
+                buffer.put(bytes[i]);
+            }
+            frames.add(buffer.array());
+        }
+        return frames;
+    }
+
+    private byte[] encodeUpdates(Collection<MachineStateUpdate> updates) {
+        if (updates.size() > MAX_COUNT) {
+            throw new IllegalArgumentException("At most " + MAX_COUNT + " updates fit in one frame, got " + updates.size());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(3 + updates.size() * RECORD_BYTES);
+        buffer.put(STATE_UPDATES);
+        buffer.putShort((short) updates.size());
+        for (MachineStateUpdate update : updates) {
+            MachineStatus status = update.getStatus();
+            SensorData data = update.getCurrentData();
+            byte flags = 0;
+            if (update.isAnomalyDetected()) {
+                flags |= FLAG_ANOMALY;
+            }
+            if (data != null) {
+                flags |= FLAG_SENSOR_DATA;
+            }
+
+            buffer.putInt(codeFor(update.getMachineId()));
+            buffer.putInt(update.getMachineType() != null ? codeFor(update.getMachineType()) : NONE);
+            buffer.putLong(update.getTimestamp() != null ? update.getTimestamp().toEpochMilli() : NONE);
+            buffer.put(status != null ? (byte) status.ordinal() : (byte) NONE);
+            buffer.put(flags);
+            buffer.putFloat(data != null ? (float) data.getTemperature() : 0f);
+            buffer.putFloat(data != null ? (float) data.getVibration() : 0f);
+            buffer.putFloat(data != null ? (float) data.getLoad() : 0f);
+            buffer.putFloat(data != null ? (float) data.getPressure() : 0f);
+            buffer.putFloat(data != null ? (float) data.getRpm() : 0f);
+        }
+        return buffer.array();
+    }
+
+    // Dictionary values carry a u16 length; reject longer ones before they get a code
+    private int codeFor(String value) {
+        if (value.length() > MAX_STRING_BYTES / 3 && value.getBytes(StandardCharsets.UTF_8).length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Dictionary value longer than " + MAX_STRING_BYTES + " UTF-8 bytes");
+        }
+        return dictionary.codeFor(value);
+    }
+}
@@ -1,46 +1,98 @@
 package com.industrial.digitaltwin.digitaltwin.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.model.SubscriptionRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 
 import java.io.IOException;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
 public class DigitalTwinWebSocketHandler implements WebSocketHandler {
 
-    private final Set<WebSocketSession> sessions = new CopyOnWriteArraySet<>();
+    private final Map<String, SessionSendQueue> sessions = new ConcurrentHashMap<>();
+
+    private final SubscriptionIndex subscriptionIndex = new SubscriptionIndex();
+
+    // Sessions with a rate limit; all others get every update as its own frame
+    private final Map<SessionSendQueue, StateUpdateBatcher> batchers = new ConcurrentHashMap<>();
     
+    @Autowired
+    private WebSocketBroadcastEngine broadcastEngine;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private StateStoreConfig config;
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessions.add(session);
+        SessionSendQueue queue = broadcastEngine.open(session);
+        sessions.put(session.getId(), queue);
+        // New sessions receive every machine until they send a subscription
+        subscriptionIndex.subscribe(queue, Subscription.ALL);
+        setRate(queue, config.getWebsocket().getMaxUpdatesPerSecond());
         log.info("WebSocket connection established: {}", session.getId());
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        sessions.remove(session);
+        closeSession(session);
         log.info("WebSocket connection closed: {} with status: {}", session.getId(), status);
     }
 
+    /**
+     * Clients narrow their feed with {"action":"subscribe","machineIds":[...],"machineTypes":[...],
+     * "statuses":[...],"anomaliesOnly":true,"maxUpdatesPerSecond":2}; {"action":"unsubscribe"} restores
+     * the full feed. With a rate set, state updates arrive as one JSON array per tick holding the
+     * latest update of each machine that changed. Binary clients that see an unknown machine code
+     * can request the full dictionary with {"action":"dictionary"}.
+     */
     @Override
     public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
-        // Handle incoming messages from clients if needed
         log.debug("Received message from session {}: {}", session.getId(), message.getPayload());
+        SessionSendQueue queue = sessions.get(session.getId());
+        if (queue == null || !(message instanceof TextMessage textMessage)) {
+            return;
+        }
+
+        try {
+            SubscriptionRequest request = objectMapper.readValue(textMessage.getPayload(), SubscriptionRequest.class);
+            if ("subscribe".equalsIgnoreCase(request.getAction())) {
+                subscriptionIndex.subscribe(queue, Subscription.from(request));
+                if (request.getMaxUpdatesPerSecond() != null) {
+                    setRate(queue, request.getMaxUpdatesPerSecond());
+                }
+                reply(queue, Map.of("type", "SUBSCRIBED", "request", request, "timestamp", Instant.now()));
+            } else if ("dictionary".equalsIgnoreCase(request.getAction())) {
+                broadcastEngine.sendDictionary(queue);
+            } else if ("unsubscribe".equalsIgnoreCase(request.getAction())) {
+                subscriptionIndex.subscribe(queue, Subscription.ALL);
+                reply(queue, Map.of("type", "UNSUBSCRIBED", "timestamp", Instant.now()));
+            } else {
+                reply(queue, Map.of("type", "ERROR", "message", "Unknown action: " + request.getAction()));
+            }
+        } catch (IOException e) {
+            log.warn("Invalid subscription message from session {}: {}", session.getId(), e.getMessage());
+            reply(queue, Map.of("type", "ERROR", "message", "Invalid subscription message"));
+        }
     }
 
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
         log.error("Transport error in session: {}", session.getId(), exception);
-        sessions.remove(session);
+        closeSession(session);
     }
 
     @Override
@@ -49,14 +101,65 @@ public class DigitalTwinWebSocketHandler implements WebSocketHandler {
     }
 
     public void broadcastMessage(Object message) {
-        for (WebSocketSession session : sessions) {
-            try {
-                if (session.isOpen()) {
-                    session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        broadcastMessage(message, null);
+    }
+
+    /**
+     * Sends a state update only to sessions whose subscription matches it.
+     */
+    public void broadcastStateUpdate(MachineStateUpdate update) {
+        try {
+            List<SessionSendQueue> immediate = new ArrayList<>();
+            for (SessionSendQueue queue : subscriptionIndex.targetsFor(update)) {
+                StateUpdateBatcher batcher = batchers.get(queue);
+                if (batcher != null) {
+                    batcher.add(update);
+                } else {
+                    immediate.add(queue);
                 }
-            } catch (IOException e) {
-                log.error("Error broadcasting message to session: {}", session.getId(), e);
             }
+            broadcastEngine.broadcast(update, update.getMachineId(), immediate);
+        } catch (IOException e) {
+            log.error("Error serializing state update for machine: {}", update.getMachineId(), e);
+        }
+    }
+
+    /**
+     * Queues the message for every session without blocking on socket writes. Frames with the same
+     * key (the machine id) may be conflated for sessions that fall behind.
+     */
+    public void broadcastMessage(Object message, String key) {
+        try {
+            broadcastEngine.broadcast(message, key, sessions.values());
+        } catch (IOException e) {
+            log.error("Error serializing broadcast message", e);
+        }
+    }
+
+    private void reply(SessionSendQueue queue, Object message) throws IOException {
+        queue.offer(null, broadcastEngine.serialize(message));
+    }
+
+    private void setRate(SessionSendQueue queue, int maxUpdatesPerSecond) {
+        int rate = Math.min(Math.max(maxUpdatesPerSecond, 0), config.getWebsocket().getMaxAllowedUpdatesPerSecond());
+        StateUpdateBatcher previous = rate > 0
+                ? batchers.put(queue, broadcastEngine.startBatcher(queue, rate))
+                : batchers.remove(queue);
+        if (previous != null) {
+            previous.stop();
+            previous.flush();
+        }
+    }
+
+    private void closeSession(WebSocketSession session) {
+        SessionSendQueue queue = sessions.remove(session.getId());
+        if (queue != null) {
+            StateUpdateBatcher batcher = batchers.remove(queue);
+            if (batcher != null) {
+                batcher.stop();
+            }
+            subscriptionIndex.remove(queue);
+            broadcastEngine.close(queue);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+public enum SlowConsumerPolicy {
+    DROP_OLDEST, // Discard the oldest queued frame to make room
+    CONFLATE,    // Replace a queued frame for the same machine, else drop the oldest
+    DISCONNECT   // Close the session once its queue is full
+}
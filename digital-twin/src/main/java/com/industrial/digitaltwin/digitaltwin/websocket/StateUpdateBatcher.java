@@ -0,0 +1,102 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Rate-limits state updates for one session. Between ticks only the latest update per machine is
+ * kept; each tick sends everything pending as a single frame (a JSON array, or one binary frame
+ * with several records), split only when more machines are pending than one binary frame can hold.
+ */
+@Slf4j
+public class StateUpdateBatcher {
+
+    private final SessionSendQueue queue;
+    private final WebSocketBroadcastEngine engine;
+    private final int maxUpdatesPerSecond;
+
+    // Double-buffered so a tick does not allocate a new map
+    private LinkedHashMap<String, MachineStateUpdate> pending = new LinkedHashMap<>();
+    private LinkedHashMap<String, MachineStateUpdate> sending = new LinkedHashMap<>();
+    // One flush at a time: a second one would swap the map the first is still sending into pending.
+    // Separate from the add() lock so producers never wait for a send.
+    private final Object flushLock = new Object();
+    private ScheduledFuture<?> tick;
+
+    StateUpdateBatcher(SessionSendQueue queue, WebSocketBroadcastEngine engine, int maxUpdatesPerSecond) {
+        this.queue = queue;
+        this.engine = engine;
+        this.maxUpdatesPerSecond = maxUpdatesPerSecond;
+    }
+
+    void start() {
+        tick = engine.scheduleAtRate(this::flush, maxUpdatesPerSecond);
+    }
+
+    public void stop() {
+        if (tick != null) {
+            tick.cancel(false);
+        }
+    }
+
+    public int getMaxUpdatesPerSecond() {
+        return maxUpdatesPerSecond;
+    }
+
+    public void add(MachineStateUpdate update) {
+        synchronized (this) {
+            if (pending.put(update.getMachineId(), update) != null) {
+                engine.recordConflated();
+            }
+        }
+    }
+
+    /**
+     * Sends everything pending. Called by the tick and, once more after the tick is cancelled, when
+     * the rate changes; a call that overlaps a running flush waits for it.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            LinkedHashMap<String, MachineStateUpdate> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = sending;
+                sending = batch;
+            }
+            try {
+                if (batch.size() <= BinaryStateCodec.MAX_COUNT) {
+                    send(batch.values());
+                } else {
+                    List<MachineStateUpdate> updates = new ArrayList<>(batch.values());
+                    for (int first = 0; first < updates.size(); first += BinaryStateCodec.MAX_COUNT) {
+                        if (!send(updates.subList(first, Math.min(updates.size(), first + BinaryStateCodec.MAX_COUNT)))) {
+                            break;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Error serializing batched state updates for session: {}", queue.getSession().getId(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean send(Collection<MachineStateUpdate> updates) throws IOException {
+        if (!queue.offer(null, engine.encode(updates, queue.getFormat()))) {
+            stop();
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only string-to-code dictionary used by the binary wire format. Codes are dense, start at 0
+ * and stay stable for the lifetime of the process, so clients can cache them across frames.
+ */
+public class StringDictionary {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    public int codeFor(String value) {
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    private synchronized int add(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    /**
+     * Returns the entries with codes from {@code fromCode} (inclusive) onwards.
+     */
+    public synchronized List<String> entriesFrom(int fromCode) {
+        return new ArrayList<>(values.subList(Math.min(fromCode, values.size()), values.size()));
+    }
+}
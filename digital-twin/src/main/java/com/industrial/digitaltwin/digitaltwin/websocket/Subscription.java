@@ -0,0 +1,66 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+import com.industrial.digitaltwin.digitaltwin.model.SubscriptionRequest;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable, pre-compiled filter for one session. The machine id set is served by the
+ * {@link SubscriptionIndex}; the remaining criteria are checked per update.
+ */
+public final class Subscription {
+
+    public static final Subscription ALL = new Subscription(Set.of(), Set.of(), null, false);
+
+    private final Set<String> machineIds;
+    private final Set<String> machineTypes;
+    private final EnumSet<MachineStatus> statuses;
+    private final boolean anomaliesOnly;
+
+    private Subscription(Set<String> machineIds, Set<String> machineTypes, EnumSet<MachineStatus> statuses,
+                         boolean anomaliesOnly) {
+        this.machineIds = machineIds;
+        this.machineTypes = machineTypes;
+        this.statuses = statuses;
+        this.anomaliesOnly = anomaliesOnly;
+    }
+
+    public static Subscription from(SubscriptionRequest request) {
+        return new Subscription(
+                request.getMachineIds() != null ? Set.copyOf(request.getMachineIds()) : Set.of(),
+                request.getMachineTypes() != null ? Set.copyOf(request.getMachineTypes()) : Set.of(),
+                request.getStatuses() != null && !request.getStatuses().isEmpty() ? EnumSet.copyOf(request.getStatuses()) : null,
+                request.isAnomaliesOnly());
+    }
+
+    public Set<String> getMachineIds() {
+        return machineIds;
+    }
+
+    public boolean isIndexed() {
+        return !machineIds.isEmpty();
+    }
+
+    /**
+     * Checks every criterion, including the machine id, for consumers that do not use the index.
+     */
+    public boolean accepts(MachineStateUpdate update) {
+        return (machineIds.isEmpty() || machineIds.contains(update.getMachineId())) && matches(update);
+    }
+
+    /**
+     * Checks the non-indexed criteria; the machine id has already been matched by the index.
+     */
+    public boolean matches(MachineStateUpdate update) {
+        if (anomaliesOnly && !update.isAnomalyDetected()) {
+            return false;
+        }
+        if (statuses != null && (update.getStatus() == null || !statuses.contains(update.getStatus()))) {
+            return false;
+        }
+        return machineTypes.isEmpty() || machineTypes.contains(update.getMachineType());
+    }
+}
@@ -0,0 +1,75 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from machine id to the sessions subscribed to it. Sessions that filter by machine
+ * id are found by lookup; only sessions without a machine id filter are scanned on every update.
+ */
+public class SubscriptionIndex {
+
+    private final Map<String, Set<SessionSendQueue>> byMachine = new ConcurrentHashMap<>();
+    private final Set<SessionSendQueue> unindexed = ConcurrentHashMap.newKeySet();
+    private final Map<SessionSendQueue, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    public synchronized void subscribe(SessionSendQueue queue, Subscription subscription) {
+        remove(queue);
+        subscriptions.put(queue, subscription);
+        if (subscription.isIndexed()) {
+            for (String machineId : subscription.getMachineIds()) {
+                byMachine.computeIfAbsent(machineId, id -> ConcurrentHashMap.newKeySet()).add(queue);
+            }
+        } else {
+            unindexed.add(queue);
+        }
+    }
+
+    public synchronized void remove(SessionSendQueue queue) {
+        Subscription previous = subscriptions.remove(queue);
+        if (previous == null) {
+            return;
+        }
+        if (previous.isIndexed()) {
+            for (String machineId : previous.getMachineIds()) {
+                Set<SessionSendQueue> queues = byMachine.get(machineId);
+                if (queues != null) {
+                    queues.remove(queue);
+                    if (queues.isEmpty()) {
+                        byMachine.remove(machineId);
+                    }
+                }
+            }
+        } else {
+            unindexed.remove(queue);
+        }
+    }
+
+    public List<SessionSendQueue> targetsFor(MachineStateUpdate update) {
+        List<SessionSendQueue> targets = new ArrayList<>();
+        Set<SessionSendQueue> indexed = byMachine.get(update.getMachineId());
+        if (indexed != null) {
+            addMatching(indexed, update, targets);
+        }
+        addMatching(unindexed, update, targets);
+        return targets;
+    }
+
+    public Subscription getSubscription(SessionSendQueue queue) {
+        return subscriptions.get(queue);
+    }
+
+    private void addMatching(Set<SessionSendQueue> queues, MachineStateUpdate update, List<SessionSendQueue> targets) {
+        for (SessionSendQueue queue : queues) {
+            Subscription subscription = subscriptions.get(queue);
+            if (subscription != null && subscription.matches(update)) {
+                targets.add(queue);
+            }
+        }
+    }
+}
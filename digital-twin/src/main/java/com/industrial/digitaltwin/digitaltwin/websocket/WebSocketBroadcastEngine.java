@@ -0,0 +1,239 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serialize-once, fan-out-many delivery for WebSocket handlers. A message is turned into a single
+ * immutable {@link TextMessage} and the same instance is queued on every target session's
+ * {@link SessionSendQueue}; a small writer pool performs the actual socket writes. Sessions that
+ * negotiated {@link WireFormat#BINARY} share one encoded byte array per message instead, each
+ * wrapped in its own {@link BinaryMessage} because sending a binary frame consumes its buffer.
+ */
+@Component
+@Slf4j
+public class WebSocketBroadcastEngine {
+
+    @Autowired
+    private StateStoreConfig config;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Set<SessionSendQueue> queues = ConcurrentHashMap.newKeySet();
+    private final BinaryStateCodec binaryCodec = new BinaryStateCodec();
+
+    // Orders code assignment, dictionary deltas and session registration for binary clients
+    private final Object dictionaryLock = new Object();
+    private int distributedCodes; // Codes already queued to every binary session; guarded by dictionaryLock
+
+    private ExecutorService writers;
+    private ScheduledExecutorService ticker;
+    private Counter sentFrames;
+    private Counter conflatedUpdates;
+    private Counter droppedFrames;
+    private Counter slowConsumerDisconnects;
+
+    @PostConstruct
+    public void initialize() {
+        StateStoreConfig.WebSocketProperties props = config.getWebsocket();
+        AtomicInteger threadCount = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(props.getWriterThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "ws-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-batch-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        sentFrames = Counter.builder("digital_twin.websocket.frames.sent")
+                .description("WebSocket frames written to sessions")
+                .register(meterRegistry);
+        droppedFrames = Counter.builder("digital_twin.websocket.frames.dropped")
+                .description("WebSocket frames dropped or conflated for slow sessions")
+                .register(meterRegistry);
+        conflatedUpdates = Counter.builder("digital_twin.websocket.updates.conflated")
+                .description("State updates superseded by a newer one before a rate-limited frame was sent")
+                .register(meterRegistry);
+        slowConsumerDisconnects = Counter.builder("digital_twin.websocket.slow_consumer.disconnects")
+                .description("Sessions closed because their send queue was full")
+                .register(meterRegistry);
+        Gauge.builder("digital_twin.websocket.queue.depth", queues, q -> q.stream().mapToInt(SessionSendQueue::size).sum())
+                .description("Frames waiting in all session send queues")
+                .register(meterRegistry);
+        Gauge.builder("digital_twin.websocket.sessions", queues, Set::size)
+                .description("Open WebSocket sessions")
+                .register(meterRegistry);
+
+        log.info("WebSocket broadcast engine started with {} writers, queue capacity {} and {} policy",
+                props.getWriterThreads(), props.getSendQueueCapacity(), props.getSlowConsumerPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    public SessionSendQueue open(WebSocketSession session) {
+        StateStoreConfig.WebSocketProperties props = config.getWebsocket();
+        SessionSendQueue queue = new SessionSendQueue(session, props.getSendQueueCapacity(),
+                props.getSlowConsumerPolicy(), writers, this);
+        synchronized (dictionaryLock) {
+            queues.add(queue);
+            if (queue.getFormat() == WireFormat.BINARY) {
+                sendDictionary(queue);
+            }
+        }
+        return queue;
+    }
+
+    public void close(SessionSendQueue queue) {
+        if (queue != null) {
+            queue.close();
+            queues.remove(queue);
+        }
+    }
+
+    /**
+     * Creates a batcher that delivers at most the given number of frames per second to the session.
+     */
+    public StateUpdateBatcher startBatcher(SessionSendQueue queue, int maxUpdatesPerSecond) {
+        StateUpdateBatcher batcher = new StateUpdateBatcher(queue, this, maxUpdatesPerSecond);
+        batcher.start();
+        return batcher;
+    }
+
+    ScheduledFuture<?> scheduleAtRate(Runnable task, int timesPerSecond) {
+        long periodMicros = TimeUnit.SECONDS.toMicros(1) / timesPerSecond;
+        return ticker.scheduleAtFixedRate(task, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    public TextMessage serialize(Object message) throws JsonProcessingException {
+        return new TextMessage(objectMapper.writeValueAsBytes(message));
+    }
+
+    /**
+     * Encodes the message in the given format. Messages without a binary encoding, such as control
+     * replies, are sent as JSON text to every session.
+     */
+    public WebSocketMessage<?> encode(Object message, WireFormat format) throws JsonProcessingException {
+        if (format == WireFormat.BINARY) {
+            byte[] frame = encodeBinary(message);
+            if (frame != null) {
+                return new BinaryMessage(frame);
+            }
+        }
+        return serialize(message);
+    }
+
+    /**
+     * Queues the full machine dictionary so a binary client can resolve every code.
+     */
+    public void sendDictionary(SessionSendQueue queue) {
+        synchronized (dictionaryLock) {
+            for (byte[] frame : binaryCodec.encodeDictionary(0)) {
+                queue.offerPinned(new BinaryMessage(frame));
+            }
+        }
+    }
+
+    /**
+     * Serializes the message once per wire format in use and queues it on every target. The key
+     * identifies the machine for conflation and may be null.
+     */
+    public void broadcast(Object message, String key, Iterable<SessionSendQueue> targets) throws JsonProcessingException {
+        WebSocketMessage<?> text = null;
+        byte[] binary = null;
+        boolean binaryEncoded = false;
+        for (SessionSendQueue queue : targets) {
+            WebSocketMessage<?> frame = null;
+            if (queue.getFormat() == WireFormat.BINARY) {
+                if (!binaryEncoded) {
+                    binary = encodeBinary(message);
+                    binaryEncoded = true;
+                }
+                if (binary != null) {
+                    frame = new BinaryMessage(binary);
+                }
+            }
+            if (frame == null) {
+                if (text == null) {
+                    text = serialize(message);
+                }
+                frame = text;
+            }
+            queue.offer(key, frame);
+        }
+    }
+
+    /**
+     * Encodes the message and, before any thread can queue a frame using them, queues the codes it
+     * introduced to every binary session. Codes are distributed even if encoding fails halfway.
+     */
+    private byte[] encodeBinary(Object message) {
+        synchronized (dictionaryLock) {
+            try {
+                return binaryCodec.encode(message);
+            } finally {
+                int codes = binaryCodec.getDictionary().size();
+                if (codes > distributedCodes) {
+                    List<byte[]> delta = binaryCodec.encodeDictionary(distributedCodes);
+                    distributedCodes = codes;
+                    for (SessionSendQueue queue : queues) {
+                        if (queue.getFormat() == WireFormat.BINARY) {
+                            for (byte[] frame : delta) {
+                                queue.offerPinned(new BinaryMessage(frame));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    void recordSent() {
+        sentFrames.increment();
+    }
+
+    void recordConflated() {
+        conflatedUpdates.increment();
+    }
+
+    void recordDropped(int frames) {
+        droppedFrames.increment(frames);
+    }
+
+    void recordDisconnect() {
+        slowConsumerDisconnects.increment();
+    }
+}
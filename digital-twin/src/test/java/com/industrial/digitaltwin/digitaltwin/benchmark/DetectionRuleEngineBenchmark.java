@@ -0,0 +1,99 @@
+package com.industrial.digitaltwin.digitaltwin.benchmark;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
+import com.industrial.digitaltwin.digitaltwin.model.RuleDefinition;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import com.industrial.digitaltwin.digitaltwin.service.DetectionRuleEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-reading cost of evaluating a compiled rule set against a twin with a full 100-reading
+ * history. Run through the main method (test classpath); not executed by surefire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetectionRuleEngineBenchmark {
+
+    private static final String[] CONDITIONS = {
+        "temperature > 90",
+        "vibration > 3.5 && status != MAINTENANCE",
+        "zscore(temperature) > 3",
+        "zscore(vibration) > 3 && load > 60",
+        "delta(temperature) > 5",
+        "load > max(load) * 1.1",
+        "pressure < 2 || pressure > 14",
+        "rpm > mean(rpm) + 4 * stddev(rpm)",
+        "temperature - mean(temperature) > 10 && status == PEAK_LOAD",
+        "min(vibration) > 2"
+    };
+
+    @Param({"1", "10"})
+    private int ruleCount;
+
+    private DetectionRuleEngine ruleEngine;
+    private DigitalTwinState state;
+    private MachineTelemetry telemetry;
+
+    @Setup
+    public void setUp() {
+        ruleEngine = new DetectionRuleEngine();
+        ReflectionTestUtils.setField(ruleEngine, "config", new StateStoreConfig());
+        List<RuleDefinition> rules = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(RuleDefinition.builder().name("rule-" + i).condition(CONDITIONS[i]).build());
+        }
+        ruleEngine.replaceRules(rules);
+
+        Random random = new Random(42);
+        List<SensorData> history = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            history.add(SensorData.builder()
+                    .temperature(70 + random.nextGaussian() * 3)
+                    .vibration(1.5 + random.nextGaussian() * 0.2)
+                    .load(80 + random.nextGaussian() * 5)
+                    .pressure(10 + random.nextGaussian())
+                    .rpm(1400 + random.nextGaussian() * 30)
+                    .build());
+        }
+        state = DigitalTwinState.builder()
+                .machineId("BENCH_001")
+                .status(MachineStatus.NORMAL)
+                .historicalData(history)
+                .build();
+        telemetry = MachineTelemetry.builder()
+                .machineId("BENCH_001")
+                .timestamp(Instant.now())
+                .sensorData(history.get(history.size() - 1))
+                .build();
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return ruleEngine.evaluate(state, telemetry);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DetectionRuleEngineBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.industrial.digitaltwin.digitaltwin.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.industrial.digitaltwin.digitaltwin.config.ProducerProfile;
+import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.MemoryRecords;
+import org.apache.kafka.common.record.MemoryRecordsBuilder;
+import org.apache.kafka.common.record.TimestampType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates broker bytes and producer CPU per producer profile by building the record batches the
+ * producer would send for machine-state-updates, using Kafka's own batch format and codecs. Batch
+ * fill assumes {@link #RECORDS_PER_MS} arrivals per partition during linger.ms, capped by batch.size.
+ * The main method prints bytes per record; run it from the test classpath, it is not executed by surefire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProducerProfileBenchmark {
+
+    static final int RECORDS_PER_MS = 2;
+
+    @Param({"THROUGHPUT", "LATENCY", "DURABILITY"})
+    private ProducerProfile profile;
+
+    private List<byte[]> batch;
+    private byte[][] keys;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<byte[]> values = values(1024);
+        batch = values.subList(0, recordsPerBatch(profile, values.get(0).length));
+        keys = keys(batch.size());
+        buffer = ByteBuffer.allocate(Math.max(profile.getBatchSize(), batch.size() * values.get(0).length * 2));
+    }
+
+    @Benchmark
+    public MemoryRecords buildBatch() {
+        buffer.clear();
+        return build(profile, buffer, keys, batch);
+    }
+
+    static MemoryRecords build(ProducerProfile profile, ByteBuffer buffer, byte[][] keys, List<byte[]> values) {
+        MemoryRecordsBuilder builder = MemoryRecords.builder(buffer,
+                CompressionType.forName(profile.getCompressionType()), TimestampType.CREATE_TIME, 0L);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < values.size(); i++) {
+            builder.append(now, keys[i], values.get(i));
+        }
+        return builder.build();
+    }
+
+    static int recordsPerBatch(ProducerProfile profile, int recordBytes) {
+        int byLinger = Math.max(1, RECORDS_PER_MS * profile.getLingerMs());
+        int bySize = Math.max(1, profile.getBatchSize() / recordBytes);
+        return Math.min(byLinger, bySize);
+    }
+
+    static List<byte[]> values(int count) throws Exception {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        Random random = new Random(42);
+        List<byte[]> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DigitalTwinState state = DigitalTwinState.builder()
+                    .machineId("MACHINE_" + String.format("%03d", i % 100))
+                    .lastUpdated(Instant.now())
+                    .currentSensorData(SensorData.builder()
+                            .temperature(60 + random.nextDouble() * 30)
+                            .vibration(random.nextDouble() * 4)
+                            .load(random.nextDouble() * 100)
+                            .pressure(random.nextDouble() * 15)
+                            .rpm(random.nextDouble() * 300)
+                            .build())
+                    .computedMetrics(Map.of("avgTemperature", 70 + random.nextDouble()))
+                    .status(MachineStatus.NORMAL)
+                    .operationalHours(random.nextInt(10_000))
+                    .efficiencyRating(random.nextDouble())
+                    .build();
+            values.add(objectMapper.writeValueAsBytes(state));
+        }
+        return values;
+    }
+
+    static byte[][] keys(int count) {
+        byte[][] keys = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ("MACHINE_" + String.format("%03d", i % 100)).getBytes(StandardCharsets.UTF_8);
+        }
+        return keys;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<byte[]> values = values(1024);
+        for (ProducerProfile profile : ProducerProfile.values()) {
+            int records = recordsPerBatch(profile, values.get(0).length);
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(profile.getBatchSize(), records * values.get(0).length * 2));
+            MemoryRecords batch = build(profile, buffer, keys(records), values.subList(0, records));
+            System.out.printf("%s: %d records per batch, %.1f bytes per record (JSON value %d bytes)%n",
+                    profile, records, batch.sizeInBytes() / (double) records, values.get(0).length);
+        }
+
+        Options options = new OptionsBuilder()
+                .include(ProducerProfileBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.industrial.digitaltwin.digitaltwin.benchmark;
+
+import com.industrial.digitaltwin.digitaltwin.service.ScalarThresholdBatchKernel;
+import com.industrial.digitaltwin.digitaltwin.service.TelemetryBatch;
+import com.industrial.digitaltwin.digitaltwin.service.ThresholdBatchKernel;
+import com.industrial.digitaltwin.digitaltwin.service.VectorThresholdBatchKernel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and Vector API threshold kernels over a columnar batch.
+ * Run through the main method (test classpath); not executed by surefire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ThresholdBatchKernelBenchmark {
+
+    @Param({"64", "512", "8192"})
+    private int batchSize;
+
+    private TelemetryBatch batch;
+    private final ThresholdBatchKernel scalar = new ScalarThresholdBatchKernel();
+    private final ThresholdBatchKernel vector = new VectorThresholdBatchKernel();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        batch = new TelemetryBatch(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.setRow(i,
+                    random.nextDouble() * 100,
+                    random.nextDouble() * 4,
+                    random.nextDouble() * 110,
+                    random.nextDouble() * 18,
+                    random.nextDouble() * 350,
+                    random.nextBoolean() ? 1.0 : 0.9);
+            batch.setStatistics(i, 70, 5, 1.5, 0.3, 75, 8);
+        }
+    }
+
+    @Benchmark
+    public void scalar(Blackhole bh) {
+        batch.reset(batchSize);
+        scalar.evaluate(batch, 85.0, 3.0, 95.0, 15, 300, 2.5);
+        bh.consume(batch);
+    }
+
+    @Benchmark
+    public void vector(Blackhole bh) {
+        batch.reset(batchSize);
+        vector.evaluate(batch, 85.0, 3.0, 95.0, 15, 300, 2.5);
+        bh.consume(batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ThresholdBatchKernelBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,93 @@
+package com.industrial.digitaltwin.digitaltwin.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import com.industrial.digitaltwin.digitaltwin.websocket.BinaryStateCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON and binary encoding of state update frames. The main method prints the frame sizes
+ * before running; run it from the test classpath, it is not executed by surefire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"1", "50"})
+    private int updatesPerFrame;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final BinaryStateCodec codec = new BinaryStateCodec();
+    private List<MachineStateUpdate> updates;
+
+    @Setup
+    public void setUp() {
+        updates = updates(updatesPerFrame);
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return objectMapper.writeValueAsBytes(updatesPerFrame == 1 ? updates.get(0) : updates);
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return codec.encode(updatesPerFrame == 1 ? updates.get(0) : updates);
+    }
+
+    static List<MachineStateUpdate> updates(int count) {
+        Random random = new Random(42);
+        List<MachineStateUpdate> updates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            updates.add(MachineStateUpdate.builder()
+                    .machineId("MACHINE_" + String.format("%03d", i))
+                    .timestamp(Instant.now())
+                    .currentData(SensorData.builder()
+                            .temperature(60 + random.nextDouble() * 30)
+                            .vibration(random.nextDouble() * 4)
+                            .load(random.nextDouble() * 100)
+                            .pressure(random.nextDouble() * 15)
+                            .rpm(random.nextDouble() * 300)
+                            .build())
+                    .status(MachineStatus.NORMAL)
+                    .isAnomalyDetected(random.nextInt(10) == 0)
+                    .machineType("industrial-machine")
+                    .build());
+        }
+        return updates;
+    }
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        BinaryStateCodec codec = new BinaryStateCodec();
+        for (int count : new int[]{1, 50}) {
+            List<MachineStateUpdate> updates = updates(count);
+            Object message = count == 1 ? updates.get(0) : updates;
+            System.out.printf("%d update(s) per frame: JSON %d bytes, binary %d bytes%n", count,
+                    objectMapper.writeValueAsBytes(message).length,
+                    codec.encode(message).length);
+        }
+
+        Options options = new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
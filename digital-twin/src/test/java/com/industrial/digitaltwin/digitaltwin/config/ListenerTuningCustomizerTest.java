@@ -0,0 +1,95 @@
+package com.industrial.digitaltwin.digitaltwin.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ListenerTuningCustomizerTest {
+
+    private StateStoreConfig.KafkaConsumerProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StateStoreConfig().getKafkaConsumers();
+    }
+
+    @Test
+    void shouldFollowPartitionCountWhenConcurrencyUnset() {
+        // Given
+        ListenerTuningCustomizer customizer = new ListenerTuningCustomizer(properties, topic -> 3);
+        ConcurrentMessageListenerContainer<String, Object> container = container("telemetry", "machine-telemetry");
+
+        // When
+        customizer.configure(container);
+
+        // Then
+        assertEquals(3, container.getConcurrency());
+    }
+
+    @Test
+    void shouldCapRequestedConcurrencyAtPartitionCount() {
+        // Given
+        StateStoreConfig.ListenerProperties listener = new StateStoreConfig.ListenerProperties();
+        listener.setConcurrency(8);
+        properties.getListeners().put("telemetry", listener);
+        ListenerTuningCustomizer customizer = new ListenerTuningCustomizer(properties, topic -> 2);
+        ConcurrentMessageListenerContainer<String, Object> container = container("telemetry", "machine-telemetry");
+
+        // When
+        customizer.configure(container);
+
+        // Then
+        assertEquals(2, container.getConcurrency());
+    }
+
+    @Test
+    void shouldKeepRequestedConcurrencyWhenPartitionsUnknown() {
+        // Given
+        StateStoreConfig.ListenerProperties listener = new StateStoreConfig.ListenerProperties();
+        listener.setConcurrency(3);
+        properties.getListeners().put("telemetry", listener);
+        ListenerTuningCustomizer customizer = new ListenerTuningCustomizer(properties, topic -> null);
+        ConcurrentMessageListenerContainer<String, Object> container = container("telemetry", "machine-telemetry");
+
+        // When
+        customizer.configure(container);
+
+        // Then
+        assertEquals(3, container.getConcurrency());
+    }
+
+    @Test
+    void shouldApplyProfileWithListenerOverrides() {
+        // Given
+        StateStoreConfig.ListenerProperties listener = new StateStoreConfig.ListenerProperties();
+        listener.setProfile(ConsumerProfile.BULK);
+        listener.setMaxPollRecords(250);
+        properties.getListeners().put("anomaly-persistence", listener);
+        ListenerTuningCustomizer customizer = new ListenerTuningCustomizer(properties, topic -> 1);
+        ConcurrentMessageListenerContainer<String, Object> container = container("anomaly-persistence", "anomaly-events");
+
+        // When
+        customizer.configure(container);
+
+        // Then
+        Map<Object, Object> consumerProps = container.getContainerProperties().getKafkaConsumerProperties();
+        assertEquals("250", consumerProps.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        assertEquals(Integer.toString(64 * 1024), consumerProps.get(ConsumerConfig.FETCH_MIN_BYTES_CONFIG));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentMessageListenerContainer<String, Object> container(String listenerId, String topic) {
+        ConcurrentMessageListenerContainer<String, Object> container = new ConcurrentMessageListenerContainer<>(
+                mock(ConsumerFactory.class), new ContainerProperties(topic));
+        container.setBeanName(listenerId);
+        return container;
+    }
+}
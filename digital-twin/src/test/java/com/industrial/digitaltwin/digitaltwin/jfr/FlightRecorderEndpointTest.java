@@ -0,0 +1,101 @@
+package com.industrial.digitaltwin.digitaltwin.jfr;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.service.ProcessingStage;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEndpointTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private FlightRecorderEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        StateStoreConfig config = new StateStoreConfig();
+        config.getFlightRecorder().setDumpDirectory(dumpDirectory.toString());
+        endpoint = new FlightRecorderEndpoint();
+        ReflectionTestUtils.setField(endpoint, "config", config);
+        endpoint.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.shutdown();
+    }
+
+    @Test
+    void shouldRecordOnlyRecordsOverTheSlowThreshold() throws Exception {
+        // Given
+        Map<String, Object> started = endpoint.start("test", null, Duration.ofMillis(20), Duration.ZERO);
+        long id = (Long) started.get("id");
+
+        // When
+        TelemetryRecordEvent fast = TelemetryRecordEvent.start();
+        fast.finish("FAST_MACHINE", "threshold-based", false, false);
+        TelemetryRecordEvent slow = TelemetryRecordEvent.start();
+        PipelineStageEvent stage = PipelineStageEvent.start();
+        Thread.sleep(30);
+        stage.finish(ProcessingStage.DETECT_ANOMALIES, "SLOW_MACHINE");
+        slow.finish("SLOW_MACHINE", "threshold-based", true, false);
+        Map<String, Object> stopped = endpoint.stop(id);
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of((String) stopped.get("destination")));
+        List<RecordedEvent> records = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.industrial.digitaltwin.SlowTelemetryRecord"))
+                .toList();
+        assertEquals(1, records.size());
+        assertEquals("SLOW_MACHINE", records.get(0).getString("machineId"));
+        assertTrue(records.get(0).getBoolean("anomalyDetected"));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.industrial.digitaltwin.PipelineStage")
+                && "detect_anomalies".equals(e.getString("stage"))));
+        assertTrue(endpoint.recordings().isEmpty());
+    }
+
+    @Test
+    void shouldReturnNullWhenStoppingUnknownRecording() {
+        // When / Then
+        assertNull(endpoint.stop(-1));
+    }
+
+    @Test
+    void shouldRejectNamesThatCouldLeaveTheDumpDirectory() {
+        // When / Then
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start("../../etc/cron", null, null, null));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start("/tmp/x", null, null, null));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start("", null, null, null));
+        assertTrue(endpoint.recordings().isEmpty());
+    }
+
+    @Test
+    void shouldForgetRecordingWhenItsDurationElapses() throws Exception {
+        // Given
+        endpoint.start("short", Duration.ofMillis(200), null, null);
+        assertEquals(1, endpoint.recordings().size());
+
+        // When
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!endpoint.recordings().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        // Then
+        assertTrue(endpoint.recordings().isEmpty());
+    }
+}
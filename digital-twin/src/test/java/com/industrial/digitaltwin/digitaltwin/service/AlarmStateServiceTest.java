@@ -0,0 +1,259 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlarmStateServiceTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private AlarmStateService alarmStateService;
+    private StateStoreConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new StateStoreConfig();
+        config.getAlarms().setClearDwell(Duration.ofSeconds(10));
+        alarmStateService = new AlarmStateService();
+        ReflectionTestUtils.setField(alarmStateService, "config", config);
+    }
+
+    @Test
+    void shouldPublishOnlyOnRaiseWhileHoveringAroundThreshold() {
+        // Given - temperature oscillates around 85 but never drops 2 degrees below it
+        double[] temperatures = {86, 84.5, 86, 84, 85.5, 86.5};
+
+        // When
+        int published = 0;
+        for (int i = 0; i < temperatures.length; i++) {
+            published += alarmStateService.apply(telemetry(i * 5, temperatures[i]), anomaliesFor(temperatures[i])).size();
+        }
+
+        // Then
+        assertEquals(1, published);
+        assertEquals(AlarmState.LATCHED, alarmStateService.getAlarmStates("TEST_MACHINE_001").get("temperature"));
+    }
+
+    @Test
+    void shouldClearAfterDwellInsideHysteresisBandAndRaiseAgain() {
+        // Given
+        assertEquals(1, alarmStateService.apply(telemetry(0, 90), anomaliesFor(90)).size());
+
+        // When - below 83 for 10 seconds
+        alarmStateService.apply(telemetry(5, 80), anomaliesFor(80));
+        alarmStateService.apply(telemetry(10, 80), anomaliesFor(80));
+        alarmStateService.apply(telemetry(15, 80), anomaliesFor(80));
+
+        // Then
+        assertEquals(AlarmState.CLEARED, alarmStateService.getAlarmStates("TEST_MACHINE_001").get("temperature"));
+        assertEquals(1, alarmStateService.apply(telemetry(20, 90), anomaliesFor(90)).size());
+    }
+
+    @Test
+    void shouldPublishClearedRecordWhenAlarmClears() {
+        // Given
+        alarmStateService.apply(telemetry(0, 90), anomaliesFor(90));
+        alarmStateService.apply(telemetry(5, 80), anomaliesFor(80));
+
+        // When - 10 seconds inside the band
+        List<AnomalyRecord> published = alarmStateService.apply(telemetry(15, 80), anomaliesFor(80));
+
+        // Then
+        assertEquals(1, published.size());
+        AnomalyRecord cleared = published.get(0);
+        assertEquals(AlarmState.CLEARED, cleared.getAlarmState());
+        assertEquals(AnomalyType.TEMPERATURE_HIGH, cleared.getType());
+        assertEquals(AlertSeverity.INFO, cleared.getSeverity());
+        assertEquals(85.0, cleared.getThreshold());
+        assertEquals(80.0, cleared.getValue());
+    }
+
+    @Test
+    void shouldRaiseLowAlarmSeparatelyWhileHighAlarmIsLatched() {
+        // Given
+        List<AnomalyRecord> raised = alarmStateService.apply(telemetry(0, 90), anomaliesFor(90));
+        assertEquals(AlarmState.RAISED, raised.get(0).getAlarmState());
+
+        // When - the temperature drops below zero and stays there
+        List<AnomalyRecord> low = alarmStateService.apply(telemetry(5, -5), anomaliesFor(-5));
+        List<AnomalyRecord> afterDwell = alarmStateService.apply(telemetry(15, -5), anomaliesFor(-5));
+
+        // Then - the low excursion is published, and it does not keep the high alarm latched
+        assertEquals(1, low.size());
+        assertEquals(AnomalyType.TEMPERATURE_LOW, low.get(0).getType());
+        assertEquals(AlarmState.RAISED, low.get(0).getAlarmState());
+        assertEquals(1, afterDwell.size());
+        assertEquals(AnomalyType.TEMPERATURE_HIGH, afterDwell.get(0).getType());
+        assertEquals(AlarmState.CLEARED, afterDwell.get(0).getAlarmState());
+        assertEquals(AlarmState.LATCHED, alarmStateService.getAlarmStates("TEST_MACHINE_001").get("temperature"));
+    }
+
+    @Test
+    void shouldWaitForRaiseDwell() {
+        // Given
+        config.getAlarms().setRaiseDwell(Duration.ofSeconds(10));
+
+        // When / Then
+        assertTrue(alarmStateService.apply(telemetry(0, 90), anomaliesFor(90)).isEmpty());
+        assertTrue(alarmStateService.apply(telemetry(5, 90), anomaliesFor(90)).isEmpty());
+        assertEquals(1, alarmStateService.apply(telemetry(10, 90), anomaliesFor(90)).size());
+    }
+
+    @Test
+    void shouldPassThroughAnomaliesNotTiedToASensor() {
+        // Given
+        AnomalyRecord degradation = AnomalyRecord.builder()
+                .machineId("TEST_MACHINE_001")
+                .type(AnomalyType.DEGRADATION)
+                .build();
+
+        // When
+        List<AnomalyRecord> first = alarmStateService.apply(telemetry(0, 70), List.of(degradation));
+        List<AnomalyRecord> second = alarmStateService.apply(telemetry(5, 70), List.of(degradation));
+
+        // Then
+        assertEquals(List.of(degradation), first);
+        assertEquals(List.of(degradation), second);
+    }
+
+    @Test
+    void shouldPublishConditionOnceWhileItHolds() {
+        // When
+        List<AnomalyRecord> first = alarmStateService.applyConditions(telemetry(0, 70), "rules", List.of(bandAlarm()));
+        List<AnomalyRecord> second = alarmStateService.applyConditions(telemetry(5, 70), "rules", List.of(bandAlarm()));
+        List<AnomalyRecord> third = alarmStateService.applyConditions(telemetry(10, 70), "rules", List.of(bandAlarm()));
+
+        // Then
+        assertEquals(1, first.size());
+        assertEquals(AlarmState.RAISED, first.get(0).getAlarmState());
+        assertTrue(second.isEmpty());
+        assertTrue(third.isEmpty());
+    }
+
+    @Test
+    void shouldClearConditionAfterItIsAbsentForClearDwell() {
+        // Given
+        alarmStateService.applyConditions(telemetry(0, 70), "spectrum", List.of(bandAlarm()));
+
+        // When
+        List<AnomalyRecord> absent = alarmStateService.applyConditions(telemetry(5, 70), "spectrum", List.of());
+        List<AnomalyRecord> cleared = alarmStateService.applyConditions(telemetry(15, 70), "spectrum", List.of());
+        List<AnomalyRecord> afterClear = alarmStateService.applyConditions(telemetry(20, 70), "spectrum", List.of());
+        List<AnomalyRecord> raisedAgain = alarmStateService.applyConditions(telemetry(25, 70), "spectrum", List.of(bandAlarm()));
+
+        // Then
+        assertTrue(absent.isEmpty());
+        assertEquals(1, cleared.size());
+        assertEquals(AlarmState.CLEARED, cleared.get(0).getAlarmState());
+        assertEquals(AnomalyType.VIBRATION_HIGH, cleared.get(0).getType());
+        assertEquals(AlertSeverity.INFO, cleared.get(0).getSeverity());
+        assertEquals(1.0, cleared.get(0).getThreshold());
+        assertTrue(afterClear.isEmpty());
+        assertEquals(1, raisedAgain.size());
+    }
+
+    @Test
+    void shouldKeepConditionLatchedWhenItReturnsWithinClearDwell() {
+        // Given
+        alarmStateService.applyConditions(telemetry(0, 70), "spectrum", List.of(bandAlarm()));
+        alarmStateService.applyConditions(telemetry(5, 70), "spectrum", List.of());
+
+        // When
+        List<AnomalyRecord> back = alarmStateService.applyConditions(telemetry(10, 70), "spectrum", List.of(bandAlarm()));
+        List<AnomalyRecord> absent = alarmStateService.applyConditions(telemetry(18, 70), "spectrum", List.of());
+
+        // Then - the clear dwell restarted when the condition came back
+        assertTrue(back.isEmpty());
+        assertTrue(absent.isEmpty());
+    }
+
+    @Test
+    void shouldTrackConditionsPerSourceAndDescription() {
+        // Given
+        AnomalyRecord other = AnomalyRecord.builder()
+                .machineId("TEST_MACHINE_001")
+                .type(AnomalyType.VIBRATION_HIGH)
+                .description("Vibration energy in imbalance band exceeds threshold")
+                .build();
+        alarmStateService.applyConditions(telemetry(0, 70), "spectrum", List.of(bandAlarm()));
+
+        // When
+        List<AnomalyRecord> otherBand = alarmStateService.applyConditions(telemetry(5, 70), "spectrum",
+                List.of(bandAlarm(), other));
+        List<AnomalyRecord> otherSource = alarmStateService.applyConditions(telemetry(5, 70), "rules", List.of(bandAlarm()));
+        alarmStateService.applyConditions(telemetry(10, 70), "rules", List.of());
+        List<AnomalyRecord> rulesCleared = alarmStateService.applyConditions(telemetry(30, 70), "rules", List.of());
+
+        // Then - evaluating one source leaves the other's alarms alone
+        assertEquals(List.of(other), otherBand);
+        assertEquals(1, otherSource.size());
+        assertEquals(AlarmState.CLEARED, rulesCleared.get(0).getAlarmState());
+        assertTrue(alarmStateService.applyConditions(telemetry(30, 70), "spectrum", List.of(bandAlarm(), other)).isEmpty());
+    }
+
+    @Test
+    void shouldPassConditionsThroughWhenAlarmsAreDisabled() {
+        // Given
+        config.getAlarms().setEnabled(false);
+
+        // When / Then
+        assertEquals(1, alarmStateService.applyConditions(telemetry(0, 70), "rules", List.of(bandAlarm())).size());
+        assertEquals(1, alarmStateService.applyConditions(telemetry(5, 70), "rules", List.of(bandAlarm())).size());
+    }
+
+    private AnomalyRecord bandAlarm() {
+        return AnomalyRecord.builder()
+                .machineId("TEST_MACHINE_001")
+                .type(AnomalyType.VIBRATION_HIGH)
+                .severity(AlertSeverity.WARNING)
+                .description("Vibration energy in bearing band exceeds threshold")
+                .value(1.4)
+                .threshold(1.0)
+                .build();
+    }
+
+    private List<AnomalyRecord> anomaliesFor(double temperature) {
+        if (temperature < 0) {
+            return List.of(AnomalyRecord.builder()
+                    .machineId("TEST_MACHINE_001")
+                    .type(AnomalyType.TEMPERATURE_LOW)
+                    .severity(AlertSeverity.WARNING)
+                    .value(temperature)
+                    .threshold(0.0)
+                    .build());
+        }
+        if (temperature <= 85.0) {
+            return List.of();
+        }
+        return List.of(AnomalyRecord.builder()
+                .machineId("TEST_MACHINE_001")
+                .type(AnomalyType.TEMPERATURE_HIGH)
+                .severity(AlertSeverity.CRITICAL)
+                .value(temperature)
+                .threshold(85.0)
+                .build());
+    }
+
+    private MachineTelemetry telemetry(int secondsFromStart, double temperature) {
+        return MachineTelemetry.builder()
+                .machineId("TEST_MACHINE_001")
+                .timestamp(START.plusSeconds(secondsFromStart))
+                .sensorData(SensorData.builder()
+                        .temperature(temperature)
+                        .vibration(1.5)
+                        .load(80.0)
+                        .pressure(8.5)
+                        .rpm(150)
+                        .build())
+                .build();
+    }
+}
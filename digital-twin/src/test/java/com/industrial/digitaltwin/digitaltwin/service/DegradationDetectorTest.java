@@ -0,0 +1,96 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyType;
+import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DegradationDetectorTest {
+
+    private DegradationDetector detector;
+    private final Random random = new Random(7);
+
+    @BeforeEach
+    void setUp() {
+        detector = new DegradationDetector();
+        ReflectionTestUtils.setField(detector, "config", new StateStoreConfig());
+    }
+
+    @Test
+    void shouldNotFireOnStationaryNoise() {
+        // Given / When
+        List<AnomalyRecord> anomalies = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            anomalies.addAll(detector.analyze(telemetry(70 + random.nextGaussian() * 2, 1.5 + random.nextGaussian() * 0.2)));
+        }
+
+        // Then
+        assertTrue(anomalies.isEmpty());
+    }
+
+    @Test
+    void shouldEmitDegradationWhenTemperatureDrifts() {
+        // Given - 100 stable readings, then a 5 degree step
+        for (int i = 0; i < 100; i++) {
+            assertTrue(detector.analyze(telemetry(70 + random.nextGaussian() * 2, 1.5)).isEmpty());
+        }
+
+        // When
+        List<AnomalyRecord> anomalies = new ArrayList<>();
+        int readings = 0;
+        while (anomalies.isEmpty() && readings < 100) {
+            anomalies.addAll(detector.analyze(telemetry(75 + random.nextGaussian() * 2, 1.5)));
+            readings++;
+        }
+
+        // Then
+        assertEquals(1, anomalies.size());
+        assertEquals(AnomalyType.DEGRADATION, anomalies.get(0).getType());
+        assertTrue(anomalies.get(0).getDescription().startsWith("Temperature"));
+        assertTrue(readings < 20, "detected after " + readings + " readings");
+    }
+
+    @Test
+    void shouldForgetMachineWhenTwinStateIsCleared() {
+        // Given
+        StateManagementService stateManagementService = new StateManagementService();
+        ReflectionTestUtils.setField(stateManagementService, "stateStoreConfig", new StateStoreConfig());
+        ReflectionTestUtils.setField(stateManagementService, "degradationDetector", detector);
+        MachineTelemetry reading = telemetry(70, 1.5);
+        stateManagementService.updateState("TEST_MACHINE_001", reading);
+        detector.analyze(reading);
+
+        // When
+        stateManagementService.clearState("TEST_MACHINE_001");
+
+        // Then
+        Map<?, ?> detectors = (Map<?, ?>) ReflectionTestUtils.getField(detector, "detectors");
+        assertTrue(detectors.isEmpty());
+    }
+
+    private MachineTelemetry telemetry(double temperature, double vibration) {
+        return MachineTelemetry.builder()
+                .machineId("TEST_MACHINE_001")
+                .timestamp(Instant.now())
+                .sensorData(SensorData.builder()
+                        .temperature(temperature)
+                        .vibration(vibration)
+                        .load(80.0)
+                        .pressure(8.5)
+                        .rpm(150)
+                        .build())
+                .build();
+    }
+}
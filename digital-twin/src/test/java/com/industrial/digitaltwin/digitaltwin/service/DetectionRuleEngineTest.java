@@ -0,0 +1,208 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectionRuleEngineTest {
+
+    private DetectionRuleEngine ruleEngine;
+
+    @BeforeEach
+    void setUp() {
+        ruleEngine = new DetectionRuleEngine();
+        ReflectionTestUtils.setField(ruleEngine, "config", new StateStoreConfig());
+    }
+
+    @Test
+    void shouldEvaluateArithmeticAndPrecedence() {
+        // Given
+        RuleContext ctx = new RuleContext();
+        ctx.reset(state(MachineStatus.NORMAL, List.of()), sensorData(80.0, 2.0));
+
+        // Then
+        assertEquals(1.0, RuleCompiler.compile("temperature - 10 * 2 == 60").eval(ctx));
+        assertEquals(1.0, RuleCompiler.compile("(temperature - 10) * 2 == 140").eval(ctx));
+        assertEquals(1.0, RuleCompiler.compile("!(vibration > 3) && -vibration < 0").eval(ctx));
+        assertEquals(0.0, RuleCompiler.compile("temperature > 90 || status == CRITICAL").eval(ctx));
+    }
+
+    @Test
+    void shouldFoldConstantExpressions() {
+        assertInstanceOf(RuleCompiler.Constant.class, RuleCompiler.compile("(1 + 2) * 3 > 8"));
+    }
+
+    @Test
+    void shouldUseRollingStatisticsFromHistory() {
+        // Given
+        List<SensorData> history = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            history.add(sensorData(70.0 + (i % 2), 1.0));
+        }
+        history.add(sensorData(80.0, 1.0));
+        ruleEngine.replaceRules(List.of(RuleDefinition.builder()
+                .name("temperature-jump")
+                .condition("delta(temperature) > 5 && temperature > mean(temperature)")
+                .type(AnomalyType.TEMPERATURE_HIGH)
+                .build()));
+
+        // When
+        List<AnomalyRecord> anomalies = ruleEngine.evaluate(state(MachineStatus.NORMAL, history),
+                telemetry(sensorData(80.0, 1.0)));
+
+        // Then
+        assertEquals(1, anomalies.size());
+        assertEquals(AnomalyType.TEMPERATURE_HIGH, anomalies.get(0).getType());
+        assertEquals(AlertSeverity.WARNING, anomalies.get(0).getSeverity());
+    }
+
+    @Test
+    void shouldReportComparisonOperandsAsValueAndThreshold() {
+        // Given
+        ruleEngine.replaceRules(List.of(RuleDefinition.builder()
+                .name("hot")
+                .condition("temperature > 75")
+                .build()));
+
+        // When
+        List<AnomalyRecord> anomalies = ruleEngine.evaluate(state(MachineStatus.NORMAL, List.of()),
+                telemetry(sensorData(80.0, 1.0)));
+
+        // Then
+        assertEquals(1, anomalies.size());
+        assertEquals(AnomalyType.PATTERN_ANOMALY, anomalies.get(0).getType());
+        assertEquals(80.0, anomalies.get(0).getValue());
+        assertEquals(75.0, anomalies.get(0).getThreshold());
+    }
+
+    @Test
+    void shouldKeepPreviousRulesWhenReplacementFailsToCompile() {
+        // Given
+        ruleEngine.replaceRules(List.of(RuleDefinition.builder().name("hot").condition("temperature > 75").build()));
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                ruleEngine.replaceRules(List.of(RuleDefinition.builder().name("bad").condition("humidity > 3").build())));
+
+        // Then
+        assertTrue(error.getMessage().contains("Unknown field 'humidity'"));
+        assertEquals(1, ruleEngine.getRuleDefinitions().size());
+        assertEquals("hot", ruleEngine.getRuleDefinitions().get(0).getName());
+    }
+
+    @Test
+    void shouldGiveConcurrentReloadsDistinctVersions() throws Exception {
+        // Given
+        int threads = 4;
+        int reloadsPerThread = 500;
+        List<RuleDefinition> rules = List.of(RuleDefinition.builder().name("hot").condition("temperature > 90").build());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        Set<Long> versions = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < reloadsPerThread; i++) {
+                    DetectionRuleEngine.Activation activation = ruleEngine.replaceRules(rules);
+                    assertEquals(1, activation.ruleCount());
+                    versions.add(activation.version());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * reloadsPerThread, ruleEngine.getVersion());
+        assertEquals(threads * reloadsPerThread, versions.size());
+    }
+
+    @Test
+    void shouldRejectNullRuleDefinition() {
+        // Given
+        ruleEngine.replaceRules(List.of(RuleDefinition.builder().name("hot").condition("temperature > 75").build()));
+        List<RuleDefinition> rules = Arrays.asList(
+                RuleDefinition.builder().name("cold").condition("temperature < 5").build(), null);
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> ruleEngine.replaceRules(rules));
+
+        // Then
+        assertTrue(error.getMessage().contains("null"));
+        assertEquals(1, ruleEngine.getVersion());
+        assertEquals("hot", ruleEngine.getRuleDefinitions().get(0).getName());
+    }
+
+    @Test
+    void shouldReloadRulesFromFile(@TempDir Path dir) throws Exception {
+        // Given
+        Path file = dir.resolve("rules.json");
+        Files.writeString(file, "[{\"name\":\"hot\",\"condition\":\"temperature > 75\"},"
+                + "{\"name\":\"shaky\",\"condition\":\"vibration > 3\"}]");
+        StateStoreConfig config = new StateStoreConfig();
+        config.getRules().setFile(file.toString());
+        ReflectionTestUtils.setField(ruleEngine, "config", config);
+        ReflectionTestUtils.setField(ruleEngine, "objectMapper", new ObjectMapper());
+
+        // When
+        DetectionRuleEngine.Activation activation = ruleEngine.reload();
+
+        // Then
+        assertEquals(2, activation.ruleCount());
+        assertEquals(1, activation.version());
+        assertEquals(2, ruleEngine.getRuleDefinitions().size());
+    }
+
+    private DigitalTwinState state(MachineStatus status, List<SensorData> history) {
+        return DigitalTwinState.builder()
+                .machineId("TEST_MACHINE_001")
+                .status(status)
+                .historicalData(history)
+                .build();
+    }
+
+    private MachineTelemetry telemetry(SensorData data) {
+        return MachineTelemetry.builder()
+                .machineId("TEST_MACHINE_001")
+                .timestamp(Instant.now())
+                .sensorData(data)
+                .build();
+    }
+
+    private SensorData sensorData(double temperature, double vibration) {
+        return SensorData.builder()
+                .temperature(temperature)
+                .vibration(vibration)
+                .load(80.0)
+                .pressure(8.5)
+                .rpm(150)
+                .build();
+    }
+}
@@ -1,11 +1,15 @@
 package com.industrial.digitaltwin.digitaltwin.service;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,11 +32,18 @@ class MetricsServiceTest {
 
     @Test
     void shouldInitializeMetrics() {
+        // Given - a real registry, since registering timers goes through the registry's config
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MetricsService service = new MetricsService();
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+        ReflectionTestUtils.setField(service, "stateManagementService", stateManagementService);
+
         // When
-        metricsService.initializeMetrics();
+        service.initializeMetrics();
 
-        // Then - No exceptions thrown during initialization
-        // Metrics initialization happens without errors
+        // Then
+        assertNotNull(registry.find("digital_twin.state.count").gauge());
+        assertEquals(PipelineStage.values().length, registry.find("digital_twin.pipeline.latency").timers().size());
     }
 
     @Test
@@ -73,4 +84,27 @@ class MetricsServiceTest {
         long finalCount = metricsService.getStateUpdatesCount();
         assertEquals(initialCount + 1, finalCount);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCacheStageTimersPerStrategyAndMachineType() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MetricsService service = new MetricsService();
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+
+        // When
+        MetricsService.StageTimers timers = service.stageTimers("threshold-based", "press");
+        long next = timers.record(ProcessingStage.DESERIALIZE, System.nanoTime() - 1_000_000);
+        timers.record(ProcessingStage.UPDATE_STATE, next);
+
+        // Then
+        assertSame(timers, service.stageTimers("threshold-based", "press"));
+        assertNotSame(timers, service.stageTimers("statistical", "press"));
+        assertEquals(1, registry.get("digital_twin.processing.stage")
+                .tags("stage", "deserialize", "strategy", "threshold-based", "machine_type", "press")
+                .timer().count());
+        assertTrue(timers.timer(ProcessingStage.DESERIALIZE).totalTime(TimeUnit.MILLISECONDS) >= 1.0);
+        assertEquals(1, timers.timer(ProcessingStage.UPDATE_STATE).count());
+        assertEquals(0, timers.timer(ProcessingStage.BROADCAST).count());
+    }
+}
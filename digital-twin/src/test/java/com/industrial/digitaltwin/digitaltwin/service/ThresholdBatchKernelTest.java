@@ -0,0 +1,127 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThresholdBatchKernelTest {
+
+    private ThresholdAnomalyDetectionStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new ThresholdAnomalyDetectionStrategy();
+        ReflectionTestUtils.setField(strategy, "config", new StateStoreConfig());
+    }
+
+    @Test
+    void scalarBatchShouldMatchRowByRowDetection() {
+        // Given
+        strategy.setBatchKernel(new ScalarThresholdBatchKernel());
+
+        // Then
+        assertBatchMatchesDetect(1000, 1L);
+    }
+
+    @Test
+    void vectorBatchShouldMatchRowByRowDetection() {
+        // Given
+        strategy.setBatchKernel(new VectorThresholdBatchKernel());
+
+        // Then - odd size so the scalar tail is exercised as well
+        assertBatchMatchesDetect(1001, 2L);
+    }
+
+    @Test
+    void shouldReturnEmptyListForRowsWithoutAnomalies() {
+        // Given
+        strategy.setBatchKernel(new VectorThresholdBatchKernel());
+        DigitalTwinState state = DigitalTwinState.builder()
+                .machineId("TEST_MACHINE_001")
+                .status(MachineStatus.NORMAL)
+                .historicalData(List.of())
+                .build();
+        MachineTelemetry normal = telemetry("TEST_MACHINE_001", 70.0, 1.5, 80.0, 8.5, 150);
+        MachineTelemetry hot = telemetry("TEST_MACHINE_001", 90.0, 1.5, 80.0, 8.5, 150);
+
+        // When
+        List<List<AnomalyRecord>> results = strategy.detectBatch(List.of(state, state), List.of(normal, hot));
+
+        // Then
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isEmpty());
+        assertEquals(1, results.get(1).size());
+        assertEquals(AnomalyType.TEMPERATURE_HIGH, results.get(1).get(0).getType());
+    }
+
+    @Test
+    void shouldSelectScalarKernelWhenForced() {
+        assertInstanceOf(ScalarThresholdBatchKernel.class, ThresholdBatchKernel.forMode("scalar"));
+    }
+
+    private void assertBatchMatchesDetect(int size, long seed) {
+        Random random = new Random(seed);
+        MachineStatus[] statuses = MachineStatus.values();
+        List<DigitalTwinState> states = new ArrayList<>();
+        List<MachineTelemetry> readings = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String machineId = "MACHINE_" + i;
+            List<SensorData> history = new ArrayList<>();
+            int historySize = random.nextInt(12);
+            for (int h = 0; h < historySize; h++) {
+                history.add(sensorData(random));
+            }
+            states.add(DigitalTwinState.builder()
+                    .machineId(machineId)
+                    .status(statuses[random.nextInt(statuses.length)])
+                    .historicalData(history)
+                    .build());
+            readings.add(MachineTelemetry.builder()
+                    .machineId(machineId)
+                    .timestamp(Instant.now())
+                    .sensorData(sensorData(random))
+                    .build());
+        }
+
+        List<List<AnomalyRecord>> batch = strategy.detectBatch(states, readings);
+
+        assertEquals(size, batch.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(strategy.detect(states.get(i), readings.get(i)), batch.get(i), "row " + i);
+        }
+    }
+
+    private SensorData sensorData(Random random) {
+        return SensorData.builder()
+                .temperature(random.nextDouble() * 110 - 10)
+                .vibration(random.nextDouble() * 4.5 - 0.5)
+                .load(random.nextDouble() * 120 - 10)
+                .pressure(random.nextDouble() * 20 - 2)
+                .rpm(random.nextInt(400) - 20)
+                .build();
+    }
+
+    private MachineTelemetry telemetry(String machineId, double temperature, double vibration, double load,
+                                       double pressure, int rpm) {
+        return MachineTelemetry.builder()
+                .machineId(machineId)
+                .timestamp(Instant.now())
+                .sensorData(SensorData.builder()
+                        .temperature(temperature)
+                        .vibration(vibration)
+                        .load(load)
+                        .pressure(pressure)
+                        .rpm(rpm)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyRecord;
+import com.industrial.digitaltwin.digitaltwin.model.AnomalyType;
+import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VibrationSpectrumAnalyzerTest {
+
+    private static final double SAMPLE_RATE = 2000.0;
+
+    private VibrationSpectrumAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        analyzer = new VibrationSpectrumAnalyzer();
+        ReflectionTestUtils.setField(analyzer, "config", new StateStoreConfig());
+        analyzer.initialize();
+    }
+
+    @Test
+    void fftShouldConcentrateSineInItsBin() {
+        // Given
+        RadixTwoFft fft = new RadixTwoFft(64);
+        double[] re = new double[64];
+        double[] im = new double[64];
+        for (int i = 0; i < 64; i++) {
+            re[i] = Math.cos(2 * Math.PI * 5 * i / 64);
+        }
+
+        // When
+        fft.transform(re, im);
+
+        // Then
+        assertEquals(32.0, Math.hypot(re[5], im[5]), 1e-9);
+        assertEquals(32.0, Math.hypot(re[59], im[59]), 1e-9);
+        assertEquals(0.0, Math.hypot(re[6], im[6]), 1e-9);
+    }
+
+    @Test
+    void shouldRaiseBearingBandAlarmForHighFrequencyEnergy() {
+        // Given - 400 Hz tone with 2.0 amplitude (RMS ~1.41) against a 1.0 bearing-band limit
+        MachineTelemetry telemetry = telemetry("TEST_MACHINE_001", sine(400, 2.0, 256));
+
+        // When
+        List<AnomalyRecord> anomalies = analyzer.analyze(telemetry);
+
+        // Then
+        assertEquals(1, anomalies.size());
+        assertEquals(AnomalyType.VIBRATION_HIGH, anomalies.get(0).getType());
+        assertTrue(anomalies.get(0).getDescription().contains("bearing"));
+        assertEquals(Math.sqrt(2), anomalies.get(0).getValue(), 0.1);
+    }
+
+    @Test
+    void shouldKeepReportingBandAlarmBetweenSpectra() {
+        // Given
+        analyzer.analyze(telemetry("TEST_MACHINE_001", sine(400, 2.0, 256)));
+
+        // When - too few samples for the next spectrum
+        List<AnomalyRecord> anomalies = analyzer.analyze(telemetry("TEST_MACHINE_001", sine(400, 2.0, 8)));
+
+        // Then
+        assertEquals(1, anomalies.size());
+        assertTrue(anomalies.get(0).getDescription().contains("bearing"));
+    }
+
+    @Test
+    void shouldNotAlarmForLowLevelVibration() {
+        // Given
+        MachineTelemetry telemetry = telemetry("TEST_MACHINE_001", sine(25, 1.0, 512));
+
+        // When
+        List<AnomalyRecord> anomalies = analyzer.analyze(telemetry);
+
+        // Then
+        assertTrue(anomalies.isEmpty());
+        double[] levels = analyzer.getBandLevels("TEST_MACHINE_001");
+        assertNotNull(levels);
+        assertEquals(1 / Math.sqrt(2), levels[0], 0.05);
+    }
+
+    @Test
+    void shouldWaitForFullWindowBeforeAnalyzing() {
+        // Given
+        MachineTelemetry telemetry = telemetry("TEST_MACHINE_001", sine(400, 2.0, 100));
+
+        // When
+        List<AnomalyRecord> anomalies = analyzer.analyze(telemetry);
+
+        // Then
+        assertTrue(anomalies.isEmpty());
+        assertNull(analyzer.getBandLevels("TEST_MACHINE_001"));
+    }
+
+    @Test
+    void shouldKeepBandLevelsPerMachine() {
+        // Given - both machines are analyzed on this thread, sharing its FFT buffers
+        analyzer.analyze(telemetry("TEST_MACHINE_001", sine(400, 2.0, 256)));
+        analyzer.analyze(telemetry("TEST_MACHINE_002", sine(25, 1.0, 256)));
+
+        // When
+        double[] first = analyzer.getBandLevels("TEST_MACHINE_001");
+        double[] second = analyzer.getBandLevels("TEST_MACHINE_002");
+
+        // Then
+        assertEquals(Math.sqrt(2), first[first.length - 1], 0.1);
+        assertEquals(1 / Math.sqrt(2), second[0], 0.05);
+        assertEquals(0.0, second[second.length - 1], 0.05);
+    }
+
+    @Test
+    void shouldForgetMachineWhenTwinStateIsCleared() {
+        // Given
+        StateManagementService stateManagementService = new StateManagementService();
+        ReflectionTestUtils.setField(stateManagementService, "stateStoreConfig", new StateStoreConfig());
+        ReflectionTestUtils.setField(stateManagementService, "vibrationSpectrumAnalyzer", analyzer);
+        analyzer.analyze(telemetry("TEST_MACHINE_001", sine(25, 1.0, 256)));
+        assertNotNull(analyzer.getBandLevels("TEST_MACHINE_001"));
+
+        // When
+        stateManagementService.clearState("TEST_MACHINE_001");
+
+        // Then
+        assertNull(analyzer.getBandLevels("TEST_MACHINE_001"));
+    }
+
+    @Test
+    void shouldForgetMachineWhenTwinStateIsEvicted() {
+        // Given - room for one twin
+        StateStoreConfig config = new StateStoreConfig();
+        config.getStateStore().setMaxEntries(1);
+        StateManagementService stateManagementService = new StateManagementService();
+        ReflectionTestUtils.setField(stateManagementService, "stateStoreConfig", config);
+        ReflectionTestUtils.setField(stateManagementService, "vibrationSpectrumAnalyzer", analyzer);
+        analyzer.analyze(telemetry("TEST_MACHINE_001", sine(25, 1.0, 256)));
+        analyzer.analyze(telemetry("TEST_MACHINE_002", sine(25, 1.0, 256)));
+        stateManagementService.updateState("TEST_MACHINE_001", readings("TEST_MACHINE_001"));
+
+        // When
+        stateManagementService.updateState("TEST_MACHINE_002", readings("TEST_MACHINE_002"));
+
+        // Then - whichever twin was evicted lost its window, the other kept it
+        assertEquals(1, stateManagementService.getCurrentStateCount());
+        String kept = stateManagementService.getAllStates().keySet().iterator().next();
+        String evicted = kept.equals("TEST_MACHINE_001") ? "TEST_MACHINE_002" : "TEST_MACHINE_001";
+        assertNotNull(analyzer.getBandLevels(kept));
+        assertNull(analyzer.getBandLevels(evicted));
+    }
+
+    private double[] sine(double frequency, double amplitude, int count) {
+        double[] samples = new double[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = amplitude * Math.sin(2 * Math.PI * frequency * i / SAMPLE_RATE);
+        }
+        return samples;
+    }
+
+    private MachineTelemetry readings(String machineId) {
+        return MachineTelemetry.builder()
+                .machineId(machineId)
+                .timestamp(Instant.now())
+                .sensorData(SensorData.builder().temperature(70).vibration(1.5).load(60).pressure(8).rpm(150).build())
+                .build();
+    }
+
+    private MachineTelemetry telemetry(String machineId, double[] samples) {
+        return MachineTelemetry.builder()
+                .machineId(machineId)
+                .timestamp(Instant.now())
+                .vibrationSamples(samples)
+                .vibrationSampleRate(SAMPLE_RATE)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.industrial.digitaltwin.digitaltwin.service;
+
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.DigitalTwinState;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.model.MachineTelemetry;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import com.industrial.digitaltwin.digitaltwin.stream.StateStreamService;
+import com.industrial.digitaltwin.digitaltwin.websocket.DigitalTwinWebSocketHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WebSocketBroadcastServiceTest {
+
+    private DigitalTwinWebSocketHandler webSocketHandler;
+    private StateStreamService stateStreamService;
+    private WebSocketBroadcastService broadcastService;
+    private StateManagementService stateManagementService;
+
+    @BeforeEach
+    void setUp() {
+        webSocketHandler = mock(DigitalTwinWebSocketHandler.class);
+        stateStreamService = mock(StateStreamService.class);
+        broadcastService = new WebSocketBroadcastService();
+        ReflectionTestUtils.setField(broadcastService, "webSocketHandler", webSocketHandler);
+        ReflectionTestUtils.setField(broadcastService, "stateStreamService", stateStreamService);
+
+        stateManagementService = new StateManagementService();
+        ReflectionTestUtils.setField(stateManagementService, "stateStoreConfig", new StateStoreConfig());
+    }
+
+    @Test
+    void shouldBroadcastMachineTypeFromTelemetry() {
+        // Given
+        DigitalTwinState state = stateManagementService.updateState("M1", telemetry("M1", "cnc-mill"));
+
+        // When
+        broadcastService.broadcastStateUpdate(state);
+
+        // Then
+        MachineStateUpdate update = captureUpdate();
+        assertEquals("cnc-mill", update.getMachineType());
+        verify(stateStreamService).publish(update);
+    }
+
+    @Test
+    void shouldKeepMachineTypeWhenLaterTelemetryOmitsIt() {
+        // Given
+        stateManagementService.updateState("M1", telemetry("M1", "press"));
+        DigitalTwinState state = stateManagementService.updateState("M1", telemetry("M1", null));
+
+        // When
+        broadcastService.broadcastStateUpdate(state);
+
+        // Then
+        assertEquals("press", captureUpdate().getMachineType());
+    }
+
+    @Test
+    void shouldLeaveMachineTypeUnsetWhenNeverReported() {
+        // Given
+        DigitalTwinState state = stateManagementService.updateState("M1", telemetry("M1", null));
+
+        // When
+        broadcastService.broadcastStateUpdate(state);
+
+        // Then
+        assertNull(captureUpdate().getMachineType());
+    }
+
+    private MachineStateUpdate captureUpdate() {
+        ArgumentCaptor<MachineStateUpdate> captor = ArgumentCaptor.forClass(MachineStateUpdate.class);
+        verify(webSocketHandler).broadcastStateUpdate(captor.capture());
+        return captor.getValue();
+    }
+
+    private MachineTelemetry telemetry(String machineId, String machineType) {
+        return MachineTelemetry.builder()
+                .machineId(machineId)
+                .machineType(machineType)
+                .timestamp(Instant.now())
+                .sensorData(SensorData.builder().temperature(70).vibration(1.5).load(60).pressure(8).rpm(150).build())
+                .build();
+    }
+}
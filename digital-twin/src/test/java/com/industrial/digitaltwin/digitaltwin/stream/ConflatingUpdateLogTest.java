@@ -0,0 +1,71 @@
+package com.industrial.digitaltwin.digitaltwin.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflatingUpdateLogTest {
+
+    @Test
+    void shouldKeepOnlyLatestEntryPerKey() {
+        // Given
+        ConflatingUpdateLog<String> log = new ConflatingUpdateLog<>(10);
+        log.append("M1", "a", "1");
+        log.append("M2", "b", "2");
+
+        // When
+        log.append("M1", "c", "3");
+
+        // Then
+        List<String> updates = log.since(0).stream().map(ConflatingUpdateLog.Entry::update).toList();
+        assertEquals(List.of("b", "c"), updates);
+        assertEquals(2, log.size());
+        assertEquals(3, log.getLastSequence());
+    }
+
+    @Test
+    void shouldReturnOnlyEntriesAfterCursor() {
+        // Given
+        ConflatingUpdateLog<String> log = new ConflatingUpdateLog<>(10);
+        log.append("M1", "a", "1");
+        long cursor = log.append("M2", "b", "2").sequence();
+
+        // When
+        log.append("M3", "c", "3");
+
+        // Then
+        List<String> updates = log.since(cursor).stream().map(ConflatingUpdateLog.Entry::update).toList();
+        assertEquals(List.of("c"), updates);
+    }
+
+    @Test
+    void shouldEvictOldestAndReportTruncatedCursors() {
+        // Given
+        ConflatingUpdateLog<String> log = new ConflatingUpdateLog<>(2);
+        log.append("M1", "a", "1");
+        long cursor = log.append("M2", "b", "2").sequence();
+
+        // When
+        log.append("M3", "c", "3");
+
+        // Then
+        assertEquals(2, log.size());
+        assertTrue(log.isTruncated(0));
+        assertFalse(log.isTruncated(cursor));
+    }
+
+    @Test
+    void shouldNeverConflateEntriesWithoutKey() {
+        // Given
+        ConflatingUpdateLog<String> log = new ConflatingUpdateLog<>(10);
+
+        // When
+        log.append(null, "a", "1");
+        log.append(null, "b", "2");
+
+        // Then
+        assertEquals(2, log.size());
+    }
+}
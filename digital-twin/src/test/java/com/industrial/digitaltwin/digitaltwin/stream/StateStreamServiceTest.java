@@ -0,0 +1,78 @@
+package com.industrial.digitaltwin.digitaltwin.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.websocket.Subscription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateStreamServiceTest {
+
+    private StateStoreConfig config;
+    private StateStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new StateStoreConfig();
+        service = new StateStreamService();
+        ReflectionTestUtils.setField(service, "config", config);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ReflectionTestUtils.getField(service, "ticker") != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void shouldResetPollCursorFromBeforeRestart() {
+        // Given - a cursor handed out by a previous server process
+        service.initialize();
+        service.publish(MachineStateUpdate.builder().machineId("M1").build());
+
+        // When
+        DeferredResult<ResponseEntity<String>> result = service.poll(Subscription.ALL, 500);
+
+        // Then
+        String body = ((ResponseEntity<?>) result.getResult()).getBody().toString();
+        assertTrue(body.startsWith("{\"cursor\":1,\"reset\":true,"), body);
+        assertTrue(body.contains("\"machineId\":\"M1\""), body);
+    }
+
+    @Test
+    void shouldNotResetCurrentPollCursor() {
+        // Given
+        service.initialize();
+        service.publish(MachineStateUpdate.builder().machineId("M1").build());
+        service.publish(MachineStateUpdate.builder().machineId("M2").build());
+
+        // When
+        DeferredResult<ResponseEntity<String>> result = service.poll(Subscription.ALL, 1);
+
+        // Then
+        String body = ((ResponseEntity<?>) result.getResult()).getBody().toString();
+        assertTrue(body.startsWith("{\"cursor\":2,\"reset\":false,"), body);
+        assertFalse(body.contains("\"machineId\":\"M1\""), body);
+    }
+
+    @Test
+    void shouldRejectZeroDeliveryRate() {
+        // Given
+        config.getStreaming().setMaxUpdatesPerSecond(0);
+
+        // When / Then
+        assertThrows(IllegalStateException.class, service::initialize);
+    }
+}
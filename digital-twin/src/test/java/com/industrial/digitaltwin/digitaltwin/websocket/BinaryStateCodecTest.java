@@ -0,0 +1,141 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+import com.industrial.digitaltwin.digitaltwin.model.SensorData;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryStateCodecTest {
+
+    private final BinaryStateCodec codec = new BinaryStateCodec();
+
+    @Test
+    void shouldEncodeUpdateAsFixedLayoutRecord() {
+        // Given
+        Instant timestamp = Instant.ofEpochMilli(1_700_000_000_000L);
+        MachineStateUpdate update = MachineStateUpdate.builder()
+                .machineId("M1")
+                .timestamp(timestamp)
+                .currentData(SensorData.builder().temperature(72.5).vibration(1.25).load(80).pressure(10).rpm(250).build())
+                .status(MachineStatus.WARNING)
+                .isAnomalyDetected(true)
+                .machineType("press")
+                .build();
+
+        // When
+        ByteBuffer frame = ByteBuffer.wrap(codec.encode(update));
+
+        // Then
+        assertEquals(3 + BinaryStateCodec.RECORD_BYTES, frame.remaining());
+        assertEquals(BinaryStateCodec.STATE_UPDATES, frame.get());
+        assertEquals(1, frame.getShort());
+        assertEquals("M1", codec.getDictionary().entriesFrom(frame.getInt()).get(0));
+        assertEquals("press", codec.getDictionary().entriesFrom(frame.getInt()).get(0));
+        assertEquals(timestamp.toEpochMilli(), frame.getLong());
+        assertEquals(MachineStatus.WARNING.ordinal(), frame.get());
+        assertEquals(3, frame.get());
+        assertEquals(72.5f, frame.getFloat());
+        assertEquals(1.25f, frame.getFloat());
+        assertEquals(80f, frame.getFloat());
+        assertEquals(10f, frame.getFloat());
+        assertEquals(250f, frame.getFloat());
+    }
+
+    @Test
+    void shouldReuseDictionaryCodesAcrossFrames() {
+        // Given
+        codec.encode(MachineStateUpdate.builder().machineId("M1").build());
+
+        // When
+        ByteBuffer frame = ByteBuffer.wrap(codec.encode(List.of(
+                MachineStateUpdate.builder().machineId("M2").build(),
+                MachineStateUpdate.builder().machineId("M1").build())));
+
+        // Then
+        frame.position(3);
+        assertEquals(1, frame.getInt());
+        frame.position(3 + BinaryStateCodec.RECORD_BYTES);
+        assertEquals(0, frame.getInt());
+        assertEquals(2, codec.getDictionary().size());
+    }
+
+    @Test
+    void shouldEncodeDictionaryDeltaFromCode() {
+        // Given
+        codec.getDictionary().codeFor("M1");
+        codec.getDictionary().codeFor("M2");
+
+        // When
+        List<byte[]> frames = codec.encodeDictionary(1);
+
+        // Then
+        assertEquals(1, frames.size());
+        ByteBuffer frame = ByteBuffer.wrap(frames.get(0));
+        assertEquals(BinaryStateCodec.DICTIONARY, frame.get());
+        assertEquals(1, frame.getShort());
+        assertEquals(1, frame.getInt());
+        byte[] value = new byte[frame.getShort()];
+        frame.get(value);
+        assertEquals("M2", new String(value, StandardCharsets.UTF_8));
+        assertFalse(frame.hasRemaining());
+    }
+
+    @Test
+    void shouldSplitDictionaryAboveMaxCount() {
+        // Given
+        for (int i = 0; i <= BinaryStateCodec.MAX_COUNT; i++) {
+            codec.getDictionary().codeFor("M" + i);
+        }
+
+        // When
+        List<byte[]> frames = codec.encodeDictionary(0);
+
+        // Then
+        assertEquals(2, frames.size());
+        ByteBuffer first = ByteBuffer.wrap(frames.get(0));
+        first.get();
+        assertEquals(BinaryStateCodec.MAX_COUNT, first.getShort() & 0xFFFF);
+        ByteBuffer second = ByteBuffer.wrap(frames.get(1));
+        second.get();
+        assertEquals(1, second.getShort());
+        assertEquals(BinaryStateCodec.MAX_COUNT, second.getInt());
+    }
+
+    @Test
+    void shouldRejectMoreUpdatesThanOneFrameHolds() {
+        // Given
+        List<MachineStateUpdate> updates = Collections.nCopies(BinaryStateCodec.MAX_COUNT + 1,
+                MachineStateUpdate.builder().machineId("M1").build());
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(updates));
+    }
+
+    @Test
+    void shouldRejectMachineIdLongerThanU16Length() {
+        // Given
+        MachineStateUpdate update = MachineStateUpdate.builder().machineId("M".repeat(0x10000)).build();
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(update));
+        assertEquals(0, codec.getDictionary().size());
+    }
+
+    @Test
+    void shouldLeaveOtherMessagesToJson() {
+        // When
+        byte[] frame = codec.encode(Map.of("type", "SUBSCRIBED"));
+
+        // Then
+        assertNull(frame);
+    }
+}
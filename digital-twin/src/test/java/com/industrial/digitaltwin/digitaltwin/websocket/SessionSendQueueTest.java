@@ -0,0 +1,127 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionSendQueueTest {
+
+    private WebSocketSession session;
+    private WebSocketBroadcastEngine engine;
+    private final List<Runnable> pendingWrites = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getId()).thenReturn("session-1");
+        engine = mock(WebSocketBroadcastEngine.class);
+    }
+
+    @Test
+    void shouldDropOldestFrameWhenFull() throws Exception {
+        // Given
+        SessionSendQueue queue = queue(SlowConsumerPolicy.DROP_OLDEST);
+
+        // When
+        queue.offer("M1", new TextMessage("1"));
+        queue.offer("M2", new TextMessage("2"));
+        queue.offer("M3", new TextMessage("3"));
+        runPendingWrites();
+
+        // Then
+        verify(engine).recordDropped(1);
+        verify(session, never()).sendMessage(new TextMessage("1"));
+        verify(session).sendMessage(new TextMessage("2"));
+        verify(session).sendMessage(new TextMessage("3"));
+    }
+
+    @Test
+    void shouldConflateFramesForSameMachine() throws Exception {
+        // Given
+        SessionSendQueue queue = queue(SlowConsumerPolicy.CONFLATE);
+
+        // When
+        queue.offer("M1", new TextMessage("old"));
+        queue.offer("M1", new TextMessage("new"));
+
+        // Then
+        assertEquals(1, queue.size());
+        runPendingWrites();
+        verify(session).sendMessage(new TextMessage("new"));
+        verify(session, never()).sendMessage(new TextMessage("old"));
+    }
+
+    @Test
+    void shouldDisconnectWhenFullUnderDisconnectPolicy() throws Exception {
+        // Given
+        SessionSendQueue queue = queue(SlowConsumerPolicy.DISCONNECT);
+        queue.offer("M1", new TextMessage("1"));
+        queue.offer("M2", new TextMessage("2"));
+
+        // When
+        boolean accepted = queue.offer("M3", new TextMessage("3"));
+        runPendingWrites();
+
+        // Then
+        assertFalse(accepted);
+        assertTrue(queue.isClosed());
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void shouldNeverDropPinnedFrames() throws Exception {
+        // Given
+        SessionSendQueue queue = queue(SlowConsumerPolicy.DROP_OLDEST);
+        queue.offerPinned(new TextMessage("dictionary"));
+        queue.offer("M1", new TextMessage("1"));
+
+        // When
+        queue.offer("M2", new TextMessage("2"));
+        runPendingWrites();
+
+        // Then - the oldest ordinary frame made room instead
+        verify(session).sendMessage(new TextMessage("dictionary"));
+        verify(session, never()).sendMessage(new TextMessage("1"));
+        verify(session).sendMessage(new TextMessage("2"));
+    }
+
+    @Test
+    void shouldNotConflateAcrossPinnedFrame() throws Exception {
+        // Given
+        SessionSendQueue queue = queue(SlowConsumerPolicy.CONFLATE);
+        queue.offer("M1", new TextMessage("old"));
+        queue.offerPinned(new TextMessage("dictionary"));
+
+        // When
+        queue.offer("M1", new TextMessage("new"));
+        runPendingWrites();
+
+        // Then - the newer frame may use codes from the pinned one, so it is sent after it
+        InOrder inOrder = inOrder(session);
+        inOrder.verify(session).sendMessage(new TextMessage("dictionary"));
+        inOrder.verify(session).sendMessage(new TextMessage("new"));
+        verify(session, never()).sendMessage(new TextMessage("old"));
+    }
+
+    private SessionSendQueue queue(SlowConsumerPolicy policy) {
+        // Writes are held back until runPendingWrites, which makes the session look slow
+        return new SessionSendQueue(session, 2, policy, pendingWrites::add, engine);
+    }
+
+    private void runPendingWrites() {
+        while (!pendingWrites.isEmpty()) {
+            pendingWrites.remove(0).run();
+        }
+    }
+}
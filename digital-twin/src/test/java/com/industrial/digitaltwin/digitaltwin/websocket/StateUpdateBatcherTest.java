@@ -0,0 +1,124 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StateUpdateBatcherTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private SessionSendQueue queue;
+    private WebSocketBroadcastEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        queue = mock(SessionSendQueue.class);
+        when(queue.getSession()).thenReturn(mock(WebSocketSession.class));
+        when(queue.getFormat()).thenReturn(WireFormat.JSON);
+        when(queue.offer(any(), any())).thenReturn(true);
+        engine = mock(WebSocketBroadcastEngine.class);
+        when(engine.encode(any(), eq(WireFormat.JSON))).thenAnswer(invocation ->
+                new TextMessage(objectMapper.writeValueAsBytes(invocation.getArgument(0))));
+    }
+
+    @Test
+    void shouldSendLatestUpdatePerMachineAsOneArrayFrame() throws Exception {
+        // Given
+        StateUpdateBatcher batcher = new StateUpdateBatcher(queue, engine, 2);
+        batcher.add(update("M1", MachineStatus.NORMAL));
+        batcher.add(update("M2", MachineStatus.NORMAL));
+        batcher.add(update("M1", MachineStatus.WARNING));
+
+        // When
+        batcher.flush();
+
+        // Then
+        ArgumentCaptor<TextMessage> frame = ArgumentCaptor.forClass(TextMessage.class);
+        verify(queue).offer(isNull(), frame.capture());
+        MachineStateUpdate[] sent = objectMapper.readValue(frame.getValue().getPayload(), MachineStateUpdate[].class);
+        assertEquals(2, sent.length);
+        assertEquals("M1", sent[0].getMachineId());
+        assertEquals(MachineStatus.WARNING, sent[0].getStatus());
+        assertEquals("M2", sent[1].getMachineId());
+        verify(engine).recordConflated();
+    }
+
+    @Test
+    void shouldSkipTickWhenNothingChanged() throws Exception {
+        // Given
+        StateUpdateBatcher batcher = new StateUpdateBatcher(queue, engine, 2);
+        batcher.add(update("M1", MachineStatus.NORMAL));
+        batcher.flush();
+
+        // When
+        batcher.flush();
+
+        // Then
+        verify(queue, times(1)).offer(isNull(), any());
+        verify(engine, times(1)).encode(any(Collection.class), eq(WireFormat.JSON));
+    }
+
+    @Test
+    void shouldNotOverlapFlushes() throws Exception {
+        // Given - the tick's flush is stuck encoding M1
+        StateUpdateBatcher batcher = new StateUpdateBatcher(queue, engine, 2);
+        CountDownLatch encoding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger encodes = new AtomicInteger();
+        when(engine.encode(any(), eq(WireFormat.JSON))).thenAnswer(invocation -> {
+            if (encodes.getAndIncrement() == 0) {
+                encoding.countDown();
+                release.await();
+            }
+            return new TextMessage(objectMapper.writeValueAsBytes(invocation.getArgument(0)));
+        });
+        batcher.add(update("M1", MachineStatus.NORMAL));
+        Thread tick = new Thread(batcher::flush);
+        tick.start();
+        assertTrue(encoding.await(5, TimeUnit.SECONDS));
+
+        // When - a final flush from a rate change arrives meanwhile
+        batcher.add(update("M2", MachineStatus.NORMAL));
+        Thread finalFlush = new Thread(batcher::flush);
+        finalFlush.start();
+        finalFlush.join(200);
+        boolean waited = finalFlush.isAlive();
+        release.countDown();
+        tick.join();
+        finalFlush.join();
+
+        // Then - it waited for the running flush, and each update went out exactly once
+        assertTrue(waited);
+        ArgumentCaptor<TextMessage> frames = ArgumentCaptor.forClass(TextMessage.class);
+        verify(queue, times(2)).offer(isNull(), frames.capture());
+        MachineStateUpdate[] first = objectMapper.readValue(frames.getAllValues().get(0).getPayload(), MachineStateUpdate[].class);
+        MachineStateUpdate[] second = objectMapper.readValue(frames.getAllValues().get(1).getPayload(), MachineStateUpdate[].class);
+        assertEquals(1, first.length);
+        assertEquals("M1", first[0].getMachineId());
+        assertEquals(1, second.length);
+        assertEquals("M2", second[0].getMachineId());
+    }
+
+    private MachineStateUpdate update(String machineId, MachineStatus status) {
+        return MachineStateUpdate.builder()
+                .machineId(machineId)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStatus;
+import com.industrial.digitaltwin.digitaltwin.model.SubscriptionRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SubscriptionIndexTest {
+
+    private SubscriptionIndex index;
+    private SessionSendQueue wallboard;
+    private SessionSendQueue lineScreen;
+    private SessionSendQueue anomalyFeed;
+
+    @BeforeEach
+    void setUp() {
+        index = new SubscriptionIndex();
+        wallboard = mock(SessionSendQueue.class);
+        lineScreen = mock(SessionSendQueue.class);
+        anomalyFeed = mock(SessionSendQueue.class);
+
+        index.subscribe(wallboard, Subscription.ALL);
+        index.subscribe(lineScreen, Subscription.from(SubscriptionRequest.builder()
+                .machineIds(Set.of("PUMP_001", "PUMP_002"))
+                .build()));
+        index.subscribe(anomalyFeed, Subscription.from(SubscriptionRequest.builder()
+                .statuses(Set.of(MachineStatus.CRITICAL, MachineStatus.ERROR))
+                .anomaliesOnly(true)
+                .build()));
+    }
+
+    @Test
+    void shouldRouteByMachineIdAndFilters() {
+        // When
+        List<SessionSendQueue> normalPump = index.targetsFor(update("PUMP_001", MachineStatus.NORMAL, false));
+        List<SessionSendQueue> criticalMotor = index.targetsFor(update("MOTOR_001", MachineStatus.CRITICAL, true));
+
+        // Then
+        assertEquals(Set.of(wallboard, lineScreen), Set.copyOf(normalPump));
+        assertEquals(Set.of(wallboard, anomalyFeed), Set.copyOf(criticalMotor));
+    }
+
+    @Test
+    void shouldReplaceSubscriptionAndRemoveSessions() {
+        // Given
+        index.subscribe(lineScreen, Subscription.from(SubscriptionRequest.builder()
+                .machineIds(Set.of("MOTOR_001"))
+                .build()));
+        index.remove(wallboard);
+
+        // When
+        List<SessionSendQueue> pump = index.targetsFor(update("PUMP_001", MachineStatus.NORMAL, false));
+        List<SessionSendQueue> motor = index.targetsFor(update("MOTOR_001", MachineStatus.NORMAL, false));
+
+        // Then
+        assertTrue(pump.isEmpty());
+        assertEquals(List.of(lineScreen), motor);
+    }
+
+    private MachineStateUpdate update(String machineId, MachineStatus status, boolean anomaly) {
+        return MachineStateUpdate.builder()
+                .machineId(machineId)
+                .status(status)
+                .isAnomalyDetected(anomaly)
+                .machineType("industrial-machine")
+                .build();
+    }
+}
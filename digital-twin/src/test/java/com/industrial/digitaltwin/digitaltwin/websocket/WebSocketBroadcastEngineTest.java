@@ -0,0 +1,86 @@
+package com.industrial.digitaltwin.digitaltwin.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.industrial.digitaltwin.digitaltwin.config.StateStoreConfig;
+import com.industrial.digitaltwin.digitaltwin.model.MachineStateUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WebSocketBroadcastEngineTest {
+
+    private WebSocketBroadcastEngine engine;
+    private final Map<WebSocketSession, List<byte[]>> received = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        engine = new WebSocketBroadcastEngine();
+        ReflectionTestUtils.setField(engine, "config", new StateStoreConfig());
+        ReflectionTestUtils.setField(engine, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(engine, "meterRegistry", new SimpleMeterRegistry());
+        engine.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void shouldSendFullBinaryFrameToEverySession() throws Exception {
+        // Given - three binary sessions whose sends consume the payload, as a container does
+        List<WebSocketSession> sessions = new ArrayList<>();
+        List<SessionSendQueue> queues = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            WebSocketSession session = binarySession("session-" + i);
+            sessions.add(session);
+            queues.add(engine.open(session));
+        }
+
+        // When
+        engine.broadcast(MachineStateUpdate.builder().machineId("M1").build(), "M1", queues);
+
+        // Then - empty dictionary on open, the delta with M1, then the update, all intact
+        for (WebSocketSession session : sessions) {
+            verify(session, timeout(5000).times(3)).sendMessage(any());
+            List<byte[]> frames = received.get(session);
+            assertEquals(BinaryStateCodec.DICTIONARY, frames.get(1)[0]);
+            assertEquals(1, ByteBuffer.wrap(frames.get(1)).getShort(1));
+            assertEquals(3 + BinaryStateCodec.RECORD_BYTES, frames.get(2).length);
+            assertEquals(BinaryStateCodec.STATE_UPDATES, frames.get(2)[0]);
+        }
+    }
+
+    private WebSocketSession binarySession(String id) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/ws/digital-twin?format=binary"));
+        List<byte[]> frames = new CopyOnWriteArrayList<>();
+        received.put(session, frames);
+        doAnswer(invocation -> {
+            ByteBuffer payload = ((BinaryMessage) invocation.getArgument(0)).getPayload();
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            frames.add(bytes);
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+}